@@ -0,0 +1,217 @@
+package warehousesystem;
+
+import java.util.ArrayList;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.logging.Handler;
+import java.util.logging.Level;
+import java.util.logging.LogRecord;
+
+public class AsyncLogHandler extends Handler {
+
+  /** What publish does with a record when the queue is full. */
+  public enum OverflowPolicy {
+    /** Wait until the writer has made room, so that no record is lost. */
+    BLOCK,
+    /** Drop the record. */
+    DROP,
+    /** Wait for room for one in every sampleRate records and drop the others. */
+    SAMPLE
+  }
+
+  /** The greatest number of records the writer passes to the handlers at a time. */
+  private static final int WRITE_BATCH = 256;
+  /** The time in milliseconds the writer waits for a record before checking if it is closed. */
+  private static final long POLL_INTERVAL = 100;
+
+  /** The records waiting to be written, oldest first. */
+  private final ArrayBlockingQueue<LogRecord> queue;
+  /** The handlers the records are written to. */
+  private final Handler[] targets;
+  /** What publish does with a record when the queue is full. */
+  private final OverflowPolicy policy;
+  /** With the SAMPLE policy, one in this many records that find the queue full is kept. */
+  private final int sampleRate;
+  /** The thread that writes the records. */
+  private final Thread writer;
+  /** The number of records put in the queue. */
+  private final AtomicLong queued = new AtomicLong();
+  /** The number of records written to the handlers. */
+  private final AtomicLong written = new AtomicLong();
+  /** The number of records that found the queue full. */
+  private final AtomicLong overflowed = new AtomicLong();
+  /** The number of records dropped because the queue was full. */
+  private final AtomicLong dropped = new AtomicLong();
+  /** The number of dropped records that have already been reported in the log. */
+  private long reportedDropped;
+  /** The lock flush waits on until the writer has caught up. */
+  private final Object progress = new Object();
+  /** Whether close has been called. */
+  private volatile boolean closed;
+
+  /**
+   * Initialize a new AsyncLogHandler that writes records to the handlers on a background thread,
+   * in the order they were published. Each target keeps its own level and formatter.
+   *
+   * @param capacity The greatest number of records waiting to be written.
+   * @param policy What to do with a record when capacity records are waiting.
+   * @param sampleRate With the SAMPLE policy, one in this many records that find the queue full is
+   *        kept.
+   * @param targets The handlers to write the records to.
+   */
+  public AsyncLogHandler(int capacity, OverflowPolicy policy, int sampleRate, Handler... targets) {
+    this.queue = new ArrayBlockingQueue<>(capacity);
+    this.policy = policy;
+    this.sampleRate = Math.max(1, sampleRate);
+    this.targets = targets.clone();
+    setLevel(Level.ALL);
+    writer = new Thread("Warehouse Log Writer") {
+      @Override
+      public void run() {
+        writeRecords();
+      }
+    };
+    writer.setDaemon(true);
+    writer.start();
+  }
+
+  /**
+   * Queue the record to be written, unless this handler is closed or the record is below its
+   * level. When the queue is full, the overflow policy decides if publish waits for room or drops
+   * the record.
+   *
+   * @param record The record to write.
+   */
+  @Override
+  public void publish(LogRecord record) {
+    if (closed || !isLoggable(record)) {
+      return;
+    }
+    if (queue.offer(record)) {
+      queued.incrementAndGet();
+      return;
+    }
+    long overflow = overflowed.getAndIncrement();
+    if (policy == OverflowPolicy.DROP
+        || (policy == OverflowPolicy.SAMPLE && overflow % sampleRate != sampleRate - 1)) {
+      dropped.incrementAndGet();
+      return;
+    }
+    try {
+      queue.put(record);
+      queued.incrementAndGet();
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      dropped.incrementAndGet();
+    }
+  }
+
+  /**
+   * Write the queued records to the handlers until this handler is closed and the queue is empty.
+   */
+  private void writeRecords() {
+    ArrayList<LogRecord> batch = new ArrayList<>(WRITE_BATCH);
+    while (!closed || !queue.isEmpty()) {
+      try {
+        LogRecord record = queue.poll(POLL_INTERVAL, TimeUnit.MILLISECONDS);
+        if (record == null) {
+          continue;
+        }
+        batch.add(record);
+      } catch (InterruptedException e) {
+        continue;
+      }
+      queue.drainTo(batch, WRITE_BATCH - 1);
+      for (LogRecord record : batch) {
+        for (Handler target : targets) {
+          target.publish(record);
+        }
+      }
+      written.addAndGet(batch.size());
+      batch.clear();
+      synchronized (progress) {
+        progress.notifyAll();
+      }
+    }
+  }
+
+  /**
+   * Wait until every record queued before this call has been written, report the number of
+   * records dropped since the last report if there were any, then flush the handlers.
+   */
+  @Override
+  public void flush() {
+    long target = queued.get();
+    synchronized (progress) {
+      while (written.get() < target && writer.isAlive()) {
+        try {
+          progress.wait(POLL_INTERVAL);
+        } catch (InterruptedException e) {
+          Thread.currentThread().interrupt();
+          break;
+        }
+      }
+    }
+    reportDropped();
+    for (Handler handler : targets) {
+      handler.flush();
+    }
+  }
+
+  /**
+   * Write a warning with the number of records dropped since the last report straight to the
+   * handlers, if any records were dropped.
+   */
+  private synchronized void reportDropped() {
+    long count = dropped.get() - reportedDropped;
+    if (count > 0) {
+      reportedDropped += count;
+      LogRecord record = new LogRecord(Level.WARNING,
+          "SYSTEM: Logging dropped " + count + " records because its queue was full");
+      for (Handler handler : targets) {
+        handler.publish(record);
+      }
+    }
+  }
+
+  /**
+   * Stop accepting records, write the records still queued, report the number of dropped records
+   * since the last report if there were any, and close the handlers.
+   */
+  @Override
+  public void close() {
+    if (closed) {
+      return;
+    }
+    closed = true;
+    try {
+      writer.join();
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+    reportDropped();
+    for (Handler handler : targets) {
+      handler.close();
+    }
+  }
+
+  /**
+   * Return the number of records dropped because the queue was full.
+   *
+   * @return The number of dropped records.
+   */
+  public long getDroppedCount() {
+    return dropped.get();
+  }
+
+  /**
+   * Return the number of records waiting to be written.
+   *
+   * @return The size of the queue.
+   */
+  public int getQueuedCount() {
+    return queue.size();
+  }
+
+}
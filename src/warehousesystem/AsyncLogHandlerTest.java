@@ -0,0 +1,127 @@
+package warehousesystem;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.logging.Handler;
+import java.util.logging.Level;
+import java.util.logging.LogRecord;
+
+import org.junit.Test;
+
+public class AsyncLogHandlerTest {
+
+  /** A handler that keeps the messages of the records published to it. */
+  private static class ListHandler extends Handler {
+
+    private final List<String> messages = Collections.synchronizedList(new ArrayList<String>());
+    private final CountDownLatch release;
+
+    /**
+     * Initialize a new ListHandler whose publish waits until release is counted down.
+     * 
+     * @param release The latch publish waits for.
+     */
+    ListHandler(CountDownLatch release) {
+      this.release = release;
+    }
+
+    @Override
+    public void publish(LogRecord record) {
+      try {
+        release.await();
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+      }
+      messages.add(record.getMessage());
+    }
+
+    @Override
+    public void flush() {}
+
+    @Override
+    public void close() {}
+  }
+
+  @Test
+  public void testRecordsAreWrittenInOrder() {
+    ListHandler target = new ListHandler(new CountDownLatch(0));
+    AsyncLogHandler handler =
+        new AsyncLogHandler(4, AsyncLogHandler.OverflowPolicy.BLOCK, 1, target);
+    for (int i = 0; i < 100; i++) {
+      handler.publish(new LogRecord(Level.INFO, "record " + i));
+    }
+    handler.flush();
+    assertEquals(100, target.messages.size());
+    for (int i = 0; i < 100; i++) {
+      assertEquals("record " + i, target.messages.get(i));
+    }
+    assertEquals(0, handler.getDroppedCount());
+    handler.close();
+  }
+
+  @Test
+  public void testDropWhenFull() {
+    CountDownLatch release = new CountDownLatch(1);
+    ListHandler target = new ListHandler(release);
+    AsyncLogHandler handler =
+        new AsyncLogHandler(2, AsyncLogHandler.OverflowPolicy.DROP, 1, target);
+    for (int i = 0; i < 20; i++) {
+      handler.publish(new LogRecord(Level.INFO, "record " + i));
+    }
+    assertTrue(handler.getDroppedCount() > 0);
+    release.countDown();
+    handler.close();
+    assertEquals(20 - handler.getDroppedCount() + 1, target.messages.size());
+    String last = target.messages.get(target.messages.size() - 1);
+    assertTrue(last.startsWith("SYSTEM: Logging dropped"));
+  }
+
+  @Test
+  public void testSampleWhenFull() throws InterruptedException {
+    CountDownLatch release = new CountDownLatch(1);
+    ListHandler target = new ListHandler(release);
+    final AsyncLogHandler handler =
+        new AsyncLogHandler(1, AsyncLogHandler.OverflowPolicy.SAMPLE, 5, target);
+    // Let the writer take the first record and wait on it, then fill the queue.
+    handler.publish(new LogRecord(Level.INFO, "first"));
+    Thread.sleep(50);
+    handler.publish(new LogRecord(Level.INFO, "second"));
+    for (int i = 0; i < 4; i++) {
+      handler.publish(new LogRecord(Level.INFO, "overflow " + i));
+    }
+    assertEquals(4, handler.getDroppedCount());
+    // The fifth record that finds the queue full waits for room instead of being dropped.
+    Thread publisher = new Thread() {
+      @Override
+      public void run() {
+        handler.publish(new LogRecord(Level.INFO, "overflow 4"));
+      }
+    };
+    publisher.start();
+    Thread.sleep(50);
+    release.countDown();
+    publisher.join();
+    handler.close();
+    assertEquals(4, handler.getDroppedCount());
+    assertTrue(target.messages.contains("overflow 4"));
+  }
+
+  @Test
+  public void testLevel() {
+    ListHandler target = new ListHandler(new CountDownLatch(0));
+    AsyncLogHandler handler =
+        new AsyncLogHandler(4, AsyncLogHandler.OverflowPolicy.BLOCK, 1, target);
+    handler.setLevel(Level.WARNING);
+    handler.publish(new LogRecord(Level.INFO, "info"));
+    handler.publish(new LogRecord(Level.WARNING, "warning"));
+    handler.close();
+    assertEquals(1, target.messages.size());
+    assertEquals("warning", target.messages.get(0));
+  }
+
+}
@@ -1,8 +1,12 @@
 package warehousesystem;
 
+import java.io.Serializable;
 import java.util.ArrayList;
 
-public abstract class BarcodeReader {
+public abstract class BarcodeReader implements Serializable {
+
+  /** The version of the serialized form of this class, which is kept in snapshots. */
+  private static final long serialVersionUID = 1L;
 
   /** The the user's name of this BarcodeReader. */
   protected String user;
@@ -10,8 +14,10 @@ public abstract class BarcodeReader {
   protected PickingRequest pr;
   /** The ArrayList of the skus' that this BarcodeReader has already scanned. */
   protected ArrayList<String> scannedSku = new ArrayList<>();
-  /** The Warehouse System that this BarcodeReader is in. */
-  protected WarehouseSystem whSystem;
+  /** The Warehouse System that this BarcodeReader is in. It is not kept in snapshots. */
+  protected transient WarehouseSystem whSystem;
+  /** The last instruction sent to the user of this BarcodeReader, or null. */
+  protected ScannerInstruction lastInstruction;
 
   /**
    * Initialize a new BarcodeReader with the user's name and the picking request that the user
@@ -36,6 +42,15 @@ public abstract class BarcodeReader {
     return user;
   }
 
+  /**
+   * Set the warehouse system this BarcodeReader is in, after it is restored from a snapshot.
+   * 
+   * @param whSystem The warehouse system.
+   */
+  public void setWarehouseSystem(WarehouseSystem whSystem) {
+    this.whSystem = whSystem;
+  }
+
   /**
    * Return The picking request for the user of this BarcodeReader to deal with.
    * 
@@ -61,6 +76,49 @@ public abstract class BarcodeReader {
     }
   }
 
+  /**
+   * Return the last instruction sent to the user of this BarcodeReader.
+   * 
+   * @return lastInstruction, or null if none has been sent.
+   */
+  public ScannerInstruction getLastInstruction() {
+    return lastInstruction;
+  }
+
+  /**
+   * Send an instruction to the user of this BarcodeReader, and pass it to the instruction listener
+   * of the warehouse system.
+   * 
+   * @param instruction The instruction.
+   */
+  public void instruct(ScannerInstruction instruction) {
+    lastInstruction = instruction;
+    whSystem.instruct(this, instruction);
+  }
+
+  /**
+   * Return the number of fascias the user of this BarcodeReader handles for the picking request,
+   * or for a full picking request if it has none.
+   * 
+   * @return The number of fascias.
+   */
+  protected int getFasciaCount() {
+    return pr == null ? BatchingPolicy.DEFAULT_SIZE * 2 : pr.getFasciaCount();
+  }
+
+  /**
+   * Return the number of fascias in words for the log, such as "eight", or in digits if it is
+   * more than twelve.
+   * 
+   * @param count The number of fascias.
+   * @return The number in words.
+   */
+  protected static String countWord(int count) {
+    String[] words = {"zero", "one", "two", "three", "four", "five", "six", "seven", "eight",
+        "nine", "ten", "eleven", "twelve"};
+    return count >= 0 && count < words.length ? words[count] : String.valueOf(count);
+  }
+
   /** Scan the sku number. */
   public abstract void scan(String sku);
 
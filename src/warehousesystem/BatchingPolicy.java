@@ -0,0 +1,139 @@
+package warehousesystem;
+
+import java.io.Serializable;
+import java.util.Objects;
+
+public class BatchingPolicy implements Serializable {
+
+  /** The version of the serialized form of this class, which is kept in snapshots. */
+  private static final long serialVersionUID = 1L;
+
+  /** The number of orders in a full picking request, unless it is configured. */
+  public static final int DEFAULT_SIZE = 4;
+  /** The longest wait in milliseconds of a policy with a window, unless it is configured. */
+  public static final long DEFAULT_WINDOW_WAIT = 100;
+  /** The policy the system starts with: full requests of four orders, however long they take. */
+  public static final BatchingPolicy DEFAULT = new BatchingPolicy(DEFAULT_SIZE, 0, false);
+
+  /** The number of orders in a full picking request. */
+  private final int size;
+  /** The longest time in milliseconds an order may wait for a full request, or 0 for no limit. */
+  private final long maxWaitMillis;
+  /** Whether the pending orders are sent as a partial request when a picker has no work. */
+  private final boolean flushWhenIdle;
+  /** The number of pending orders a full picking request is chosen from, at least size. */
+  private final int window;
+
+  /**
+   * Initialize a new BatchingPolicy, which decides when the orders received by the OrderManager
+   * become a picking request. A picking request is made as soon as size orders are pending. If the
+   * oldest pending order has waited for maxWaitMillis, the pending orders are sent as a partial
+   * request by the OrderBatchScheduler, so that a trickle of orders is not held back for good. If
+   * flushWhenIdle is true, the pending orders are also sent as a partial request whenever a picker
+   * would otherwise wait for work. Under load, pickers are busy and requests stay full.
+   *
+   * @param size The number of orders in a full picking request, at least one.
+   * @param maxWaitMillis The longest time in milliseconds an order may wait for a full request, or
+   *        0 for no limit.
+   * @param flushWhenIdle Whether to send a partial request when a picker has no work.
+   */
+  public BatchingPolicy(int size, long maxWaitMillis, boolean flushWhenIdle) {
+    this(size, maxWaitMillis, flushWhenIdle, size);
+  }
+
+  /**
+   * Initialize a new BatchingPolicy like the one above, except that the pending orders are held
+   * until window of them are pending, and each picking request is made of the orders of the window
+   * that an OrderGrouper picks together best. A window of size or less takes the orders in the
+   * order they arrive. Since orders wait for the window to fill, a window larger than size always
+   * has a longest wait, DEFAULT_WINDOW_WAIT if none is given, so the last orders of a wave are
+   * picked.
+   *
+   * @param size The number of orders in a full picking request, at least one.
+   * @param maxWaitMillis The longest time in milliseconds an order may wait for a full request, or
+   *        0 for no limit, or for DEFAULT_WINDOW_WAIT if window is larger than size.
+   * @param flushWhenIdle Whether to send a partial request when a picker has no work.
+   * @param window The number of pending orders a picking request is chosen from.
+   */
+  public BatchingPolicy(int size, long maxWaitMillis, boolean flushWhenIdle, int window) {
+    this.size = Math.max(1, size);
+    this.flushWhenIdle = flushWhenIdle;
+    this.window = Math.max(this.size, window);
+    this.maxWaitMillis = maxWaitMillis <= 0 && this.window > this.size ? DEFAULT_WINDOW_WAIT
+        : Math.max(0, maxWaitMillis);
+  }
+
+  /**
+   * Return the number of orders in a full picking request.
+   *
+   * @return size
+   */
+  public int getSize() {
+    return size;
+  }
+
+  /**
+   * Return the longest time in milliseconds an order may wait for a full request.
+   *
+   * @return maxWaitMillis, or 0 if there is no limit.
+   */
+  public long getMaxWaitMillis() {
+    return maxWaitMillis;
+  }
+
+  /**
+   * Return whether the pending orders are sent as a partial request when a picker has no work.
+   *
+   * @return flushWhenIdle
+   */
+  public boolean isFlushWhenIdle() {
+    return flushWhenIdle;
+  }
+
+  /**
+   * Return the number of pending orders a full picking request is chosen from.
+   *
+   * @return window, which is size if the orders are taken in the order they arrive.
+   */
+  public int getWindow() {
+    return window;
+  }
+
+  /**
+   * Return true if and only if the object is a BatchingPolicy with the same settings.
+   *
+   * @param object The object to compare with.
+   * @return true iff the policies make the same picking requests.
+   */
+  @Override
+  public boolean equals(Object object) {
+    if (!(object instanceof BatchingPolicy)) {
+      return false;
+    }
+    BatchingPolicy other = (BatchingPolicy) object;
+    return size == other.size && maxWaitMillis == other.maxWaitMillis
+        && flushWhenIdle == other.flushWhenIdle && window == other.window;
+  }
+
+  /**
+   * Return a hash code of the settings of the policy.
+   *
+   * @return The hash code.
+   */
+  @Override
+  public int hashCode() {
+    return Objects.hash(size, maxWaitMillis, flushWhenIdle, window);
+  }
+
+  /**
+   * Return a short description of the policy, such as "size=4 wait=50ms idle window=16".
+   *
+   * @return The description of the policy.
+   */
+  @Override
+  public String toString() {
+    return "size=" + size + (maxWaitMillis > 0 ? " wait=" + maxWaitMillis + "ms" : "")
+        + (flushWhenIdle ? " idle" : "") + (window > size ? " window=" + window : "");
+  }
+
+}
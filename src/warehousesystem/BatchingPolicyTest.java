@@ -0,0 +1,46 @@
+package warehousesystem;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+public class BatchingPolicyTest {
+
+  @Test
+  public void testDefault() {
+    assertEquals(4, BatchingPolicy.DEFAULT.getSize());
+    assertEquals(0, BatchingPolicy.DEFAULT.getMaxWaitMillis());
+    assertFalse(BatchingPolicy.DEFAULT.isFlushWhenIdle());
+    assertEquals("size=4", BatchingPolicy.DEFAULT.toString());
+  }
+
+  @Test
+  public void testConfigured() {
+    BatchingPolicy policy = new BatchingPolicy(8, 50, true);
+    assertEquals(8, policy.getSize());
+    assertEquals(50, policy.getMaxWaitMillis());
+    assertTrue(policy.isFlushWhenIdle());
+    assertEquals("size=8 wait=50ms idle", policy.toString());
+  }
+
+  @Test
+  public void testOutOfRange() {
+    BatchingPolicy policy = new BatchingPolicy(0, -5, false);
+    assertEquals(1, policy.getSize());
+    assertEquals(0, policy.getMaxWaitMillis());
+  }
+
+  @Test
+  public void testWindow() {
+    assertEquals(4, BatchingPolicy.DEFAULT.getWindow());
+    assertEquals(3, new BatchingPolicy(3, 0, false, 2).getWindow());
+    BatchingPolicy policy = new BatchingPolicy(4, 0, false, 16);
+    assertEquals(16, policy.getWindow());
+    assertEquals(BatchingPolicy.DEFAULT_WINDOW_WAIT, policy.getMaxWaitMillis());
+    assertEquals("size=4 wait=100ms window=16", policy.toString());
+    assertEquals(30, new BatchingPolicy(4, 30, false, 16).getMaxWaitMillis());
+    assertEquals(0, new BatchingPolicy(4, 0, false, 4).getMaxWaitMillis());
+  }
+}
@@ -0,0 +1,56 @@
+package warehousesystem;
+
+import java.io.BufferedWriter;
+import java.io.FileWriter;
+import java.io.IOException;
+
+public class CsvOrderSink implements OrderSink {
+
+  /** The writer of the order file. */
+  private BufferedWriter bw;
+
+  /**
+   * Initialize a new CsvOrderSink that appends the orders of each loaded picking request to the
+   * file with filePath as soon as it is loaded.
+   * 
+   * @param filePath The file path of the order file, such as "order.csv".
+   * @throws IOException for FileWriter
+   */
+  public CsvOrderSink(String filePath) throws IOException {
+    bw = new BufferedWriter(new FileWriter(filePath, true));
+  }
+
+  /**
+   * Append one line for each order of the picking request to the order file.
+   * 
+   * @param pr The loaded picking request.
+   * @throws IOException for BufferedWriter
+   */
+  @Override
+  public void accept(PickingRequest pr) throws IOException {
+    for (Order order : pr.getOrders()) {
+      bw.write(order.toString() + "\r\n");
+    }
+  }
+
+  /**
+   * Write the buffered lines to the order file.
+   * 
+   * @throws IOException for BufferedWriter
+   */
+  @Override
+  public void flush() throws IOException {
+    bw.flush();
+  }
+
+  /**
+   * Flush the order file and close it.
+   * 
+   * @throws IOException for BufferedWriter
+   */
+  @Override
+  public void close() throws IOException {
+    bw.close();
+  }
+
+}
@@ -0,0 +1,30 @@
+package warehousesystem;
+
+import static org.junit.Assert.assertEquals;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+
+import org.junit.Test;
+
+public class CsvOrderSinkTest {
+
+  @Test
+  public void testAccept() throws IOException {
+    File file = File.createTempFile("order", ".csv");
+    file.deleteOnExit();
+    Order o1 = new Order("Blue", "SES", "37", "38");
+    Order o2 = new Order("Beige", "S", "9", "10");
+    ArrayList<Order> orders = new ArrayList<>(Arrays.asList(o1, o2));
+    CsvOrderSink sink = new CsvOrderSink(file.getPath());
+    sink.accept(new PickingRequest(orders));
+    sink.close();
+    ArrayList<String> lines = new CsvTools().readFile(file.getPath());
+    assertEquals(2, lines.size());
+    assertEquals(o1.toString(), lines.get(0));
+    assertEquals(o2.toString(), lines.get(1));
+  }
+
+}
@@ -21,6 +21,8 @@ public class CsvTools {
   private HashMap<String, String> locationToSku = new HashMap<>();
   /** A mapping of String (color and model) to Integer[] (sku). */
   private HashMap<String, String[]> translations = new HashMap<>();
+  /** A mapping of String (sku) to int[] (reorder point and quantity). */
+  private HashMap<String, int[]> replenishment = new HashMap<>();
 
   /**
    * Initialize a new CsvTools. Read traversal_table.csv, initial.csv, and translation.csv to set up
@@ -30,11 +32,27 @@ public class CsvTools {
    * @throws IOException For readFile.
    */
   public CsvTools() throws IOException {
+    this(true);
+  }
+
+  /**
+   * Initialize a new CsvTools. Read traversal_table.csv, initial.csv, translation.csv and
+   * replenishment.csv to set up HashMap of inventory, skuToLoction, locationToSku, translations
+   * and replenishment. Reset order.csv and final.csv only if resetOutput is true, so that a
+   * restored system can keep its output.
+   * 
+   * @param resetOutput Whether to reset order.csv and final.csv.
+   * @throws IOException For readFile.
+   */
+  public CsvTools(boolean resetOutput) throws IOException {
     readTraversal("traversal_table.csv");
     updateInventory("initial.csv");
     readTranslation("translation.csv");
-    resetFile("order.csv");
-    resetFile("final.csv");
+    readReplenishment("replenishment.csv");
+    if (resetOutput) {
+      resetFile("order.csv");
+      resetFile("final.csv");
+    }
   }
 
   /**
@@ -46,6 +64,15 @@ public class CsvTools {
     return inventory;
   }
 
+  /**
+   * Return the reorder point and quantity of each sku in replenishment.csv.
+   * 
+   * @return replenishment
+   */
+  public HashMap<String, int[]> getReplenishment() {
+    return replenishment;
+  }
+
   /**
    * Return the skuToLoctaion of this CsvTools.
    * 
@@ -115,19 +142,20 @@ public class CsvTools {
   }
 
   /**
-   * Read the traversal_table.csv to initial the skuToLocation, locaitonToSku and inventory maps.
+   * Read the traversal_table.csv to initial the skuToLocation, locaitonToSku and inventory maps. The
+   * table is shared with WarehousePicking, so the file is only read once.
    * 
    * @param filePath The file path that need to be read.
    * @throws IOException for readFile
    */
   public void readTraversal(String filePath) throws IOException {
-    ArrayList<String> lines = readFile(filePath);
-    for (String line : lines) {
-      String[] lineContent = line.split(",", 5);
-      String location = line.substring(0, 7);
-      String sku = lineContent[4];
-      skuToLocation.put(sku, location);
-      locationToSku.put(location, sku);
+    if (!new File(filePath).exists()) {
+      return;
+    }
+    TraversalTable table = TraversalTable.getTable(filePath);
+    skuToLocation.putAll(table.getSkuToLocation());
+    locationToSku.putAll(table.getLocationToSku());
+    for (String sku : table.getSkus()) {
       inventory.put(sku, 30);
     }
   }
@@ -157,6 +185,39 @@ public class CsvTools {
     return flag;
   }
 
+  /**
+   * Return true if and only if replenishment.csv exist and read it to set up the replenishment
+   * map. Each line has the location of a level like initial.csv, then the reorder point and the
+   * quantity of its sku. Both must be positive, and together no more than LEVEL_CAPACITY.
+   * 
+   * @param filePath The file path that need to be read.
+   * @return return true iff replenishment.csv exist.
+   * @throws IOException for readFile, or if a reorder point or quantity is not valid
+   */
+  public boolean readReplenishment(String filePath) throws IOException {
+    boolean flag = false;
+    File file = new File(filePath);
+    if (file.exists()) {
+      flag = true;
+      ArrayList<String> lines = readFile(filePath);
+      for (String line : lines) {
+        String[] lineContent = line.split(",", 6);
+        String location = line.substring(0, 7);
+        int reorderPoint = Integer.parseInt(lineContent[4].trim());
+        int quantity = Integer.parseInt(lineContent[5].trim());
+        if (reorderPoint < 1 || quantity < 1
+            || reorderPoint + quantity > ReplenishmentPolicy.LEVEL_CAPACITY) {
+          throw new IOException(filePath + ": reorder point " + reorderPoint + " and quantity "
+              + quantity + " of " + location + " must be positive and fit on a level of "
+              + ReplenishmentPolicy.LEVEL_CAPACITY);
+        }
+        String targetedSku = locationToSku.get(location);
+        replenishment.put(targetedSku, new int[] {reorderPoint, quantity});
+      }
+    }
+    return flag;
+  }
+
   /**
    * Read the translation.csv to initial the translations map.
    * 
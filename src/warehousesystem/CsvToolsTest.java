@@ -1,6 +1,8 @@
 package warehousesystem;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
 
 import java.io.BufferedWriter;
 import java.io.File;
@@ -100,6 +102,42 @@ public class CsvToolsTest {
     assertEquals(false, csvTestor.updateInventory("NotExist.txt"));
   }
 
+  @Test
+  public void testReadReplenishment() throws IOException {
+    File file = File.createTempFile("replenishment", ".csv");
+    file.deleteOnExit();
+    BufferedWriter bw = new BufferedWriter(new FileWriter(file));
+    bw.write("A,0,0,0,10,20\r\nB,1,2,3,2,8\r\n");
+    bw.close();
+    CsvTools csvTestor = new CsvTools();
+    assertEquals(true, csvTestor.readReplenishment(file.getPath()));
+    assertEquals(10, csvTestor.getReplenishment().get("1")[0]);
+    assertEquals(20, csvTestor.getReplenishment().get("1")[1]);
+    assertEquals(2, csvTestor.getReplenishment().get("48")[0]);
+    assertEquals(8, csvTestor.getReplenishment().get("48")[1]);
+    assertEquals(false, csvTestor.readReplenishment("NotExist.txt"));
+  }
+
+  @Test
+  public void testReadInvalidReplenishment() throws IOException {
+    String[] lines = {"A,0,0,0,0,20", "A,0,0,0,5,-1", "A,0,0,0,10,25"};
+    CsvTools csvTestor = new CsvTools();
+    for (String line : lines) {
+      File file = File.createTempFile("replenishment", ".csv");
+      file.deleteOnExit();
+      BufferedWriter bw = new BufferedWriter(new FileWriter(file));
+      bw.write(line + "\r\n");
+      bw.close();
+      try {
+        csvTestor.readReplenishment(file.getPath());
+        fail(line);
+      } catch (IOException e) {
+        assertTrue(e.getMessage(), e.getMessage().contains("A,0,0,0"));
+      }
+    }
+    assertTrue(csvTestor.getReplenishment().isEmpty());
+  }
+
 
   @Test
   public void testReadTranslation() throws IOException {
@@ -1,39 +1,58 @@
 package warehousesystem;
 
-import java.text.DateFormat;
-import java.text.SimpleDateFormat;
-import java.util.Date;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
 import java.util.logging.Formatter;
+import java.util.logging.Level;
 import java.util.logging.LogRecord;
 
 public class CustomFormatter extends Formatter {
-  private static final DateFormat df = new SimpleDateFormat("dd/MM/yyyy HH:mm:ss:SSS");
-  private static long initialTime = System.nanoTime();
 
+  /** The format of the date in the header of the log. */
+  private static final DateTimeFormatter DATE_FORMAT =
+      DateTimeFormatter.ofPattern("dd/MM/yyyy HH:mm:ss:SSS").withZone(ZoneId.systemDefault());
+  /** The runtime in nanoseconds below which an extra space is added to line up the columns. */
+  private static final long SHORT_RUNTIME = 10000000;
+  /** The time in nanoseconds the runtime of each record is measured from. */
+  private static final long initialTime = System.nanoTime();
+  /** The buffer each thread builds its records in, which is reused for every record. */
+  private static final ThreadLocal<StringBuilder> buffer =
+      ThreadLocal.withInitial(() -> new StringBuilder(256));
+
+  /**
+   * Format the record as one line of the log, preceded by the header of the log if it is the first
+   * record. The runtime is read once per record. This method may be called from many threads at
+   * once.
+   *
+   * @param record The record to format.
+   * @return The formatted record.
+   */
   @Override
   public String format(LogRecord record) {
-    StringBuilder output = new StringBuilder();
-    if (record.getSequenceNumber() == 0) {
+    long runtime = System.nanoTime() - initialTime;
+    long sequenceNumber = record.getSequenceNumber();
+    StringBuilder output = buffer.get();
+    output.setLength(0);
+    if (sequenceNumber == 0) {
       output.append("\n\t\t[Warehouse Log Records\t");
-      output.append(df.format(new Date(record.getMillis())));
-      output.append("]\n\n[Runtime: ");
-      output.append(System.nanoTime() - initialTime + "ns");
-      output.append("   Log Number: " + (record.getSequenceNumber() + 1));
-      output.append("  Type: " + record.getLevel() + "]\t");
+      DATE_FORMAT.formatTo(Instant.ofEpochMilli(record.getMillis()), output);
+      output.append("]\n\n[Runtime: ").append(runtime).append("ns");
+      output.append("   Log Number: ").append(sequenceNumber + 1);
+      output.append("  Type: ").append(record.getLevel().getName()).append("]\t");
     } else {
-      output.append("[Runtime: ");
-      output.append(System.nanoTime() - initialTime + "ns");
-      if ((System.nanoTime() - initialTime) < 10000000) {
-        output.append(" ");
+      output.append("[Runtime: ").append(runtime).append("ns");
+      if (runtime < SHORT_RUNTIME) {
+        output.append(' ');
       }
-      output.append("  Log Number: " + (record.getSequenceNumber() + 1));
-      output.append("  Type: " + record.getLevel() + "]");
-      if (record.getSequenceNumber() < 10 && record.getLevel().toString().equals("INFO")) {
+      output.append("  Log Number: ").append(sequenceNumber + 1);
+      output.append("  Type: ").append(record.getLevel().getName()).append(']');
+      if (sequenceNumber < 10 && record.getLevel() == Level.INFO) {
         output.append("  ");
       }
-      output.append("\t");
+      output.append('\t');
     }
-    output.append(record.getMessage() + "\n");
+    output.append(record.getMessage()).append('\n');
     return output.toString();
   }
 }
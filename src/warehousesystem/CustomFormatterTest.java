@@ -0,0 +1,74 @@
+package warehousesystem;
+
+import static org.junit.Assert.assertTrue;
+
+import java.text.SimpleDateFormat;
+import java.util.Date;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Level;
+import java.util.logging.LogRecord;
+
+import org.junit.Test;
+
+public class CustomFormatterTest {
+
+  /**
+   * Return a record with the level, message and sequence number.
+   *
+   * @param level The level of the record.
+   * @param message The message of the record.
+   * @param sequenceNumber The sequence number of the record.
+   * @return The new record.
+   */
+  private static LogRecord record(Level level, String message, long sequenceNumber) {
+    LogRecord record = new LogRecord(level, message);
+    record.setSequenceNumber(sequenceNumber);
+    return record;
+  }
+
+  @Test
+  public void testHeader() {
+    LogRecord record = record(Level.CONFIG, "SYSTEM: started", 0);
+    String date = new SimpleDateFormat("dd/MM/yyyy HH:mm:ss:SSS").format(
+        new Date(record.getMillis()));
+    String output = new CustomFormatter().format(record);
+    assertTrue(output.startsWith("\n\t\t[Warehouse Log Records\t" + date + "]\n\n[Runtime: "));
+    assertTrue(output.endsWith("ns   Log Number: 1  Type: CONFIG]\tSYSTEM: started\n"));
+  }
+
+  @Test
+  public void testLine() {
+    String output = new CustomFormatter().format(record(Level.INFO, "SIM: hello", 4));
+    assertTrue(output.startsWith("[Runtime: "));
+    assertTrue(output.endsWith("  Log Number: 5  Type: INFO]  \tSIM: hello\n"));
+    output = new CustomFormatter().format(record(Level.WARNING, "SIM: careful", 4));
+    assertTrue(output.endsWith("  Log Number: 5  Type: WARNING]\tSIM: careful\n"));
+    output = new CustomFormatter().format(record(Level.INFO, "SIM: later", 10));
+    assertTrue(output.endsWith("  Log Number: 11  Type: INFO]\tSIM: later\n"));
+  }
+
+  @Test
+  public void testManyThreads() throws Exception {
+    final CustomFormatter formatter = new CustomFormatter();
+    ExecutorService pool = Executors.newFixedThreadPool(4);
+    Future<?>[] results = new Future<?>[4];
+    for (int t = 0; t < results.length; t++) {
+      final int thread = t;
+      results[t] = pool.submit(() -> {
+        for (int i = 0; i < 10000; i++) {
+          String message = "SIM: thread " + thread + " record " + i;
+          String output = formatter.format(record(Level.INFO, message, 20));
+          assertTrue(output.endsWith("  Log Number: 21  Type: INFO]\t" + message + "\n"));
+        }
+      });
+    }
+    for (Future<?> result : results) {
+      result.get();
+    }
+    pool.shutdown();
+    assertTrue(pool.awaitTermination(1, TimeUnit.SECONDS));
+  }
+}
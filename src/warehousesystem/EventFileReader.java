@@ -0,0 +1,198 @@
+package warehousesystem;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+
+public class EventFileReader implements Closeable {
+
+  /** The number of bytes read from the file at a time. */
+  private static final int BUFFER_SIZE = 8192;
+
+  /** The file path of the event file. */
+  private final String filePath;
+  /** Whether this EventFileReader waits for more lines at the end of the file. */
+  private final boolean follow;
+  /** The time in milliseconds to wait before checking a followed file for more lines. */
+  private final long pollInterval;
+  /**
+   * The time in milliseconds a followed file may go without a new line before readLine gives up,
+   * or 0 to follow the file until stop is called.
+   */
+  private final long idleTimeout;
+  /** The channel of the event file, or null if the file has not been opened yet. */
+  private FileChannel channel;
+  /** The bytes read from the file that have not been returned yet. */
+  private ByteBuffer buffer = ByteBuffer.allocate(BUFFER_SIZE);
+  /** The bytes of a line that continues past the end of the buffer. */
+  private byte[] partial = new byte[128];
+  /** The number of bytes in partial. */
+  private int partialLength;
+  /** Whether stop has been called. */
+  private volatile boolean stopped;
+
+  /**
+   * Initialize a new EventFileReader that reads the lines of the file with filePath once, as they
+   * are needed.
+   *
+   * @param filePath The file path of the event file.
+   */
+  public EventFileReader(String filePath) {
+    this(filePath, false, 0, 0);
+  }
+
+  /**
+   * Initialize a new EventFileReader. If follow is true, the reader waits at the end of the file
+   * for more lines to be written to it, like tail -f, so it can read a live scanner feed. A line is
+   * only returned once its line break has been written. If the file is truncated, the reader
+   * starts again from its beginning.
+   *
+   * @param filePath The file path of the event file.
+   * @param follow Whether to wait for more lines at the end of the file.
+   * @param pollInterval The time in milliseconds between checks of a followed file.
+   * @param idleTimeout The time in milliseconds a followed file may go without a new line, or 0 to
+   *        follow the file until stop is called.
+   */
+  public EventFileReader(String filePath, boolean follow, long pollInterval, long idleTimeout) {
+    this.filePath = filePath;
+    this.follow = follow;
+    this.pollInterval = pollInterval;
+    this.idleTimeout = idleTimeout;
+    buffer.flip();
+  }
+
+  /**
+   * Return the next line of the event file without its line break. When the end of the file is
+   * reached, return null, or, if the file is followed, wait until a new line is written, the idle
+   * timeout passes or stop is called. Once stop is called, return null even if more lines are
+   * buffered or written. A file that does not exist has no lines.
+   *
+   * @return The next line, or null if there are no more lines.
+   * @throws IOException for FileChannel
+   */
+  public String readLine() throws IOException {
+    long idleSince = System.currentTimeMillis();
+    while (!stopped) {
+      String line = nextBufferedLine();
+      if (line != null) {
+        return line;
+      }
+      if (fill() > 0) {
+        idleSince = System.currentTimeMillis();
+        continue;
+      }
+      // The end of the file has been reached.
+      boolean idle = idleTimeout > 0 && System.currentTimeMillis() - idleSince >= idleTimeout;
+      if (!follow || stopped || idle) {
+        return partialLength > 0 ? takePartial(false) : null;
+      }
+      if (channel != null && channel.size() < channel.position()) {
+        channel.position(0);
+        partialLength = 0;
+      }
+      try {
+        Thread.sleep(pollInterval);
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+        stopped = true;
+      }
+    }
+    return null;
+  }
+
+  /**
+   * Return the next complete line in the buffer, or null if the buffer has no line break left. The
+   * bytes after the last line break are moved to partial.
+   *
+   * @return The next complete line.
+   */
+  private String nextBufferedLine() {
+    byte[] bytes = buffer.array();
+    int start = buffer.position();
+    for (int i = start; i < buffer.limit(); i++) {
+      if (bytes[i] == '\n') {
+        append(bytes, start, i - start);
+        buffer.position(i + 1);
+        return takePartial(true);
+      }
+    }
+    append(bytes, start, buffer.limit() - start);
+    buffer.position(buffer.limit());
+    return null;
+  }
+
+  /**
+   * Read more bytes of the file into the buffer, opening the file if needed.
+   *
+   * @return The number of bytes read, which is 0 at the end of the file.
+   * @throws IOException for FileChannel
+   */
+  private int fill() throws IOException {
+    if (channel == null) {
+      if (!new File(filePath).exists()) {
+        return 0;
+      }
+      channel = FileChannel.open(new File(filePath).toPath(), StandardOpenOption.READ);
+    }
+    buffer.clear();
+    int count = channel.read(buffer);
+    buffer.flip();
+    return Math.max(count, 0);
+  }
+
+  /**
+   * Add the bytes to the end of partial.
+   *
+   * @param bytes The array holding the bytes.
+   * @param offset The index of the first byte.
+   * @param length The number of bytes.
+   */
+  private void append(byte[] bytes, int offset, int length) {
+    if (partialLength + length > partial.length) {
+      partial = Arrays.copyOf(partial, Math.max(partial.length * 2, partialLength + length));
+    }
+    System.arraycopy(bytes, offset, partial, partialLength, length);
+    partialLength += length;
+  }
+
+  /**
+   * Return the line in partial and empty it. A carriage return before the line break is dropped.
+   *
+   * @param lineBreak Whether the line ended with a line break.
+   * @return The line in partial.
+   */
+  private String takePartial(boolean lineBreak) {
+    int length = partialLength;
+    if (lineBreak && length > 0 && partial[length - 1] == '\r') {
+      length--;
+    }
+    partialLength = 0;
+    return new String(partial, 0, length, StandardCharsets.UTF_8);
+  }
+
+  /**
+   * Stop reading the file. A readLine that is waiting for a new line returns null, and so does
+   * every readLine after it.
+   */
+  public void stop() {
+    stopped = true;
+  }
+
+  /**
+   * Close the event file.
+   *
+   * @throws IOException for FileChannel
+   */
+  @Override
+  public void close() throws IOException {
+    if (channel != null) {
+      channel.close();
+    }
+  }
+
+}
@@ -0,0 +1,123 @@
+package warehousesystem;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+import java.io.File;
+import java.io.FileWriter;
+import java.io.IOException;
+
+import org.junit.Test;
+
+public class EventFileReaderTest {
+
+  /**
+   * Return a new temporary file with the text.
+   * 
+   * @param text The text of the file.
+   * @return The new file.
+   * @throws IOException for FileWriter
+   */
+  private static File newFile(String text) throws IOException {
+    File file = File.createTempFile("events", ".txt");
+    file.deleteOnExit();
+    append(file, text);
+    return file;
+  }
+
+  /**
+   * Append the text to the file.
+   * 
+   * @param file The file.
+   * @param text The text to append.
+   * @throws IOException for FileWriter
+   */
+  private static void append(File file, String text) throws IOException {
+    FileWriter fw = new FileWriter(file, true);
+    fw.write(text);
+    fw.close();
+  }
+
+  @Test
+  public void testReadLine() throws IOException {
+    File file = newFile("Order SES Blue\r\nPicker Alice ready\nLoader Bill finished");
+    EventFileReader reader = new EventFileReader(file.getPath());
+    assertEquals("Order SES Blue", reader.readLine());
+    assertEquals("Picker Alice ready", reader.readLine());
+    assertEquals("Loader Bill finished", reader.readLine());
+    assertNull(reader.readLine());
+    reader.close();
+  }
+
+  @Test
+  public void testLongLine() throws IOException {
+    StringBuilder line = new StringBuilder();
+    for (int i = 0; i < 10000; i++) {
+      line.append(i % 10);
+    }
+    File file = newFile(line + "\nPicker Alice ready\n");
+    EventFileReader reader = new EventFileReader(file.getPath());
+    assertEquals(line.toString(), reader.readLine());
+    assertEquals("Picker Alice ready", reader.readLine());
+    assertNull(reader.readLine());
+    reader.close();
+  }
+
+  @Test
+  public void testMissingFile() throws IOException {
+    EventFileReader reader = new EventFileReader("no such events.txt");
+    assertNull(reader.readLine());
+    reader.close();
+  }
+
+  @Test
+  public void testFollow() throws IOException, InterruptedException {
+    final File file = newFile("Order SES Blue\nPicker Al");
+    EventFileReader reader = new EventFileReader(file.getPath(), true, 5, 2000);
+    assertEquals("Order SES Blue", reader.readLine());
+    Thread writer = new Thread() {
+      @Override
+      public void run() {
+        try {
+          Thread.sleep(50);
+          append(file, "ice ready\n");
+        } catch (IOException | InterruptedException e) {
+          throw new RuntimeException(e);
+        }
+      }
+    };
+    writer.start();
+    assertEquals("Picker Alice ready", reader.readLine());
+    writer.join();
+    reader.close();
+  }
+
+  @Test
+  public void testFollowIdleTimeout() throws IOException {
+    File file = newFile("Order SES Blue\n");
+    EventFileReader reader = new EventFileReader(file.getPath(), true, 5, 50);
+    assertEquals("Order SES Blue", reader.readLine());
+    assertNull(reader.readLine());
+    reader.close();
+  }
+
+  @Test
+  public void testStopSkipsBufferedLines() throws IOException {
+    File file = newFile("Order SES Blue\nPicker Alice ready\n");
+    EventFileReader reader = new EventFileReader(file.getPath(), true, 5, 0);
+    assertEquals("Order SES Blue", reader.readLine());
+    reader.stop();
+    assertNull(reader.readLine());
+    reader.close();
+  }
+
+  @Test
+  public void testStop() throws IOException {
+    File file = newFile("");
+    EventFileReader reader = new EventFileReader(file.getPath(), true, 5, 0);
+    reader.stop();
+    assertNull(reader.readLine());
+    reader.close();
+  }
+
+}
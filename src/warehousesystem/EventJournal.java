@@ -0,0 +1,373 @@
+package warehousesystem;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.StandardOpenOption;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.CRC32;
+
+public class EventJournal implements Closeable {
+
+  /** The type of a record that holds an input event. */
+  static final byte EVENT = 1;
+  /** The type of a record that holds a change of status of a picking request. */
+  static final byte TRANSITION = 2;
+  /** The type of a record that stands for a line of input that could not be parsed. */
+  static final byte SKIPPED_LINE = 3;
+  /** The type of a record that stands for the pending orders being flushed when they were due. */
+  static final byte ORDERS_FLUSHED = 4;
+  /** The type of a record that holds the batching policy orders are made into requests by. */
+  static final byte POLICY = 5;
+  /** The number of bytes before the body of a record: its length and its checksum. */
+  static final int HEADER_SIZE = 8;
+  /** The greatest number of bytes in the body of a record. */
+  static final int MAX_BODY_SIZE = 4096;
+  /** The number of bytes of records held in memory before they must be written. */
+  private static final int BUFFER_SIZE = 65536;
+
+  /** The file path of the journal. */
+  private final String filePath;
+  /** The channel of the journal file. */
+  private final FileChannel channel;
+  /** The greatest number of records held in memory before they are written together. */
+  private final int groupSize;
+  /** The greatest time in milliseconds a record is held in memory before it is written. */
+  private final long groupDelay;
+  /** Whether each group of records is forced to the disk once it is written. */
+  private final boolean sync;
+  /** The records that have not been written yet. */
+  private final ByteBuffer pending = ByteBuffer.allocate(BUFFER_SIZE);
+  /** The body of the record being appended. */
+  private final ByteBuffer body = ByteBuffer.allocate(MAX_BODY_SIZE);
+  /** The checksum of the record being appended. */
+  private final CRC32 crc = new CRC32();
+  /** The number of records in pending. */
+  private int pendingCount;
+  /** The time in milliseconds the oldest record in pending was appended. */
+  private long pendingSince;
+  /** The sequence number of the last record appended. */
+  private long sequence;
+  /** The number of times a group of records was written to the file. */
+  private long commitCount;
+  /** The batching policy of the last POLICY record in the journal, or null if it has none. */
+  private BatchingPolicy policy;
+  /** The thread that writes the records held for groupDelay while no record is appended. */
+  private ScheduledThreadPoolExecutor timer;
+  /** The exception the timer stopped writing with, which the next commit throws, or null. */
+  private IOException timerFailure;
+
+  /**
+   * Initialize a new EventJournal that appends records to the journal file with filePath. Records
+   * are held in memory and written together once groupSize of them are held, once the oldest of
+   * them has been held for groupDelay milliseconds, or when commit or close is called. The held
+   * records are also written every groupDelay milliseconds on a thread of its own, so they are not
+   * held longer while the input is idle. If the file already holds records, new records are
+   * appended after the last whole record and continue its sequence numbers. A record that was only
+   * partly written, for example because the process died while writing it, is cut off.
+   *
+   * @param filePath The file path of the journal.
+   * @param groupSize The greatest number of records written together.
+   * @param groupDelay The greatest time in milliseconds a record is held before it is written.
+   * @param sync Whether each group of records is forced to the disk once it is written.
+   * @throws IOException for FileChannel
+   */
+  public EventJournal(String filePath, int groupSize, long groupDelay, boolean sync)
+      throws IOException {
+    this.filePath = filePath;
+    this.groupSize = Math.max(1, groupSize);
+    this.groupDelay = groupDelay;
+    this.sync = sync;
+    long end = 0;
+    if (new File(filePath).exists()) {
+      try (EventJournalReader reader = new EventJournalReader(filePath)) {
+        while (reader.next()) {
+          sequence = reader.getSequence();
+          if (reader.getType() == POLICY) {
+            policy = reader.readPolicy();
+          }
+        }
+        end = reader.getPosition();
+      }
+    }
+    channel = FileChannel.open(new File(filePath).toPath(), StandardOpenOption.CREATE,
+        StandardOpenOption.WRITE);
+    channel.truncate(end);
+    channel.position(end);
+    if (groupDelay > 0 && this.groupSize > 1) {
+      timer = new ScheduledThreadPoolExecutor(1, runnable -> {
+        Thread thread = new Thread(runnable, "journal-committer");
+        thread.setDaemon(true);
+        return thread;
+      });
+      timer.scheduleWithFixedDelay(this::commitHeld, groupDelay, groupDelay,
+          TimeUnit.MILLISECONDS);
+    }
+  }
+
+  /**
+   * Write the records held in memory, for the timer. An exception is kept for the next commit to
+   * throw, since the timer has no one to throw it to.
+   */
+  private synchronized void commitHeld() {
+    try {
+      if (channel.isOpen()) {
+        commit();
+      }
+    } catch (IOException e) {
+      timerFailure = e;
+    }
+  }
+
+  /**
+   * Return true if and only if the input event fits in the body of a record. An event whose
+   * color, model, worker or sku is a few thousand bytes long does not.
+   *
+   * @param event The event.
+   * @return true iff the event can be appended.
+   */
+  public static boolean fits(ScannerEvent event) {
+    // The sequence number, type, verb and role come before the four strings.
+    int size = 11 + encodedLength(event.getWorker()) + encodedLength(event.getSku())
+        + encodedLength(event.getModel()) + encodedLength(event.getColor());
+    return size <= MAX_BODY_SIZE;
+  }
+
+  /**
+   * Return the number of bytes putString puts for the string, without encoding it.
+   *
+   * @param string The string, or null.
+   * @return The number of bytes.
+   */
+  private static int encodedLength(String string) {
+    int length = 2;
+    for (int i = 0; string != null && i < string.length() && length <= MAX_BODY_SIZE; i++) {
+      char c = string.charAt(i);
+      // A surrogate pair is four bytes, two for each half.
+      length += c < 0x80 ? 1 : c < 0x800 || Character.isSurrogate(c) ? 2 : 3;
+    }
+    return length;
+  }
+
+  /**
+   * Append the input event to the journal.
+   *
+   * @param event The event to append.
+   * @return The sequence number of the record.
+   * @throws IOException for FileChannel
+   * @throws IllegalArgumentException if the event does not fit in a record.
+   */
+  public synchronized long appendEvent(ScannerEvent event) throws IOException {
+    if (!fits(event)) {
+      throw new IllegalArgumentException("Event too long for the journal");
+    }
+    startRecord(EVENT);
+    body.put((byte) event.getVerb().ordinal());
+    body.put(event.getRole() == null ? -1 : (byte) event.getRole().ordinal());
+    putString(event.getWorker());
+    putString(event.getSku());
+    putString(event.getModel());
+    putString(event.getColor());
+    return endRecord();
+  }
+
+  /**
+   * Append a record that stands for a line of input that could not be parsed, so that the lines
+   * of input taken by the system can be counted from the journal.
+   *
+   * @return The sequence number of the record.
+   * @throws IOException for FileChannel
+   */
+  public synchronized long appendSkippedLine() throws IOException {
+    startRecord(SKIPPED_LINE);
+    return endRecord();
+  }
+
+  /**
+   * Append a record that stands for the pending orders being made into a picking request because
+   * the oldest had waited too long, which depends on the clock and not on the input.
+   *
+   * @return The sequence number of the record.
+   * @throws IOException for FileChannel
+   */
+  public synchronized long appendOrdersFlushed() throws IOException {
+    startRecord(ORDERS_FLUSHED);
+    return endRecord();
+  }
+
+  /**
+   * Append the batching policy the pending orders are made into picking requests by, so that a
+   * replay of the journal makes the same picking requests. Nothing is appended if the policy is
+   * the same as the last one in the journal.
+   *
+   * @param policy The batching policy.
+   * @return The sequence number of the last record.
+   * @throws IOException for FileChannel
+   */
+  public synchronized long appendPolicy(BatchingPolicy policy) throws IOException {
+    if (policy.equals(this.policy)) {
+      return sequence;
+    }
+    startRecord(POLICY);
+    body.putInt(policy.getSize());
+    body.putLong(policy.getMaxWaitMillis());
+    body.put(policy.isFlushWhenIdle() ? (byte) 1 : 0);
+    body.putInt(policy.getWindow());
+    this.policy = policy;
+    return endRecord();
+  }
+
+  /**
+   * Append a change of status of a picking request to the journal.
+   *
+   * @param prId The id of the picking request.
+   * @param status The new status of the picking request.
+   * @return The sequence number of the record.
+   * @throws IOException for FileChannel
+   */
+  public synchronized long appendTransition(int prId, RequestStatus status) throws IOException {
+    startRecord(TRANSITION);
+    body.putInt(prId);
+    body.put((byte) status.ordinal());
+    return endRecord();
+  }
+
+  /**
+   * Start the body of a new record of the type.
+   *
+   * @param type The type of the record.
+   */
+  private void startRecord(byte type) {
+    body.clear();
+    body.putLong(sequence + 1);
+    body.put(type);
+  }
+
+  /**
+   * Put the string in the body of the record as its length in bytes followed by its UTF-8 bytes.
+   * A null string is put as the length -1.
+   *
+   * @param string The string to put.
+   */
+  private void putString(String string) {
+    if (string == null) {
+      body.putShort((short) -1);
+      return;
+    }
+    byte[] bytes = string.getBytes(StandardCharsets.UTF_8);
+    body.putShort((short) bytes.length);
+    body.put(bytes);
+  }
+
+  /**
+   * Add the record in body to pending with its length and checksum, and write pending if the
+   * group is full or its oldest record has waited long enough.
+   *
+   * @return The sequence number of the record.
+   * @throws IOException for FileChannel
+   */
+  private long endRecord() throws IOException {
+    body.flip();
+    if (pending.remaining() < HEADER_SIZE + body.remaining()) {
+      commit();
+    }
+    crc.reset();
+    crc.update(body.array(), 0, body.limit());
+    pending.putInt(body.limit());
+    pending.putInt((int) crc.getValue());
+    pending.put(body);
+    sequence++;
+    long now = System.currentTimeMillis();
+    if (pendingCount++ == 0) {
+      pendingSince = now;
+    }
+    if (pendingCount >= groupSize || now - pendingSince >= groupDelay) {
+      commit();
+    }
+    return sequence;
+  }
+
+  /**
+   * Write the records held in memory to the journal file as one group, and force them to the
+   * disk if this journal syncs.
+   *
+   * @throws IOException for FileChannel, or if the timer could not write the records.
+   */
+  public synchronized void commit() throws IOException {
+    if (timerFailure != null) {
+      IOException failure = timerFailure;
+      timerFailure = null;
+      throw failure;
+    }
+    if (pendingCount == 0) {
+      return;
+    }
+    pending.flip();
+    while (pending.hasRemaining()) {
+      channel.write(pending);
+    }
+    pending.clear();
+    pendingCount = 0;
+    commitCount++;
+    if (sync) {
+      channel.force(false);
+    }
+  }
+
+  /**
+   * Return the sequence number of the last record appended, which is the number of records in the
+   * journal.
+   *
+   * @return sequence
+   */
+  public synchronized long getSequence() {
+    return sequence;
+  }
+
+  /**
+   * Return the number of times a group of records was written to the journal file.
+   *
+   * @return commitCount
+   */
+  public synchronized long getCommitCount() {
+    return commitCount;
+  }
+
+  /**
+   * Return the file path of the journal.
+   *
+   * @return filePath
+   */
+  public String getFilePath() {
+    return filePath;
+  }
+
+  /**
+   * Stop the timer, then write the records held in memory and close the journal file.
+   *
+   * @throws IOException for FileChannel
+   */
+  @Override
+  public void close() throws IOException {
+    if (timer != null) {
+      // The timer is stopped without the lock, which a commit in progress holds.
+      timer.shutdownNow();
+      try {
+        timer.awaitTermination(1, TimeUnit.SECONDS);
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+      }
+    }
+    synchronized (this) {
+      if (channel.isOpen()) {
+        commit();
+        channel.close();
+      }
+    }
+  }
+
+}
@@ -0,0 +1,205 @@
+package warehousesystem;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.StandardOpenOption;
+import java.util.zip.CRC32;
+
+public class EventJournalReader implements Closeable {
+
+  /** The number of bytes read from the journal file at a time. */
+  private static final int BUFFER_SIZE = 65536;
+
+  /** The channel of the journal file, or null if the file does not exist. */
+  private final FileChannel channel;
+  /** The bytes read from the file that have not been returned yet. */
+  private final ByteBuffer buffer = ByteBuffer.allocate(BUFFER_SIZE);
+  /** The body of the current record. */
+  private final ByteBuffer body = ByteBuffer.allocate(EventJournal.MAX_BODY_SIZE);
+  /** The checksum of the current record. */
+  private final CRC32 crc = new CRC32();
+  /** The position in the file just after the current record. */
+  private long position;
+  /** The sequence number of the current record. */
+  private long sequence;
+  /** The type of the current record. */
+  private byte type;
+
+  /**
+   * Initialize a new EventJournalReader that reads the records of the journal file with filePath
+   * from its start. A file that does not exist has no records.
+   *
+   * @param filePath The file path of the journal.
+   * @throws IOException for FileChannel
+   */
+  public EventJournalReader(String filePath) throws IOException {
+    File file = new File(filePath);
+    channel = file.exists() ? FileChannel.open(file.toPath(), StandardOpenOption.READ) : null;
+    buffer.flip();
+  }
+
+  /**
+   * Move to the next record of the journal. Reading stops at the end of the file, at a record
+   * that was only partly written, or at a record whose checksum does not match.
+   *
+   * @return true if there is a next record, false otherwise.
+   * @throws IOException for FileChannel
+   */
+  public boolean next() throws IOException {
+    if (!fill(EventJournal.HEADER_SIZE)) {
+      return false;
+    }
+    int length = buffer.getInt(buffer.position());
+    int checksum = buffer.getInt(buffer.position() + 4);
+    if (length < 9 || length > EventJournal.MAX_BODY_SIZE
+        || !fill(EventJournal.HEADER_SIZE + length)) {
+      return false;
+    }
+    body.clear();
+    body.put(buffer.array(), buffer.position() + EventJournal.HEADER_SIZE, length);
+    body.flip();
+    crc.reset();
+    crc.update(body.array(), 0, length);
+    if ((int) crc.getValue() != checksum) {
+      return false;
+    }
+    buffer.position(buffer.position() + EventJournal.HEADER_SIZE + length);
+    position += EventJournal.HEADER_SIZE + length;
+    sequence = body.getLong();
+    type = body.get();
+    return true;
+  }
+
+  /**
+   * Make sure the buffer holds at least count bytes, reading more of the file if needed.
+   *
+   * @param count The number of bytes needed.
+   * @return true if the buffer holds count bytes, false if the file ends first.
+   * @throws IOException for FileChannel
+   */
+  private boolean fill(int count) throws IOException {
+    if (buffer.remaining() >= count) {
+      return true;
+    }
+    if (channel == null) {
+      return false;
+    }
+    buffer.compact();
+    while (buffer.position() < count && channel.read(buffer) > 0) {
+      continue;
+    }
+    buffer.flip();
+    return buffer.remaining() >= count;
+  }
+
+  /**
+   * Return the sequence number of the current record.
+   *
+   * @return sequence
+   */
+  public long getSequence() {
+    return sequence;
+  }
+
+  /**
+   * Return the type of the current record, which is EventJournal.EVENT, EventJournal.TRANSITION,
+   * EventJournal.SKIPPED_LINE, EventJournal.ORDERS_FLUSHED or EventJournal.POLICY.
+   *
+   * @return type
+   */
+  public byte getType() {
+    return type;
+  }
+
+  /**
+   * Return the position in the journal file just after the current record, which is where the
+   * next record starts.
+   *
+   * @return position
+   */
+  public long getPosition() {
+    return position;
+  }
+
+  /**
+   * Set the event to the input event held by the current record, which must be an EVENT record.
+   *
+   * @param event The event to set.
+   */
+  public void readEvent(ScannerEvent event) {
+    EventVerb verb = EventVerb.values()[body.get(9)];
+    byte role = body.get(10);
+    body.position(11);
+    String worker = getString();
+    String sku = getString();
+    String model = getString();
+    String color = getString();
+    if (verb == EventVerb.ORDER) {
+      event.setOrder(model, color);
+    } else {
+      event.setWorkerEvent(WorkerRole.values()[role], worker, verb, sku);
+    }
+  }
+
+  /**
+   * Return the batching policy held by the current record, which must be a POLICY record.
+   *
+   * @return The batching policy.
+   */
+  public BatchingPolicy readPolicy() {
+    return new BatchingPolicy(body.getInt(9), body.getLong(13), body.get(21) != 0,
+        body.getInt(22));
+  }
+
+  /**
+   * Return the id of the picking request of the current record, which must be a TRANSITION
+   * record.
+   *
+   * @return The id of the picking request.
+   */
+  public int getPrId() {
+    return body.getInt(9);
+  }
+
+  /**
+   * Return the new status of the picking request of the current record, which must be a
+   * TRANSITION record.
+   *
+   * @return The new status.
+   */
+  public RequestStatus getStatus() {
+    return RequestStatus.values()[body.get(13)];
+  }
+
+  /**
+   * Return the next string in the body of the current record.
+   *
+   * @return The string, or null if it was null when appended.
+   */
+  private String getString() {
+    short length = body.getShort();
+    if (length < 0) {
+      return null;
+    }
+    String string = new String(body.array(), body.position(), length, StandardCharsets.UTF_8);
+    body.position(body.position() + length);
+    return string;
+  }
+
+  /**
+   * Close the journal file.
+   *
+   * @throws IOException for FileChannel
+   */
+  @Override
+  public void close() throws IOException {
+    if (channel != null) {
+      channel.close();
+    }
+  }
+
+}
@@ -0,0 +1,177 @@
+package warehousesystem;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+
+import org.junit.Test;
+
+public class EventJournalTest {
+
+  /**
+   * Return the path of a new temporary file that does not exist yet.
+   * 
+   * @return The path of the file.
+   * @throws IOException for createTempFile
+   */
+  private static String newPath() throws IOException {
+    File file = File.createTempFile("journal", ".bin");
+    file.delete();
+    file.deleteOnExit();
+    return file.getPath();
+  }
+
+  @Test
+  public void testRecordsAreReadBack() throws IOException {
+    String path = newPath();
+    EventJournal journal = new EventJournal(path, 1, 0, false);
+    ScannerEvent event = new ScannerEvent();
+    event.setOrder("SES", "Blue");
+    assertEquals(1, journal.appendEvent(event));
+    event.setWorkerEvent(WorkerRole.PICKER, "Alice", EventVerb.PICKED, "11");
+    assertEquals(2, journal.appendEvent(event));
+    assertEquals(3, journal.appendTransition(7, RequestStatus.PICKING));
+    journal.close();
+
+    EventJournalReader reader = new EventJournalReader(path);
+    assertTrue(reader.next());
+    assertEquals(1, reader.getSequence());
+    assertEquals(EventJournal.EVENT, reader.getType());
+    reader.readEvent(event);
+    assertEquals(EventVerb.ORDER, event.getVerb());
+    assertEquals("SES", event.getModel());
+    assertEquals("Blue", event.getColor());
+    assertNull(event.getWorker());
+    assertTrue(reader.next());
+    reader.readEvent(event);
+    assertEquals(EventVerb.PICKED, event.getVerb());
+    assertEquals(WorkerRole.PICKER, event.getRole());
+    assertEquals("Alice", event.getWorker());
+    assertEquals("11", event.getSku());
+    assertTrue(reader.next());
+    assertEquals(3, reader.getSequence());
+    assertEquals(EventJournal.TRANSITION, reader.getType());
+    assertEquals(7, reader.getPrId());
+    assertEquals(RequestStatus.PICKING, reader.getStatus());
+    assertFalse(reader.next());
+    assertEquals(new File(path).length(), reader.getPosition());
+    reader.close();
+  }
+
+  @Test
+  public void testPolicyIsReadBack() throws IOException {
+    String path = newPath();
+    EventJournal journal = new EventJournal(path, 1, 0, false);
+    BatchingPolicy policy = new BatchingPolicy(2, 50, true, 8);
+    assertEquals(1, journal.appendPolicy(policy));
+    assertEquals(1, journal.appendPolicy(new BatchingPolicy(2, 50, true, 8)));
+    journal.close();
+
+    journal = new EventJournal(path, 1, 0, false);
+    assertEquals(1, journal.appendPolicy(policy));
+    assertEquals(2, journal.appendPolicy(BatchingPolicy.DEFAULT));
+    journal.close();
+
+    EventJournalReader reader = new EventJournalReader(path);
+    assertTrue(reader.next());
+    assertEquals(EventJournal.POLICY, reader.getType());
+    assertEquals(policy, reader.readPolicy());
+    assertTrue(reader.next());
+    assertEquals(BatchingPolicy.DEFAULT, reader.readPolicy());
+    assertFalse(reader.next());
+    reader.close();
+  }
+
+  @Test
+  public void testLongEventDoesNotFit() throws IOException {
+    ScannerEvent event = new ScannerEvent();
+    event.setOrder("SES", "Blue");
+    assertTrue(EventJournal.fits(event));
+    StringBuilder color = new StringBuilder();
+    while (color.length() < EventJournal.MAX_BODY_SIZE) {
+      color.append("\u00e9");
+    }
+    event.setOrder("SES", color.toString());
+    assertFalse(EventJournal.fits(event));
+    String path = newPath();
+    EventJournal journal = new EventJournal(path, 1, 0, false);
+    try {
+      journal.appendEvent(event);
+      fail();
+    } catch (IllegalArgumentException e) {
+      assertEquals(0, journal.getSequence());
+    }
+    journal.close();
+  }
+
+  @Test
+  public void testGroupCommit() throws IOException {
+    String path = newPath();
+    EventJournal journal = new EventJournal(path, 10, 60000, false);
+    for (int i = 0; i < 25; i++) {
+      journal.appendTransition(i, RequestStatus.PICKING);
+    }
+    assertEquals(2, journal.getCommitCount());
+    journal.commit();
+    assertEquals(3, journal.getCommitCount());
+    journal.commit();
+    assertEquals(3, journal.getCommitCount());
+    journal.close();
+  }
+
+  @Test
+  public void testIdleRecordsAreCommitted() throws IOException, InterruptedException {
+    String path = newPath();
+    EventJournal journal = new EventJournal(path, 64, 20, false);
+    journal.appendTransition(1, RequestStatus.PICKING);
+    long deadline = System.currentTimeMillis() + 5000;
+    while (journal.getCommitCount() == 0 && System.currentTimeMillis() < deadline) {
+      Thread.sleep(10);
+    }
+    // The journal is not closed, as if the process had been killed.
+    EventJournalReader reader = new EventJournalReader(path);
+    assertTrue(reader.next());
+    assertEquals(EventJournal.TRANSITION, reader.getType());
+    reader.close();
+    journal.close();
+  }
+
+  @Test
+  public void testPartRecordIsCutOff() throws IOException {
+    String path = newPath();
+    EventJournal journal = new EventJournal(path, 1, 0, false);
+    journal.appendTransition(1, RequestStatus.PICKING);
+    journal.appendTransition(1, RequestStatus.PICKED);
+    journal.close();
+    long whole = new File(path).length();
+    RandomAccessFile file = new RandomAccessFile(path, "rw");
+    file.setLength(whole - 3);
+    file.close();
+
+    journal = new EventJournal(path, 1, 0, false);
+    assertEquals(1, journal.getSequence());
+    assertEquals(2, journal.appendTransition(1, RequestStatus.PICKED));
+    journal.close();
+    assertEquals(whole, new File(path).length());
+    EventJournalReader reader = new EventJournalReader(path);
+    assertTrue(reader.next());
+    assertTrue(reader.next());
+    assertEquals(RequestStatus.PICKED, reader.getStatus());
+    assertFalse(reader.next());
+    reader.close();
+  }
+
+  @Test
+  public void testMissingJournalHasNoRecords() throws IOException {
+    EventJournalReader reader = new EventJournalReader(newPath());
+    assertFalse(reader.next());
+    reader.close();
+  }
+
+}
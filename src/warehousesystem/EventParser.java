@@ -0,0 +1,139 @@
+package warehousesystem;
+
+public class EventParser {
+
+  /** The greatest number of distinct strings kept for reuse. */
+  private static final int MAX_STRINGS = 1 << 14;
+
+  /**
+   * The worker names, skus, models and colors seen so far, in an open addressing hash table, so
+   * that a word seen before is returned without creating a new String.
+   */
+  private String[] strings = new String[64];
+  /** The number of strings in the table. */
+  private int stringCount;
+
+  /**
+   * Parse one line of input into the event. A worker event has the format "Role name verb [sku]"
+   * and an order has the format "Order model color". The words of the line are matched in place,
+   * and worker names, skus, models and colors that were seen before are reused, so parsing a line
+   * creates no objects once the names and skus in use have been seen. An EventParser must only be
+   * used by one thread at a time.
+   *
+   * @param line The line of input.
+   * @param event The event to fill in.
+   * @return true iff the line is a valid event. If not, the event is left unchanged.
+   */
+  public boolean parse(String line, ScannerEvent event) {
+    int firstEnd = line.indexOf(' ');
+    if (firstEnd < 0) {
+      return false;
+    }
+    int secondStart = firstEnd + 1;
+    int secondEnd = line.indexOf(' ', secondStart);
+    if (secondEnd < 0) {
+      return false;
+    }
+    if (firstEnd == 5 && line.startsWith(EventVerb.ORDER.getWord())) {
+      event.setOrder(intern(line, secondStart, secondEnd),
+          intern(line, secondEnd + 1, line.length()));
+      return true;
+    }
+    WorkerRole role = WorkerRole.fromName(line, 0, firstEnd);
+    if (role == null) {
+      return false;
+    }
+    int verbStart = secondEnd + 1;
+    int verbEnd = endOfWord(line, verbStart);
+    EventVerb verb = EventVerb.fromWord(line, verbStart, verbEnd);
+    if (verb == null) {
+      return false;
+    }
+    String sku = null;
+    if (verbEnd < line.length()) {
+      sku = intern(line, verbEnd + 1, endOfWord(line, verbEnd + 1));
+    }
+    if (verb.isScan() && sku == null) {
+      return false;
+    }
+    event.setWorkerEvent(role, intern(line, secondStart, secondEnd), verb, sku);
+    return true;
+  }
+
+  /**
+   * Return the index after the last character of the word that starts at start.
+   *
+   * @param line The line holding the word.
+   * @param start The index of the first character of the word.
+   * @return The index of the next space, or the length of the line.
+   */
+  private static int endOfWord(String line, int start) {
+    int end = line.indexOf(' ', start);
+    return end < 0 ? line.length() : end;
+  }
+
+  /**
+   * Return a String equal to the part of line from start to end. If an equal String was returned
+   * before, that String is returned again.
+   *
+   * @param line The line holding the word.
+   * @param start The index of the first character of the word.
+   * @param end The index after the last character of the word.
+   * @return The word.
+   */
+  private String intern(String line, int start, int end) {
+    int length = end - start;
+    int hash = 0;
+    for (int i = start; i < end; i++) {
+      hash = 31 * hash + line.charAt(i);
+    }
+    int mask = strings.length - 1;
+    int index = spread(hash) & mask;
+    String candidate = strings[index];
+    while (candidate != null) {
+      if (candidate.length() == length && line.regionMatches(start, candidate, 0, length)) {
+        return candidate;
+      }
+      index = (index + 1) & mask;
+      candidate = strings[index];
+    }
+    String word = line.substring(start, end);
+    if (stringCount < MAX_STRINGS) {
+      strings[index] = word;
+      stringCount++;
+      if (stringCount * 2 > strings.length) {
+        grow();
+      }
+    }
+    return word;
+  }
+
+  /**
+   * Double the size of the string table.
+   */
+  private void grow() {
+    String[] old = strings;
+    strings = new String[old.length * 2];
+    int mask = strings.length - 1;
+    for (String word : old) {
+      if (word != null) {
+        int index = spread(word.hashCode()) & mask;
+        while (strings[index] != null) {
+          index = (index + 1) & mask;
+        }
+        strings[index] = word;
+      }
+    }
+  }
+
+  /**
+   * Mix the high bits of the hash into the low bits used to index the string table.
+   *
+   * @param hash The hash of a word.
+   * @return The mixed hash.
+   */
+  private static int spread(int hash) {
+    return hash ^ (hash >>> 16);
+  }
+
+}
@@ -0,0 +1,80 @@
+package warehousesystem;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Before;
+import org.junit.Test;
+
+public class EventParserTest {
+
+  private EventParser parser;
+  private ScannerEvent event;
+
+  @Before
+  public void setUp() {
+    parser = new EventParser();
+    event = new ScannerEvent();
+  }
+
+  @Test
+  public void testParseOrder() {
+    assertTrue(parser.parse("Order SES Blue", event));
+    assertEquals(EventVerb.ORDER, event.getVerb());
+    assertEquals("SES", event.getModel());
+    assertEquals("Blue", event.getColor());
+    assertNull(event.getRole());
+  }
+
+  @Test
+  public void testParseScan() {
+    assertTrue(parser.parse("Picker Alice picked 11", event));
+    assertEquals(WorkerRole.PICKER, event.getRole());
+    assertEquals("Alice", event.getWorker());
+    assertEquals(EventVerb.PICKED, event.getVerb());
+    assertEquals("11", event.getSku());
+  }
+
+  @Test
+  public void testParseWithoutSku() {
+    assertTrue(parser.parse("Sequencer Sue rescanned", event));
+    assertEquals(EventVerb.RESCANNED, event.getVerb());
+    assertNull(event.getSku());
+    assertTrue(parser.parse("Picker Alice to Marshaling", event));
+    assertEquals(EventVerb.TO, event.getVerb());
+  }
+
+  @Test
+  public void testWordsAreReused() {
+    parser.parse("Picker Alice picked 11", event);
+    String name = event.getWorker();
+    String sku = event.getSku();
+    parser.parse("Loader Alice loaded 11", event);
+    assertSame(name, event.getWorker());
+    assertSame(sku, event.getSku());
+  }
+
+  @Test
+  public void testManyWords() {
+    for (int i = 0; i < 1000; i++) {
+      assertTrue(parser.parse("Picker Worker" + i + " picked " + i, event));
+      assertEquals("Worker" + i, event.getWorker());
+      assertEquals("" + i, event.getSku());
+    }
+  }
+
+  @Test
+  public void testInvalidLines() {
+    assertFalse(parser.parse("", event));
+    assertFalse(parser.parse("Order SES", event));
+    assertFalse(parser.parse("Driver Dan ready", event));
+    assertFalse(parser.parse("Picker Alice", event));
+    assertFalse(parser.parse("Picker Alice jumped", event));
+    assertFalse(parser.parse("Picker Alice picked", event));
+    assertNull(event.getVerb());
+  }
+
+}
@@ -0,0 +1,61 @@
+package warehousesystem;
+
+public enum EventVerb {
+  ORDER("Order"), READY("ready"), PICKED("picked"), SEQUENCED("sequenced"), LOADED("loaded"),
+  REPLENISHED("replenished"), RESCANNED("rescanned"), DISCARDED("discarded"), TO("to"),
+  FINISHED("finished"), LEFT("left");
+
+  /** All verbs, kept so that looking up a verb does not copy values(). */
+  private static final EventVerb[] verbs = values();
+
+  /** The word of this verb as it appears in the input file. */
+  private final String word;
+
+  /**
+   * Initialize a new EventVerb with its word in the input file.
+   *
+   * @param word The word of the verb in the input file.
+   */
+  EventVerb(String word) {
+    this.word = word;
+  }
+
+  /**
+   * Return the word of this verb as it appears in the input file.
+   *
+   * @return word
+   */
+  public String getWord() {
+    return word;
+  }
+
+  /**
+   * Return the verb whose word is the part of line from start to end, or null if there is no such
+   * verb. The ORDER verb is the first word of an order event, so it is never returned.
+   *
+   * @param line The line holding the word.
+   * @param start The index of the first character of the word.
+   * @param end The index after the last character of the word.
+   * @return The verb of the word.
+   */
+  public static EventVerb fromWord(String line, int start, int end) {
+    int length = end - start;
+    for (int i = 1; i < verbs.length; i++) {
+      String candidate = verbs[i].word;
+      if (candidate.length() == length && line.regionMatches(start, candidate, 0, length)) {
+        return verbs[i];
+      }
+    }
+    return null;
+  }
+
+  /**
+   * Return true if and only if a worker sends this verb when scanning a fascia.
+   *
+   * @return true iff this verb is a scan.
+   */
+  public boolean isScan() {
+    return this == PICKED || this == SEQUENCED || this == LOADED || this == REPLENISHED;
+  }
+
+}
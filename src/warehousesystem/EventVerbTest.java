@@ -0,0 +1,27 @@
+package warehousesystem;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+public class EventVerbTest {
+
+  @Test
+  public void testFromWord() {
+    String line = "Loader Bill finished";
+    assertEquals(EventVerb.FINISHED, EventVerb.fromWord(line, 12, 20));
+    assertEquals(EventVerb.READY, EventVerb.fromWord("ready", 0, 5));
+    assertNull(EventVerb.fromWord("Order", 0, 5));
+    assertNull(EventVerb.fromWord(line, 0, 6));
+  }
+
+  @Test
+  public void testIsScan() {
+    assertTrue(EventVerb.REPLENISHED.isScan());
+    assertFalse(EventVerb.RESCANNED.isScan());
+  }
+
+}
@@ -0,0 +1,126 @@
+package warehousesystem;
+
+import java.io.Serializable;
+import java.util.EnumMap;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+
+public class IdleWorkerPool implements Serializable {
+
+  /** The version of the serialized form of this class, which is kept in snapshots. */
+  private static final long serialVersionUID = 1L;
+
+  /** A mapping of role to the idle workers of that role, in the order they became idle. */
+  private EnumMap<WorkerRole, LinkedHashSet<BarcodeReader>> idleWorkers =
+      new EnumMap<>(WorkerRole.class);
+  /** The idle replenishers, by the aisle they wait in. */
+  private ReplenisherPool replenishers = new ReplenisherPool();
+  /** A mapping of role to the largest number of idle workers of that role at any one time. */
+  private EnumMap<WorkerRole, Integer> peakDepths = new EnumMap<>(WorkerRole.class);
+
+  /**
+   * Initialize a new IdleWorkerPool with no idle workers.
+   */
+  public IdleWorkerPool() {
+    for (WorkerRole role : WorkerRole.values()) {
+      idleWorkers.put(role, new LinkedHashSet<BarcodeReader>());
+      peakDepths.put(role, 0);
+    }
+  }
+
+  /**
+   * Add the worker to the back of the queue of idle workers of its role. A worker that is already
+   * idle keeps its place in the queue. Replenishers are kept by the aisle they wait in.
+   *
+   * @param br The BarcodeReader of the idle worker.
+   * @return true iff the worker was not idle before.
+   */
+  public boolean offer(BarcodeReader br) {
+    WorkerRole role = WorkerRole.of(br);
+    boolean added = role == WorkerRole.REPLENISHER ? replenishers.release(br)
+        : idleWorkers.get(role).add(br);
+    if (size(role) > peakDepths.get(role)) {
+      peakDepths.put(role, size(role));
+    }
+    return added;
+  }
+
+  /**
+   * Remove and return the worker of the role that has been idle the longest. For replenishers,
+   * this is the one closest to the entrance.
+   *
+   * @param role The role of the worker.
+   * @return The BarcodeReader of the worker, or null if no worker of the role is idle.
+   */
+  public BarcodeReader poll(WorkerRole role) {
+    if (role == WorkerRole.REPLENISHER) {
+      return replenishers.acquire(0);
+    }
+    Iterator<BarcodeReader> iterator = idleWorkers.get(role).iterator();
+    if (!iterator.hasNext()) {
+      return null;
+    }
+    BarcodeReader br = iterator.next();
+    iterator.remove();
+    return br;
+  }
+
+  /**
+   * Remove and return the idle replenisher closest to the aisle.
+   *
+   * @param aisle The index of the aisle the replenisher is needed in.
+   * @return The BarcodeReader of the replenisher, or null if no replenisher is idle.
+   */
+  public BarcodeReader pollReplenisher(int aisle) {
+    return replenishers.acquire(aisle);
+  }
+
+  /**
+   * Remove the worker from the idle workers.
+   *
+   * @param br The BarcodeReader of the worker.
+   * @return true iff the worker was idle.
+   */
+  public boolean remove(BarcodeReader br) {
+    WorkerRole role = WorkerRole.of(br);
+    if (role == WorkerRole.REPLENISHER) {
+      return replenishers.remove(br);
+    }
+    return role != null && idleWorkers.get(role).remove(br);
+  }
+
+  /**
+   * Return true if and only if the worker is idle.
+   *
+   * @param br The BarcodeReader of the worker.
+   * @return true iff the worker is idle.
+   */
+  public boolean contains(BarcodeReader br) {
+    WorkerRole role = WorkerRole.of(br);
+    if (role == WorkerRole.REPLENISHER) {
+      return replenishers.contains(br);
+    }
+    return role != null && idleWorkers.get(role).contains(br);
+  }
+
+  /**
+   * Return the number of idle workers of the role.
+   *
+   * @param role The role of the workers.
+   * @return The queue depth of the role.
+   */
+  public int size(WorkerRole role) {
+    return role == WorkerRole.REPLENISHER ? replenishers.size() : idleWorkers.get(role).size();
+  }
+
+  /**
+   * Return the largest number of idle workers of the role at any one time.
+   *
+   * @param role The role of the workers.
+   * @return The peak queue depth of the role.
+   */
+  public int getPeakSize(WorkerRole role) {
+    return peakDepths.get(role);
+  }
+
+}
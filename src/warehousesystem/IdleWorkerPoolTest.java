@@ -0,0 +1,86 @@
+package warehousesystem;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Before;
+import org.junit.Test;
+
+public class IdleWorkerPoolTest {
+
+  private IdleWorkerPool pool;
+  private PickerBarcodeReader alice;
+  private PickerBarcodeReader bob;
+  private LoaderBarcodeReader bill;
+
+  /**
+   * Before the test, set up an empty pool and three workers.
+   */
+  @Before
+  public void setUp() {
+    pool = new IdleWorkerPool();
+    alice = new PickerBarcodeReader("Alice", null, null);
+    bob = new PickerBarcodeReader("Bob", null, null);
+    bill = new LoaderBarcodeReader("Bill", null, null);
+  }
+
+  @Test
+  public void testPollIsFirstInFirstOut() {
+    pool.offer(alice);
+    pool.offer(bill);
+    pool.offer(bob);
+    assertEquals(alice, pool.poll(WorkerRole.PICKER));
+    assertEquals(bob, pool.poll(WorkerRole.PICKER));
+    assertNull(pool.poll(WorkerRole.PICKER));
+    assertEquals(bill, pool.poll(WorkerRole.LOADER));
+  }
+
+  @Test
+  public void testOfferTwiceKeepsPlace() {
+    assertTrue(pool.offer(alice));
+    pool.offer(bob);
+    assertFalse(pool.offer(alice));
+    assertEquals(2, pool.size(WorkerRole.PICKER));
+    assertEquals(alice, pool.poll(WorkerRole.PICKER));
+  }
+
+  @Test
+  public void testRemove() {
+    pool.offer(alice);
+    pool.offer(bob);
+    assertTrue(pool.remove(alice));
+    assertFalse(pool.contains(alice));
+    assertFalse(pool.remove(alice));
+    assertEquals(bob, pool.poll(WorkerRole.PICKER));
+  }
+
+  @Test
+  public void testSize() {
+    pool.offer(alice);
+    pool.offer(bob);
+    pool.offer(bill);
+    pool.poll(WorkerRole.PICKER);
+    assertEquals(1, pool.size(WorkerRole.PICKER));
+    assertEquals(2, pool.getPeakSize(WorkerRole.PICKER));
+    assertEquals(1, pool.size(WorkerRole.LOADER));
+    assertEquals(0, pool.size(WorkerRole.SEQUENCER));
+  }
+
+  @Test
+  public void testReplenisherClosestToAisle() {
+    ReplenisherBarcodeReader ruby = new ReplenisherBarcodeReader("Ruby", null, null);
+    ReplenisherBarcodeReader rita = new ReplenisherBarcodeReader("Rita", null, null);
+    rita.setAisle(3);
+    pool.offer(ruby);
+    pool.offer(rita);
+    assertEquals(2, pool.size(WorkerRole.REPLENISHER));
+    assertEquals(2, pool.getPeakSize(WorkerRole.REPLENISHER));
+    assertTrue(pool.contains(rita));
+    assertEquals(rita, pool.pollReplenisher(2));
+    assertEquals(ruby, pool.poll(WorkerRole.REPLENISHER));
+    assertNull(pool.pollReplenisher(0));
+  }
+
+}
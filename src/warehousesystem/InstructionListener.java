@@ -0,0 +1,14 @@
+package warehousesystem;
+
+public interface InstructionListener {
+
+  /**
+   * Receive an instruction the system sent to the scanner of a worker. This is called on the
+   * thread that runs the system, so it should hand the instruction on and return quickly.
+   * 
+   * @param br The BarcodeReader of the worker.
+   * @param instruction The instruction.
+   */
+  void instruct(BarcodeReader br, ScannerInstruction instruction);
+
+}
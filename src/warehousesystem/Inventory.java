@@ -0,0 +1,160 @@
+package warehousesystem;
+
+import java.io.Serializable;
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+
+public class Inventory implements Serializable {
+
+  /** The version of the serialized form of this class, which is kept in snapshots. */
+  private static final long serialVersionUID = 1L;
+
+  /** The numbering of the skus of the catalogue. */
+  private final SkuIndex index;
+  /** The number of fascias of each sku, by the index of the sku. */
+  private final AtomicIntegerArray amounts;
+
+  /**
+   * Initialize a new Inventory with the skus and amounts of the map. The amounts are kept in an
+   * int array indexed by sku, so reading and changing an amount does not allocate.
+   *
+   * @param initial A mapping of sku to its amount.
+   */
+  public Inventory(Map<String, Integer> initial) {
+    index = new SkuIndex(initial.keySet());
+    amounts = new AtomicIntegerArray(index.size());
+    for (Map.Entry<String, Integer> entry : initial.entrySet()) {
+      amounts.set(index.indexOf(entry.getKey()), entry.getValue());
+    }
+  }
+
+  /**
+   * Return the numbering of the skus of this Inventory.
+   *
+   * @return index
+   */
+  public SkuIndex getIndex() {
+    return index;
+  }
+
+  /**
+   * Return the amount of the sku with the index.
+   *
+   * @param sku The index of the sku.
+   * @return The amount of the sku.
+   */
+  public int get(int sku) {
+    return amounts.get(sku);
+  }
+
+  /**
+   * Set the amount of the sku with the index.
+   *
+   * @param sku The index of the sku.
+   * @param amount The new amount of the sku.
+   */
+  public void set(int sku, int amount) {
+    amounts.set(sku, amount);
+  }
+
+  /**
+   * Add delta to the amount of the sku with the index in one atomic step.
+   *
+   * @param sku The index of the sku.
+   * @param delta The number of fascias to add, which is negative to take fascias away.
+   * @return The new amount of the sku.
+   */
+  public int add(int sku, int delta) {
+    return amounts.addAndGet(sku, delta);
+  }
+
+  /**
+   * Add delta fascias to the amount of the sku with the index in one atomic step, but no more than
+   * fit below capacity. An amount already above capacity is left as it is.
+   *
+   * @param sku The index of the sku.
+   * @param delta The number of fascias to add.
+   * @param capacity The greatest amount the fascias added may bring the sku to.
+   * @return The new amount of the sku.
+   */
+  public int addUpTo(int sku, int delta, int capacity) {
+    return amounts.updateAndGet(sku,
+        amount -> Math.max(amount, Math.min(amount + delta, capacity)));
+  }
+
+  /**
+   * Return a map view of this Inventory from sku to amount. Changes to the view are made to this
+   * Inventory, and the other way round. Only skus of the catalogue can be put in the view.
+   *
+   * @return The map view.
+   */
+  public Map<String, Integer> asMap() {
+    return new MapView();
+  }
+
+  /** A map view of the inventory from sku to amount. */
+  private class MapView extends AbstractMap<String, Integer> {
+
+    @Override
+    public Integer get(Object key) {
+      int sku = key instanceof String ? index.indexOf((String) key) : -1;
+      return sku < 0 ? null : amounts.get(sku);
+    }
+
+    @Override
+    public boolean containsKey(Object key) {
+      return key instanceof String && index.indexOf((String) key) >= 0;
+    }
+
+    @Override
+    public Integer put(String key, Integer value) {
+      int sku = index.indexOf(key);
+      if (sku < 0) {
+        throw new IllegalArgumentException("SKU " + key + " is not in the catalogue");
+      }
+      return amounts.getAndSet(sku, value);
+    }
+
+    @Override
+    public int size() {
+      return index.size();
+    }
+
+    @Override
+    public Set<Map.Entry<String, Integer>> entrySet() {
+      return new AbstractSet<Map.Entry<String, Integer>>() {
+        @Override
+        public Iterator<Map.Entry<String, Integer>> iterator() {
+          return new Iterator<Map.Entry<String, Integer>>() {
+            private int next;
+
+            @Override
+            public boolean hasNext() {
+              return next < index.size();
+            }
+
+            @Override
+            public Map.Entry<String, Integer> next() {
+              if (!hasNext()) {
+                throw new NoSuchElementException();
+              }
+              int sku = next++;
+              return new SimpleImmutableEntry<>(index.skuAt(sku), amounts.get(sku));
+            }
+          };
+        }
+
+        @Override
+        public int size() {
+          return index.size();
+        }
+      };
+    }
+  }
+
+}
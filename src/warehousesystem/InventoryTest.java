@@ -0,0 +1,64 @@
+package warehousesystem;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import org.junit.Test;
+
+public class InventoryTest {
+
+  /**
+   * Return a new Inventory with skus 1 to 3 with amounts 10, 20 and 30.
+   * 
+   * @return The new Inventory.
+   */
+  private static Inventory newInventory() {
+    HashMap<String, Integer> initial = new HashMap<>();
+    initial.put("1", 10);
+    initial.put("2", 20);
+    initial.put("3", 30);
+    return new Inventory(initial);
+  }
+
+  @Test
+  public void testAdd() {
+    Inventory inventory = newInventory();
+    int sku = inventory.getIndex().indexOf("2");
+    assertEquals(20, inventory.get(sku));
+    assertEquals(19, inventory.add(sku, -1));
+    assertEquals(44, inventory.add(sku, 25));
+    inventory.set(sku, 5);
+    assertEquals(5, inventory.get(sku));
+  }
+
+  @Test
+  public void testMapView() {
+    Inventory inventory = newInventory();
+    Map<String, Integer> view = inventory.asMap();
+    assertEquals(3, view.size());
+    assertEquals(Integer.valueOf(10), view.get("1"));
+    assertNull(view.get("4"));
+    assertTrue(view.containsKey("3"));
+    assertFalse(view.containsKey("4"));
+    assertEquals(Integer.valueOf(10), view.put("1", 12));
+    assertEquals(12, inventory.get(inventory.getIndex().indexOf("1")));
+
+    HashMap<String, Integer> expected = new HashMap<>();
+    expected.put("1", 12);
+    expected.put("2", 20);
+    expected.put("3", 30);
+    assertEquals(expected, view);
+    assertEquals(view, expected);
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testPutUnknownSku() {
+    newInventory().asMap().put("4", 1);
+  }
+
+}
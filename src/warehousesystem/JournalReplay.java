@@ -0,0 +1,158 @@
+package warehousesystem;
+
+import java.io.IOException;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import java.util.logging.StreamHandler;
+
+public class JournalReplay {
+
+  /** The controller the journaled input events are passed to. */
+  private final WarehouseController controller;
+  /** The event each EVENT record is read into. It is reused for every record. */
+  private final ScannerEvent event = new ScannerEvent();
+  /** The number of input events replayed. */
+  private long eventCount;
+  /** The number of lines of input in the replayed part of the journal, parsed or not. */
+  private long lineCount;
+  /** The number of changes of status of picking requests in the replayed part of the journal. */
+  private long journaledTransitions;
+  /** The number of changes of status of picking requests made by the system while replaying. */
+  private long replayedTransitions;
+
+  /**
+   * Initialize a new JournalReplay that rebuilds the state of the system of the controller.
+   *
+   * @param controller The controller whose system is rebuilt.
+   */
+  public JournalReplay(WarehouseController controller) {
+    this.controller = controller;
+  }
+
+  /**
+   * Pass the input events of the journal with a sequence number greater than after to the
+   * controller, in order, which rebuilds the state of its system without parsing any text. The
+   * pending orders are flushed where the journal says they were flushed when they were due, and
+   * the batching policy is set where the journal says it was set, so the same picking requests are
+   * made. Records appended to the journal of the system but not written yet are written first, so
+   * they are replayed too. The replayed events are not appended to the journal of the system
+   * again. The changes of status in
+   * the journal are counted and checked against the changes the system makes, and a difference is
+   * logged as a warning.
+   *
+   * @param journalPath The file path of the journal.
+   * @param after The sequence number of the last record already applied, or 0 to replay the whole
+   *        journal.
+   * @return The sequence number of the last record in the journal, or after if there are none.
+   * @throws IOException for EventJournalReader and processEvent
+   */
+  public long replay(String journalPath, long after) throws IOException {
+    WarehouseSystem whs = controller.getWhs();
+    EventJournal journal = whs.getJournal();
+    if (journal != null) {
+      journal.commit();
+    }
+    whs.setJournal(null);
+    long transitionsBefore = whs.getTransitionCount();
+    long transitionsInJournal = 0;
+    long last = after;
+    try (EventJournalReader reader = new EventJournalReader(journalPath)) {
+      while (reader.next()) {
+        if (reader.getSequence() <= after) {
+          continue;
+        }
+        last = reader.getSequence();
+        if (reader.getType() == EventJournal.EVENT) {
+          reader.readEvent(event);
+          controller.processEvent(event);
+          eventCount++;
+          lineCount++;
+        } else if (reader.getType() == EventJournal.SKIPPED_LINE) {
+          lineCount++;
+        } else if (reader.getType() == EventJournal.TRANSITION) {
+          transitionsInJournal++;
+        } else if (reader.getType() == EventJournal.ORDERS_FLUSHED) {
+          whs.getOrderManager().flush();
+        } else if (reader.getType() == EventJournal.POLICY) {
+          whs.getOrderManager().setPolicy(reader.readPolicy());
+        }
+      }
+    } finally {
+      whs.setJournal(journal);
+    }
+    long transitionsReplayed = whs.getTransitionCount() - transitionsBefore;
+    journaledTransitions += transitionsInJournal;
+    replayedTransitions += transitionsReplayed;
+    if (transitionsReplayed != transitionsInJournal) {
+      long expected = transitionsInJournal;
+      whs.logWarning(() -> "SYSTEM: Replay of journal " + journalPath + " made "
+          + transitionsReplayed + " status changes, but the journal has " + expected);
+    }
+    return last;
+  }
+
+  /**
+   * Return the number of input events replayed.
+   *
+   * @return eventCount
+   */
+  public long getEventCount() {
+    return eventCount;
+  }
+
+  /**
+   * Return the number of lines of input in the replayed part of the journal, including the lines
+   * that could not be parsed.
+   *
+   * @return lineCount
+   */
+  public long getLineCount() {
+    return lineCount;
+  }
+
+  /**
+   * Return the number of changes of status of picking requests in the replayed part of the
+   * journal.
+   *
+   * @return journaledTransitions
+   */
+  public long getJournaledTransitions() {
+    return journaledTransitions;
+  }
+
+  /**
+   * Return the number of changes of status of picking requests made by the system while
+   * replaying. It equals getJournaledTransitions when the replay rebuilt the same state.
+   *
+   * @return replayedTransitions
+   */
+  public long getReplayedTransitions() {
+    return replayedTransitions;
+  }
+
+  /**
+   * The main method for JournalReplay. The first argument is the journal to replay, journal.bin by
+   * default. The system is rebuilt in memory from the journal with logging turned off. No file is
+   * written, so order.csv, final.csv and log.txt of the run that wrote the journal are left as
+   * they are.
+   *
+   * @param args The args
+   * @throws IOException The IOException
+   */
+  public static void main(String[] args) throws IOException {
+    String journalPath = args.length > 0 ? args[0] : "journal.bin";
+    ListOrderSink orders = new ListOrderSink();
+    WarehouseController controller =
+        new WarehouseController(journalPath, new CsvTools(false), new StreamHandler(), orders);
+    Logger.getLogger("Warehouse System Logger").setLevel(Level.OFF);
+    JournalReplay replay = new JournalReplay(controller);
+    long start = System.nanoTime();
+    replay.replay(journalPath, 0);
+    long elapsed = System.nanoTime() - start;
+    System.out.println(String.format(
+        "Replayed %,d events, %,d loaded picking requests and %,d of %,d status changes in %,d ms",
+        replay.getEventCount(), orders.getRequests().size(), replay.getReplayedTransitions(),
+        replay.getJournaledTransitions(), elapsed / 1000000));
+  }
+
+}
@@ -0,0 +1,212 @@
+package warehousesystem;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.logging.Handler;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import org.junit.Test;
+
+public class JournalReplayTest {
+
+  /**
+   * Return a new controller for the input file whose system keeps its orders in a list. It lets
+   * go of log.txt, so that many controllers can be made.
+   * 
+   * @param inputFilePath The file path of the input file.
+   * @return The new controller.
+   * @throws IOException for WarehouseController
+   */
+  private static WarehouseController newController(String inputFilePath) throws IOException {
+    Logger logger = Logger.getLogger("Warehouse System Logger");
+    ArrayList<Handler> before = new ArrayList<>(Arrays.asList(logger.getHandlers()));
+    WarehouseController controller = new WarehouseController(inputFilePath);
+    for (Handler added : logger.getHandlers()) {
+      if (!before.contains(added)) {
+        logger.removeHandler(added);
+        added.close();
+      }
+    }
+    controller.getWhs().setOrderSink(new ListOrderSink());
+    return controller;
+  }
+
+  /**
+   * Return the orders loaded by the system of the controller, one line per order.
+   * 
+   * @param controller The controller.
+   * @return The loaded orders.
+   */
+  private static String orders(WarehouseController controller) {
+    StringBuilder orders = new StringBuilder();
+    for (PickingRequest pr : controller.getWhs().outputOrders()) {
+      for (Order order : pr.getOrders()) {
+        orders.append(order).append('\n');
+      }
+    }
+    return orders.toString();
+  }
+
+  @Test
+  public void testReplayRebuildsState() throws IOException {
+    String[] inputs = {"16orders.txt", "eventSequencerRescan.txt", "eventOutOfInventory.txt",
+        "eventReplenisherRescan.txt", "eventPickerRescan.txt", "eventLoaderRescan.txt"};
+    for (String input : inputs) {
+      File file = File.createTempFile("journal", ".bin");
+      file.delete();
+      file.deleteOnExit();
+      WarehouseController original = newController(input);
+      original.getWhs().setJournal(new EventJournal(file.getPath(), 64, 10, false));
+      original.runModel();
+
+      WarehouseController rebuilt = newController(input);
+      JournalReplay replay = new JournalReplay(rebuilt);
+      long last = replay.replay(file.getPath(), 0);
+      assertTrue(last > 0);
+      assertTrue(replay.getEventCount() > 0);
+      assertEquals(replay.getJournaledTransitions(), replay.getReplayedTransitions());
+      assertEquals(original.getWhs().getTransitionCount(), replay.getReplayedTransitions());
+      assertEquals(original.getWhs().outputInventory(), rebuilt.getWhs().outputInventory());
+      assertEquals(orders(original), orders(rebuilt));
+      assertEquals(original.getWhs().getLivePrCount(), rebuilt.getWhs().getLivePrCount());
+    }
+  }
+
+  @Test
+  public void testReplayAfterSequence() throws IOException {
+    File file = File.createTempFile("journal", ".bin");
+    file.delete();
+    file.deleteOnExit();
+    EventJournal journal = new EventJournal(file.getPath(), 1, 0, false);
+    ScannerEvent event = new ScannerEvent();
+    event.setOrder("SES", "Blue");
+    journal.appendEvent(event);
+    event.setOrder("SES", "Red");
+    journal.appendEvent(event);
+    journal.close();
+
+    WarehouseController controller = newController("16orders.txt");
+    JournalReplay replay = new JournalReplay(controller);
+    assertEquals(2, replay.replay(file.getPath(), 1));
+    assertEquals(1, replay.getEventCount());
+    assertEquals(2, replay.replay(file.getPath(), 2));
+    assertEquals(1, replay.getEventCount());
+  }
+
+  @Test
+  public void testReplayFlushedOrders() throws IOException {
+    File file = File.createTempFile("journal", ".bin");
+    file.delete();
+    file.deleteOnExit();
+    WarehouseController original = newController("16orders.txt");
+    OrderManager orderManager = original.getWhs().getOrderManager();
+    long[] now = {1000};
+    orderManager.setClock(() -> now[0]);
+    orderManager.setPolicy(new BatchingPolicy(4, 10, false));
+    original.getWhs().setJournal(new EventJournal(file.getPath(), 64, 10, false));
+    original.processLine("Order SES Blue");
+    original.processLine("Order S Beige");
+    assertFalse(original.flushDueOrders());
+    now[0] += 10000000;
+    assertTrue(original.flushDueOrders());
+    original.processLine("Picker Alice ready");
+    original.getWhs().closeJournal();
+
+    WarehouseController rebuilt = newController("16orders.txt");
+    JournalReplay replay = new JournalReplay(rebuilt);
+    replay.replay(file.getPath(), 0);
+    assertEquals(replay.getJournaledTransitions(), replay.getReplayedTransitions());
+    PickingRequest pr = rebuilt.getWhs().getWorkers().get("Alice").getPickingRequest();
+    assertEquals(2, pr.getOrders().size());
+    assertEquals(0, rebuilt.getWhs().getOrderManager().getPendingOrders().size());
+    assertEquals(orderManager.getPolicy(), rebuilt.getWhs().getOrderManager().getPolicy());
+  }
+
+  @Test
+  public void testReplayUsesJournaledPolicy() throws IOException {
+    File file = File.createTempFile("journal", ".bin");
+    file.delete();
+    file.deleteOnExit();
+    WarehouseController original = newController("16orders.txt");
+    original.getWhs().setJournal(new EventJournal(file.getPath(), 64, 10, false));
+    original.getWhs().getOrderManager().setPolicy(new BatchingPolicy(2, 0, false));
+    original.runModel();
+
+    WarehouseController rebuilt = newController("16orders.txt");
+    new JournalReplay(rebuilt).replay(file.getPath(), 0);
+    assertEquals(new BatchingPolicy(2, 0, false), rebuilt.getWhs().getOrderManager().getPolicy());
+    assertEquals(original.getWhs().outputOrders().size(), rebuilt.getWhs().outputOrders().size());
+    assertEquals(orders(original), orders(rebuilt));
+  }
+
+  @Test
+  public void testLongEventIsSkipped() throws IOException {
+    File file = File.createTempFile("journal", ".bin");
+    file.delete();
+    file.deleteOnExit();
+    WarehouseController original = newController("16orders.txt");
+    original.getWhs().setJournal(new EventJournal(file.getPath(), 64, 10, false));
+    StringBuilder worker = new StringBuilder();
+    while (worker.length() <= EventJournal.MAX_BODY_SIZE) {
+      worker.append("Alice");
+    }
+    original.processLine("Picker " + worker + " ready");
+    original.processLine("Picker Bob ready");
+    original.getWhs().closeJournal();
+    assertEquals(2, original.getLineCount());
+    assertEquals(null, original.getWhs().getWorkers().get(worker.toString()));
+
+    EventJournalReader reader = new EventJournalReader(file.getPath());
+    assertTrue(reader.next());
+    assertEquals(EventJournal.POLICY, reader.getType());
+    assertTrue(reader.next());
+    assertEquals(EventJournal.SKIPPED_LINE, reader.getType());
+    assertTrue(reader.next());
+    assertEquals(EventJournal.EVENT, reader.getType());
+    reader.close();
+  }
+
+  @Test
+  public void testMainWritesNoFiles() throws IOException {
+    File file = File.createTempFile("journal", ".bin");
+    file.delete();
+    file.deleteOnExit();
+    WarehouseController original = newController("16orders.txt");
+    original.getWhs().setJournal(new EventJournal(file.getPath(), 64, 10, false));
+    original.runModel();
+    String[] outputs = {"order.csv", "final.csv", "log.txt"};
+    ArrayList<String> before = new ArrayList<>();
+    for (String output : outputs) {
+      before.add(new String(Files.readAllBytes(Paths.get(output)), StandardCharsets.UTF_8));
+    }
+
+    Logger logger = Logger.getLogger("Warehouse System Logger");
+    ArrayList<Handler> handlers = new ArrayList<>(Arrays.asList(logger.getHandlers()));
+    try {
+      JournalReplay.main(new String[] {file.getPath()});
+    } finally {
+      for (Handler added : logger.getHandlers()) {
+        if (!handlers.contains(added)) {
+          logger.removeHandler(added);
+          added.close();
+        }
+      }
+      logger.setLevel(Level.ALL);
+    }
+    for (int i = 0; i < outputs.length; i++) {
+      String after = new String(Files.readAllBytes(Paths.get(outputs[i])), StandardCharsets.UTF_8);
+      assertEquals(outputs[i], before.get(i), after);
+    }
+  }
+
+}
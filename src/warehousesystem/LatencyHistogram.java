@@ -0,0 +1,118 @@
+package warehousesystem;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+public class LatencyHistogram {
+
+  /** The number of top bits of a value kept, so buckets are within 1 in 32 of the value. */
+  private static final int PRECISION_BITS = 5;
+  /** The number of buckets for each power of two above the values kept exactly. */
+  private static final int SUB_BUCKETS = 1 << PRECISION_BITS;
+  /** The values below this have a bucket each. */
+  private static final int EXACT = 2 * SUB_BUCKETS;
+  /** The number of buckets, enough for every non-negative long. */
+  private static final int BUCKETS = EXACT + (63 - PRECISION_BITS) * SUB_BUCKETS;
+
+  /** The number of values recorded in each bucket. */
+  private final AtomicLongArray counts = new AtomicLongArray(BUCKETS);
+  /** The number of values recorded. */
+  private final AtomicLong count = new AtomicLong();
+  /** The greatest value recorded. */
+  private final AtomicLong max = new AtomicLong();
+
+  /**
+   * Initialize a new empty LatencyHistogram. Values are counted in buckets whose width grows with
+   * the value, so that any value is kept to within about three percent in a fixed, small array.
+   * Recording takes constant time, does not allocate, and can be done from many threads at once.
+   */
+  public LatencyHistogram() {}
+
+  /**
+   * Record one value, such as a latency in nanoseconds. Negative values are recorded as 0.
+   *
+   * @param value The value.
+   */
+  public void record(long value) {
+    long v = Math.max(0, value);
+    counts.incrementAndGet(bucketOf(v));
+    count.incrementAndGet();
+    long current = max.get();
+    while (v > current && !max.compareAndSet(current, v)) {
+      current = max.get();
+    }
+  }
+
+  /**
+   * Return the number of values recorded.
+   *
+   * @return The number of values.
+   */
+  public long getCount() {
+    return count.get();
+  }
+
+  /**
+   * Return the greatest value recorded.
+   *
+   * @return The greatest value, or 0 if none was recorded.
+   */
+  public long getMax() {
+    return max.get();
+  }
+
+  /**
+   * Return the value that the given percentage of the recorded values are at or below, such as
+   * 99 for the 99th percentile. The value is the upper end of its bucket, and at most the greatest
+   * value recorded.
+   *
+   * @param percentile The percentage, from 0 to 100.
+   * @return The value at the percentile, or 0 if none was recorded.
+   */
+  public long getValueAtPercentile(double percentile) {
+    long total = count.get();
+    if (total == 0) {
+      return 0;
+    }
+    long rank = Math.max(1, (long) Math.ceil(total * percentile / 100));
+    long seen = 0;
+    for (int bucket = 0; bucket < BUCKETS; bucket++) {
+      seen += counts.get(bucket);
+      if (seen >= rank) {
+        return Math.min(upperBoundOf(bucket), max.get());
+      }
+    }
+    return max.get();
+  }
+
+  /**
+   * Return the bucket of a non-negative value. Values below EXACT have a bucket each, and each
+   * higher power of two is split into SUB_BUCKETS buckets by the bits below its top bit.
+   *
+   * @param value The value.
+   * @return The index of its bucket.
+   */
+  private static int bucketOf(long value) {
+    if (value < EXACT) {
+      return (int) value;
+    }
+    int shift = 63 - Long.numberOfLeadingZeros(value) - PRECISION_BITS;
+    return EXACT + (shift - 1) * SUB_BUCKETS + (int) (value >>> shift) - SUB_BUCKETS;
+  }
+
+  /**
+   * Return the greatest value that falls in the bucket.
+   *
+   * @param bucket The index of the bucket.
+   * @return The greatest value of the bucket.
+   */
+  private static long upperBoundOf(int bucket) {
+    if (bucket < EXACT) {
+      return bucket;
+    }
+    int shift = (bucket - EXACT) / SUB_BUCKETS + 1;
+    long top = (bucket - EXACT) % SUB_BUCKETS + SUB_BUCKETS;
+    return ((top + 1) << shift) - 1;
+  }
+
+}
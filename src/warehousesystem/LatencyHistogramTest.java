@@ -0,0 +1,66 @@
+package warehousesystem;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Arrays;
+import java.util.Random;
+import org.junit.Test;
+
+public class LatencyHistogramTest {
+
+  @Test
+  public void testEmpty() {
+    LatencyHistogram histogram = new LatencyHistogram();
+    assertEquals(0, histogram.getCount());
+    assertEquals(0, histogram.getValueAtPercentile(50));
+  }
+
+  @Test
+  public void testSmallValuesExact() {
+    LatencyHistogram histogram = new LatencyHistogram();
+    for (int i = 1; i <= 50; i++) {
+      histogram.record(i);
+    }
+    assertEquals(50, histogram.getCount());
+    assertEquals(25, histogram.getValueAtPercentile(50));
+    assertEquals(50, histogram.getValueAtPercentile(100));
+    assertEquals(1, histogram.getValueAtPercentile(0));
+  }
+
+  @Test
+  public void testNegativeRecordedAsZero() {
+    LatencyHistogram histogram = new LatencyHistogram();
+    histogram.record(-5);
+    assertEquals(0, histogram.getValueAtPercentile(100));
+    assertEquals(0, histogram.getMax());
+  }
+
+  @Test
+  public void testLargeValuesWithinPrecision() {
+    LatencyHistogram histogram = new LatencyHistogram();
+    Random random = new Random(3);
+    long[] values = new long[10000];
+    for (int i = 0; i < values.length; i++) {
+      values[i] = (long) Math.exp(random.nextDouble() * 40);
+      histogram.record(values[i]);
+    }
+    Arrays.sort(values);
+    for (double percentile : new double[] {50, 90, 99, 99.9}) {
+      long exact = values[(int) Math.ceil(values.length * percentile / 100) - 1];
+      long estimate = histogram.getValueAtPercentile(percentile);
+      assertTrue(estimate >= exact);
+      assertTrue(estimate <= exact + exact / 32 + 1);
+    }
+    assertEquals(values[values.length - 1], histogram.getMax());
+    assertEquals(values[values.length - 1], histogram.getValueAtPercentile(100));
+  }
+
+  @Test
+  public void testLongMaxValue() {
+    LatencyHistogram histogram = new LatencyHistogram();
+    histogram.record(Long.MAX_VALUE);
+    assertEquals(Long.MAX_VALUE, histogram.getValueAtPercentile(50));
+  }
+
+}
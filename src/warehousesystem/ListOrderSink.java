@@ -0,0 +1,41 @@
+package warehousesystem;
+
+import java.util.ArrayList;
+
+public class ListOrderSink implements OrderSink {
+
+  /** The loaded picking requests, in the order they were loaded. */
+  private ArrayList<PickingRequest> requests = new ArrayList<>();
+
+  /**
+   * Keep the picking request in memory.
+   * 
+   * @param pr The loaded picking request.
+   */
+  @Override
+  public void accept(PickingRequest pr) {
+    requests.add(pr);
+  }
+
+  /**
+   * Do nothing, since the picking requests are only kept in memory.
+   */
+  @Override
+  public void flush() {}
+
+  /**
+   * Do nothing, since the picking requests are only kept in memory.
+   */
+  @Override
+  public void close() {}
+
+  /**
+   * Return the loaded picking requests, in the order they were loaded.
+   * 
+   * @return requests
+   */
+  public ArrayList<PickingRequest> getRequests() {
+    return requests;
+  }
+
+}
@@ -0,0 +1,24 @@
+package warehousesystem;
+
+import static org.junit.Assert.assertEquals;
+
+import java.io.IOException;
+import java.util.ArrayList;
+
+import org.junit.Test;
+
+public class ListOrderSinkTest {
+
+  @Test
+  public void testAccept() throws IOException {
+    ArrayList<Order> orders = new ArrayList<>();
+    orders.add(new Order("Blue", "SES", "37", "38"));
+    PickingRequest pr = new PickingRequest(orders);
+    ListOrderSink sink = new ListOrderSink();
+    sink.accept(pr);
+    sink.close();
+    assertEquals(1, sink.getRequests().size());
+    assertEquals(pr, sink.getRequests().get(0));
+  }
+
+}
@@ -2,6 +2,9 @@ package warehousesystem;
 
 public class LoaderBarcodeReader extends BarcodeReader {
 
+  /** The version of the serialized form of this class, which is kept in snapshots. */
+  private static final long serialVersionUID = 1L;
+
   /**
    * Initialize a new LoaderBarcodeReader.
    * 
@@ -14,36 +17,41 @@ public class LoaderBarcodeReader extends BarcodeReader {
   }
 
   /**
-   * Log the correct order for loader to check in the warehouse system.
+   * Log the correct order for loader to check in the warehouse system, and send it to the loader.
    */
   public void getNextStep() {
-    whSystem.logInfo("SIM: Loader " + user + "'s correct order is: " + pr.getCorrectOrder());
+    whSystem.logInfo(() -> "SIM: Loader " + user + "'s correct order is: "
+        + pr.getCorrectOrder());
+    instruct(new ScannerInstruction(ScannerInstruction.Kind.LOAD, pr.getCorrectOrder()));
   }
 
   /**
-   * Scan the sku. Add the sku to the scannedSku. If there is eight fascias, check if it has the
-   * correct order as the correctOrder from the picking request. If the order is correct, finish the
-   * work, else rescan the eight fasicas or discard the fascias and re-pick the picking request.
+   * Scan the sku. Add the sku to the scannedSku. If every fascia of the picking request is
+   * scanned, check if it has the correct order as the correctOrder from the picking request. If the
+   * order is correct, finish the work, else rescan the fasicas or discard the fascias and re-pick
+   * the picking request.
    * 
    * @param sku The sku that the loader scanned.
    */
   public void scan(String sku) {
     scannedSku.add(sku);
-    if (scannedSku.size() <= 8) {
-      whSystem.logInfo("SIM: Loader " + this.getUser() + " loaded item " + sku);
+    int fasciaCount = getFasciaCount();
+    if (scannedSku.size() <= fasciaCount) {
+      whSystem.logInfo(() -> "SIM: Loader " + this.getUser() + " loaded item " + sku);
 
-      if (scannedSku.size() == 8) {
+      if (scannedSku.size() == fasciaCount) {
         if (scannedSku.equals(pr.getCorrectOrder())) {
-          whSystem.logInfo("SIM: Loader " + this.getUser() + "'s Scanner confirms request "
+          whSystem.logInfo(() -> "SIM: Loader " + this.getUser() + "'s Scanner confirms request "
               + pr.getId() + " completed loading");
         } else {
-          whSystem.logWarning("SIM: Loader " + this.getUser()
+          whSystem.logWarning(() -> "SIM: Loader " + this.getUser()
               + "'s Scanner reports error while loading items for request "
               + pr.getId());
         }
       }
     } else {
-      whSystem.logWarning("SIM: Loader " + this.getUser() + " scanned more than eight fascias");
+      whSystem.logWarning(() -> "SIM: Loader " + this.getUser()
+          + " scanned more than " + countWord(fasciaCount) + " fascias");
     }
   }
 }
@@ -1,6 +1,11 @@
 package warehousesystem;
 
-public class Order {
+import java.io.Serializable;
+
+public class Order implements Serializable {
+
+  /** The version of the serialized form of this class, which is kept in snapshots. */
+  private static final long serialVersionUID = 1L;
 
   /** The color of the van in this Order. */
   private String color;
@@ -11,9 +16,14 @@ public class Order {
   /** The SKU of back fascia in this Order. */
   private String backSku;
   /** The status of the Order. */
-  private String status;
+  private RequestStatus status;
   /** The picking request that the Order is in. */
   private PickingRequest pickingRequest;
+  /**
+   * The time in nanoseconds this Order was received by the OrderManager, or 0 once its picking has
+   * started. It is not kept in snapshots, since it only has meaning in the process that set it.
+   */
+  private transient long receivedAt;
 
   /**
    * Initialize a new Order with the color, model of the van and the front and back skus.
@@ -53,7 +63,7 @@ public class Order {
    * 
    * @return Status
    */
-  public String getStatus() {
+  public RequestStatus getStatus() {
     return status;
   }
 
@@ -62,7 +72,7 @@ public class Order {
    * 
    * @param status The new status of this order.
    */
-  public void setStatus(String status) {
+  public void setStatus(RequestStatus status) {
     this.status = status;
   }
 
@@ -84,6 +94,24 @@ public class Order {
     this.pickingRequest = pickingRequest;
   }
 
+  /**
+   * Return the time in nanoseconds this order was received by the OrderManager.
+   * 
+   * @return receivedAt, or 0 if it is not known or its picking has started.
+   */
+  public long getReceivedAt() {
+    return receivedAt;
+  }
+
+  /**
+   * Set the time in nanoseconds this order was received by the OrderManager.
+   * 
+   * @param receivedAt The time in nanoseconds, or 0 once its picking has started.
+   */
+  public void setReceivedAt(long receivedAt) {
+    this.receivedAt = receivedAt;
+  }
+
   /**
    * Return the color and model of this order.
    *
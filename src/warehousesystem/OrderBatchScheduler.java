@@ -0,0 +1,91 @@
+package warehousesystem;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+public class OrderBatchScheduler implements Closeable {
+
+  /** The number of times the pending orders are checked during the longest wait of the policy. */
+  private static final int CHECKS_PER_WAIT = 4;
+
+  /** The controller whose pending orders are flushed when they are due. */
+  private final WarehouseController controller;
+  /** The thread that checks the pending orders, or null if it has not been started. */
+  private ScheduledThreadPoolExecutor timer;
+  /** The number of times the pending orders were flushed because they were due. */
+  private volatile long flushes;
+
+  /**
+   * Initialize a new OrderBatchScheduler that flushes the pending orders of the controller's
+   * system once the oldest has waited for the longest time its batching policy allows, even when
+   * no input arrives, so that a trickle of orders at the end of a wave is still picked. The orders
+   * are checked a few times during the longest wait, so an order waits at most a quarter more
+   * than it.
+   *
+   * @param controller The controller whose pending orders are flushed.
+   */
+  public OrderBatchScheduler(WarehouseController controller) {
+    this.controller = controller;
+  }
+
+  /**
+   * Start checking the pending orders on a thread of its own. Nothing is started if the batching
+   * policy has no longest wait.
+   */
+  public void start() {
+    long maxWait = controller.getWhs().getOrderManager().getPolicy().getMaxWaitMillis();
+    if (maxWait == 0 || timer != null) {
+      return;
+    }
+    timer = new ScheduledThreadPoolExecutor(1, runnable -> {
+      Thread thread = new Thread(runnable, "order-batcher");
+      thread.setDaemon(true);
+      return thread;
+    });
+    long interval = Math.max(1, maxWait / CHECKS_PER_WAIT);
+    timer.scheduleWithFixedDelay(this::check, interval, interval, TimeUnit.MILLISECONDS);
+  }
+
+  /**
+   * Flush the pending orders if they are due. A picking request that cannot be planned is logged
+   * as a warning, and the orders are checked again next time.
+   */
+  private void check() {
+    try {
+      if (controller.flushDueOrders()) {
+        flushes++;
+      }
+    } catch (IOException e) {
+      controller.getWhs().logWarning(() -> "SYSTEM: Pending orders could not be flushed: "
+          + e.getMessage());
+    }
+  }
+
+  /**
+   * Return the number of times the pending orders were flushed because they were due.
+   *
+   * @return flushes
+   */
+  public long getFlushes() {
+    return flushes;
+  }
+
+  /**
+   * Stop checking the pending orders, and wait for a check in progress to finish.
+   */
+  @Override
+  public void close() {
+    if (timer == null) {
+      return;
+    }
+    timer.shutdownNow();
+    try {
+      timer.awaitTermination(1, TimeUnit.SECONDS);
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+  }
+
+}
@@ -0,0 +1,65 @@
+package warehousesystem;
+
+import static org.junit.Assert.assertEquals;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.logging.Handler;
+import java.util.logging.Logger;
+import org.junit.Before;
+import org.junit.Test;
+
+public class OrderBatchSchedulerTest {
+
+  private WarehouseController wc;
+
+  /**
+   * Before the test, set up a controller that lets go of log.txt.
+   * 
+   * @throws IOException for WarehouseController
+   */
+  @Before
+  public void setUp() throws IOException {
+    Logger logger = Logger.getLogger("Warehouse System Logger");
+    ArrayList<Handler> before = new ArrayList<>(Arrays.asList(logger.getHandlers()));
+    wc = new WarehouseController("16orders.txt");
+    for (Handler added : logger.getHandlers()) {
+      if (!before.contains(added)) {
+        logger.removeHandler(added);
+        added.close();
+      }
+    }
+  }
+
+  @Test
+  public void testFlushesDueOrders() throws IOException, InterruptedException {
+    wc.getWhs().getOrderManager().setPolicy(new BatchingPolicy(4, 20, false));
+    wc.processLine("Picker Alice ready");
+    wc.processLine("Order SES Blue");
+    wc.processLine("Order S Beige");
+    try (OrderBatchScheduler batcher = new OrderBatchScheduler(wc)) {
+      batcher.start();
+      long deadline = System.currentTimeMillis() + 5000;
+      while (batcher.getFlushes() == 0 && System.currentTimeMillis() < deadline) {
+        Thread.sleep(5);
+      }
+      assertEquals(1, batcher.getFlushes());
+    }
+    assertEquals(0, wc.getWhs().getOrderManager().getPendingOrders().size());
+    PickingRequest pr = wc.getWhs().getWorkers().get("Alice").getPickingRequest();
+    assertEquals(2, pr.getOrders().size());
+    assertEquals(RequestStatus.PICKING, pr.getStatus());
+  }
+
+  @Test
+  public void testNoWaitStartsNothing() throws IOException, InterruptedException {
+    wc.processLine("Order SES Blue");
+    try (OrderBatchScheduler batcher = new OrderBatchScheduler(wc)) {
+      batcher.start();
+      Thread.sleep(20);
+      assertEquals(0, batcher.getFlushes());
+    }
+    assertEquals(1, wc.getWhs().getOrderManager().getPendingOrders().size());
+  }
+}
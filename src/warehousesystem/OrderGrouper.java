@@ -0,0 +1,130 @@
+package warehousesystem;
+
+import java.io.IOException;
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.List;
+
+public class OrderGrouper implements Serializable {
+
+  /** The version of the serialized form of this class, which is kept in snapshots. */
+  private static final long serialVersionUID = 1L;
+
+  /** The metres of walking a fascia its level cannot supply is counted as, unless configured. */
+  public static final double DEFAULT_STALL_COST = 20.0;
+
+  /** The metres of walking a fascia its level cannot supply is counted as. */
+  private final double stallCost;
+
+  /**
+   * Initialize a new OrderGrouper that counts each fascia its level cannot supply as the default
+   * stall cost.
+   */
+  public OrderGrouper() {
+    this(DEFAULT_STALL_COST);
+  }
+
+  /**
+   * Initialize a new OrderGrouper, which chooses the orders of a window to pick together so that
+   * they share aisles and racks, and do not wait on empty levels.
+   *
+   * @param stallCost The metres of walking a fascia its level cannot supply is counted as, since
+   *        the picker has to wait for a replenisher.
+   */
+  public OrderGrouper(double stallCost) {
+    this.stallCost = stallCost;
+  }
+
+  /**
+   * Choose up to size orders of the window to pick together. The oldest order is always chosen, so
+   * no order is passed over for ever. The others are added one at a time, each time the order that
+   * adds the least to the cost of the group, and the oldest of those that add the same. The cost
+   * of a group is the walking distance of the route planned for its fascias, plus the stall cost
+   * for each fascia more than the stock on its level. The chosen orders are returned in the order
+   * they arrived, so a window of no more than size orders is returned as it is.
+   *
+   * @param window The orders to choose from, oldest first.
+   * @param size The greatest number of orders to choose.
+   * @param storage The storage manager whose stock the levels have.
+   * @return The chosen orders, oldest first.
+   * @throws IOException For getLayout.
+   */
+  public ArrayList<Order> group(List<Order> window, int size, StorageManager storage)
+      throws IOException {
+    if (window.size() <= size) {
+      return new ArrayList<>(window);
+    }
+    WarehouseLayout layout = WarehousePicking.getLayout();
+    boolean[] chosen = new boolean[window.size()];
+    chosen[0] = true;
+    ArrayList<String> skus = new ArrayList<>(size * 2);
+    addSkus(skus, window.get(0));
+    for (int count = 1; count < size; count++) {
+      int best = -1;
+      double bestCost = Double.MAX_VALUE;
+      for (int i = 1; i < window.size(); i++) {
+        if (chosen[i]) {
+          continue;
+        }
+        addSkus(skus, window.get(i));
+        double cost = cost(skus, layout, storage);
+        skus.remove(skus.size() - 1);
+        skus.remove(skus.size() - 1);
+        if (cost < bestCost) {
+          best = i;
+          bestCost = cost;
+        }
+      }
+      chosen[best] = true;
+      addSkus(skus, window.get(best));
+    }
+    ArrayList<Order> group = new ArrayList<>(size);
+    for (int i = 0; i < window.size(); i++) {
+      if (chosen[i]) {
+        group.add(window.get(i));
+      }
+    }
+    return group;
+  }
+
+  /**
+   * Return the cost of picking the skus together: the walking distance of the route planned for
+   * them, plus the stall cost for each fascia more than the stock on its level.
+   *
+   * @param skus The skus of the fascias.
+   * @param layout The layout of the warehouse.
+   * @param storage The storage manager whose stock the levels have.
+   * @return The cost in metres.
+   */
+  public double cost(ArrayList<String> skus, WarehouseLayout layout, StorageManager storage) {
+    double cost = layout.routeDistance(WarehousePicking.getRoutePlanner().plan(skus, layout));
+    for (int i = 0; i < skus.size(); i++) {
+      // Count the fascias of each sku at its first fascia only.
+      int needed = 0;
+      boolean first = true;
+      for (int j = 0; j < skus.size() && first; j++) {
+        if (skus.get(j).equals(skus.get(i))) {
+          first = j >= i;
+          needed++;
+        }
+      }
+      if (first) {
+        int shortfall = needed - Math.max(0, storage.getAmount(skus.get(i)));
+        cost += stallCost * Math.max(0, shortfall);
+      }
+    }
+    return cost;
+  }
+
+  /**
+   * Add the front and back skus of the order.
+   *
+   * @param skus The skus to add to.
+   * @param order The order.
+   */
+  private static void addSkus(ArrayList<String> skus, Order order) {
+    skus.add(order.getFrontsku());
+    skus.add(order.getBacksku());
+  }
+
+}
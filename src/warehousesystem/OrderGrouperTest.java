@@ -0,0 +1,107 @@
+package warehousesystem;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.logging.FileHandler;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+public class OrderGrouperTest {
+
+  private FileHandler handler;
+  private WarehouseSystem whSystem;
+  private OrderGrouper grouper;
+  private Order near;
+  private Order far;
+  private Order nearer;
+
+  /**
+   * Before the test, set up a system with 30 of every sku except sku 3, and orders whose fascias
+   * are near to or far from those of the first order.
+   * 
+   * @throws IOException For TraversalTable and FileHandler
+   */
+  @Before
+  public void setUp() throws IOException {
+    HashMap<String, Integer> inventory = new HashMap<>();
+    for (String sku : TraversalTable.getTable("traversal_table.csv").getSkus()) {
+      inventory.put(sku, 30);
+    }
+    inventory.put("3", 0);
+    handler = new FileHandler("testLog.txt");
+    handler.setLevel(Level.ALL);
+    CustomFormatter formatter = new CustomFormatter();
+    handler.setFormatter(formatter);
+    whSystem = new WarehouseSystem(new HashMap<String, String[]>(), inventory, handler, formatter);
+    grouper = new OrderGrouper();
+    near = new Order("White", "SE", "5", "6");
+    far = new Order("Blue", "SES", "47", "48");
+    nearer = new Order("White", "S", "1", "2");
+  }
+
+  /**
+   * After the test, let go of testLog.txt.
+   */
+  @After
+  public void tearDown() {
+    Logger.getLogger("Warehouse System Logger").removeHandler(handler);
+    handler.close();
+  }
+
+  @Test
+  public void testSmallWindowIsKept() throws IOException {
+    ArrayList<Order> group =
+        grouper.group(Arrays.asList(far, near), 2, whSystem.getStorageManager());
+    assertEquals(Arrays.asList(far, near), group);
+  }
+
+  @Test
+  public void testGroupsByRoute() throws IOException {
+    Order oldest = new Order("White", "SEL", "7", "8");
+    ArrayList<Order> group = grouper.group(Arrays.asList(oldest, far, near, nearer), 2,
+        whSystem.getStorageManager());
+    assertEquals(Arrays.asList(oldest, near), group);
+  }
+
+  @Test
+  public void testOldestIsAlwaysChosen() throws IOException {
+    ArrayList<Order> group = grouper.group(Arrays.asList(far, near, nearer), 2,
+        whSystem.getStorageManager());
+    assertEquals(2, group.size());
+    assertSame(far, group.get(0));
+  }
+
+  @Test
+  public void testAvoidsEmptyLevels() throws IOException {
+    Order empty = new Order("White", "SE", "3", "4");
+    ArrayList<Order> group = grouper.group(Arrays.asList(nearer, empty, near), 2,
+        whSystem.getStorageManager());
+    assertEquals(Arrays.asList(nearer, near), group);
+    group = new OrderGrouper(0).group(Arrays.asList(nearer, empty, near), 2,
+        whSystem.getStorageManager());
+    assertEquals(Arrays.asList(nearer, empty), group);
+  }
+
+  @Test
+  public void testCost() throws IOException {
+    WarehouseLayout layout = WarehousePicking.getLayout();
+    StorageManager storage = whSystem.getStorageManager();
+    ArrayList<String> skus = new ArrayList<>(Arrays.asList("1", "2"));
+    double walk = layout.routeDistance(skus);
+    assertEquals(walk, grouper.cost(skus, layout, storage), 1e-9);
+    skus.add("3");
+    skus.add("3");
+    double stalls = grouper.cost(skus, layout, storage) - layout.routeDistance(
+        WarehousePicking.getRoutePlanner().plan(skus, layout));
+    assertEquals(2 * OrderGrouper.DEFAULT_STALL_COST, stalls, 1e-9);
+  }
+}
@@ -1,17 +1,34 @@
 package warehousesystem;
 
 import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.Serializable;
 import java.util.ArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongSupplier;
 
-public class OrderManager {
+public class OrderManager implements Serializable {
 
-  /** The warehouse system that this OrderManager is in. */
-  private WarehouseSystem whSystem;
+  /** The version of the serialized form of this class, which is kept in snapshots. */
+  private static final long serialVersionUID = 1L;
 
-  /** The ArrayList of Orders that this OrderManager records. */
-  private ArrayList<Order> orders = new ArrayList<>();
-  /** The ArrayList of pending orders for this OrderManager which is no more than four. */
-  private ArrayList<Order> pendingOrders = new ArrayList<>(4);
+  /** The warehouse system that this OrderManager is in. It is not kept in snapshots. */
+  private transient WarehouseSystem whSystem;
+
+  /** The orders received that are not in a picking request yet, oldest first. */
+  private ArrayList<Order> pendingOrders = new ArrayList<>(BatchingPolicy.DEFAULT_SIZE);
+  /** The policy that decides when the pending orders become a picking request. */
+  private BatchingPolicy policy = BatchingPolicy.DEFAULT;
+  /** The grouper that chooses the orders of a picking request from the window of the policy. */
+  private OrderGrouper grouper = new OrderGrouper();
+  /** The number of picking requests made with fewer orders than the policy's size. */
+  private int partialRequests;
+  /** The clock the orders are timed with, in nanoseconds. It is not kept in snapshots. */
+  private transient LongSupplier clock = System::nanoTime;
+  /** The time in nanoseconds from receiving each order to putting it in a picking request. */
+  private transient LatencyHistogram requestLatencies = new LatencyHistogram();
+  /** The time in nanoseconds from receiving each order to the start of its picking. */
+  private transient LatencyHistogram pickLatencies = new LatencyHistogram();
 
   /**
    * Initialize an OrderManager with the warehouse system.
@@ -24,7 +41,9 @@ public class OrderManager {
   }
 
   /**
-   * Receive the order from system, and create a new order.
+   * Receive the order from system, and create a new order. Once the batching policy's window of
+   * orders are pending, a new picking request is made of them. If the policy sends partial
+   * requests when a picker has no work and a picker is idle, a picking request is made at once.
    * 
    * @param color the color of the van fascia from the order.
    * @param model the model of the van fascia from the order.
@@ -35,24 +54,102 @@ public class OrderManager {
   public void receiveOrder(String color, String model, String front, String back)
       throws IOException {
     Order order = new Order(color, model, front, back);
-    orders.add(order);
+    order.setReceivedAt(clock.getAsLong());
     pendingOrders.add(order);
     whSystem.logInfo("SIM: OrderManager confirms order received");
-    if (pendingOrders.size() == 4) {
-      ArrayList<Order> fourOrder = new ArrayList<>();
-      for (Order newOrder : pendingOrders) {
-        fourOrder.add(newOrder);
-      }
-      PickingRequest pickingRequest = new PickingRequest(fourOrder);
-      whSystem.logInfo("SIM: OrderManager generated new Picking Request " + pickingRequest.getId());
-      whSystem.processPr(pickingRequest);
-      
-      // Set the picking request in all the order in orders.
-      for (Order o : pendingOrders) {
-        o.setPickingRequest(pickingRequest);
-      }
+    if (pendingOrders.size() >= policy.getWindow() || policy.isFlushWhenIdle()
+        && whSystem.getIdleWorkerCount(WorkerRole.PICKER) > 0) {
+      flush();
+    }
+  }
 
+  /**
+   * Make a new picking request of up to the batching policy's size of pending orders, even if
+   * fewer are pending, and send it to the system. If more are pending, the oldest order and the
+   * orders the grouper picks best with it are taken, and the others stay pending. Nothing is done
+   * if no order is pending.
+   * 
+   * @throws IOException For PickingRequest and group.
+   */
+  public void flush() throws IOException {
+    if (pendingOrders.isEmpty()) {
+      return;
+    }
+    ArrayList<Order> requestOrders =
+        grouper.group(pendingOrders, policy.getSize(), whSystem.getStorageManager());
+    PickingRequest pickingRequest = new PickingRequest(requestOrders);
+    if (requestOrders.size() < policy.getSize()) {
+      partialRequests++;
+      whSystem.logInfo(() -> "SIM: OrderManager generated new partial Picking Request "
+          + pickingRequest.getId() + " of " + requestOrders.size()
+          + (requestOrders.size() == 1 ? " order" : " orders") + " with estimated route of "
+          + pickingRequest.getEstimatedDistance() + "m");
+    } else {
+      whSystem.logInfo(() -> "SIM: OrderManager generated new Picking Request "
+          + pickingRequest.getId() + " with estimated route of "
+          + pickingRequest.getEstimatedDistance() + "m");
+    }
+    long now = clock.getAsLong();
+    for (Order o : requestOrders) {
+      if (o.getReceivedAt() != 0) {
+        requestLatencies.record(now - o.getReceivedAt());
+      }
+    }
+    if (requestOrders.size() == pendingOrders.size()) {
       pendingOrders.clear();
+    } else {
+      pendingOrders.removeAll(requestOrders);
+    }
+    whSystem.processPr(pickingRequest);
+
+    // Set the picking request in all the order in orders.
+    for (Order o : requestOrders) {
+      o.setPickingRequest(pickingRequest);
+    }
+  }
+
+  /**
+   * Return true if and only if the oldest pending order has waited for the longest time the
+   * batching policy allows, so the pending orders are due to be flushed. Orders restored from a
+   * snapshot are taken to have waited that long already.
+   * 
+   * @return true iff the pending orders are due to be flushed.
+   */
+  public boolean isFlushDue() {
+    long maxWait = policy.getMaxWaitMillis();
+    if (maxWait == 0 || pendingOrders.isEmpty()) {
+      return false;
+    }
+    long receivedAt = pendingOrders.get(0).getReceivedAt();
+    return receivedAt == 0
+        || clock.getAsLong() - receivedAt >= TimeUnit.MILLISECONDS.toNanos(maxWait);
+  }
+
+  /**
+   * Make a picking request of the pending orders for a picker that would otherwise wait for work,
+   * if the batching policy sends partial requests when a picker has no work.
+   * 
+   * @throws IOException For PickingRequest.
+   */
+  public void pickerIdle() throws IOException {
+    if (policy.isFlushWhenIdle()) {
+      flush();
+    }
+  }
+
+  /**
+   * Record the time each order of the picking request waited from being received to the start of
+   * its picking. An order that is picked again is only counted the first time.
+   * 
+   * @param pr The picking request whose picking started.
+   */
+  public void pickingStarted(PickingRequest pr) {
+    long now = clock.getAsLong();
+    for (Order o : pr.getOrders()) {
+      if (o.getReceivedAt() != 0) {
+        pickLatencies.record(now - o.getReceivedAt());
+        o.setReceivedAt(0);
+      }
     }
   }
 
@@ -65,4 +162,106 @@ public class OrderManager {
     return pendingOrders;
   }
 
+  /**
+   * Return the policy that decides when the pending orders become a picking request.
+   * 
+   * @return policy
+   */
+  public BatchingPolicy getPolicy() {
+    return policy;
+  }
+
+  /**
+   * Set the policy that decides when the pending orders become a picking request. Orders already
+   * pending are kept, and become a picking request under the new policy. The policy is appended
+   * to the journal of the system, if it has one.
+   * 
+   * @param policy The new batching policy.
+   * @throws IOException for appendPolicy
+   */
+  public void setPolicy(BatchingPolicy policy) throws IOException {
+    this.policy = policy;
+    EventJournal journal = whSystem.getJournal();
+    if (journal != null) {
+      journal.appendPolicy(policy);
+    }
+  }
+
+  /**
+   * Set the grouper that chooses the orders of a picking request from the window of the policy.
+   * 
+   * @param grouper The new order grouper.
+   */
+  public void setGrouper(OrderGrouper grouper) {
+    this.grouper = grouper;
+  }
+
+  /**
+   * Return the number of picking requests made with fewer orders than the policy's size.
+   * 
+   * @return partialRequests
+   */
+  public int getPartialRequests() {
+    return partialRequests;
+  }
+
+  /**
+   * Return the time in nanoseconds from receiving each order to putting it in a picking request,
+   * since this OrderManager was made or restored.
+   * 
+   * @return requestLatencies
+   */
+  public LatencyHistogram getRequestLatencies() {
+    return requestLatencies;
+  }
+
+  /**
+   * Return the time in nanoseconds from receiving each order to the start of its picking, since
+   * this OrderManager was made or restored.
+   * 
+   * @return pickLatencies
+   */
+  public LatencyHistogram getPickLatencies() {
+    return pickLatencies;
+  }
+
+  /**
+   * Set the clock the orders are timed with. This method is create for test.
+   * 
+   * @param clock The clock, in nanoseconds.
+   */
+  public void setClock(LongSupplier clock) {
+    this.clock = clock;
+  }
+
+  /**
+   * Restore this OrderManager from a snapshot, with a new clock and empty latencies. A snapshot
+   * taken before the batching policy and the grouper were kept gets the defaults.
+   * 
+   * @param in The stream of the snapshot.
+   * @throws IOException for ObjectInputStream
+   * @throws ClassNotFoundException for ObjectInputStream
+   */
+  private void readObject(ObjectInputStream in) throws IOException, ClassNotFoundException {
+    in.defaultReadObject();
+    if (policy == null) {
+      policy = BatchingPolicy.DEFAULT;
+    }
+    if (grouper == null) {
+      grouper = new OrderGrouper();
+    }
+    clock = System::nanoTime;
+    requestLatencies = new LatencyHistogram();
+    pickLatencies = new LatencyHistogram();
+  }
+
+  /**
+   * Set the warehouse system this OrderManager is in, after it is restored from a snapshot.
+   * 
+   * @param system The warehouse system.
+   */
+  public void setWarehouseSystem(WarehouseSystem system) {
+    whSystem = system;
+  }
+
 }
@@ -1,8 +1,11 @@
 package warehousesystem;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
 
 import java.io.IOException;
+import java.util.concurrent.TimeUnit;
 import java.util.logging.FileHandler;
 import java.util.logging.Level;
 
@@ -87,4 +90,124 @@ public class OrderManagerTest {
     assertEquals(2, orderManagerTester.getPendingOrders().size());
     assertEquals(1, whSysem.getPrList().size());
   }
+
+  @Test
+  public void testPolicySize() throws IOException {
+    orderManagerTester.setPolicy(new BatchingPolicy(2, 0, false));
+    orderManagerTester.receiveOrder("Blue", "SES", "37", "38");
+    orderManagerTester.receiveOrder("Red", "SES", "21", "22");
+    assertEquals(0, orderManagerTester.getPendingOrders().size());
+    assertEquals(1, whSysem.getPrList().size());
+    assertEquals(4, whSysem.getPrList().get(0).getFasciaCount());
+    assertEquals(0, orderManagerTester.getPartialRequests());
+  }
+
+  @Test
+  public void testFlushPartial() throws IOException {
+    orderManagerTester.receiveOrder("Blue", "SES", "37", "38");
+    orderManagerTester.receiveOrder("Beige", "S", "9", "10");
+    orderManagerTester.receiveOrder("Red", "SES", "21", "22");
+    orderManagerTester.flush();
+    assertEquals(0, orderManagerTester.getPendingOrders().size());
+    assertEquals(1, orderManagerTester.getPartialRequests());
+    PickingRequest pr = whSysem.getPrList().get(0);
+    assertEquals(3, pr.getOrders().size());
+    assertEquals(pr, pr.getOrders().get(2).getPr());
+    orderManagerTester.flush();
+    assertEquals(1, whSysem.getPrList().size());
+  }
+
+  @Test
+  public void testFlushWhenPickerIdle() throws IOException {
+    whSysem.workerReady("Picker", "Alice");
+    orderManagerTester.receiveOrder("Blue", "SES", "37", "38");
+    assertEquals(1, orderManagerTester.getPendingOrders().size());
+
+    orderManagerTester.setPolicy(new BatchingPolicy(4, 0, true));
+    orderManagerTester.receiveOrder("Red", "SES", "21", "22");
+    assertEquals(0, orderManagerTester.getPendingOrders().size());
+    PickingRequest pr = whSysem.getWorkers().get("Alice").getPickingRequest();
+    assertEquals(2, pr.getOrders().size());
+    assertEquals(RequestStatus.PICKING, pr.getStatus());
+  }
+
+  @Test
+  public void testPickerReadyFlushes() throws IOException {
+    OrderManager orderManager = whSysem.getOrderManager();
+    orderManager.setPolicy(new BatchingPolicy(4, 0, true));
+    whSysem.receiveOrder("Blue", "SES");
+    assertEquals(1, orderManager.getPendingOrders().size());
+    whSysem.workerReady("Picker", "Alice");
+    assertEquals(0, orderManager.getPendingOrders().size());
+    assertEquals(1, whSysem.getWorkers().get("Alice").getPickingRequest().getOrders().size());
+  }
+
+  @Test
+  public void testFlushDue() throws IOException {
+    long[] now = {1000};
+    orderManagerTester.setClock(() -> now[0]);
+    orderManagerTester.receiveOrder("Blue", "SES", "37", "38");
+    assertFalse(orderManagerTester.isFlushDue());
+
+    orderManagerTester.setPolicy(new BatchingPolicy(4, 10, false));
+    now[0] += TimeUnit.MILLISECONDS.toNanos(5);
+    orderManagerTester.receiveOrder("Red", "SES", "21", "22");
+    assertFalse(orderManagerTester.isFlushDue());
+    now[0] += TimeUnit.MILLISECONDS.toNanos(5);
+    assertTrue(orderManagerTester.isFlushDue());
+    orderManagerTester.flush();
+    assertFalse(orderManagerTester.isFlushDue());
+  }
+
+  @Test
+  public void testLatencies() throws IOException {
+    OrderManager orderManager = whSysem.getOrderManager();
+    long[] now = {1000};
+    orderManager.setClock(() -> now[0]);
+    whSysem.receiveOrder("Blue", "SES");
+    whSysem.receiveOrder("Beige", "S");
+    whSysem.receiveOrder("Red", "SES");
+    now[0] += 3000;
+    whSysem.receiveOrder("White", "SE");
+    assertEquals(4, orderManager.getRequestLatencies().getCount());
+    assertEquals(3000, orderManager.getRequestLatencies().getMax());
+    assertEquals(0, orderManager.getPickLatencies().getCount());
+
+    now[0] += 2000;
+    whSysem.workerReady("Picker", "Alice");
+    assertEquals(4, orderManager.getPickLatencies().getCount());
+    assertEquals(5000, orderManager.getPickLatencies().getMax());
+  }
+
+  @Test
+  public void testWindowGroupsByRoute() throws IOException {
+    orderManagerTester.setPolicy(new BatchingPolicy(2, 0, false, 3));
+    orderManagerTester.receiveOrder("White", "S", "1", "2");
+    orderManagerTester.receiveOrder("Blue", "SES", "47", "48");
+    assertEquals(2, orderManagerTester.getPendingOrders().size());
+    orderManagerTester.receiveOrder("White", "SE", "3", "4");
+    assertEquals(1, orderManagerTester.getPendingOrders().size());
+    assertEquals("47", orderManagerTester.getPendingOrders().get(0).getFrontsku());
+    PickingRequest pr = whSysem.getPrList().get(0);
+    assertEquals("1", pr.getOrders().get(0).getFrontsku());
+    assertEquals("3", pr.getOrders().get(1).getFrontsku());
+    assertEquals(0, orderManagerTester.getPartialRequests());
+  }
+
+  @Test
+  public void testWindowTailIsPicked() throws IOException {
+    OrderManager orderManager = whSysem.getOrderManager();
+    long[] now = {1000};
+    orderManager.setClock(() -> now[0]);
+    orderManager.setPolicy(new BatchingPolicy(2, 0, false, 8));
+    for (int i = 0; i < 5; i++) {
+      orderManager.receiveOrder("White", "S", "1", "2");
+    }
+    assertFalse(orderManager.isFlushDue());
+    now[0] += TimeUnit.MILLISECONDS.toNanos(BatchingPolicy.DEFAULT_WINDOW_WAIT);
+    assertTrue(orderManager.isFlushDue());
+    assertEquals(2, whSysem.flushFullRequests());
+    assertEquals(1, orderManager.getPendingOrders().size());
+    assertEquals(2, whSysem.getPrList().size());
+  }
 }
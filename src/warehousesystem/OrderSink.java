@@ -0,0 +1,29 @@
+package warehousesystem;
+
+import java.io.IOException;
+
+public interface OrderSink {
+
+  /**
+   * Record the orders of a picking request that has been loaded.
+   * 
+   * @param pr The loaded picking request.
+   * @throws IOException if the orders cannot be recorded.
+   */
+  void accept(PickingRequest pr) throws IOException;
+
+  /**
+   * Save every order recorded so far, for example before a snapshot is taken.
+   * 
+   * @throws IOException if the recorded orders cannot be saved.
+   */
+  void flush() throws IOException;
+
+  /**
+   * Finish recording orders and release anything held by this OrderSink.
+   * 
+   * @throws IOException if the recorded orders cannot be saved.
+   */
+  void close() throws IOException;
+
+}
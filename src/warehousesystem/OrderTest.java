@@ -25,15 +25,15 @@ public class OrderTest {
 
   @Test
   public void testGetStatus() {
-    String output = order.getStatus();
+    RequestStatus output = order.getStatus();
     assertEquals(null, output);
   }
 
   @Test
   public void testSetStatus() {
-    order.setStatus("Picking");
-    String output = order.getStatus();
-    assertEquals("Picking", output);
+    order.setStatus(RequestStatus.PICKING);
+    RequestStatus output = order.getStatus();
+    assertEquals(RequestStatus.PICKING, output);
   }
 
   @Test
@@ -0,0 +1,178 @@
+package warehousesystem;
+
+import java.io.Serializable;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.EnumMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Queue;
+import java.util.Set;
+
+public class PendingRequestQueues implements Serializable {
+
+  /** The version of the serialized form of this class, which is kept in snapshots. */
+  private static final long serialVersionUID = 1L;
+
+  /** The order picking requests are loaded in, which is the order they were created in. */
+  private static final Comparator<PickingRequest> LOAD_ORDER = new LoadOrder();
+
+  /** Compares picking requests by id. It is serializable so that snapshots can hold the queues. */
+  private static class LoadOrder implements Comparator<PickingRequest>, Serializable {
+
+    /** The version of the serialized form of this class. */
+    private static final long serialVersionUID = 1L;
+
+    @Override
+    public int compare(PickingRequest pr1, PickingRequest pr2) {
+      return Integer.compare(pr1.getId(), pr2.getId());
+    }
+  }
+
+  /**
+   * A mapping of status to the picking requests with that status waiting for a worker. Only the
+   * statuses WAITING, PICKED and SEQUENCED have a queue. The SEQUENCED queue is ordered by id so
+   * that the picking request to load next is at its front.
+   */
+  private Map<RequestStatus, Queue<PickingRequest>> queues = new EnumMap<>(RequestStatus.class);
+  /** The picking requests that are in one of the queues. */
+  private Set<PickingRequest> queued = new HashSet<>();
+
+  /**
+   * Initialize new, empty PendingRequestQueues.
+   */
+  public PendingRequestQueues() {
+    queues.put(RequestStatus.WAITING, new ArrayDeque<PickingRequest>());
+    queues.put(RequestStatus.PICKED, new ArrayDeque<PickingRequest>());
+    queues.put(RequestStatus.SEQUENCED, new PriorityQueue<PickingRequest>(11, LOAD_ORDER));
+  }
+
+  /**
+   * Add the picking request to the back of the queue of its status.
+   *
+   * @param pr The picking request waiting for a worker.
+   * @return true iff the picking request was added, false if it is already queued or its status
+   *         has no queue.
+   */
+  public boolean offer(PickingRequest pr) {
+    Queue<PickingRequest> queue = queues.get(pr.getStatus());
+    if (queue == null || !queued.add(pr)) {
+      return false;
+    }
+    queue.offer(pr);
+    return true;
+  }
+
+  /**
+   * Add the picking request to the front of the queue of its status, so that it is handed out
+   * before every other picking request with the same status. A picking request that is already
+   * queued is moved to the front. The SEQUENCED queue keeps its load order.
+   *
+   * @param pr The picking request waiting for a worker.
+   * @return true iff the picking request was added, false if its status has no queue.
+   */
+  public boolean offerFirst(PickingRequest pr) {
+    Queue<PickingRequest> queue = queues.get(pr.getStatus());
+    if (queue == null) {
+      return false;
+    }
+    if (!(queue instanceof Deque)) {
+      return offer(pr);
+    }
+    if (!queued.add(pr)) {
+      queue.remove(pr);
+    }
+    ((Deque<PickingRequest>) queue).addFirst(pr);
+    return true;
+  }
+
+  /**
+   * Remove and return the picking request at the front of the queue of the status.
+   *
+   * @param status The status of the picking request.
+   * @return The picking request, or null if none with the status is queued.
+   */
+  public PickingRequest poll(RequestStatus status) {
+    PickingRequest pr = peek(status);
+    if (pr != null) {
+      queues.get(status).poll();
+      queued.remove(pr);
+    }
+    return pr;
+  }
+
+  /**
+   * Return the picking request at the front of the queue of the status without removing it.
+   *
+   * @param status The status of the picking request.
+   * @return The picking request, or null if none with the status is queued.
+   */
+  public PickingRequest peek(RequestStatus status) {
+    Queue<PickingRequest> queue = queues.get(status);
+    PickingRequest pr = queue.peek();
+    // A picking request whose status changed while it was queued is moved to its new queue.
+    while (pr != null && pr.getStatus() != status) {
+      queue.poll();
+      queued.remove(pr);
+      offer(pr);
+      pr = queue.peek();
+    }
+    return pr;
+  }
+
+  /**
+   * Return true if and only if the picking request is queued.
+   *
+   * @param pr The picking request.
+   * @return true iff the picking request is queued.
+   */
+  public boolean contains(PickingRequest pr) {
+    return queued.contains(pr);
+  }
+
+  /**
+   * Return the number of queued picking requests with the status. This also counts the picking
+   * requests whose status changed while they were queued, until peek or poll moves them, so it is
+   * at least the number that poll can return.
+   *
+   * @param status The status of the picking requests.
+   * @return The number of queued picking requests with the status.
+   */
+  public int size(RequestStatus status) {
+    return queues.get(status).size();
+  }
+
+  /**
+   * Return the number of queued picking requests.
+   *
+   * @return The number of queued picking requests.
+   */
+  public int size() {
+    return queued.size();
+  }
+
+  /**
+   * Return all queued picking requests, in pipeline order and in queue order within each status.
+   *
+   * @return A new ArrayList of the queued picking requests.
+   */
+  public ArrayList<PickingRequest> toList() {
+    ArrayList<PickingRequest> result = new ArrayList<>(queued.size());
+    for (Queue<PickingRequest> queue : queues.values()) {
+      if (queue instanceof Deque) {
+        result.addAll(queue);
+      } else {
+        List<PickingRequest> ordered = new ArrayList<>(queue);
+        Collections.sort(ordered, LOAD_ORDER);
+        result.addAll(ordered);
+      }
+    }
+    return result;
+  }
+
+}
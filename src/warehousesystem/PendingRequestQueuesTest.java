@@ -0,0 +1,120 @@
+package warehousesystem;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.io.IOException;
+import java.util.ArrayList;
+
+import org.junit.Before;
+import org.junit.Test;
+
+public class PendingRequestQueuesTest {
+
+  private PendingRequestQueues queues;
+  private PickingRequest pr1;
+  private PickingRequest pr2;
+  private PickingRequest pr3;
+
+  /**
+   * Before the test, set up empty queues and three waiting picking requests.
+   * 
+   * @throws IOException for new PickingRequest.
+   */
+  @Before
+  public void setUp() throws IOException {
+    ArrayList<Order> orders = new ArrayList<>();
+    orders.add(new Order("Blue", "SES", "37", "38"));
+    queues = new PendingRequestQueues();
+    pr1 = new PickingRequest(orders);
+    pr2 = new PickingRequest(orders);
+    pr3 = new PickingRequest(orders);
+  }
+
+  @Test
+  public void testPollIsFirstInFirstOut() {
+    queues.offer(pr1);
+    queues.offer(pr2);
+    assertEquals(pr1, queues.poll(RequestStatus.WAITING));
+    assertEquals(pr2, queues.poll(RequestStatus.WAITING));
+    assertNull(queues.poll(RequestStatus.WAITING));
+  }
+
+  @Test
+  public void testOfferFirst() {
+    queues.offer(pr1);
+    queues.offer(pr2);
+    queues.offerFirst(pr3);
+    assertEquals(pr3, queues.peek(RequestStatus.WAITING));
+    queues.offerFirst(pr2);
+    assertEquals(pr2, queues.poll(RequestStatus.WAITING));
+    assertEquals(pr3, queues.poll(RequestStatus.WAITING));
+    assertEquals(pr1, queues.poll(RequestStatus.WAITING));
+  }
+
+  @Test
+  public void testQueuesByStatus() {
+    advance(pr2, RequestStatus.PICKED);
+    advance(pr3, RequestStatus.LOADING);
+    queues.offer(pr1);
+    queues.offer(pr2);
+    assertFalse(queues.offer(pr3));
+    assertEquals(1, queues.size(RequestStatus.WAITING));
+    assertEquals(1, queues.size(RequestStatus.PICKED));
+    assertEquals(0, queues.size(RequestStatus.SEQUENCED));
+    assertEquals(pr2, queues.poll(RequestStatus.PICKED));
+  }
+
+  @Test
+  public void testOfferTwice() {
+    assertTrue(queues.offer(pr1));
+    assertFalse(queues.offer(pr1));
+    assertEquals(1, queues.size());
+    assertTrue(queues.contains(pr1));
+  }
+
+  @Test
+  public void testStatusChangedWhileQueued() {
+    queues.offer(pr1);
+    queues.offer(pr2);
+    advance(pr1, RequestStatus.PICKED);
+    assertEquals(pr2, queues.poll(RequestStatus.WAITING));
+    assertEquals(pr1, queues.poll(RequestStatus.PICKED));
+  }
+
+  @Test
+  public void testSequencedInLoadOrder() {
+    advance(pr3, RequestStatus.SEQUENCED);
+    advance(pr1, RequestStatus.SEQUENCED);
+    queues.offer(pr3);
+    queues.offerFirst(pr1);
+    assertEquals(pr1, queues.poll(RequestStatus.SEQUENCED));
+    assertEquals(pr3, queues.poll(RequestStatus.SEQUENCED));
+  }
+
+  @Test
+  public void testToList() {
+    advance(pr1, RequestStatus.SEQUENCED);
+    queues.offer(pr1);
+    queues.offer(pr2);
+    ArrayList<PickingRequest> expected = new ArrayList<>();
+    expected.add(pr2);
+    expected.add(pr1);
+    assertEquals(expected, queues.toList());
+  }
+
+  /**
+   * Move the picking request along the pipeline until it has the status.
+   * 
+   * @param pr The picking request to move.
+   * @param status The status to stop at.
+   */
+  private static void advance(PickingRequest pr, RequestStatus status) {
+    while (pr.getStatus() != status) {
+      pr.setStatus(pr.getStatus().next());
+    }
+  }
+
+}
@@ -2,10 +2,17 @@ package warehousesystem;
 
 public class PickerBarcodeReader extends BarcodeReader {
 
+  /** The version of the serialized form of this class, which is kept in snapshots. */
+  private static final long serialVersionUID = 1L;
+
   /** The location that this PickerBarcodeReader is going to go next. */
   private String workingLocation;
   /** The sku that this PickerBarcodeReader is going to pick next. */
   private String workingSku;
+  /** The batch of picking requests this PickerBarcodeReader is picking, or null if none. */
+  private PickingBatch batch;
+  /** The tote the fascia this PickerBarcodeReader is going to pick next goes in. */
+  private int workingTote;
 
   /**
    * Initialize a new PickerBarcodeReader.
@@ -20,42 +27,99 @@ public class PickerBarcodeReader extends BarcodeReader {
 
   /**
    * Log the location of next fascia to warehouse system. Set the workingLocation and workingSku
-   * according to the orders in picking request.
+   * according to the orders in picking request, and send the sku to pick to the picker.
    */
   public void getNextStep() {
-    workingLocation = pr.getNextLocation();
-    workingSku = pr.getNextSku();
-    whSystem.logInfo("SIM: Picker " + user + " directed to " + workingLocation);
+    if (batch != null) {
+      workingLocation = batch.getNextLocation();
+      workingSku = batch.getNextSku();
+      workingTote = batch.getNextTote();
+    } else {
+      workingLocation = pr.getNextLocation();
+      workingSku = pr.getNextSku();
+    }
+    whSystem.logInfo(() -> "SIM: Picker " + user + " directed to " + workingLocation);
+    instruct(new ScannerInstruction(ScannerInstruction.Kind.PICK, workingSku, workingLocation));
+  }
+
+  /**
+   * Set a new picking request for the picker, and stop picking any batch.
+   * 
+   * @param pickingRequest The picking request that the user is going to deal with.
+   */
+  @Override
+  public void setPickingRequest(PickingRequest pickingRequest) {
+    batch = null;
+    super.setPickingRequest(pickingRequest);
+  }
+
+  /**
+   * Set a batch of picking requests for the picker to pick in one route, and log the location of
+   * the first fascia. The first picking request of the batch becomes the picking request of this
+   * PickerBarcodeReader.
+   * 
+   * @param pickingBatch The batch that the picker is going to pick.
+   */
+  public void setBatch(PickingBatch pickingBatch) {
+    batch = pickingBatch;
+    pr = pickingBatch.getRequests().get(0);
+    getNextStep();
+  }
+
+  /**
+   * Return the batch of picking requests this picker is picking, or null if there is none.
+   * 
+   * @return batch
+   */
+  public PickingBatch getBatch() {
+    return batch;
+  }
+
+  /**
+   * Return the number of fascias in the batch this picker is picking, or in its picking request.
+   * 
+   * @return The number of fascias.
+   */
+  @Override
+  protected int getFasciaCount() {
+    return batch == null ? super.getFasciaCount() : batch.getFasciaCount();
   }
 
   /**
    * Scan the sku number. Add this sku to the scannedSku. If the sku number is different from
    * workingSku, either rescan it, put it back and go to the correct location or continue do
-   * something wrong. If there is already eight fascia, send the picker to Marshaling. Otherwise
-   * give the picker next location to pick next fascia.
+   * something wrong. If every fascia of the picking request, or of the batch, is picked, send the
+   * picker to Marshaling. Otherwise give the picker next location to pick next fascia.
    * 
    * @param sku The sku that the picker scanned.
    */
   public void scan(String sku) {
     scannedSku.add(sku);
-    if (scannedSku.size() <= 8) {
+    int fasciaCount = getFasciaCount();
+    if (scannedSku.size() <= fasciaCount) {
       Boolean flag = true;
       // Check if sku number is correct.
       if (!sku.equals(workingSku)) {
-        whSystem.logWarning("SIM: Picker " + this.getUser() + " picked incorrect fascia " + sku
-            + ", retrying for " + workingSku + " at " + workingLocation);
+        whSystem.logWarning(() -> "SIM: Picker " + this.getUser() + " picked incorrect fascia "
+            + sku + ", retrying for " + workingSku + " at " + workingLocation);
         flag = false;
+      } else if (batch != null) {
+        whSystem.logInfo(() -> "SIM: Picker " + this.getUser() + " picked fascia " + sku
+            + " into tote " + (workingTote + 1) + " for request "
+            + batch.getRequests().get(workingTote).getId());
       } else {
-        whSystem.logInfo("SIM: Picker " + this.getUser() + " picked fascia " + sku);
+        whSystem.logInfo(() -> "SIM: Picker " + this.getUser() + " picked fascia " + sku);
       }
-      // Check if there are eight fascias.
-      if (scannedSku.size() == 8) {
-        whSystem.logInfo("SIM: Picker " + this.getUser() + " heading to Marshalling");
+      // Check if all the fascias are picked.
+      if (scannedSku.size() == fasciaCount) {
+        whSystem.logInfo(() -> "SIM: Picker " + this.getUser() + " heading to Marshalling");
+        instruct(new ScannerInstruction(ScannerInstruction.Kind.MARSHAL, (String) null));
       } else if (flag) {
         getNextStep();
       }
     } else {
-      whSystem.logWarning("SIM: Picker " + this.getUser() + " scanned more than eight fascias");
+      whSystem.logWarning(() -> "SIM: Picker " + this.getUser() + " scanned more than "
+          + fasciaCount + " fascias");
     }
   }
 }
@@ -135,4 +135,51 @@ public class PickerBarcodeReaderTest {
     assertEquals(9, pickerBr.scannedSku.size());
   }
 
+  @Test
+  public void testSetBatch() throws IOException {
+    ArrayList<Order> orders = new ArrayList<>();
+    orders.add(new Order("White", "S", "1", "2"));
+    ArrayList<PickingRequest> requests = new ArrayList<>();
+    requests.add(fourOrderPr);
+    requests.add(new PickingRequest(orders));
+    PickingBatch batch = new PickingBatch(requests);
+    pickerBr.setBatch(batch);
+    assertEquals(fourOrderPr, pickerBr.getPickingRequest());
+    assertEquals(batch, pickerBr.getBatch());
+    String[] skus = {"1", "2", "3", "4", "9", "10", "21", "22", "37", "38"};
+    for (String sku : skus) {
+      pickerBr.scan(sku);
+    }
+    assertEquals(10, pickerBr.scannedSku.size());
+    pickerBr.setPickingRequest(null);
+    assertEquals(null, pickerBr.getBatch());
+  }
+
+  @Test
+  public void testInstructions() {
+    ArrayList<ScannerInstruction> sent = new ArrayList<>();
+    whSystem.setInstructionListener((br, instruction) -> sent.add(instruction));
+    pickerBr.setPickingRequest(fourOrderPr);
+    assertEquals(ScannerInstruction.Kind.PICK, pickerBr.getLastInstruction().getKind());
+    assertEquals("3", pickerBr.getLastInstruction().getSkus().get(0));
+    String[] skus = {"3", "4", "9", "10", "21", "22", "37", "38"};
+    for (String sku : skus) {
+      pickerBr.scan(sku);
+    }
+    assertEquals(ScannerInstruction.Kind.MARSHAL, pickerBr.getLastInstruction().getKind());
+    assertEquals(9, sent.size());
+    assertEquals(pickerBr.getLastInstruction(), sent.get(8));
+  }
+
+  @Test
+  public void testPartialRequest() throws IOException {
+    ArrayList<Order> partial = new ArrayList<>();
+    partial.add(new Order("Blue", "SES", "37", "38"));
+    pickerBr.setPickingRequest(new PickingRequest(partial));
+    pickerBr.scan("37");
+    assertEquals(ScannerInstruction.Kind.PICK, pickerBr.getLastInstruction().getKind());
+    pickerBr.scan("38");
+    assertEquals(ScannerInstruction.Kind.MARSHAL, pickerBr.getLastInstruction().getKind());
+  }
+
 }
@@ -0,0 +1,117 @@
+package warehousesystem;
+
+import java.io.IOException;
+import java.io.Serializable;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.HashMap;
+
+public class PickingBatch implements Serializable {
+
+  /** The version of the serialized form of this class, which is kept in snapshots. */
+  private static final long serialVersionUID = 1L;
+
+  /** The picking requests in this PickingBatch, one tote on the picker's cart for each. */
+  private ArrayList<PickingRequest> requests;
+  /** The picking order of all fascias in this PickingBatch. */
+  private ArrayList<String> pickingOrder = new ArrayList<>();
+  /** The location of all fascias in this PickingBatch, in picking order. */
+  private ArrayList<String> location = new ArrayList<>();
+  /** The tote each fascia is put in, in picking order. Tote i holds the i-th picking request. */
+  private ArrayList<Integer> totes = new ArrayList<>();
+  /** The estimated walking distance in metres of the picking route of this PickingBatch. */
+  private double estimatedDistance;
+
+  /**
+   * Initialize a new PickingBatch that picks the fascias of all the picking requests in a single
+   * route.
+   *
+   * @param requests The picking requests to pick together.
+   * @throws IOException for WarehousePicking optimize.
+   */
+  public PickingBatch(ArrayList<PickingRequest> requests) throws IOException {
+    this.requests = requests;
+    ArrayList<String> skuNumbers = new ArrayList<>();
+    HashMap<String, ArrayDeque<Integer>> skuToTotes = new HashMap<>();
+    for (int tote = 0; tote < requests.size(); tote++) {
+      for (Order o : requests.get(tote).getOrders()) {
+        for (String sku : new String[] {o.getFrontsku(), o.getBacksku()}) {
+          skuNumbers.add(sku);
+          if (!skuToTotes.containsKey(sku)) {
+            skuToTotes.put(sku, new ArrayDeque<Integer>());
+          }
+          skuToTotes.get(sku).add(tote);
+        }
+      }
+    }
+    ArrayList<String> result = WarehousePicking.optimize(skuNumbers);
+    ArrayList<String> route = new ArrayList<>(result.size());
+    for (String str : result) {
+      String sku = str.substring(8);
+      pickingOrder.add(sku);
+      location.add(str.substring(0, 7));
+      totes.add(skuToTotes.get(sku).poll());
+      route.add(sku);
+    }
+    estimatedDistance = WarehousePicking.routeDistance(route);
+  }
+
+  /**
+   * Return the picking requests in this PickingBatch.
+   *
+   * @return requests
+   */
+  public ArrayList<PickingRequest> getRequests() {
+    return requests;
+  }
+
+  /**
+   * Return the total number of fascias to pick in this PickingBatch.
+   *
+   * @return The number of fascias.
+   */
+  public int getFasciaCount() {
+    int count = 0;
+    for (PickingRequest pr : requests) {
+      count += pr.getFasciaCount();
+    }
+    return count;
+  }
+
+  /**
+   * Return next fascia's sku number while picker is picking this batch.
+   *
+   * @return The String of next fascia's sku.
+   */
+  public String getNextSku() {
+    return pickingOrder.remove(0);
+  }
+
+  /**
+   * Return the location of the next fascia.
+   *
+   * @return The String of next fascia's location.
+   */
+  public String getNextLocation() {
+    return location.remove(0);
+  }
+
+  /**
+   * Return the tote the next fascia is put in.
+   *
+   * @return The index of the tote, which is the index of its picking request in requests.
+   */
+  public int getNextTote() {
+    return totes.remove(0);
+  }
+
+  /**
+   * Return the estimated walking distance in metres of the picking route of this batch.
+   *
+   * @return estimatedDistance
+   */
+  public double getEstimatedDistance() {
+    return estimatedDistance;
+  }
+
+}
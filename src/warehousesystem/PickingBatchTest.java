@@ -0,0 +1,64 @@
+package warehousesystem;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.io.IOException;
+import java.util.ArrayList;
+
+import org.junit.Before;
+import org.junit.Test;
+
+public class PickingBatchTest {
+
+  private PickingRequest pr1;
+  private PickingRequest pr2;
+  private PickingBatch batch;
+
+  /**
+   * Before the test, set up a batch of two picking requests that share the sku 37.
+   * 
+   * @throws IOException for new PickingRequest.
+   */
+  @Before
+  public void setUp() throws IOException {
+    ArrayList<Order> orders1 = new ArrayList<>();
+    orders1.add(new Order("Blue", "SES", "37", "38"));
+    orders1.add(new Order("White", "SE", "3", "4"));
+    ArrayList<Order> orders2 = new ArrayList<>();
+    orders2.add(new Order("Beige", "S", "9", "10"));
+    orders2.add(new Order("Blue", "SES", "37", "38"));
+    pr1 = new PickingRequest(orders1);
+    pr2 = new PickingRequest(orders2);
+    ArrayList<PickingRequest> requests = new ArrayList<>();
+    requests.add(pr1);
+    requests.add(pr2);
+    batch = new PickingBatch(requests);
+  }
+
+  @Test
+  public void testGetFasciaCount() {
+    assertEquals(8, batch.getFasciaCount());
+  }
+
+  @Test
+  public void testPickingOrder() {
+    String[] skus = {"3", "4", "9", "10", "37", "37", "38", "38"};
+    String[] locations =
+        {"A,0,0,2", "A,0,0,3", "A,0,2,0", "A,0,2,1", "B,1,0,0", "B,1,0,0", "B,1,0,1", "B,1,0,1"};
+    int[] totes = {0, 0, 1, 1, 0, 1, 0, 1};
+    for (int i = 0; i < skus.length; i++) {
+      assertEquals(locations[i], batch.getNextLocation());
+      assertEquals(skus[i], batch.getNextSku());
+      assertEquals(totes[i], batch.getNextTote());
+    }
+  }
+
+  @Test
+  public void testEstimatedDistance() {
+    assertTrue(batch.getEstimatedDistance() > 0);
+    assertTrue(batch.getEstimatedDistance() < pr1.getEstimatedDistance()
+        + pr2.getEstimatedDistance());
+  }
+
+}
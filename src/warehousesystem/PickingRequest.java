@@ -1,9 +1,15 @@
 package warehousesystem;
 
 import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.Serializable;
 import java.util.ArrayList;
 
-public class PickingRequest {
+public class PickingRequest implements Serializable {
+
+  /** The version of the serialized form of this class, which is kept in snapshots. */
+  private static final long serialVersionUID = 1L;
 
   /** The id of this PickingRequest. */
   private int id;
@@ -13,38 +19,41 @@ public class PickingRequest {
    */
   private static int PRId = 1;
 
-  /**
-   * The status of this picking request. This can only be one of "Waiting", "Picking", "Picked",
-   * "Sequencing", "Sequenced", "Loading", "Loaded", "Finish".
-   */
-  private String status = "Waiting";
+  /** The status of this picking request. A new picking request is waiting to be picked. */
+  private RequestStatus status = RequestStatus.WAITING;
 
-  /** The four orders in the PickingRequest. */
+  /** The orders in the PickingRequest, four unless the batching policy says otherwise. */
   private ArrayList<Order> orders = new ArrayList<>(4);
-  /** The correct order of eight fascias to be sequenced and loaded in this PickingRequest. */
+  /** The correct order of the fascias to be sequenced and loaded in this PickingRequest. */
   private ArrayList<String> correctOrder = new ArrayList<>(8);
-  /** The picking order of eight fascias in this PickingRequest. */
+  /** The picking order of the fascias in this PickingRequest. */
   private ArrayList<String> pickingOrder = new ArrayList<>(8);
-  /** The location of eight fascias in this PickingRequest. */
+  /** The location of the fascias in this PickingRequest, in picking order. */
   private ArrayList<String> location = new ArrayList<>(8);
+  /** The estimated walking distance in metres of the picking route of this PickingRequest. */
+  private double estimatedDistance;
 
   /**
-   * Initialize a new PickingRequest with four orders.
+   * Initialize a new PickingRequest with its orders, which are four in a full request and fewer in
+   * a partial one.
    * 
-   * @param orders The ArrayList of four orders to create a new picking request.
+   * @param orders The ArrayList of orders to create a new picking request.
    * @throws IOException for findFasciaLocation.
    */
   public PickingRequest(ArrayList<Order> orders) throws IOException {
     id = PRId;
     PRId++;
     this.orders = orders;
-    setStatus(status);
+    for (Order order : orders) {
+      order.setStatus(status);
+    }
     findFasciaLocation();
     findCorrectOrder();
   }
 
   /**
-   * Return the ArrayList of eight fascias' location.
+   * Find the location of the fascias in picking order and estimate the walking distance of
+   * the picking route.
    *
    * @throws IOException for WarehousePicking optimize.
    */
@@ -55,18 +64,23 @@ public class PickingRequest {
       skuNumbers.add(o.getBacksku());
     }
     ArrayList<String> result = (ArrayList<String>) WarehousePicking.optimize(skuNumbers);
+    pickingOrder.clear();
+    location.clear();
+    ArrayList<String> route = new ArrayList<>(result.size());
     for (String str : result) {
       String sku = str.substring(8);
       pickingOrder.add(sku);
       location.add(str.substring(0, 7));
+      route.add(sku);
     }
+    estimatedDistance = WarehousePicking.routeDistance(route);
   }
 
   /**
    * Return the correct order of sku numbers in this picking request for sequencer to sequencing and
    * loader to check.
    * 
-   * @return ArrayList of String with eight correct order of sku numbers.
+   * @return ArrayList of String with the fronts then the backs of the orders' sku numbers.
    */
   public ArrayList<String> findCorrectOrder() {
     ArrayList<String> skuNumbers = new ArrayList<>();
@@ -80,27 +94,65 @@ public class PickingRequest {
     return skuNumbers;
   }
 
+  /**
+   * Return the number of fascias in the picking request, a front and a back for each order.
+   * 
+   * @return The number of fascias.
+   */
+  public int getFasciaCount() {
+    return orders.size() * 2;
+  }
+
   /**
    * Return the status of the picking request.
    * 
    * @return status
    */
-  public String getStatus() {
+  public RequestStatus getStatus() {
     return status;
   }
 
   /**
-   * Set the status of the picking request to a new status.
+   * Set the status of the picking request to a new status. Setting the current status again does
+   * nothing.
    * 
    * @param status The new status of this picking request.
+   * @throws IllegalStateException if the picking request cannot move to the new status.
    */
-  public void setStatus(String status) {
+  public void setStatus(RequestStatus status) {
+    if (status == this.status) {
+      return;
+    }
+    if (!this.status.canTransitionTo(status)) {
+      throw new IllegalStateException(
+          "Picking request " + id + " cannot go from " + this.status + " to " + status);
+    }
     this.status = status;
     for (Order order : orders) {
       order.setStatus(status);
     }
   }
 
+  /**
+   * Write the id the next PickingRequest will get to a snapshot.
+   * 
+   * @param out The stream of the snapshot.
+   * @throws IOException for ObjectOutputStream
+   */
+  static void writeCounters(ObjectOutputStream out) throws IOException {
+    out.writeInt(PRId);
+  }
+
+  /**
+   * Read the id the next PickingRequest will get from a snapshot, replacing the current counter.
+   * 
+   * @param in The stream of the snapshot.
+   * @throws IOException for ObjectInputStream
+   */
+  static void readCounters(ObjectInputStream in) throws IOException {
+    PRId = in.readInt();
+  }
+
   /**
    * Return the correct order of the picking request.
    * 
@@ -128,6 +180,15 @@ public class PickingRequest {
     return location.remove(0);
   }
 
+  /**
+   * Return the estimated walking distance in metres of the picking route of this picking request.
+   * 
+   * @return estimatedDistance
+   */
+  public double getEstimatedDistance() {
+    return estimatedDistance;
+  }
+
   /**
    * Return the id of the picking request.
    * 
@@ -138,7 +199,7 @@ public class PickingRequest {
   }
 
   /**
-   * Return the ArrayList of four orders in this picking request.
+   * Return the ArrayList of orders in this picking request.
    * 
    * @return orders
    */
@@ -50,15 +50,29 @@ public class PickingRequestTest {
 
   @Test
   public void testGetStatus() {
-    String output = testPr.getStatus();
-    assertEquals("Waiting", output);
+    RequestStatus output = testPr.getStatus();
+    assertEquals(RequestStatus.WAITING, output);
   }
 
   @Test
   public void testSetStatus() {
-    testPr.setStatus("Loading");
-    String output = testPr.getStatus();
-    assertEquals("Loading", output);
+    testPr.setStatus(RequestStatus.PICKING);
+    RequestStatus output = testPr.getStatus();
+    assertEquals(RequestStatus.PICKING, output);
+    assertEquals(RequestStatus.PICKING, orders.get(0).getStatus());
+  }
+
+  @Test(expected = IllegalStateException.class)
+  public void testIllegalSetStatus() {
+    testPr.setStatus(RequestStatus.LOADING);
+  }
+
+  @Test
+  public void testDiscardSetStatus() {
+    testPr.setStatus(RequestStatus.PICKING);
+    testPr.setStatus(RequestStatus.PICKED);
+    testPr.setStatus(RequestStatus.WAITING);
+    assertEquals(RequestStatus.WAITING, testPr.getStatus());
   }
 
   @Test
@@ -139,4 +153,14 @@ public class PickingRequestTest {
     assertEquals(orders.toString(), output.toString());
   }
 
+  @Test
+  public void testGetFasciaCount() throws IOException {
+    assertEquals(8, testPr.getFasciaCount());
+    ArrayList<Order> partial = new ArrayList<>();
+    partial.add(new Order("Blue", "SES", "37", "38"));
+    PickingRequest partialPr = new PickingRequest(partial);
+    assertEquals(2, partialPr.getFasciaCount());
+    assertEquals(2, partialPr.getCorrectOrder().size());
+  }
+
 }
@@ -2,8 +2,13 @@ package warehousesystem;
 
 public class ReplenisherBarcodeReader extends BarcodeReader {
 
+  /** The version of the serialized form of this class, which is kept in snapshots. */
+  private static final long serialVersionUID = 1L;
+
   /** The sku number that this ReplenisherBarcodeReader is going to replenish. */
   private String replenishSku = "0";
+  /** The index of the aisle this replenisher is in, which is the first aisle at the start. */
+  private int aisle;
 
   /**
    * Initialize a new ReplenisherBarcodeReader.
@@ -36,11 +41,31 @@ public class ReplenisherBarcodeReader extends BarcodeReader {
   }
 
   /**
-   * Log the sku for replenisher to replenish to warehouse system.
+   * Return the index of the aisle this replenisher is in.
+   * 
+   * @return aisle
+   */
+  public int getAisle() {
+    return aisle;
+  }
+
+  /**
+   * Set the index of the aisle this replenisher is in, once it has been to a level there.
+   * 
+   * @param aisle The index of the aisle.
+   */
+  public void setAisle(int aisle) {
+    this.aisle = aisle;
+  }
+
+  /**
+   * Log the sku for replenisher to replenish to warehouse system, and send it to the replenisher.
    */
   @Override
   public void getNextStep() {
-    whSystem.logInfo("SIM: Replenisher " + user + " directed to replenish SKU " + replenishSku);
+    whSystem.logInfo(() -> "SIM: Replenisher " + user + " directed to replenish SKU "
+        + replenishSku);
+    instruct(new ScannerInstruction(ScannerInstruction.Kind.REPLENISH, replenishSku));
   }
 
   /**
@@ -53,10 +78,10 @@ public class ReplenisherBarcodeReader extends BarcodeReader {
   public void scan(String sku) {
     if (sku.equals(replenishSku)) {
       scannedSku.add(sku);
-      whSystem.logInfo("SIM: Replenisher " + this.getUser() + "'s Scanner reports SKU "
+      whSystem.logInfo(() -> "SIM: Replenisher " + this.getUser() + "'s Scanner reports SKU "
           + replenishSku + " stock successfully replenished");
     } else {
-      whSystem.logWarning("SIM: Replenisher " + this.getUser()
+      whSystem.logWarning(() -> "SIM: Replenisher " + this.getUser()
           + "'s Scanner reports error when replenishing SKU " + replenishSku);
     }
   }
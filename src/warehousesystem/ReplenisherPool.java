@@ -0,0 +1,115 @@
+package warehousesystem;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+
+public class ReplenisherPool implements Serializable {
+
+  /** The version of the serialized form of this class, which is kept in snapshots. */
+  private static final long serialVersionUID = 1L;
+
+  /** The idle replenishers in each aisle, by aisle index, in the order they became idle. */
+  private ArrayList<LinkedHashSet<BarcodeReader>> aisles = new ArrayList<>();
+  /** A mapping of idle replenisher to the index of the aisle it waits in. */
+  private HashMap<BarcodeReader, Integer> aisleOf = new HashMap<>();
+
+  /**
+   * Add the replenisher to the idle replenishers of the aisle it is in. A replenisher that is
+   * already idle keeps its place.
+   *
+   * @param br The BarcodeReader of the idle replenisher.
+   * @return true iff the replenisher was not idle before.
+   */
+  public boolean release(BarcodeReader br) {
+    if (aisleOf.containsKey(br)) {
+      return false;
+    }
+    int aisle = br instanceof ReplenisherBarcodeReader
+        ? Math.max(((ReplenisherBarcodeReader) br).getAisle(), 0) : 0;
+    while (aisles.size() <= aisle) {
+      aisles.add(new LinkedHashSet<BarcodeReader>());
+    }
+    aisles.get(aisle).add(br);
+    aisleOf.put(br, aisle);
+    return true;
+  }
+
+  /**
+   * Remove and return the idle replenisher closest to the aisle: one in the aisle itself if there
+   * is any, or else one in the nearest aisle, looking towards the entrance first. Among the
+   * replenishers in one aisle, the one idle the longest is taken. This takes time in the number
+   * of aisles, however many replenishers are on shift.
+   *
+   * @param aisle The index of the aisle the replenisher is needed in.
+   * @return The BarcodeReader of the replenisher, or null if none is idle.
+   */
+  public BarcodeReader acquire(int aisle) {
+    if (aisleOf.isEmpty()) {
+      return null;
+    }
+    for (int d = 0; aisle - d >= 0 || aisle + d < aisles.size(); d++) {
+      BarcodeReader br = poll(aisle - d);
+      if (br == null && d > 0) {
+        br = poll(aisle + d);
+      }
+      if (br != null) {
+        return br;
+      }
+    }
+    return null;
+  }
+
+  /**
+   * Remove and return the replenisher idle the longest in the aisle, or null if there is none.
+   *
+   * @param aisle The index of the aisle.
+   * @return The BarcodeReader of the replenisher, or null.
+   */
+  private BarcodeReader poll(int aisle) {
+    if (aisle < 0 || aisle >= aisles.size()) {
+      return null;
+    }
+    Iterator<BarcodeReader> iterator = aisles.get(aisle).iterator();
+    if (!iterator.hasNext()) {
+      return null;
+    }
+    BarcodeReader br = iterator.next();
+    iterator.remove();
+    aisleOf.remove(br);
+    return br;
+  }
+
+  /**
+   * Remove the replenisher from the idle replenishers.
+   *
+   * @param br The BarcodeReader of the replenisher.
+   * @return true iff the replenisher was idle.
+   */
+  public boolean remove(BarcodeReader br) {
+    Integer aisle = aisleOf.remove(br);
+    return aisle != null && aisles.get(aisle).remove(br);
+  }
+
+  /**
+   * Return true if and only if the replenisher is idle.
+   *
+   * @param br The BarcodeReader of the replenisher.
+   * @return true iff the replenisher is idle.
+   */
+  public boolean contains(BarcodeReader br) {
+    return aisleOf.containsKey(br);
+  }
+
+  /**
+   * Return the number of idle replenishers.
+   *
+   * @return The number of idle replenishers.
+   */
+  public int size() {
+    return aisleOf.size();
+  }
+
+}
@@ -0,0 +1,85 @@
+package warehousesystem;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Before;
+import org.junit.Test;
+
+public class ReplenisherPoolTest {
+
+  private ReplenisherPool pool;
+
+  /**
+   * Before the test, set up an empty pool.
+   */
+  @Before
+  public void setUp() {
+    pool = new ReplenisherPool();
+  }
+
+  /**
+   * Return a new ReplenisherBarcodeReader in the aisle.
+   * 
+   * @param name The name of the replenisher.
+   * @param aisle The index of the aisle the replenisher is in.
+   * @return The new ReplenisherBarcodeReader.
+   */
+  private static ReplenisherBarcodeReader newReplenisher(String name, int aisle) {
+    ReplenisherBarcodeReader br = new ReplenisherBarcodeReader(name, null, null);
+    br.setAisle(aisle);
+    return br;
+  }
+
+  @Test
+  public void testSameAisleFirst() {
+    ReplenisherBarcodeReader ruby = newReplenisher("Ruby", 0);
+    ReplenisherBarcodeReader rita = newReplenisher("Rita", 3);
+    pool.release(ruby);
+    pool.release(rita);
+    assertEquals(rita, pool.acquire(3));
+    assertEquals(ruby, pool.acquire(3));
+    assertNull(pool.acquire(3));
+  }
+
+  @Test
+  public void testNearestAisle() {
+    ReplenisherBarcodeReader ruby = newReplenisher("Ruby", 0);
+    ReplenisherBarcodeReader rita = newReplenisher("Rita", 2);
+    ReplenisherBarcodeReader rose = newReplenisher("Rose", 4);
+    pool.release(ruby);
+    pool.release(rose);
+    pool.release(rita);
+    // Rita and Rose are both one aisle away, and the one towards the entrance is taken.
+    assertEquals(rita, pool.acquire(3));
+    assertEquals(rose, pool.acquire(3));
+    assertEquals(ruby, pool.acquire(7));
+  }
+
+  @Test
+  public void testLongestIdleInAisle() {
+    ReplenisherBarcodeReader ruby = newReplenisher("Ruby", 1);
+    ReplenisherBarcodeReader rita = newReplenisher("Rita", 1);
+    assertTrue(pool.release(ruby));
+    assertTrue(pool.release(rita));
+    assertFalse(pool.release(ruby));
+    assertEquals(2, pool.size());
+    assertEquals(ruby, pool.acquire(1));
+    assertEquals(rita, pool.acquire(1));
+  }
+
+  @Test
+  public void testRemove() {
+    ReplenisherBarcodeReader ruby = newReplenisher("Ruby", 1);
+    pool.release(ruby);
+    assertTrue(pool.contains(ruby));
+    assertTrue(pool.remove(ruby));
+    assertFalse(pool.contains(ruby));
+    assertFalse(pool.remove(ruby));
+    assertEquals(0, pool.size());
+    assertNull(pool.acquire(1));
+  }
+
+}
@@ -0,0 +1,250 @@
+package warehousesystem;
+
+import java.io.Serializable;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+public class ReplenishmentPolicy implements Serializable {
+
+  /** The version of the serialized form of this class, which is kept in snapshots. */
+  private static final long serialVersionUID = 1L;
+
+  /** The amount of a sku at or below which a re-supply is requested, unless it is configured. */
+  public static final int DEFAULT_REORDER_POINT = 5;
+  /** The number of fascias a replenisher adds to a level, unless it is configured. */
+  public static final int DEFAULT_QUANTITY = 25;
+  /** The number of fascias a level holds when it is full. */
+  public static final int LEVEL_CAPACITY = 30;
+  /** The least number of warehouse picks between two adaptations of the levels. */
+  public static final int ADAPTIVE_WINDOW = 500;
+  /** The weight of the newest window in the moving averages of the adaptive mode. */
+  public static final double ADAPTIVE_WEIGHT = 0.3;
+  /** The number of warehouse picks a replenishment is expected to take before one is measured. */
+  public static final double INITIAL_LEAD_TIME = 50;
+  /** The factor the expected demand during a replenishment is raised by for the reorder point. */
+  public static final double SAFETY_FACTOR = 1.5;
+  /** The least number of fascias an adaptive replenishment adds to a level. */
+  public static final int MIN_QUANTITY = 5;
+
+  /** The numbering of the skus of the catalogue. */
+  private final SkuIndex index;
+  /** The reorder point and quantity of each sku set by configure, or the defaults. */
+  private Levels configured;
+  /** The reorder point and quantity of each sku in use, which is replaced, never changed. */
+  private volatile Levels levels;
+  /** Whether the levels are computed from the picks. */
+  private volatile boolean adaptive;
+
+  /** The number of warehouse picks between two adaptations of the levels. */
+  private final int window;
+  /** The number of picks of each sku in the current window, by index. */
+  private final AtomicIntegerArray windowPicks;
+  /** The number of picks of all skus since the policy was made. */
+  private final AtomicLong picks = new AtomicLong();
+  /** One more than the value of picks when each sku was last requested, or 0, by index. */
+  private final AtomicLongArray requestedAt;
+  /** The total warehouse picks taken by the replenishments finished in the current window. */
+  private final AtomicLong leadTimeSum = new AtomicLong();
+  /** The number of replenishments finished in the current window. */
+  private final AtomicLong leadTimeCount = new AtomicLong();
+  /** The moving average of the picks of each sku per window, by index. */
+  private double[] velocities;
+  /** The moving average of the warehouse picks a replenishment takes. */
+  private double leadTime = INITIAL_LEAD_TIME;
+
+  /**
+   * Initialize a new ReplenishmentPolicy that gives every sku of the index the default reorder
+   * point and quantity. In the adaptive mode, the levels are computed again after every window
+   * picks, where the window is at least the number of skus, so adapting takes constant time per
+   * pick on average.
+   *
+   * @param index The numbering of the skus of the catalogue.
+   */
+  public ReplenishmentPolicy(SkuIndex index) {
+    this.index = index;
+    int[] reorderPoints = new int[index.size()];
+    int[] quantities = new int[index.size()];
+    Arrays.fill(reorderPoints, DEFAULT_REORDER_POINT);
+    Arrays.fill(quantities, DEFAULT_QUANTITY);
+    configured = new Levels(reorderPoints, quantities);
+    levels = configured;
+    window = Math.max(ADAPTIVE_WINDOW, index.size());
+    windowPicks = new AtomicIntegerArray(index.size());
+    requestedAt = new AtomicLongArray(index.size());
+    velocities = new double[index.size()];
+  }
+
+  /**
+   * Set the reorder point and quantity of the skus in the map. The other skus keep theirs, and
+   * skus that are not in the catalogue are ignored. In the adaptive mode, the configured levels
+   * are used until the next adaptation.
+   *
+   * @param replenishment A mapping of sku to its reorder point and quantity.
+   * @return The number of skus whose levels were set.
+   */
+  public synchronized int configure(Map<String, int[]> replenishment) {
+    int[] reorderPoints = configured.reorderPoints.clone();
+    int[] quantities = configured.quantities.clone();
+    int count = 0;
+    for (Map.Entry<String, int[]> entry : replenishment.entrySet()) {
+      int sku = index.indexOf(entry.getKey());
+      if (sku >= 0) {
+        reorderPoints[sku] = entry.getValue()[0];
+        quantities[sku] = entry.getValue()[1];
+        count++;
+      }
+    }
+    configured = new Levels(reorderPoints, quantities);
+    levels = configured;
+    return count;
+  }
+
+  /**
+   * Turn the adaptive mode on or off. In the adaptive mode, the reorder point and quantity of each
+   * sku follow a moving average of its picks and of the time replenishments take, both counted in
+   * warehouse picks, so fast skus are re-supplied earlier and with more fascias, and slow skus
+   * later and with fewer. Turning it off goes back to the configured levels.
+   *
+   * @param adaptive Whether to compute the levels from the picks.
+   */
+  public synchronized void setAdaptive(boolean adaptive) {
+    this.adaptive = adaptive;
+    if (!adaptive) {
+      levels = configured;
+    }
+  }
+
+  /**
+   * Return true if and only if the levels are computed from the picks.
+   *
+   * @return adaptive
+   */
+  public boolean isAdaptive() {
+    return adaptive;
+  }
+
+  /**
+   * Return the amount of the sku at or below which a re-supply is requested.
+   *
+   * @param sku The index of the sku.
+   * @return The reorder point of the sku.
+   */
+  public int getReorderPoint(int sku) {
+    return levels.reorderPoints[sku];
+  }
+
+  /**
+   * Return the number of fascias a replenisher adds to the level of the sku.
+   *
+   * @param sku The index of the sku.
+   * @return The quantity of the sku.
+   */
+  public int getQuantity(int sku) {
+    return levels.quantities[sku];
+  }
+
+  /**
+   * Return the moving average of the warehouse picks a replenishment takes.
+   *
+   * @return leadTime
+   */
+  public synchronized double getLeadTime() {
+    return leadTime;
+  }
+
+  /**
+   * Count one pick of the sku. In the adaptive mode, the pick that ends a window computes the
+   * levels again. This does not block other picks, which keep reading the previous levels.
+   *
+   * @param sku The index of the sku.
+   */
+  public void recordPick(int sku) {
+    if (!adaptive) {
+      return;
+    }
+    windowPicks.incrementAndGet(sku);
+    if (picks.incrementAndGet() % window == 0) {
+      adapt();
+    }
+  }
+
+  /**
+   * Note that a re-supply of the sku was requested, to measure how long it takes.
+   *
+   * @param sku The index of the sku.
+   */
+  public void recordRequest(int sku) {
+    if (adaptive) {
+      requestedAt.set(sku, picks.get() + 1);
+    }
+  }
+
+  /**
+   * Note that the sku was replenished, and count the warehouse picks since its re-supply was
+   * requested.
+   *
+   * @param sku The index of the sku.
+   */
+  public void recordReplenish(int sku) {
+    long requested = requestedAt.getAndSet(sku, 0) - 1;
+    if (adaptive && requested >= 0) {
+      leadTimeSum.addAndGet(picks.get() - requested);
+      leadTimeCount.incrementAndGet();
+    }
+  }
+
+  /**
+   * Fold the picks of the window that just ended into the moving averages, and publish new levels.
+   * The reorder point of a sku covers its expected demand while a replenishment is under way,
+   * raised by SAFETY_FACTOR, and its quantity covers its expected demand over the next window.
+   * Both are bounded by LEVEL_CAPACITY, since a replenisher brings at most a full level, and the
+   * StorageManager adds no more than fit on the level when the reorder point is high.
+   */
+  private synchronized void adapt() {
+    long count = leadTimeCount.getAndSet(0);
+    long sum = leadTimeSum.getAndSet(0);
+    if (count > 0) {
+      leadTime += ADAPTIVE_WEIGHT * ((double) sum / count - leadTime);
+    }
+    int[] reorderPoints = new int[velocities.length];
+    int[] quantities = new int[velocities.length];
+    for (int sku = 0; sku < velocities.length; sku++) {
+      velocities[sku] += ADAPTIVE_WEIGHT * (windowPicks.getAndSet(sku, 0) - velocities[sku]);
+      double perPick = velocities[sku] / window;
+      int reorderPoint = (int) Math.ceil(perPick * leadTime * SAFETY_FACTOR);
+      reorderPoints[sku] = Math.min(Math.max(reorderPoint, 1), LEVEL_CAPACITY - MIN_QUANTITY);
+      int quantity = (int) Math.ceil(velocities[sku]);
+      quantities[sku] = Math.min(Math.max(quantity, MIN_QUANTITY), LEVEL_CAPACITY);
+    }
+    if (adaptive) {
+      levels = new Levels(reorderPoints, quantities);
+    }
+  }
+
+  /** The reorder point and quantity of every sku, which are not changed once they are made. */
+  private static class Levels implements Serializable {
+
+    /** The version of the serialized form of this class, which is kept in snapshots. */
+    private static final long serialVersionUID = 1L;
+
+    /** The reorder point of each sku, by index. */
+    private final int[] reorderPoints;
+    /** The quantity of each sku, by index. */
+    private final int[] quantities;
+
+    /**
+     * Initialize new Levels with the reorder points and quantities.
+     *
+     * @param reorderPoints The reorder point of each sku, by index.
+     * @param quantities The quantity of each sku, by index.
+     */
+    private Levels(int[] reorderPoints, int[] quantities) {
+      this.reorderPoints = reorderPoints;
+      this.quantities = quantities;
+    }
+  }
+
+}
@@ -0,0 +1,94 @@
+package warehousesystem;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+
+import org.junit.Test;
+
+public class ReplenishmentPolicyTest {
+
+  /**
+   * Return a new ReplenishmentPolicy for skus 1 to 48.
+   * 
+   * @return The new ReplenishmentPolicy.
+   */
+  private static ReplenishmentPolicy newPolicy() {
+    ArrayList<String> skus = new ArrayList<>();
+    for (int i = 1; i <= 48; i++) {
+      skus.add(String.valueOf(i));
+    }
+    return new ReplenishmentPolicy(new SkuIndex(skus));
+  }
+
+  @Test
+  public void testDefaults() {
+    ReplenishmentPolicy policy = newPolicy();
+    assertFalse(policy.isAdaptive());
+    for (int sku = 0; sku < 48; sku++) {
+      assertEquals(ReplenishmentPolicy.DEFAULT_REORDER_POINT, policy.getReorderPoint(sku));
+      assertEquals(ReplenishmentPolicy.DEFAULT_QUANTITY, policy.getQuantity(sku));
+    }
+  }
+
+  @Test
+  public void testConfigure() {
+    ReplenishmentPolicy policy = newPolicy();
+    HashMap<String, int[]> replenishment = new HashMap<>();
+    replenishment.put("1", new int[] {10, 20});
+    replenishment.put("999", new int[] {1, 1});
+    assertEquals(1, policy.configure(replenishment));
+    assertEquals(10, policy.getReorderPoint(0));
+    assertEquals(20, policy.getQuantity(0));
+    assertEquals(ReplenishmentPolicy.DEFAULT_REORDER_POINT, policy.getReorderPoint(1));
+    assertEquals(ReplenishmentPolicy.DEFAULT_QUANTITY, policy.getQuantity(1));
+  }
+
+  @Test
+  public void testAdaptive() {
+    ReplenishmentPolicy policy = newPolicy();
+    policy.setAdaptive(true);
+    // Half of the picks are of sku 1, and the rest are spread over skus 2 to 48.
+    for (int i = 0; i < 20 * ReplenishmentPolicy.ADAPTIVE_WINDOW; i++) {
+      policy.recordPick(i % 2 == 0 ? 0 : 1 + i % 47);
+    }
+    assertTrue(policy.getReorderPoint(0) > ReplenishmentPolicy.DEFAULT_REORDER_POINT);
+    assertTrue(policy.getQuantity(0) > ReplenishmentPolicy.DEFAULT_QUANTITY);
+    assertTrue(policy.getReorderPoint(1) < ReplenishmentPolicy.DEFAULT_REORDER_POINT);
+    assertTrue(policy.getQuantity(1) < ReplenishmentPolicy.DEFAULT_QUANTITY);
+    assertTrue(policy.getQuantity(0) <= ReplenishmentPolicy.LEVEL_CAPACITY);
+
+    policy.setAdaptive(false);
+    assertEquals(ReplenishmentPolicy.DEFAULT_REORDER_POINT, policy.getReorderPoint(0));
+    assertEquals(ReplenishmentPolicy.DEFAULT_QUANTITY, policy.getQuantity(0));
+  }
+
+  @Test
+  public void testLeadTime() {
+    ReplenishmentPolicy policy = newPolicy();
+    policy.setAdaptive(true);
+    for (int i = 0; i < 20 * ReplenishmentPolicy.ADAPTIVE_WINDOW; i++) {
+      if (i % 100 == 0) {
+        policy.recordRequest(i % 48);
+      } else if (i % 100 == 10) {
+        policy.recordReplenish((i - 10) % 48);
+      }
+      policy.recordPick(i % 48);
+    }
+    assertEquals(10, policy.getLeadTime(), 1);
+  }
+
+  @Test
+  public void testNotAdaptiveIgnoresPicks() {
+    ReplenishmentPolicy policy = newPolicy();
+    for (int i = 0; i < 10 * ReplenishmentPolicy.ADAPTIVE_WINDOW; i++) {
+      policy.recordPick(0);
+    }
+    assertEquals(ReplenishmentPolicy.DEFAULT_REORDER_POINT, policy.getReorderPoint(0));
+    assertEquals(ReplenishmentPolicy.INITIAL_LEAD_TIME, policy.getLeadTime(), 0);
+  }
+
+}
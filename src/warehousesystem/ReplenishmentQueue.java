@@ -0,0 +1,232 @@
+package warehousesystem;
+
+import java.io.Serializable;
+import java.util.Arrays;
+
+public class ReplenishmentQueue implements Serializable {
+
+  /** The version of the serialized form of this class, which is kept in snapshots. */
+  private static final long serialVersionUID = 1L;
+
+  /** The numbering of the skus of the catalogue. */
+  private final SkuIndex index;
+  /** The indexes of the queued skus, as a binary heap with the most urgent sku first. */
+  private final int[] heap;
+  /** The position of each sku in heap, or -1 if it is not queued, by index. */
+  private final int[] positions;
+  /** The amount of each queued sku when it was last queued or updated, by index. */
+  private final int[] stocks;
+  /** The number of fascias of each sku needed by the picking requests not picked yet. */
+  private final int[] demands;
+  /** The arrival number of each queued sku, which breaks ties in the order skus were queued. */
+  private final long[] arrivals;
+  /** The number of skus queued. */
+  private int size;
+  /** The number of skus ever queued. */
+  private long arrivalCount;
+
+  /**
+   * Initialize a new empty ReplenishmentQueue for the skus of the index. A sku is queued at most
+   * once, and the most urgent sku is the one whose level is furthest from the fascias the picking
+   * requests not picked yet need from it: the greatest demand less stock. Among equally urgent
+   * skus, the emptiest level comes first, and then the sku queued first.
+   *
+   * @param index The numbering of the skus of the catalogue.
+   */
+  public ReplenishmentQueue(SkuIndex index) {
+    this.index = index;
+    heap = new int[index.size()];
+    positions = new int[index.size()];
+    Arrays.fill(positions, -1);
+    stocks = new int[index.size()];
+    demands = new int[index.size()];
+    arrivals = new long[index.size()];
+  }
+
+  /**
+   * Queue a replenish request for the sku with its amount, unless it is already queued. This takes
+   * O(log n) time, and checking for the sku takes O(1) time.
+   *
+   * @param sku The sku to replenish.
+   * @param stock The amount of the sku.
+   * @return true iff the sku was not queued and is queued now.
+   */
+  public boolean offer(String sku, int stock) {
+    int i = index.indexOf(sku);
+    if (i < 0 || positions[i] >= 0) {
+      return false;
+    }
+    stocks[i] = stock;
+    arrivals[i] = arrivalCount++;
+    heap[size] = i;
+    positions[i] = size;
+    siftUp(size++);
+    return true;
+  }
+
+  /**
+   * Remove and return the most urgent sku, or null if none is queued.
+   *
+   * @return The most urgent sku, or null.
+   */
+  public String poll() {
+    if (size == 0) {
+      return null;
+    }
+    int first = heap[0];
+    positions[first] = -1;
+    if (--size > 0) {
+      heap[0] = heap[size];
+      positions[heap[0]] = 0;
+      siftDown(0);
+    }
+    return index.skuAt(first);
+  }
+
+  /**
+   * Return the most urgent sku without removing it, or null if none is queued.
+   *
+   * @return The most urgent sku, or null.
+   */
+  public String peek() {
+    return size == 0 ? null : index.skuAt(heap[0]);
+  }
+
+  /**
+   * Return true if and only if a replenish request for the sku is queued.
+   *
+   * @param sku The sku.
+   * @return true iff the sku is queued.
+   */
+  public boolean contains(String sku) {
+    int i = index.indexOf(sku);
+    return i >= 0 && positions[i] >= 0;
+  }
+
+  /**
+   * Return the number of skus queued.
+   *
+   * @return size
+   */
+  public int size() {
+    return size;
+  }
+
+  /**
+   * Set the amount of the sku, and move it to its new place if it is queued.
+   *
+   * @param sku The sku.
+   * @param stock The amount of the sku.
+   */
+  public void updateStock(String sku, int stock) {
+    int i = index.indexOf(sku);
+    if (i >= 0 && positions[i] >= 0 && stocks[i] != stock) {
+      stocks[i] = stock;
+      resift(positions[i]);
+    }
+  }
+
+  /**
+   * Add delta to the number of fascias of the sku needed by the picking requests not picked yet,
+   * and move the sku to its new place if it is queued.
+   *
+   * @param sku The sku.
+   * @param delta The number of fascias to add, which is negative once they are picked.
+   */
+  public void addDemand(String sku, int delta) {
+    int i = index.indexOf(sku);
+    if (i >= 0) {
+      demands[i] += delta;
+      if (positions[i] >= 0) {
+        resift(positions[i]);
+      }
+    }
+  }
+
+  /**
+   * Return the number of fascias of the sku needed by the picking requests not picked yet.
+   *
+   * @param sku The sku.
+   * @return The demand for the sku, or 0 if it is not in the catalogue.
+   */
+  public int getDemand(String sku) {
+    int i = index.indexOf(sku);
+    return i < 0 ? 0 : demands[i];
+  }
+
+  /**
+   * Return true if and only if the sku with index a is more urgent than the sku with index b.
+   *
+   * @param a The index of a queued sku.
+   * @param b The index of another queued sku.
+   * @return true iff a is more urgent than b.
+   */
+  private boolean before(int a, int b) {
+    long shortfallA = (long) demands[a] - stocks[a];
+    long shortfallB = (long) demands[b] - stocks[b];
+    if (shortfallA != shortfallB) {
+      return shortfallA > shortfallB;
+    }
+    if (stocks[a] != stocks[b]) {
+      return stocks[a] < stocks[b];
+    }
+    return arrivals[a] < arrivals[b];
+  }
+
+  /**
+   * Move the sku at the position up or down the heap to its place.
+   *
+   * @param position The position of the sku in heap.
+   */
+  private void resift(int position) {
+    if (position > 0 && before(heap[position], heap[(position - 1) / 2])) {
+      siftUp(position);
+    } else {
+      siftDown(position);
+    }
+  }
+
+  /**
+   * Move the sku at the position up the heap until its parent is more urgent.
+   *
+   * @param position The position of the sku in heap.
+   */
+  private void siftUp(int position) {
+    int sku = heap[position];
+    while (position > 0) {
+      int parent = (position - 1) / 2;
+      if (!before(sku, heap[parent])) {
+        break;
+      }
+      heap[position] = heap[parent];
+      positions[heap[position]] = position;
+      position = parent;
+    }
+    heap[position] = sku;
+    positions[sku] = position;
+  }
+
+  /**
+   * Move the sku at the position down the heap until both of its children are less urgent.
+   *
+   * @param position The position of the sku in heap.
+   */
+  private void siftDown(int position) {
+    int sku = heap[position];
+    while (2 * position + 1 < size) {
+      int child = 2 * position + 1;
+      if (child + 1 < size && before(heap[child + 1], heap[child])) {
+        child++;
+      }
+      if (!before(heap[child], sku)) {
+        break;
+      }
+      heap[position] = heap[child];
+      positions[heap[position]] = position;
+      position = child;
+    }
+    heap[position] = sku;
+    positions[sku] = position;
+  }
+
+}
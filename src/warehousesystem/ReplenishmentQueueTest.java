@@ -0,0 +1,134 @@
+package warehousesystem;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Random;
+
+import org.junit.Test;
+
+public class ReplenishmentQueueTest {
+
+  /**
+   * Return a new ReplenishmentQueue for skus 1 to count.
+   * 
+   * @param count The number of skus.
+   * @return The new ReplenishmentQueue.
+   */
+  private static ReplenishmentQueue newQueue(int count) {
+    ArrayList<String> skus = new ArrayList<>();
+    for (int i = 1; i <= count; i++) {
+      skus.add(String.valueOf(i));
+    }
+    return new ReplenishmentQueue(new SkuIndex(skus));
+  }
+
+  @Test
+  public void testEmptiestFirst() {
+    ReplenishmentQueue queue = newQueue(48);
+    assertNull(queue.poll());
+    assertTrue(queue.offer("1", 5));
+    assertTrue(queue.offer("2", 0));
+    assertTrue(queue.offer("3", 3));
+    assertEquals(3, queue.size());
+    assertEquals("2", queue.poll());
+    assertEquals("3", queue.poll());
+    assertEquals("1", queue.poll());
+    assertNull(queue.poll());
+  }
+
+  @Test
+  public void testNoDuplicates() {
+    ReplenishmentQueue queue = newQueue(48);
+    assertTrue(queue.offer("1", 5));
+    assertFalse(queue.offer("1", 4));
+    assertFalse(queue.offer("999", 0));
+    assertTrue(queue.contains("1"));
+    assertEquals(1, queue.size());
+    assertEquals("1", queue.poll());
+    assertFalse(queue.contains("1"));
+    assertTrue(queue.offer("1", 5));
+  }
+
+  @Test
+  public void testTiesInArrivalOrder() {
+    ReplenishmentQueue queue = newQueue(48);
+    for (int i = 48; i >= 1; i--) {
+      queue.offer(String.valueOf(i), 5);
+    }
+    for (int i = 48; i >= 1; i--) {
+      assertEquals(String.valueOf(i), queue.poll());
+    }
+  }
+
+  @Test
+  public void testDemandAndStockUpdates() {
+    ReplenishmentQueue queue = newQueue(48);
+    queue.offer("1", 5);
+    queue.offer("2", 2);
+    assertEquals("2", queue.peek());
+    queue.addDemand("1", 8);
+    assertEquals(8, queue.getDemand("1"));
+    assertEquals("1", queue.peek());
+    queue.updateStock("2", -10);
+    assertEquals("2", queue.peek());
+    queue.addDemand("1", -8);
+    queue.updateStock("2", 20);
+    assertEquals("1", queue.peek());
+  }
+
+  @Test
+  public void testRandomOperations() {
+    int count = 500;
+    ReplenishmentQueue queue = newQueue(count);
+    int[] stocks = new int[count + 1];
+    int[] demands = new int[count + 1];
+    boolean[] queued = new boolean[count + 1];
+    Random random = new Random(7);
+    for (int step = 0; step < 20000; step++) {
+      String sku = String.valueOf(random.nextInt(count) + 1);
+      int i = Integer.parseInt(sku);
+      switch (random.nextInt(4)) {
+        case 0:
+          int stock = random.nextInt(30);
+          assertEquals(!queued[i], queue.offer(sku, stock));
+          stocks[i] = queued[i] ? stocks[i] : stock;
+          queued[i] = true;
+          break;
+        case 1:
+          stocks[i] = random.nextInt(30);
+          queue.updateStock(sku, stocks[i]);
+          break;
+        case 2:
+          int delta = random.nextInt(9) - 4;
+          demands[i] += delta;
+          queue.addDemand(sku, delta);
+          break;
+        default:
+          String polled = queue.poll();
+          int best = -1;
+          for (int j = 1; j <= count; j++) {
+            if (queued[j] && (best < 0 || demands[j] - stocks[j] > demands[best] - stocks[best]
+                || demands[j] - stocks[j] == demands[best] - stocks[best]
+                && stocks[j] < stocks[best])) {
+              best = j;
+            }
+          }
+          if (best < 0) {
+            assertNull(polled);
+          } else {
+            int p = Integer.parseInt(polled);
+            assertTrue(queued[p]);
+            assertEquals(demands[best] - stocks[best], demands[p] - stocks[p]);
+            assertEquals(stocks[best], stocks[p]);
+            queued[p] = false;
+          }
+          break;
+      }
+    }
+  }
+
+}
@@ -0,0 +1,68 @@
+package warehousesystem;
+
+import java.util.EnumMap;
+import java.util.EnumSet;
+
+public enum RequestStatus {
+  WAITING("Waiting"), PICKING("Picking"), PICKED("Picked"), SEQUENCING("Sequencing"),
+  SEQUENCED("Sequenced"), LOADING("Loading"), LOADED("Loaded"), FINISHED("Finished");
+
+  /** A mapping of each status to the statuses a picking request can move to from it. */
+  private static final EnumMap<RequestStatus, EnumSet<RequestStatus>> transitions =
+      new EnumMap<>(RequestStatus.class);
+
+  static {
+    transitions.put(WAITING, EnumSet.of(PICKING));
+    // A picking request can be discarded and re-picked at any point before it is loaded.
+    transitions.put(PICKING, EnumSet.of(PICKED, WAITING));
+    transitions.put(PICKED, EnumSet.of(SEQUENCING, WAITING));
+    transitions.put(SEQUENCING, EnumSet.of(SEQUENCED, WAITING));
+    transitions.put(SEQUENCED, EnumSet.of(LOADING, WAITING));
+    transitions.put(LOADING, EnumSet.of(LOADED, WAITING));
+    transitions.put(LOADED, EnumSet.of(FINISHED));
+    transitions.put(FINISHED, EnumSet.noneOf(RequestStatus.class));
+  }
+
+  /** The name of this status as it is shown to people. */
+  private final String name;
+
+  /**
+   * Initialize a new RequestStatus with the name shown to people.
+   *
+   * @param name The name of the status.
+   */
+  RequestStatus(String name) {
+    this.name = name;
+  }
+
+  /**
+   * Return true if and only if a picking request with this status can move to the next status.
+   *
+   * @param next The status to move to.
+   * @return true iff the transition is allowed.
+   */
+  public boolean canTransitionTo(RequestStatus next) {
+    return transitions.get(this).contains(next);
+  }
+
+  /**
+   * Return the status that follows this one when the work of this step is done, or null for
+   * FINISHED.
+   *
+   * @return The next status in the pipeline.
+   */
+  public RequestStatus next() {
+    return this == FINISHED ? null : values()[ordinal() + 1];
+  }
+
+  /**
+   * Return the name of this status, such as "Waiting".
+   *
+   * @return name
+   */
+  @Override
+  public String toString() {
+    return name;
+  }
+
+}
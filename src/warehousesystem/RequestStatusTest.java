@@ -0,0 +1,42 @@
+package warehousesystem;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+public class RequestStatusTest {
+
+  @Test
+  public void testPipelineTransitions() {
+    assertTrue(RequestStatus.WAITING.canTransitionTo(RequestStatus.PICKING));
+    assertTrue(RequestStatus.SEQUENCING.canTransitionTo(RequestStatus.SEQUENCED));
+    assertTrue(RequestStatus.LOADED.canTransitionTo(RequestStatus.FINISHED));
+    assertFalse(RequestStatus.WAITING.canTransitionTo(RequestStatus.LOADING));
+    assertFalse(RequestStatus.PICKED.canTransitionTo(RequestStatus.PICKING));
+  }
+
+  @Test
+  public void testDiscardTransitions() {
+    assertTrue(RequestStatus.PICKED.canTransitionTo(RequestStatus.WAITING));
+    assertTrue(RequestStatus.LOADING.canTransitionTo(RequestStatus.WAITING));
+    assertFalse(RequestStatus.LOADED.canTransitionTo(RequestStatus.WAITING));
+    assertFalse(RequestStatus.FINISHED.canTransitionTo(RequestStatus.WAITING));
+  }
+
+  @Test
+  public void testNext() {
+    assertEquals(RequestStatus.PICKING, RequestStatus.WAITING.next());
+    assertEquals(RequestStatus.FINISHED, RequestStatus.LOADED.next());
+    assertNull(RequestStatus.FINISHED.next());
+  }
+
+  @Test
+  public void testToString() {
+    assertEquals("Waiting", RequestStatus.WAITING.toString());
+    assertEquals("Sequenced", RequestStatus.SEQUENCED.toString());
+  }
+
+}
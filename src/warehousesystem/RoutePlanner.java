@@ -0,0 +1,16 @@
+package warehousesystem;
+
+import java.util.ArrayList;
+
+public interface RoutePlanner {
+
+  /**
+   * Return the skus in the order a picker should pick them.
+   *
+   * @param skus The skus that need to be picked.
+   * @param layout The layout of the warehouse the skus are stored in.
+   * @return The skus in picking order.
+   */
+  ArrayList<String> plan(ArrayList<String> skus, WarehouseLayout layout);
+
+}
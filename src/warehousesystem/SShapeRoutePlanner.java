@@ -0,0 +1,93 @@
+package warehousesystem;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+
+public class SShapeRoutePlanner implements RoutePlanner {
+
+  /**
+   * Return the skus in S-shape order refined by 2-opt. The picker walks through every aisle that
+   * has a sku to pick, going front to back in one aisle and back to front in the next. The route is
+   * then improved by reversing any part of it that makes the total walking distance shorter.
+   *
+   * @param skus The skus that need to be picked.
+   * @param layout The layout of the warehouse the skus are stored in.
+   * @return The skus in picking order.
+   */
+  @Override
+  public ArrayList<String> plan(ArrayList<String> skus, WarehouseLayout layout) {
+    ArrayList<String> route = sShape(skus, layout);
+    twoOpt(route, layout);
+    return route;
+  }
+
+  /**
+   * Return the skus in S-shape order.
+   *
+   * @param skus The skus that need to be picked.
+   * @param layout The layout of the warehouse the skus are stored in.
+   * @return The skus in S-shape order.
+   */
+  public ArrayList<String> sShape(ArrayList<String> skus, final WarehouseLayout layout) {
+    ArrayList<String> route = new ArrayList<>(skus);
+    Collections.sort(route, new Comparator<String>() {
+      @Override
+      public int compare(String first, String second) {
+        int aisle = Integer.compare(layout.getAisle(first), layout.getAisle(second));
+        if (aisle != 0) {
+          return aisle;
+        }
+        int rack = Integer.compare(layout.getRack(first), layout.getRack(second));
+        if (rack == 0) {
+          rack = Integer.compare(layout.getLevel(first), layout.getLevel(second));
+        }
+        return rack;
+      }
+    });
+    // Reverse every second visited aisle so that the picker does not walk back to its front.
+    int start = 0;
+    int visited = 0;
+    while (start < route.size()) {
+      int aisle = layout.getAisle(route.get(start));
+      int end = start;
+      while (end < route.size() && layout.getAisle(route.get(end)) == aisle) {
+        end++;
+      }
+      if (visited % 2 == 1) {
+        Collections.reverse(route.subList(start, end));
+      }
+      visited++;
+      start = end;
+    }
+    return route;
+  }
+
+  /**
+   * Improve the route in place by reversing sections of it while that shortens the route.
+   *
+   * @param route The skus in picking order.
+   * @param layout The layout of the warehouse the skus are stored in.
+   */
+  public void twoOpt(ArrayList<String> route, WarehouseLayout layout) {
+    boolean improved = true;
+    while (improved) {
+      improved = false;
+      for (int i = 0; i < route.size() - 1; i++) {
+        String before = i == 0 ? null : route.get(i - 1);
+        for (int j = i + 1; j < route.size(); j++) {
+          String after = j == route.size() - 1 ? null : route.get(j + 1);
+          double current = layout.distance(before, route.get(i))
+              + layout.distance(route.get(j), after);
+          double reversed = layout.distance(before, route.get(j))
+              + layout.distance(route.get(i), after);
+          if (reversed < current - 1e-9) {
+            Collections.reverse(route.subList(i, j + 1));
+            improved = true;
+          }
+        }
+      }
+    }
+  }
+
+}
@@ -0,0 +1,55 @@
+package warehousesystem;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Random;
+
+import org.junit.Before;
+import org.junit.Test;
+
+public class SShapeRoutePlannerTest {
+
+  private WarehouseLayout layout;
+  private SShapeRoutePlanner planner;
+
+  @Before
+  public void setUp() throws IOException {
+    layout = new WarehouseLayout(TraversalTable.getTable("traversal_table.csv"));
+    planner = new SShapeRoutePlanner();
+  }
+
+  @Test
+  public void testSShape() {
+    ArrayList<String> skus = new ArrayList<>(Arrays.asList("13", "21", "1", "9"));
+    ArrayList<String> expected = new ArrayList<>(Arrays.asList("1", "9", "21", "13"));
+    assertEquals(expected, planner.sShape(skus, layout));
+  }
+
+  @Test
+  public void testPlanKeepsAllSkus() {
+    ArrayList<String> skus = new ArrayList<>(Arrays.asList("37", "38", "9", "10", "21", "22"));
+    ArrayList<String> route = planner.plan(skus, layout);
+    assertEquals(skus.size(), route.size());
+    assertTrue(route.containsAll(skus));
+  }
+
+  @Test
+  public void testPlanIsNotLongerThanSkuOrder() {
+    Random random = new Random(207);
+    SkuOrderRoutePlanner skuOrder = new SkuOrderRoutePlanner();
+    for (int i = 0; i < 200; i++) {
+      ArrayList<String> skus = new ArrayList<>();
+      for (int j = 0; j < 8; j++) {
+        skus.add("" + (random.nextInt(48) + 1));
+      }
+      double planned = layout.routeDistance(planner.plan(skus, layout));
+      double sorted = layout.routeDistance(skuOrder.plan(skus, layout));
+      assertTrue(planned <= sorted + 1e-9);
+    }
+  }
+
+}
@@ -0,0 +1,104 @@
+package warehousesystem;
+
+public class ScannerEvent {
+
+  /** The verb of this event. */
+  private EventVerb verb;
+  /** The role of the worker who sent this event, or null for an order. */
+  private WorkerRole role;
+  /** The name of the worker who sent this event, or null for an order. */
+  private String worker;
+  /** The sku scanned in this event, or null if no sku was given. */
+  private String sku;
+  /** The model of the van ordered, or null if this event is not an order. */
+  private String model;
+  /** The color of the van ordered, or null if this event is not an order. */
+  private String color;
+
+  /**
+   * Set this ScannerEvent to an order for a van.
+   *
+   * @param model The model of the van.
+   * @param color The color of the van.
+   */
+  public void setOrder(String model, String color) {
+    this.verb = EventVerb.ORDER;
+    this.role = null;
+    this.worker = null;
+    this.sku = null;
+    this.model = model;
+    this.color = color;
+  }
+
+  /**
+   * Set this ScannerEvent to an event sent by a worker.
+   *
+   * @param role The role of the worker.
+   * @param worker The name of the worker.
+   * @param verb The verb of the event.
+   * @param sku The sku scanned, or null if no sku was given.
+   */
+  public void setWorkerEvent(WorkerRole role, String worker, EventVerb verb, String sku) {
+    this.verb = verb;
+    this.role = role;
+    this.worker = worker;
+    this.sku = sku;
+    this.model = null;
+    this.color = null;
+  }
+
+  /**
+   * Return the verb of this event.
+   *
+   * @return verb
+   */
+  public EventVerb getVerb() {
+    return verb;
+  }
+
+  /**
+   * Return the role of the worker who sent this event, or null for an order.
+   *
+   * @return role
+   */
+  public WorkerRole getRole() {
+    return role;
+  }
+
+  /**
+   * Return the name of the worker who sent this event, or null for an order.
+   *
+   * @return worker
+   */
+  public String getWorker() {
+    return worker;
+  }
+
+  /**
+   * Return the sku scanned in this event, or null if no sku was given.
+   *
+   * @return sku
+   */
+  public String getSku() {
+    return sku;
+  }
+
+  /**
+   * Return the model of the van ordered, or null if this event is not an order.
+   *
+   * @return model
+   */
+  public String getModel() {
+    return model;
+  }
+
+  /**
+   * Return the color of the van ordered, or null if this event is not an order.
+   *
+   * @return color
+   */
+  public String getColor() {
+    return color;
+  }
+
+}
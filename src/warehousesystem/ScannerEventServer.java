@@ -0,0 +1,433 @@
+package warehousesystem;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+public class ScannerEventServer implements Closeable {
+
+  /** The number of lines of input that may wait for the system, unless it is set. */
+  public static final int DEFAULT_CAPACITY = 4096;
+  /** The greatest number of lines of input the system processes before the replies are sent. */
+  public static final int MAX_BATCH = 256;
+  /** The greatest number of characters in a line of input. A longer line closes its connection. */
+  public static final int MAX_LINE_LENGTH = 1024;
+  /** The time in milliseconds the system waits for a line before it checks whether to stop. */
+  private static final long STOP_CHECK_INTERVAL = 10;
+  /** The time in milliseconds the I/O thread waits for a connection before it checks again. */
+  private static final long POLL_INTERVAL = 100;
+  /** The number of bytes read from a connection at a time. */
+  private static final int READ_BUFFER_SIZE = 8192;
+
+  /** The controller whose model processes the lines of input. */
+  private final WarehouseController controller;
+  /** The channel the scanners connect to. */
+  private final ServerSocketChannel server;
+  /** The selector of the I/O thread, which waits for every connection at once. */
+  private final Selector selector;
+  /** The lines of input read and not processed yet, oldest first. */
+  private final ArrayBlockingQueue<Request> requests;
+  /** The connections with replies to send, which the I/O thread has to watch for writing. */
+  private final ConcurrentLinkedQueue<Connection> writable = new ConcurrentLinkedQueue<>();
+  /** The connections not read from until the system catches up. Only the I/O thread uses it. */
+  private final ArrayList<Connection> paused = new ArrayList<>();
+  /** The parser of the lines of input, which only the thread that serves uses. */
+  private final EventParser parser = new EventParser();
+  /** The event each line of input is parsed into. It is reused for every line. */
+  private final ScannerEvent event = new ScannerEvent();
+  /** The number of times a connection was paused because the system was behind. */
+  private final AtomicLong pauses = new AtomicLong();
+  /** The thread that accepts connections, reads lines and writes replies. */
+  private Thread ioThread;
+  /** Whether the server has been closed. */
+  private volatile boolean closed;
+
+  /**
+   * Initialize a new ScannerEventServer that takes lines of input from scanners over TCP on the
+   * loopback address, in the same form as the input file, such as "Picker Alice picked 12". Each
+   * line gets a reply line: "OK" followed by the next instruction for the worker who sent it, if
+   * there is one, such as "OK PICK 11 at A,0,1,2", or "ERROR" if it is not a valid event.
+   *
+   * @param controller The controller whose model processes the lines.
+   * @param port The port to listen on, or 0 for any free port.
+   * @param capacity The number of lines that may wait for the system. Once this many wait, the
+   *        server stops reading from the scanners that send more, so TCP holds them back.
+   * @throws IOException if the port cannot be listened on.
+   */
+  public ScannerEventServer(WarehouseController controller, int port, int capacity)
+      throws IOException {
+    this.controller = controller;
+    this.requests = new ArrayBlockingQueue<>(capacity);
+    selector = Selector.open();
+    server = ServerSocketChannel.open();
+    server.bind(new InetSocketAddress(InetAddress.getLoopbackAddress(), port));
+    server.configureBlocking(false);
+    server.register(selector, SelectionKey.OP_ACCEPT);
+  }
+
+  /**
+   * Return the port the server listens on.
+   *
+   * @return The port.
+   * @throws IOException if the port cannot be read.
+   */
+  public int getPort() throws IOException {
+    return ((InetSocketAddress) server.getLocalAddress()).getPort();
+  }
+
+  /**
+   * Return the number of times a connection was paused because the system was behind.
+   *
+   * @return The number of pauses.
+   */
+  public long getPauses() {
+    return pauses.get();
+  }
+
+  /**
+   * Start accepting connections and reading lines on the I/O thread.
+   */
+  public void start() {
+    ioThread = new Thread(this::runIo, "scanner-server-io");
+    ioThread.setDaemon(true);
+    ioThread.start();
+  }
+
+  /**
+   * Process the lines of input on this thread, in the order they were read, until the server is
+   * closed or the controller is stopped. The lines waiting are processed in batches of up to
+   * MAX_BATCH, and the I/O thread is woken once per batch to send their replies.
+   *
+   * @return The number of lines processed.
+   * @throws IOException for processParsedLine
+   */
+  public long serve() throws IOException {
+    ArrayList<Request> batch = new ArrayList<>(MAX_BATCH);
+    long processed = 0;
+    try {
+      while (!closed && !controller.isStopped()) {
+        Request first = requests.poll(STOP_CHECK_INTERVAL, TimeUnit.MILLISECONDS);
+        if (first == null) {
+          continue;
+        }
+        batch.add(first);
+        requests.drainTo(batch, MAX_BATCH - 1);
+        for (Request request : batch) {
+          request.connection.replies.add(process(request.line));
+          writable.add(request.connection);
+        }
+        processed += batch.size();
+        batch.clear();
+        selector.wakeup();
+      }
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+    return processed;
+  }
+
+  /**
+   * Parse and process a line of input, and return its reply. A line that the model fails on is
+   * logged as a warning and gets an error reply, so that one scanner cannot stop the server.
+   *
+   * @param line The line of input.
+   * @return The reply line.
+   * @throws IOException for processParsedLine
+   */
+  private String process(String line) throws IOException {
+    boolean parsed = parser.parse(line, event);
+    try {
+      controller.processParsedLine(line, event, parsed);
+    } catch (RuntimeException e) {
+      controller.getWhs().logWarning(() -> "SYSTEM: Scanner event \"" + line + "\" failed: " + e);
+      return "ERROR event failed";
+    }
+    return reply(parsed);
+  }
+
+  /**
+   * Return the reply to the line of input just processed into event.
+   *
+   * @param parsed Whether the line could be parsed into event.
+   * @return The reply line.
+   */
+  private String reply(boolean parsed) {
+    if (!parsed) {
+      return "ERROR invalid event";
+    }
+    if (event.getVerb() == EventVerb.ORDER) {
+      return "OK";
+    }
+    BarcodeReader br = controller.getWhs().getWorkers().get(event.getWorker());
+    ScannerInstruction instruction =
+        br == null || WorkerRole.of(br) != event.getRole() ? null : br.getLastInstruction();
+    return instruction == null ? "OK" : "OK " + instruction;
+  }
+
+  /**
+   * Accept connections, read lines and write replies until the server is closed. This runs on
+   * the I/O thread.
+   */
+  private void runIo() {
+    try {
+      while (!closed) {
+        selector.select(POLL_INTERVAL);
+        resumePaused();
+        Connection connection = writable.poll();
+        while (connection != null) {
+          if (connection.key.isValid()) {
+            connection.key.interestOps(connection.key.interestOps() | SelectionKey.OP_WRITE);
+          }
+          connection = writable.poll();
+        }
+        Iterator<SelectionKey> keys = selector.selectedKeys().iterator();
+        while (keys.hasNext()) {
+          SelectionKey key = keys.next();
+          keys.remove();
+          if (!key.isValid()) {
+            continue;
+          }
+          if (key.isAcceptable()) {
+            accept();
+            continue;
+          }
+          Connection selected = (Connection) key.attachment();
+          try {
+            if (key.isReadable()) {
+              read(selected);
+            }
+            if (key.isValid() && key.isWritable()) {
+              write(selected);
+            }
+          } catch (IOException e) {
+            selected.close();
+          }
+        }
+      }
+    } catch (IOException e) {
+      controller.getWhs().logWarning(() -> "SYSTEM: Scanner server stopped: " + e.getMessage());
+    }
+  }
+
+  /**
+   * Accept a new connection from a scanner.
+   *
+   * @throws IOException for accept and register
+   */
+  private void accept() throws IOException {
+    SocketChannel channel = server.accept();
+    if (channel == null) {
+      return;
+    }
+    channel.configureBlocking(false);
+    channel.socket().setTcpNoDelay(true);
+    Connection connection = new Connection(channel);
+    connection.key = channel.register(selector, SelectionKey.OP_READ, connection);
+  }
+
+  /**
+   * Read what the scanner sent, and queue every complete line for the system. A connection that
+   * sends a line when the queue is full keeps its lines and is not read from until they fit. A
+   * connection that sends a line longer than MAX_LINE_LENGTH is closed, so that it cannot hold
+   * more than that without the queue.
+   *
+   * @param connection The connection.
+   * @throws IOException for read
+   */
+  private void read(Connection connection) throws IOException {
+    ByteBuffer in = connection.in;
+    int read = connection.channel.read(in);
+    if (read < 0) {
+      connection.close();
+      return;
+    }
+    in.flip();
+    while (in.hasRemaining()) {
+      char c = (char) (in.get() & 0xff);
+      if (c == '\n') {
+        int length = connection.partial.length();
+        if (length > 0 && connection.partial.charAt(length - 1) == '\r') {
+          connection.partial.setLength(length - 1);
+        }
+        queue(connection, connection.partial.toString());
+        connection.partial.setLength(0);
+      } else if (connection.partial.length() < MAX_LINE_LENGTH) {
+        connection.partial.append(c);
+      } else {
+        controller.getWhs().logWarning(() -> "SYSTEM: Scanner sent a line longer than "
+            + MAX_LINE_LENGTH + " characters, closing its connection");
+        connection.close();
+        return;
+      }
+    }
+    in.clear();
+  }
+
+  /**
+   * Queue a line of input for the system, or keep it with the connection and pause the connection
+   * if the queue is full or the connection already has lines waiting.
+   *
+   * @param connection The connection the line came from.
+   * @param line The line of input.
+   */
+  private void queue(Connection connection, String line) {
+    if (connection.pending.isEmpty() && requests.offer(new Request(connection, line))) {
+      return;
+    }
+    connection.pending.add(line);
+    if (!connection.paused) {
+      connection.paused = true;
+      connection.key.interestOps(connection.key.interestOps() & ~SelectionKey.OP_READ);
+      paused.add(connection);
+      pauses.incrementAndGet();
+    }
+  }
+
+  /**
+   * Queue the lines kept by the paused connections while they fit, and read again from each
+   * connection whose lines are all queued.
+   */
+  private void resumePaused() {
+    Iterator<Connection> iterator = paused.iterator();
+    while (iterator.hasNext()) {
+      Connection connection = iterator.next();
+      while (!connection.pending.isEmpty()
+          && requests.offer(new Request(connection, connection.pending.peek()))) {
+        connection.pending.poll();
+      }
+      if (connection.pending.isEmpty()) {
+        connection.paused = false;
+        iterator.remove();
+        if (connection.key.isValid()) {
+          connection.key.interestOps(connection.key.interestOps() | SelectionKey.OP_READ);
+        }
+      } else if (!connection.key.isValid()) {
+        iterator.remove();
+      }
+    }
+  }
+
+  /**
+   * Write the replies waiting for the connection, and stop watching it for writing once they are
+   * all written.
+   *
+   * @param connection The connection.
+   * @throws IOException for write
+   */
+  private void write(Connection connection) throws IOException {
+    if (connection.out == null || !connection.out.hasRemaining()) {
+      StringBuilder text = new StringBuilder();
+      String reply = connection.replies.poll();
+      while (reply != null) {
+        text.append(reply).append('\n');
+        reply = connection.replies.poll();
+      }
+      connection.out = ByteBuffer.wrap(text.toString().getBytes(StandardCharsets.US_ASCII));
+    }
+    connection.channel.write(connection.out);
+    // A reply added after this check puts the connection on writable again.
+    if (!connection.out.hasRemaining() && connection.replies.isEmpty()) {
+      connection.key.interestOps(connection.key.interestOps() & ~SelectionKey.OP_WRITE);
+    }
+  }
+
+  /**
+   * Stop the server: stop serving, close every connection and stop listening.
+   *
+   * @throws IOException for close
+   */
+  @Override
+  public void close() throws IOException {
+    closed = true;
+    selector.wakeup();
+    if (ioThread != null) {
+      try {
+        ioThread.join();
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+      }
+    }
+    for (SelectionKey key : selector.keys()) {
+      key.channel().close();
+    }
+    selector.close();
+    server.close();
+  }
+
+  /** A line of input and the connection it came from. */
+  private static class Request {
+
+    /** The connection the line came from. */
+    private final Connection connection;
+    /** The line of input. */
+    private final String line;
+
+    /**
+     * Initialize a new Request for the line from the connection.
+     *
+     * @param connection The connection the line came from.
+     * @param line The line of input.
+     */
+    private Request(Connection connection, String line) {
+      this.connection = connection;
+      this.line = line;
+    }
+  }
+
+  /** The state of the connection of one scanner. */
+  private static class Connection {
+
+    /** The channel of the connection. */
+    private final SocketChannel channel;
+    /** The key of the channel in the selector. */
+    private SelectionKey key;
+    /** The bytes read and not split into lines yet. */
+    private final ByteBuffer in = ByteBuffer.allocate(READ_BUFFER_SIZE);
+    /** The start of a line whose end has not been read yet. */
+    private final StringBuilder partial = new StringBuilder();
+    /** The lines read while the connection was paused, oldest first. */
+    private final ArrayDeque<String> pending = new ArrayDeque<>();
+    /** Whether the connection is not read from until its pending lines are queued. */
+    private boolean paused;
+    /** The replies made by the system and not written yet, oldest first. */
+    private final ConcurrentLinkedQueue<String> replies = new ConcurrentLinkedQueue<>();
+    /** The replies being written, or null. */
+    private ByteBuffer out;
+
+    /**
+     * Initialize a new Connection on the channel.
+     *
+     * @param channel The channel of the connection.
+     */
+    private Connection(SocketChannel channel) {
+      this.channel = channel;
+    }
+
+    /**
+     * Close the connection. Replies to the lines it sent are dropped.
+     */
+    private void close() {
+      key.cancel();
+      try {
+        channel.close();
+      } catch (IOException e) {
+        // The connection is gone either way.
+      }
+    }
+  }
+
+}
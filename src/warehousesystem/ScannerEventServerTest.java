@@ -0,0 +1,167 @@
+package warehousesystem;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.spy;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.Socket;
+import java.net.SocketException;
+import java.nio.charset.StandardCharsets;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.Mockito;
+
+public class ScannerEventServerTest {
+
+  private WarehouseController wc;
+  private ScannerEventServer server;
+  private Thread serving;
+  private Socket socket;
+  private OutputStream out;
+  private BufferedReader in;
+
+  @Before
+  public void setUp() throws IOException {
+    wc = new WarehouseController("16orders.txt");
+  }
+
+  @After
+  public void tearDown() throws IOException, InterruptedException {
+    if (socket != null) {
+      socket.close();
+    }
+    server.close();
+    if (serving != null) {
+      serving.join();
+    }
+  }
+
+  /** Start the server with the capacity, and serve it on another thread if serve is true. */
+  private void start(int capacity, boolean serve) throws IOException {
+    server = new ScannerEventServer(wc, 0, capacity);
+    server.start();
+    if (serve) {
+      serve();
+    }
+    socket = new Socket(InetAddress.getLoopbackAddress(), server.getPort());
+    out = socket.getOutputStream();
+    in = new BufferedReader(
+        new InputStreamReader(socket.getInputStream(), StandardCharsets.US_ASCII));
+  }
+
+  /** Serve the server on another thread. */
+  private void serve() {
+    serving = new Thread(() -> {
+      try {
+        server.serve();
+      } catch (IOException e) {
+        throw new RuntimeException(e);
+      }
+    });
+    serving.start();
+  }
+
+  /** Send the lines at once. */
+  private void send(String... lines) throws IOException {
+    StringBuilder text = new StringBuilder();
+    for (String line : lines) {
+      text.append(line).append('\n');
+    }
+    out.write(text.toString().getBytes(StandardCharsets.US_ASCII));
+    out.flush();
+  }
+
+  @Test
+  public void testRepliesWithInstructions() throws IOException {
+    start(ScannerEventServer.DEFAULT_CAPACITY, true);
+    send("Picker Alice ready");
+    assertEquals("OK WAIT", in.readLine());
+    send("Order SES Blue", "Order S Beige", "Order SES Red", "Order SE White");
+    for (int i = 0; i < 4; i++) {
+      assertEquals("OK", in.readLine());
+    }
+    send("Picker Alice ready");
+    String reply = in.readLine();
+    assertTrue(reply, reply.startsWith("OK PICK "));
+    assertTrue(reply, reply.contains(" at "));
+    send("Picker Alice picked " + reply.split(" ")[2]);
+    assertTrue(in.readLine().startsWith("OK PICK "));
+    send("Picker picked");
+    assertEquals("ERROR invalid event", in.readLine());
+    assertEquals(8, wc.getLineCount());
+  }
+
+  @Test
+  public void testFailedEventKeepsServing() throws IOException {
+    wc = spy(wc);
+    doThrow(new IllegalStateException("boom")).when(wc).processParsedLine(
+        Mockito.eq("Picker Bob boom"), Mockito.any(ScannerEvent.class), Mockito.anyBoolean());
+    start(ScannerEventServer.DEFAULT_CAPACITY, true);
+    send("Picker Bob ready", "Picker Bob discarded", "Picker Bob boom", "Picker Bob ready");
+    assertEquals("OK WAIT", in.readLine());
+    assertTrue(in.readLine().startsWith("OK"));
+    assertEquals("ERROR event failed", in.readLine());
+    assertEquals("OK WAIT", in.readLine());
+  }
+
+  @Test
+  public void testLongLineClosesConnection() throws IOException {
+    start(ScannerEventServer.DEFAULT_CAPACITY, true);
+    StringBuilder line = new StringBuilder("Order SES ");
+    while (line.length() <= ScannerEventServer.MAX_LINE_LENGTH) {
+      line.append("Blue");
+    }
+    send(line.toString());
+    String reply;
+    try {
+      reply = in.readLine();
+    } catch (SocketException e) {
+      // The connection was reset by the server.
+      reply = null;
+    }
+    assertEquals(null, reply);
+    assertEquals(0, wc.getLineCount());
+  }
+
+  @Test
+  public void testBackpressure() throws IOException {
+    start(2, false);
+    String[] lines = new String[200];
+    for (int i = 0; i < lines.length; i++) {
+      lines[i] = "Order SES Blue";
+    }
+    send(lines);
+    for (int i = 0; i < 50 && server.getPauses() == 0; i++) {
+      try {
+        Thread.sleep(10);
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+      }
+    }
+    assertTrue(server.getPauses() > 0);
+    assertEquals(0, wc.getLineCount());
+    serve();
+    for (int i = 0; i < lines.length; i++) {
+      assertEquals("OK", in.readLine());
+    }
+    assertEquals(lines.length, wc.getLineCount());
+  }
+
+  @Test
+  public void testLoadGenerator() throws IOException {
+    start(ScannerEventServer.DEFAULT_CAPACITY, true);
+    ScannerLoadGenerator generator = new ScannerLoadGenerator(server.getPort());
+    generator.run(4, 50);
+    assertEquals(0, generator.getErrors());
+    assertEquals(200, generator.getLatencies().getCount());
+    assertTrue(generator.getLatencies().getValueAtPercentile(50) > 0);
+  }
+
+}
@@ -0,0 +1,34 @@
+package warehousesystem;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+import org.junit.Test;
+
+public class ScannerEventTest {
+
+  @Test
+  public void testSetOrder() {
+    ScannerEvent event = new ScannerEvent();
+    event.setWorkerEvent(WorkerRole.PICKER, "Alice", EventVerb.PICKED, "11");
+    event.setOrder("SES", "Blue");
+    assertEquals(EventVerb.ORDER, event.getVerb());
+    assertEquals("SES", event.getModel());
+    assertEquals("Blue", event.getColor());
+    assertNull(event.getWorker());
+    assertNull(event.getSku());
+  }
+
+  @Test
+  public void testSetWorkerEvent() {
+    ScannerEvent event = new ScannerEvent();
+    event.setOrder("SES", "Blue");
+    event.setWorkerEvent(WorkerRole.LOADER, "Bill", EventVerb.LOADED, "3");
+    assertEquals(WorkerRole.LOADER, event.getRole());
+    assertEquals("Bill", event.getWorker());
+    assertEquals(EventVerb.LOADED, event.getVerb());
+    assertEquals("3", event.getSku());
+    assertNull(event.getModel());
+  }
+
+}
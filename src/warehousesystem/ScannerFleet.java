@@ -0,0 +1,135 @@
+package warehousesystem;
+
+import java.io.IOException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+public class ScannerFleet implements InstructionListener {
+
+  /** The threads shared by every session. */
+  private final ScheduledThreadPoolExecutor carriers;
+  /** The lines of input sent by the scanners and not processed yet, oldest first. */
+  private final LinkedBlockingQueue<String> inbound = new LinkedBlockingQueue<>();
+  /** The session of each scanner, by the role and name of its worker. */
+  private final ConcurrentHashMap<String, ScannerSession> sessions = new ConcurrentHashMap<>();
+  /** The time in nanoseconds a worker takes to carry out an instruction. */
+  private final long latencyNanos;
+
+  /**
+   * Initialize a new ScannerFleet of simulated handheld scanners that share the carrier threads.
+   * Each scanner is a ScannerSession that carries out the instructions the system sends it and
+   * sends back the lines of input its worker would scan. The lines of every scanner are processed
+   * by drive on a single thread, so the system keeps one writer.
+   *
+   * @param carrierThreads The number of threads shared by the sessions.
+   * @param latencyNanos The time in nanoseconds a worker takes to carry out an instruction.
+   */
+  public ScannerFleet(int carrierThreads, long latencyNanos) {
+    AtomicInteger count = new AtomicInteger();
+    carriers = new ScheduledThreadPoolExecutor(carrierThreads, runnable -> {
+      Thread thread = new Thread(runnable, "scanner-carrier-" + count.incrementAndGet());
+      thread.setDaemon(true);
+      return thread;
+    });
+    this.latencyNanos = latencyNanos;
+  }
+
+  /**
+   * Start a session for the scanner of the worker, and send the line of input that puts the worker
+   * on shift.
+   *
+   * @param role The role of the worker.
+   * @param name The name of the worker.
+   * @return The new session.
+   */
+  public ScannerSession open(WorkerRole role, String name) {
+    ScannerSession session = new ScannerSession(role, name, carriers, inbound::add, latencyNanos);
+    sessions.put(role.getName() + " " + name, session);
+    inbound.add(role.getName() + " " + name + " ready");
+    return session;
+  }
+
+  /**
+   * Return the session for the scanner of the worker.
+   *
+   * @param role The role of the worker.
+   * @param name The name of the worker.
+   * @return The session, or null if none was opened.
+   */
+  public ScannerSession getSession(WorkerRole role, String name) {
+    return sessions.get(role.getName() + " " + name);
+  }
+
+  /**
+   * Return the number of sessions opened.
+   *
+   * @return The number of sessions.
+   */
+  public int size() {
+    return sessions.size();
+  }
+
+  /**
+   * Send a line of input that does not come from a scanner, such as an order.
+   *
+   * @param line The line of input.
+   */
+  public void send(String line) {
+    inbound.add(line);
+  }
+
+  /**
+   * Deliver the instruction to the session of the worker's scanner, if it has one.
+   *
+   * @param br The BarcodeReader of the worker.
+   * @param instruction The instruction.
+   */
+  @Override
+  public void instruct(BarcodeReader br, ScannerInstruction instruction) {
+    WorkerRole role = WorkerRole.of(br);
+    ScannerSession session = role == null ? null : getSession(role, br.getUser());
+    if (session != null) {
+      session.deliver(instruction);
+    }
+  }
+
+  /**
+   * Process the lines of input sent by the scanners on this thread, in the order they arrive,
+   * until none arrives for the idle time. The instructions the system sends while processing them
+   * are delivered to the sessions, whose answers are processed in turn.
+   *
+   * @param controller The controller whose model processes the lines. Its system sends its
+   *        instructions to this fleet while the fleet drives it.
+   * @param idleMillis The time in milliseconds to wait for a line before the fleet stops driving.
+   * @return The number of lines processed.
+   * @throws IOException for processLine
+   */
+  public long drive(WarehouseController controller, long idleMillis) throws IOException {
+    controller.getWhs().setInstructionListener(this);
+    long processed = 0;
+    try {
+      String line = inbound.poll(idleMillis, TimeUnit.MILLISECONDS);
+      while (line != null) {
+        controller.processLine(line);
+        processed++;
+        line = inbound.poll(idleMillis, TimeUnit.MILLISECONDS);
+      }
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    } finally {
+      controller.getWhs().setInstructionListener(null);
+    }
+    return processed;
+  }
+
+  /**
+   * Stop the carrier threads. Instructions not carried out yet are dropped.
+   */
+  public void shutdown() {
+    carriers.shutdownNow();
+  }
+
+}
@@ -0,0 +1,80 @@
+package warehousesystem;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.io.IOException;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+public class ScannerFleetTest {
+
+  private ScannerFleet fleet;
+  private WarehouseController wc;
+  private ListOrderSink sink;
+
+  @Before
+  public void setUp() throws IOException {
+    fleet = new ScannerFleet(2, 0);
+    wc = new WarehouseController("16orders.txt");
+    sink = new ListOrderSink();
+    wc.getWhs().setOrderSink(sink);
+  }
+
+  @After
+  public void tearDown() {
+    fleet.shutdown();
+  }
+
+  @Test
+  public void testOpen() {
+    ScannerSession session = fleet.open(WorkerRole.PICKER, "Alice");
+    assertEquals(session, fleet.getSession(WorkerRole.PICKER, "Alice"));
+    assertNull(fleet.getSession(WorkerRole.LOADER, "Alice"));
+    assertEquals(1, fleet.size());
+  }
+
+  @Test
+  public void testRequestsLoaded() throws IOException {
+    fleet.open(WorkerRole.PICKER, "Alice");
+    fleet.open(WorkerRole.PICKER, "Bob");
+    fleet.open(WorkerRole.SEQUENCER, "Sue");
+    fleet.open(WorkerRole.LOADER, "Bill");
+    fleet.open(WorkerRole.REPLENISHER, "Ruby");
+    for (int i = 0; i < 4; i++) {
+      fleet.send("Order SES Blue");
+      fleet.send("Order S Beige");
+      fleet.send("Order SES Red");
+      fleet.send("Order SE White");
+    }
+    long processed = fleet.drive(wc, 200);
+    assertEquals(4, sink.getRequests().size());
+    // 5 ready, 16 orders, and 4 requests of 8 picks, 2 to marshal, 10 to sequence and 10 to load.
+    assertEquals(5 + 16 + 4 * 30, processed);
+    assertEquals(ScannerInstruction.Kind.WAIT,
+        fleet.getSession(WorkerRole.LOADER, "Bill").getLastInstruction().getKind());
+  }
+
+  @Test
+  public void testReplenisherSentToLowLevel() throws IOException {
+    fleet.open(WorkerRole.PICKER, "Alice");
+    fleet.open(WorkerRole.SEQUENCER, "Sue");
+    fleet.open(WorkerRole.LOADER, "Bill");
+    fleet.open(WorkerRole.REPLENISHER, "Ruby");
+    // Eight requests pick 32 fascias from each of two levels that hold 30 when full.
+    for (int i = 0; i < 32; i++) {
+      fleet.send("Order SES White");
+    }
+    fleet.drive(wc, 200);
+    assertEquals(8, sink.getRequests().size());
+    ScannerSession replenisher = fleet.getSession(WorkerRole.REPLENISHER, "Ruby");
+    assertTrue(replenisher.getHandled() >= 3);
+    assertEquals(ScannerInstruction.Kind.WAIT, replenisher.getLastInstruction().getKind());
+    for (int amount : wc.getWhs().outputInventory().values()) {
+      assertTrue(amount > 0);
+    }
+  }
+
+}
@@ -0,0 +1,117 @@
+package warehousesystem;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+public class ScannerInstruction implements Serializable {
+
+  /** The version of the serialized form of this class, which is kept in snapshots. */
+  private static final long serialVersionUID = 1L;
+
+  /** What the system tells a worker to do next. */
+  public enum Kind {
+    /** Wait for work. */
+    WAIT,
+    /** Pick the one sku. */
+    PICK,
+    /** Take the picked fascias to marshaling. */
+    MARSHAL,
+    /** Sequence the skus in order, then finish. */
+    SEQUENCE,
+    /** Load the skus in order, then finish. */
+    LOAD,
+    /** Replenish the level of the one sku, then finish. */
+    REPLENISH
+  }
+
+  /** What the worker is told to do. */
+  private final Kind kind;
+  /** The skus the worker is told to scan, in order. */
+  private final List<String> skus;
+  /** The location the worker is told to go to, or null. */
+  private final String location;
+
+  /**
+   * Initialize a new ScannerInstruction of the kind for the skus. It is not changed once it is
+   * made, so it can be handed to another thread.
+   * 
+   * @param kind What the worker is told to do.
+   * @param skus The skus the worker is told to scan, in order.
+   */
+  public ScannerInstruction(Kind kind, List<String> skus) {
+    this.kind = kind;
+    this.skus = Collections.unmodifiableList(new ArrayList<>(skus));
+    this.location = null;
+  }
+
+  /**
+   * Initialize a new ScannerInstruction of the kind for one sku at the location.
+   * 
+   * @param kind What the worker is told to do.
+   * @param sku The sku the worker is told to scan.
+   * @param location The location the worker is told to go to.
+   */
+  public ScannerInstruction(Kind kind, String sku, String location) {
+    this.kind = kind;
+    this.skus = Collections.singletonList(sku);
+    this.location = location;
+  }
+
+  /**
+   * Initialize a new ScannerInstruction of the kind for no sku, or for one sku if it is not null.
+   * 
+   * @param kind What the worker is told to do.
+   * @param sku The sku the worker is told to scan, or null.
+   */
+  public ScannerInstruction(Kind kind, String sku) {
+    this(kind, sku == null ? Collections.<String>emptyList() : Collections.singletonList(sku));
+  }
+
+  /**
+   * Return what the worker is told to do.
+   * 
+   * @return kind
+   */
+  public Kind getKind() {
+    return kind;
+  }
+
+  /**
+   * Return the skus the worker is told to scan, in order.
+   * 
+   * @return skus
+   */
+  public List<String> getSkus() {
+    return skus;
+  }
+
+  /**
+   * Return the location the worker is told to go to.
+   * 
+   * @return location, or null if the instruction has none.
+   */
+  public String getLocation() {
+    return location;
+  }
+
+  /**
+   * Return the instruction as one line, such as "PICK 11 at A,0,1,2" or "WAIT": the kind, then
+   * the skus separated by spaces, then the location if there is one.
+   * 
+   * @return The instruction as one line.
+   */
+  @Override
+  public String toString() {
+    StringBuilder line = new StringBuilder(kind.toString());
+    for (String sku : skus) {
+      line.append(' ').append(sku);
+    }
+    if (location != null) {
+      line.append(" at ").append(location);
+    }
+    return line.toString();
+  }
+
+}
@@ -0,0 +1,151 @@
+package warehousesystem;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.concurrent.atomic.AtomicLong;
+
+public class ScannerLoadGenerator {
+
+  /** The port of the server on the loopback address. */
+  private final int port;
+  /** The latency of every request sent, in nanoseconds. */
+  private final LatencyHistogram latencies = new LatencyHistogram();
+  /** The number of replies that were not "OK". */
+  private final AtomicLong errors = new AtomicLong();
+
+  /**
+   * Initialize a new ScannerLoadGenerator for the ScannerEventServer on the port of the loopback
+   * address.
+   *
+   * @param port The port of the server.
+   */
+  public ScannerLoadGenerator(int port) {
+    this.port = port;
+  }
+
+  /**
+   * Run the pickers, each on a connection and a thread of its own, until each has sent the
+   * number of requests, and wait for them all. Each picker sends four orders, starts its shift,
+   * then follows the instructions in the replies: it picks each sku it is told to, and goes to
+   * marshaling when it is told to. It waits for the reply to each request before it sends the
+   * next, and the time from sending a request to reading its reply is recorded.
+   *
+   * @param pickers The number of pickers.
+   * @param requests The number of requests each picker sends.
+   * @throws IOException if a picker cannot connect or its connection fails.
+   */
+  public void run(int pickers, int requests) throws IOException {
+    ArrayList<Thread> threads = new ArrayList<>();
+    IOException[] failure = new IOException[1];
+    for (int i = 0; i < pickers; i++) {
+      String name = "Load" + i;
+      Thread thread = new Thread(() -> {
+        try {
+          runPicker(name, requests);
+        } catch (IOException e) {
+          synchronized (failure) {
+            failure[0] = e;
+          }
+        }
+      }, "scanner-load-" + i);
+      thread.start();
+      threads.add(thread);
+    }
+    for (Thread thread : threads) {
+      try {
+        thread.join();
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+        return;
+      }
+    }
+    synchronized (failure) {
+      if (failure[0] != null) {
+        throw failure[0];
+      }
+    }
+  }
+
+  /**
+   * Run one picker on a connection of its own.
+   *
+   * @param name The name of the picker.
+   * @param requests The number of requests to send.
+   * @throws IOException if the connection fails.
+   */
+  private void runPicker(String name, int requests) throws IOException {
+    try (Socket socket = new Socket(InetAddress.getLoopbackAddress(), port)) {
+      socket.setTcpNoDelay(true);
+      OutputStream out = socket.getOutputStream();
+      BufferedReader in = new BufferedReader(
+          new InputStreamReader(socket.getInputStream(), StandardCharsets.US_ASCII));
+      String prefix = "Picker " + name + " ";
+      int sent = 0;
+      while (sent < requests) {
+        String[] orders = {"Order SES Blue", "Order S Beige", "Order SES Red", "Order SE White"};
+        for (String order : orders) {
+          send(out, in, order);
+        }
+        String reply = send(out, in, prefix + "ready");
+        sent += 5;
+        while (sent < requests && reply.startsWith("OK PICK ")) {
+          reply = send(out, in, prefix + "picked " + reply.split(" ")[2]);
+          sent++;
+        }
+        if (sent < requests && reply.startsWith("OK MARSHAL")) {
+          send(out, in, prefix + "to Marshaling");
+          sent++;
+        }
+      }
+    }
+  }
+
+  /**
+   * Send a line and return its reply, and record how long the reply took.
+   *
+   * @param out The stream to the server.
+   * @param in The stream from the server.
+   * @param line The line to send.
+   * @return The reply.
+   * @throws IOException if the connection fails or is closed before the reply.
+   */
+  private String send(OutputStream out, BufferedReader in, String line) throws IOException {
+    long start = System.nanoTime();
+    out.write((line + "\n").getBytes(StandardCharsets.US_ASCII));
+    out.flush();
+    String reply = in.readLine();
+    latencies.record(System.nanoTime() - start);
+    if (reply == null) {
+      throw new IOException("The server closed the connection");
+    }
+    if (!reply.startsWith("OK")) {
+      errors.incrementAndGet();
+    }
+    return reply;
+  }
+
+  /**
+   * Return the latency of every request sent, in nanoseconds.
+   *
+   * @return latencies
+   */
+  public LatencyHistogram getLatencies() {
+    return latencies;
+  }
+
+  /**
+   * Return the number of replies that were not "OK".
+   *
+   * @return The number of errors.
+   */
+  public long getErrors() {
+    return errors.get();
+  }
+
+}
@@ -0,0 +1,186 @@
+package warehousesystem;
+
+import java.util.ArrayList;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Consumer;
+
+public class ScannerSession implements Runnable {
+
+  /** The role of the worker holding the scanner. */
+  private final WorkerRole role;
+  /** The name of the worker holding the scanner. */
+  private final String name;
+  /** The threads shared by every session, which run a session when it has instructions. */
+  private final ScheduledExecutorService carriers;
+  /** Where the scanner sends the lines of input it produces. */
+  private final Consumer<String> outbound;
+  /** The time in nanoseconds the worker takes to carry out an instruction. */
+  private final long latencyNanos;
+  /** The instructions sent to the scanner and not carried out yet, oldest first. */
+  private final ConcurrentLinkedQueue<ScannerInstruction> mailbox = new ConcurrentLinkedQueue<>();
+  /** Whether the session is running or waiting to run on a carrier thread. */
+  private final AtomicBoolean scheduled = new AtomicBoolean();
+  /** The last instruction the scanner carried out, or null. */
+  private volatile ScannerInstruction lastInstruction;
+  /** The number of instructions the scanner has carried out. */
+  private volatile long handled;
+
+  /**
+   * Initialize a new ScannerSession for the handheld scanner of a worker. The session holds no
+   * thread of its own: when an instruction arrives in its mailbox, it is run on one of the carrier
+   * threads shared by all sessions, carries out its instructions one at a time and in order, and
+   * gives the thread back once its mailbox is empty. While the worker is busy with an instruction,
+   * the session is only a timer on the carriers, so thousands of sessions can share a few threads.
+   *
+   * @param role The role of the worker holding the scanner.
+   * @param name The name of the worker holding the scanner.
+   * @param carriers The threads shared by every session.
+   * @param outbound Where the scanner sends the lines of input it produces. It is called from the
+   *        carrier threads.
+   * @param latencyNanos The time in nanoseconds the worker takes to carry out an instruction.
+   */
+  public ScannerSession(WorkerRole role, String name, ScheduledExecutorService carriers,
+      Consumer<String> outbound, long latencyNanos) {
+    this.role = role;
+    this.name = name;
+    this.carriers = carriers;
+    this.outbound = outbound;
+    this.latencyNanos = latencyNanos;
+  }
+
+  /**
+   * Put an instruction in the mailbox of this session, and run the session if it is not running
+   * already. This does not block, and can be called from any thread.
+   *
+   * @param instruction The instruction sent to the scanner.
+   */
+  public void deliver(ScannerInstruction instruction) {
+    mailbox.add(instruction);
+    if (scheduled.compareAndSet(false, true)) {
+      carriers.execute(this);
+    }
+  }
+
+  /**
+   * Carry out the instructions in the mailbox in order. After an instruction that makes the
+   * worker scan, the session waits for the latency without holding the carrier thread, then sends
+   * the lines of input and carries on with the next instruction.
+   */
+  @Override
+  public void run() {
+    ScannerInstruction instruction = mailbox.poll();
+    while (instruction != null) {
+      lastInstruction = instruction;
+      handled++;
+      ArrayList<String> lines = respond(instruction);
+      if (!lines.isEmpty()) {
+        if (latencyNanos > 0) {
+          carriers.schedule(() -> {
+            send(lines);
+            run();
+          }, latencyNanos, TimeUnit.NANOSECONDS);
+          return;
+        }
+        send(lines);
+      }
+      instruction = mailbox.poll();
+    }
+    scheduled.set(false);
+    // An instruction delivered after the mailbox was found empty would otherwise wait forever.
+    if (!mailbox.isEmpty() && scheduled.compareAndSet(false, true)) {
+      carriers.execute(this);
+    }
+  }
+
+  /**
+   * Return the lines of input the worker produces by carrying out the instruction.
+   *
+   * @param instruction The instruction.
+   * @return The lines of input, in order.
+   */
+  private ArrayList<String> respond(ScannerInstruction instruction) {
+    String prefix = role.getName() + " " + name + " ";
+    ArrayList<String> lines = new ArrayList<>();
+    switch (instruction.getKind()) {
+      case PICK:
+        lines.add(prefix + "picked " + instruction.getSkus().get(0));
+        break;
+      case MARSHAL:
+        lines.add(prefix + "to Marshaling");
+        lines.add(prefix + "ready");
+        break;
+      case SEQUENCE:
+        for (String sku : instruction.getSkus()) {
+          lines.add(prefix + "sequenced " + sku);
+        }
+        lines.add(prefix + "finished");
+        lines.add(prefix + "ready");
+        break;
+      case LOAD:
+        for (String sku : instruction.getSkus()) {
+          lines.add(prefix + "loaded " + sku);
+        }
+        lines.add(prefix + "finished");
+        lines.add(prefix + "ready");
+        break;
+      case REPLENISH:
+        lines.add(prefix + "replenished " + instruction.getSkus().get(0));
+        lines.add(prefix + "finished");
+        break;
+      default:
+        break;
+    }
+    return lines;
+  }
+
+  /**
+   * Send the lines of input produced by the scanner.
+   *
+   * @param lines The lines of input, in order.
+   */
+  private void send(ArrayList<String> lines) {
+    for (String line : lines) {
+      outbound.accept(line);
+    }
+  }
+
+  /**
+   * Return the role of the worker holding the scanner.
+   *
+   * @return role
+   */
+  public WorkerRole getRole() {
+    return role;
+  }
+
+  /**
+   * Return the name of the worker holding the scanner.
+   *
+   * @return name
+   */
+  public String getName() {
+    return name;
+  }
+
+  /**
+   * Return the last instruction the scanner carried out.
+   *
+   * @return lastInstruction, or null if it has carried out none.
+   */
+  public ScannerInstruction getLastInstruction() {
+    return lastInstruction;
+  }
+
+  /**
+   * Return the number of instructions the scanner has carried out.
+   *
+   * @return handled
+   */
+  public long getHandled() {
+    return handled;
+  }
+
+}
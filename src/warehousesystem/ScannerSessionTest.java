@@ -0,0 +1,104 @@
+package warehousesystem;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+public class ScannerSessionTest {
+
+  private ScheduledThreadPoolExecutor carriers;
+  private LinkedBlockingQueue<String> lines;
+
+  @Before
+  public void setUp() {
+    carriers = new ScheduledThreadPoolExecutor(2);
+    lines = new LinkedBlockingQueue<>();
+  }
+
+  @After
+  public void tearDown() {
+    carriers.shutdownNow();
+  }
+
+  /** Take the next count lines sent by the sessions, waiting up to a second for each. */
+  private List<String> take(int count) throws InterruptedException {
+    ArrayList<String> taken = new ArrayList<>();
+    for (int i = 0; i < count; i++) {
+      taken.add(lines.poll(1, TimeUnit.SECONDS));
+    }
+    return taken;
+  }
+
+  @Test
+  public void testPick() throws InterruptedException {
+    ScannerSession session =
+        new ScannerSession(WorkerRole.PICKER, "Alice", carriers, lines::add, 0);
+    session.deliver(new ScannerInstruction(ScannerInstruction.Kind.PICK, "11"));
+    assertEquals(Arrays.asList("Picker Alice picked 11"), take(1));
+    assertEquals(1, session.getHandled());
+    assertEquals(ScannerInstruction.Kind.PICK, session.getLastInstruction().getKind());
+  }
+
+  @Test
+  public void testInstructionsCarriedOutInOrder() throws InterruptedException {
+    ScannerSession session =
+        new ScannerSession(WorkerRole.PICKER, "Alice", carriers, lines::add, 1000000);
+    session.deliver(new ScannerInstruction(ScannerInstruction.Kind.PICK, "11"));
+    session.deliver(new ScannerInstruction(ScannerInstruction.Kind.PICK, "12"));
+    session.deliver(new ScannerInstruction(ScannerInstruction.Kind.MARSHAL, (String) null));
+    assertEquals(Arrays.asList("Picker Alice picked 11", "Picker Alice picked 12",
+        "Picker Alice to Marshaling", "Picker Alice ready"), take(4));
+  }
+
+  @Test
+  public void testSequence() throws InterruptedException {
+    ScannerSession session =
+        new ScannerSession(WorkerRole.SEQUENCER, "Sue", carriers, lines::add, 0);
+    session.deliver(
+        new ScannerInstruction(ScannerInstruction.Kind.SEQUENCE, Arrays.asList("1", "2")));
+    assertEquals(Arrays.asList("Sequencer Sue sequenced 1", "Sequencer Sue sequenced 2",
+        "Sequencer Sue finished", "Sequencer Sue ready"), take(4));
+  }
+
+  @Test
+  public void testReplenish() throws InterruptedException {
+    ScannerSession session =
+        new ScannerSession(WorkerRole.REPLENISHER, "Ruby", carriers, lines::add, 0);
+    session.deliver(new ScannerInstruction(ScannerInstruction.Kind.REPLENISH, "5"));
+    assertEquals(Arrays.asList("Replenisher Ruby replenished 5", "Replenisher Ruby finished"),
+        take(2));
+  }
+
+  @Test
+  public void testWaitSendsNothing() throws InterruptedException {
+    ScannerSession session =
+        new ScannerSession(WorkerRole.LOADER, "Bill", carriers, lines::add, 0);
+    session.deliver(new ScannerInstruction(ScannerInstruction.Kind.WAIT, (String) null));
+    session.deliver(new ScannerInstruction(ScannerInstruction.Kind.LOAD, Arrays.asList("1")));
+    assertEquals(Arrays.asList("Loader Bill loaded 1", "Loader Bill finished",
+        "Loader Bill ready"), take(3));
+    assertNull(lines.poll());
+    assertEquals(2, session.getHandled());
+  }
+
+  @Test
+  public void testManySessionsShareCarriers() throws InterruptedException {
+    int count = 1000;
+    for (int i = 0; i < count; i++) {
+      new ScannerSession(WorkerRole.PICKER, "P" + i, carriers, lines::add, 1000000)
+          .deliver(new ScannerInstruction(ScannerInstruction.Kind.PICK, "1"));
+    }
+    assertEquals(count, take(count).size());
+    assertEquals(2, carriers.getPoolSize());
+  }
+
+}
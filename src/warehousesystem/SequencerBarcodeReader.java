@@ -2,6 +2,9 @@ package warehousesystem;
 
 public class SequencerBarcodeReader extends BarcodeReader {
 
+  /** The version of the serialized form of this class, which is kept in snapshots. */
+  private static final long serialVersionUID = 1L;
+
   /**
    * Initialize a new SequencerBarcodeReader.
    * 
@@ -14,36 +17,43 @@ public class SequencerBarcodeReader extends BarcodeReader {
   }
 
   /**
-   * Log the correct order for sequencer to sequence in warehouse system.
+   * Log the correct order for sequencer to sequence in warehouse system, and send it to the
+   * sequencer.
    */
   public void getNextStep() {
-    whSystem.logInfo("SIM: Sequencer " + user + "'s correct order is: " + pr.getCorrectOrder());
+    whSystem.logInfo(() -> "SIM: Sequencer " + user + "'s correct order is: "
+        + pr.getCorrectOrder());
+    instruct(new ScannerInstruction(ScannerInstruction.Kind.SEQUENCE, pr.getCorrectOrder()));
   }
 
   /**
-   * Scan the sku. Add the sku to the scannedSku. If there is eight fascias, check if it has the
-   * correct order as the correctOrder from the picking request. If the order is correct, finish the
-   * work, else rescan the eight fasicas or discard the fascias and re-pick the picking request.
+   * Scan the sku. Add the sku to the scannedSku. If every fascia of the picking request is
+   * scanned, check if it has the correct order as the correctOrder from the picking request. If the
+   * order is correct, finish the work, else rescan the fasicas or discard the fascias and re-pick
+   * the picking request.
    * 
    * @param sku The sku that the sequencer scanned.
    */
   public void scan(String sku) {
     scannedSku.add(sku);
-    if (scannedSku.size() <= 8) {
+    int fasciaCount = getFasciaCount();
+    if (scannedSku.size() <= fasciaCount) {
       if (sku.equals(pr.getCorrectOrder().get(scannedSku.size() - 1))) {
-        whSystem
-            .logInfo("SIM: Sequencer " + this.getUser() + "'s Scanner confirms sequence " + sku);
+        whSystem.logInfo(() -> "SIM: Sequencer " + this.getUser()
+            + "'s Scanner confirms sequence " + sku);
       } else {
-        whSystem.logWarning("SIM: Sequencer " + this.getUser() + "'s Scanner reports error sequencing "
-            + sku);
-        whSystem.logWarning("SIM: Sequencer " + this.getUser() + " requesting to discard items for request " + pr.getId());
+        whSystem.logWarning(() -> "SIM: Sequencer " + this.getUser()
+            + "'s Scanner reports error sequencing " + sku);
+        whSystem.logWarning(() -> "SIM: Sequencer " + this.getUser()
+            + " requesting to discard items for request " + pr.getId());
       }
-      if (scannedSku.size() == 8) {
-        whSystem.logInfo(
-            "SIM: Sequencer " + this.getUser() + "'s Scanner already sequenced eight fascias");
+      if (scannedSku.size() == fasciaCount) {
+        whSystem.logInfo(() -> "SIM: Sequencer " + this.getUser()
+            + "'s Scanner already sequenced " + countWord(fasciaCount) + " fascias");
       }
     } else {
-      whSystem.logWarning("SIM: Sequencer " + this.getUser() + " scanned more than eight fascias");
+      whSystem.logWarning(() -> "SIM: Sequencer " + this.getUser()
+          + " scanned more than " + countWord(fasciaCount) + " fascias");
     }
   }
 }
@@ -1,18 +1,150 @@
 package warehousesystem;
 
+import java.io.File;
 import java.io.IOException;
+import java.util.Arrays;
 
 public class Simulation {
 
+  /** The greatest number of log records waiting to be written by the background thread. */
+  private static final int LOG_CAPACITY = 8192;
+  /** With --log=sample, one in this many log records that find the log queue full is kept. */
+  private static final int LOG_SAMPLE_RATE = 10;
+  /** The greatest number of journal records written and forced to the disk together. */
+  private static final int JOURNAL_GROUP_SIZE = 64;
+  /** The greatest time in milliseconds a journal record waits to be written with others. */
+  private static final long JOURNAL_GROUP_DELAY = 10;
+  /** The longest time in milliseconds an interrupted simulation is given to write its output. */
+  private static final long SHUTDOWN_WAIT = 10000;
+  /** The file path of the snapshot of the system. */
+  private static final String SNAPSHOT_PATH = "snapshot.bin";
+
   /**
-   * The main method for Stimulation.
+   * The main method for Stimulation. The first argument is the input file. It can be followed by
+   * these flags:
+   * <ul>
+   * <li>--batch=N lets each picker pick up to N picking requests in one route.</li>
+   * <li>--follow or --follow=MS keeps reading the input file until it goes MS milliseconds without
+   * a new event, or until the simulation is interrupted.</li>
+   * <li>--log=MODE writes the log on a background thread that blocks (block, the default), drops
+   * records (drop) or keeps one in ten (sample) when its queue is full, or on the simulation
+   * thread (sync).</li>
+   * <li>--journal or --journal=PATH appends every event and change of status to a journal,
+   * journal.bin by default, for JournalReplay.</li>
+   * <li>--snapshot=N saves snapshot.bin at the start and after every N lines of input.</li>
+   * <li>--restore carries on a killed simulation from its snapshot and, with --journal, its
+   * journal.</li>
+   * <li>--replenish=adaptive sets reorder points and quantities from the picks.</li>
+   * <li>--serve=PORT takes the events from scanners over TCP on the loopback port and replies with
+   * the next instruction.</li>
+   * <li>--request-size=N makes a picking request of N orders instead of four.</li>
+   * <li>--request-wait=MS sends a partial picking request once the oldest order has waited MS
+   * milliseconds.</li>
+   * <li>--request-idle sends a partial picking request when a picker has no work.</li>
+   * <li>--request-window=N groups each picking request from N held orders by route, which wait at
+   * most 100 milliseconds unless --request-wait is given.</li>
+   * </ul>
    * 
    * @param args The args
    * @throws IOException The IOException
    */
   public static void main(String[] args) throws IOException {
-    WarehouseController whController = new WarehouseController(args[0]);
-    whController.runModel();
+    boolean restore = Arrays.asList(args).contains("--restore");
+    final WarehouseController whController = new WarehouseController(args[0], restore);
+    String logMode = "block";
+    String journalPath = null;
+    int snapshotInterval = 0;
+    int servePort = -1;
+    int requestSize = BatchingPolicy.DEFAULT_SIZE;
+    long requestWait = 0;
+    boolean requestIdle = false;
+    int requestWindow = 0;
+    for (int i = 1; i < args.length; i++) {
+      if (args[i].startsWith("--batch=")) {
+        whController.getWhs().setBatchSize(Integer.parseInt(args[i].substring(8)));
+      } else if (args[i].equals("--follow")) {
+        whController.follow(0);
+      } else if (args[i].startsWith("--follow=")) {
+        whController.follow(Long.parseLong(args[i].substring(9)));
+      } else if (args[i].startsWith("--log=")) {
+        logMode = args[i].substring(6);
+      } else if (args[i].equals("--journal") || args[i].startsWith("--journal=")) {
+        journalPath = args[i].length() > 10 ? args[i].substring(10) : "journal.bin";
+      } else if (args[i].startsWith("--snapshot=")) {
+        snapshotInterval = Integer.parseInt(args[i].substring(11));
+      } else if (args[i].equals("--replenish=adaptive")) {
+        whController.getWhs().getStorageManager().getPolicy().setAdaptive(true);
+      } else if (args[i].startsWith("--serve=")) {
+        servePort = Integer.parseInt(args[i].substring(8));
+      } else if (args[i].startsWith("--request-size=")) {
+        requestSize = Integer.parseInt(args[i].substring(15));
+      } else if (args[i].startsWith("--request-wait=")) {
+        requestWait = Long.parseLong(args[i].substring(15));
+      } else if (args[i].equals("--request-idle")) {
+        requestIdle = true;
+      } else if (args[i].startsWith("--request-window=")) {
+        requestWindow = Integer.parseInt(args[i].substring(17));
+      }
+    }
+    if (requestSize != BatchingPolicy.DEFAULT_SIZE || requestWait > 0 || requestIdle
+        || requestWindow > requestSize) {
+      BatchingPolicy policy =
+          new BatchingPolicy(requestSize, requestWait, requestIdle, requestWindow);
+      whController.getWhs().getOrderManager().setPolicy(policy);
+      whController.getWhs().logConfig("SYSTEM: Orders batched into picking requests by " + policy);
+    }
+    if (journalPath != null) {
+      if (!restore) {
+        // A new shift starts a new journal.
+        new File(journalPath).delete();
+      }
+      whController.getWhs().setJournal(
+          new EventJournal(journalPath, JOURNAL_GROUP_SIZE, JOURNAL_GROUP_DELAY, true));
+    }
+    if (snapshotInterval > 0 || restore) {
+      SnapshotManager snapshots = new SnapshotManager(SNAPSHOT_PATH, "order.csv",
+          snapshotInterval > 0 ? snapshotInterval : Integer.MAX_VALUE);
+      if (restore) {
+        snapshots.restore(whController, journalPath);
+      } else {
+        snapshots.save(whController);
+      }
+      if (snapshotInterval > 0) {
+        whController.setSnapshotManager(snapshots);
+      }
+    }
+    if (!logMode.equals("sync")) {
+      whController.getWhs().enableAsyncLogging(LOG_CAPACITY,
+          AsyncLogHandler.OverflowPolicy.valueOf(logMode.toUpperCase()), LOG_SAMPLE_RATE);
+    }
+    // When the simulation is interrupted, let the model finish writing final.csv and order.csv.
+    final Thread main = Thread.currentThread();
+    Runtime.getRuntime().addShutdownHook(new Thread() {
+      @Override
+      public void run() {
+        whController.stop();
+        try {
+          main.join(SHUTDOWN_WAIT);
+        } catch (InterruptedException e) {
+          Thread.currentThread().interrupt();
+        }
+      }
+    });
+    try (OrderBatchScheduler batcher = new OrderBatchScheduler(whController)) {
+      batcher.start();
+      if (servePort >= 0) {
+        try (ScannerEventServer server = new ScannerEventServer(whController, servePort,
+            ScannerEventServer.DEFAULT_CAPACITY)) {
+          server.start();
+          whController.getWhs().logConfig("SYSTEM: Serving scanners on port " + server.getPort());
+          server.serve();
+        }
+        whController.flushFullRequests();
+        whController.updateView();
+      } else {
+        whController.runModel();
+      }
+    }
   }
 
 }
@@ -0,0 +1,72 @@
+package warehousesystem;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+
+public class SkuIndex implements Serializable {
+
+  /** The version of the serialized form of this class, which is kept in snapshots. */
+  private static final long serialVersionUID = 1L;
+
+  /** The skus of the catalogue, in index order. */
+  private final String[] skus;
+  /** A mapping of sku to its index. */
+  private final HashMap<String, Integer> indexes;
+
+  /**
+   * Initialize a new SkuIndex that numbers the skus from 0. Numeric skus are numbered in numeric
+   * order, so sku "1" gets index 0 when the skus run from 1. An SkuIndex cannot change once it is
+   * built, so it can be shared by many threads.
+   *
+   * @param catalogue The skus to number. Duplicate skus are numbered once.
+   */
+  public SkuIndex(Collection<String> catalogue) {
+    List<String> sorted = new ArrayList<>(catalogue);
+    Collections.sort(sorted, (sku1, sku2) -> sku1.length() != sku2.length()
+        ? Integer.compare(sku1.length(), sku2.length()) : sku1.compareTo(sku2));
+    indexes = new HashMap<>(sorted.size() * 2);
+    ArrayList<String> unique = new ArrayList<>(sorted.size());
+    for (String sku : sorted) {
+      if (!indexes.containsKey(sku)) {
+        indexes.put(sku, unique.size());
+        unique.add(sku);
+      }
+    }
+    skus = unique.toArray(new String[unique.size()]);
+  }
+
+  /**
+   * Return the index of the sku. Looking up a sku does not allocate.
+   *
+   * @param sku The sku to look up.
+   * @return The index of the sku, or -1 if it is not in the catalogue.
+   */
+  public int indexOf(String sku) {
+    Integer index = indexes.get(sku);
+    return index == null ? -1 : index;
+  }
+
+  /**
+   * Return the sku with the index.
+   *
+   * @param index The index of the sku.
+   * @return The sku.
+   */
+  public String skuAt(int index) {
+    return skus[index];
+  }
+
+  /**
+   * Return the number of skus in the catalogue.
+   *
+   * @return The number of skus.
+   */
+  public int size() {
+    return skus.length;
+  }
+
+}
@@ -0,0 +1,30 @@
+package warehousesystem;
+
+import static org.junit.Assert.assertEquals;
+
+import java.util.Arrays;
+
+import org.junit.Test;
+
+public class SkuIndexTest {
+
+  @Test
+  public void testNumericOrder() {
+    SkuIndex index = new SkuIndex(Arrays.asList("10", "2", "1", "48"));
+    assertEquals(4, index.size());
+    assertEquals(0, index.indexOf("1"));
+    assertEquals(1, index.indexOf("2"));
+    assertEquals(2, index.indexOf("10"));
+    assertEquals(3, index.indexOf("48"));
+    assertEquals("10", index.skuAt(2));
+  }
+
+  @Test
+  public void testDuplicatesAndUnknown() {
+    SkuIndex index = new SkuIndex(Arrays.asList("7", "7", "8"));
+    assertEquals(2, index.size());
+    assertEquals(-1, index.indexOf("9"));
+    assertEquals(-1, index.indexOf(null));
+  }
+
+}
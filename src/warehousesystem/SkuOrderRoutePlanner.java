@@ -0,0 +1,20 @@
+package warehousesystem;
+
+import java.util.ArrayList;
+
+public class SkuOrderRoutePlanner implements RoutePlanner {
+
+  /**
+   * Return the skus sorted by sku number. Since skus are numbered in traversal_table.csv order,
+   * this walks every aisle from front to back.
+   *
+   * @param skus The skus that need to be picked.
+   * @param layout The layout of the warehouse the skus are stored in.
+   * @return The skus in picking order.
+   */
+  @Override
+  public ArrayList<String> plan(ArrayList<String> skus, WarehouseLayout layout) {
+    return WarehousePicking.sort(skus);
+  }
+
+}
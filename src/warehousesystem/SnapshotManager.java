@@ -0,0 +1,158 @@
+package warehousesystem;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.RandomAccessFile;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+
+public class SnapshotManager {
+
+  /** The version of the snapshot format, written at the start of every snapshot. */
+  private static final int VERSION = 5;
+
+  /** The file path of the snapshot. */
+  private final String snapshotPath;
+  /** The file path of the order file the system appends to, or null if it has none. */
+  private final String orderFilePath;
+  /** The number of lines of input processed between two snapshots. */
+  private final int interval;
+  /** The number of lines of input processed since the last snapshot. */
+  private int sinceSnapshot;
+  /** The number of snapshots taken. */
+  private long snapshotCount;
+
+  /**
+   * Initialize a new SnapshotManager that writes a snapshot of the system to the file with
+   * snapshotPath after every interval lines of input. Each snapshot replaces the previous one.
+   *
+   * @param snapshotPath The file path of the snapshot.
+   * @param orderFilePath The file path of the order file the system appends to, or null.
+   * @param interval The number of lines of input between two snapshots.
+   */
+  public SnapshotManager(String snapshotPath, String orderFilePath, int interval) {
+    this.snapshotPath = snapshotPath;
+    this.orderFilePath = orderFilePath;
+    this.interval = Math.max(1, interval);
+  }
+
+  /**
+   * Count one line of input processed by the controller, and take a snapshot if interval lines
+   * have been processed since the last one.
+   *
+   * @param controller The controller that processed the line.
+   * @throws IOException for save
+   */
+  public void lineProcessed(WarehouseController controller) throws IOException {
+    if (++sinceSnapshot >= interval) {
+      save(controller);
+    }
+  }
+
+  /**
+   * Write a snapshot of the system of the controller. The journal of the system is committed and
+   * the order sink is flushed first, so the snapshot records how far the journal and the order
+   * file had got. The snapshot is written to a temporary file, forced to the disk and then moved
+   * over the previous snapshot, so a crash while saving leaves the previous snapshot whole.
+   *
+   * @param controller The controller whose system is saved.
+   * @throws IOException for ObjectOutputStream
+   */
+  public void save(WarehouseController controller) throws IOException {
+    WarehouseSystem whs = controller.getWhs();
+    EventJournal journal = whs.getJournal();
+    if (journal != null) {
+      journal.commit();
+    }
+    whs.getOrderSink().flush();
+    File temp = new File(snapshotPath + ".tmp");
+    try (FileOutputStream file = new FileOutputStream(temp);
+        ObjectOutputStream out = new ObjectOutputStream(new BufferedOutputStream(file))) {
+      out.writeInt(VERSION);
+      out.writeBoolean(journal != null);
+      out.writeLong(journal == null ? 0 : journal.getSequence());
+      out.writeLong(controller.getLineCount());
+      out.writeLong(orderFilePath == null ? -1 : new File(orderFilePath).length());
+      PickingRequest.writeCounters(out);
+      whs.writeState(out);
+      out.flush();
+      file.getFD().sync();
+    }
+    Files.move(temp.toPath(), new File(snapshotPath).toPath(),
+        StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    sinceSnapshot = 0;
+    snapshotCount++;
+  }
+
+  /**
+   * Restore the system of a new controller to where it was when it stopped: read the last
+   * snapshot, cut the order file back to its length at the snapshot, and replay the records of
+   * the journal written after the snapshot. The time this takes depends on the number of events
+   * since the last snapshot, not on the length of the shift. If there is no snapshot, the order
+   * file is emptied and the whole journal is replayed. No journal is replayed if the stopped
+   * system had none when the snapshot was saved, since a journal file left at the path would be
+   * from another run. The controller skips the lines of input that were already processed.
+   *
+   * @param controller The new controller to restore.
+   * @param journalPath The file path of the journal of the stopped system, or null if it had
+   *        none.
+   * @return The number of lines of input processed by the stopped system.
+   * @throws IOException for ObjectInputStream, CsvOrderSink and JournalReplay
+   */
+  public long restore(WarehouseController controller, String journalPath) throws IOException {
+    WarehouseSystem whs = controller.getWhs();
+    boolean journaled = journalPath != null;
+    long sequence = 0;
+    long lineCount = 0;
+    long orderFileLength = 0;
+    File snapshot = new File(snapshotPath);
+    if (snapshot.exists()) {
+      try (ObjectInputStream in = new ObjectInputStream(
+          new BufferedInputStream(new FileInputStream(snapshot)))) {
+        if (in.readInt() != VERSION) {
+          throw new IOException("Snapshot " + snapshotPath + " has an unknown version");
+        }
+        journaled &= in.readBoolean();
+        sequence = in.readLong();
+        lineCount = in.readLong();
+        orderFileLength = in.readLong();
+        PickingRequest.readCounters(in);
+        whs.readState(in);
+      } catch (ClassNotFoundException e) {
+        throw new IOException("Snapshot " + snapshotPath + " could not be read", e);
+      }
+    }
+    if (orderFilePath != null && orderFileLength >= 0) {
+      whs.closeOrderSink();
+      try (RandomAccessFile orderFile = new RandomAccessFile(orderFilePath, "rw")) {
+        orderFile.setLength(orderFileLength);
+      }
+      whs.setOrderSink(new CsvOrderSink(orderFilePath));
+    }
+    JournalReplay replay = new JournalReplay(controller);
+    if (journaled) {
+      replay.replay(journalPath, sequence);
+    }
+    long restoredLines = lineCount + replay.getLineCount();
+    controller.setRestoredLineCount(restoredLines);
+    whs.logConfig(() -> "SYSTEM: Restored " + restoredLines + " lines of input from "
+        + snapshotPath + " and " + replay.getEventCount() + " journaled events");
+    return restoredLines;
+  }
+
+  /**
+   * Return the number of snapshots taken.
+   *
+   * @return snapshotCount
+   */
+  public long getSnapshotCount() {
+    return snapshotCount;
+  }
+
+}
@@ -0,0 +1,199 @@
+package warehousesystem;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import org.junit.After;
+import org.junit.Test;
+
+public class SnapshotManagerTest {
+
+  /** The files created by the test. */
+  private ArrayList<File> files = new ArrayList<>();
+
+  @After
+  public void tearDown() {
+    for (File file : files) {
+      file.delete();
+    }
+    Logger.getLogger("Warehouse System Logger").setLevel(Level.ALL);
+  }
+
+  /**
+   * Return the path of a new temporary file that does not exist yet.
+   *
+   * @param suffix The suffix of the file name.
+   * @return The path of the file.
+   * @throws IOException for createTempFile
+   */
+  private String newPath(String suffix) throws IOException {
+    File file = File.createTempFile("snapshot", suffix);
+    file.delete();
+    files.add(file);
+    return file.getPath();
+  }
+
+  /**
+   * Return a new controller for the input file that appends its orders to the order file, with
+   * logging turned off.
+   *
+   * @param inputFilePath The file path of the input file.
+   * @param orderFilePath The file path of the order file.
+   * @return The new controller.
+   * @throws IOException for WarehouseController
+   */
+  private static WarehouseController newController(String inputFilePath, String orderFilePath)
+      throws IOException {
+    WarehouseController controller = new WarehouseController(inputFilePath);
+    controller.getWhs().closeOrderSink();
+    controller.getWhs().setOrderSink(new CsvOrderSink(orderFilePath));
+    Logger.getLogger("Warehouse System Logger").setLevel(Level.OFF);
+    return controller;
+  }
+
+  /**
+   * Return the text of the file.
+   *
+   * @param filePath The file path of the file.
+   * @return The text of the file.
+   * @throws IOException for readAllBytes
+   */
+  private static String read(String filePath) throws IOException {
+    return new String(Files.readAllBytes(new File(filePath).toPath()), StandardCharsets.UTF_8);
+  }
+
+  /**
+   * Run the input file to the end, and run it again but kill the system after killAt lines and
+   * restore it from its snapshot and journal before running the rest of the file. Check that both
+   * runs write the same final.csv and order file.
+   *
+   * @param inputFilePath The file path of the input file.
+   * @param killAt The number of lines processed before the system is killed.
+   * @throws IOException for the controllers
+   */
+  private void checkRestore(String inputFilePath, int killAt) throws IOException {
+    String referenceOrders = newPath(".csv");
+    newController(inputFilePath, referenceOrders).runModel();
+    String referenceFinal = read("final.csv");
+
+    String orders = newPath(".csv");
+    String journalPath = newPath(".bin");
+    String snapshotPath = newPath(".bin");
+    files.add(new File(snapshotPath + ".tmp"));
+    WarehouseController killed = newController(inputFilePath, orders);
+    killed.getWhs().setJournal(new EventJournal(journalPath, 4, 60000, false));
+    SnapshotManager snapshots = new SnapshotManager(snapshotPath, orders, 7);
+    snapshots.save(killed);
+    killed.setSnapshotManager(snapshots);
+    EventFileReader reader = new EventFileReader(inputFilePath);
+    for (int i = 0; i < killAt; i++) {
+      killed.processLine(reader.readLine());
+    }
+    reader.close();
+    // The killed system is dropped without closing its journal or its order file, so records
+    // and orders it had not written yet are lost.
+
+    WarehouseController restored = newController(inputFilePath, orders);
+    restored.getWhs().setJournal(new EventJournal(journalPath, 4, 60000, false));
+    SnapshotManager restoredSnapshots = new SnapshotManager(snapshotPath, orders, 7);
+    long lines = restoredSnapshots.restore(restored, journalPath);
+    assertTrue(lines <= killAt && lines > killAt - 4);
+    restored.setSnapshotManager(restoredSnapshots);
+    restored.runModel();
+
+    String message = inputFilePath + " killed at line " + killAt;
+    assertEquals(message, referenceFinal, read("final.csv"));
+    assertEquals(message, read(referenceOrders), read(orders));
+  }
+
+  @Test
+  public void testKillAndRestore() throws IOException {
+    String[] inputs = {"16orders.txt", "eventSequencerRescan.txt", "eventOutOfInventory.txt",
+        "eventReplenisherRescan.txt", "eventPickerRescan.txt", "eventLoaderRescan.txt",
+        "eventSetReadyBeforeFinished.txt"};
+    for (String input : inputs) {
+      int length = Files.readAllLines(new File(input).toPath()).size();
+      for (int killAt : new int[] {length / 3, length / 2, length * 5 / 6}) {
+        checkRestore(input, killAt);
+      }
+    }
+  }
+
+  @Test
+  public void testRestoreWithoutSnapshot() throws IOException {
+    String journalPath = newPath(".bin");
+    String orders = newPath(".csv");
+    WarehouseController original = newController("eventPickerRescan.txt", orders);
+    original.getWhs().setJournal(new EventJournal(journalPath, 1, 0, false));
+    original.runModel();
+
+    WarehouseController restored = newController("eventPickerRescan.txt", newPath(".csv"));
+    long lines = new SnapshotManager(newPath(".bin"), null, 10).restore(restored, journalPath);
+    assertEquals(original.getLineCount(), lines);
+    assertEquals(original.getWhs().outputInventory(), restored.getWhs().outputInventory());
+    assertEquals(original.getWhs().getLivePrCount(), restored.getWhs().getLivePrCount());
+  }
+
+  @Test
+  public void testRestoreWithoutSnapshotEmptiesOrderFile() throws IOException {
+    String journalPath = newPath(".bin");
+    String orders = newPath(".csv");
+    WarehouseController original = newController("16orders.txt", orders);
+    original.getWhs().setJournal(new EventJournal(journalPath, 1, 0, false));
+    original.runModel();
+    original.getWhs().closeJournal();
+    original.getWhs().closeOrderSink();
+    String originalOrders = read(orders);
+    assertTrue(!originalOrders.isEmpty());
+
+    WarehouseController restored = newController("16orders.txt", orders);
+    new SnapshotManager(newPath(".bin"), orders, 10).restore(restored, journalPath);
+    restored.getWhs().closeOrderSink();
+    assertEquals(originalOrders, read(orders));
+  }
+
+  @Test
+  public void testRestoreIgnoresJournalOfAnotherRun() throws IOException {
+    String journalPath = newPath(".bin");
+    WarehouseController earlier = newController("16orders.txt", newPath(".csv"));
+    earlier.getWhs().setJournal(new EventJournal(journalPath, 1, 0, false));
+    earlier.runModel();
+    earlier.getWhs().closeJournal();
+
+    String snapshotPath = newPath(".bin");
+    WarehouseController killed = newController("eventPickerRescan.txt", newPath(".csv"));
+    EventFileReader reader = new EventFileReader("eventPickerRescan.txt");
+    for (int i = 0; i < 5; i++) {
+      killed.processLine(reader.readLine());
+    }
+    reader.close();
+    new SnapshotManager(snapshotPath, null, 10).save(killed);
+
+    WarehouseController restored = newController("eventPickerRescan.txt", newPath(".csv"));
+    long lines = new SnapshotManager(snapshotPath, null, 10).restore(restored, journalPath);
+    assertEquals(5, lines);
+    assertEquals(killed.getWhs().outputInventory(), restored.getWhs().outputInventory());
+    assertEquals(killed.getWhs().getLivePrCount(), restored.getWhs().getLivePrCount());
+  }
+
+  @Test
+  public void testSnapshotInterval() throws IOException {
+    WarehouseController controller = newController("16orders.txt", newPath(".csv"));
+    String snapshotPath = newPath(".bin");
+    SnapshotManager snapshots = new SnapshotManager(snapshotPath, null, 5);
+    controller.setSnapshotManager(snapshots);
+    controller.runModel();
+    int length = Files.readAllLines(new File("16orders.txt").toPath()).size();
+    assertEquals(length / 5, snapshots.getSnapshotCount());
+    assertTrue(new File(snapshotPath).exists());
+  }
+
+}
@@ -1,37 +1,70 @@
 package warehousesystem;
 
+import java.io.Serializable;
 import java.util.Map;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.logging.Level;
 
-public class StorageManager {
+public class StorageManager implements Serializable {
 
-  /** This StorageManager's main system. */
-  private WarehouseSystem mainSystem;
+  /** The version of the serialized form of this class, which is kept in snapshots. */
+  private static final long serialVersionUID = 1L;
 
-  /** A mapping of sku to amount for StorageManager. */
-  private Map<String, Integer> storages;
+  /** This StorageManager's main system. It is not kept in snapshots. */
+  private transient WarehouseSystem mainSystem;
+
+  /** The amount of each sku for StorageManager, kept in an int array indexed by sku. */
+  private Inventory storages;
+  /** 1 for each sku whose re-supply has been requested and not yet replenished, by index. */
+  private final AtomicIntegerArray resupplyRequested;
+  /** The reorder point and quantity of each sku. */
+  private final ReplenishmentPolicy policy;
 
   /**
-   * Initialize an StorageManager.
+   * Initialize an StorageManager. The amounts are counted without locks, so many pickers and
+   * replenishers on separate threads can share one StorageManager.
    * 
    * @param system the ware house system of the order manager.
+   * @param storages A mapping of sku to its initial amount.
    */
   public StorageManager(WarehouseSystem system, Map<String, Integer> storages) {
-    this.storages = storages;
+    this.storages = new Inventory(storages);
+    this.resupplyRequested = new AtomicIntegerArray(this.storages.getIndex().size());
+    this.policy = new ReplenishmentPolicy(this.storages.getIndex());
     this.mainSystem = system;
     mainSystem.logConfig("SYSTEM: StorageManager initialized");
   }
 
   /**
-   * Pick the fascia from storages. Minus one from the amount and check if the amount is less than
-   * 5. If it is, then request for a re-supply.
+   * Pick the fascia from storages. Minus one from the amount and check if the amount is at most
+   * the reorder point of the sku. If it is, then request for a re-supply, unless one has already
+   * been requested since the level was last replenished. The decrement and the check are atomic,
+   * so when many pickers on separate threads take the level below its reorder point, exactly one
+   * of them requests the re-supply.
    * 
    * @param sku The sku number that the picker picked.
    */
   public void pickFascia(String sku) {
-    storages.put(sku, storages.get(sku) - 1);
-    mainSystem.logInfo("SIM: StorageManager detected one item " + sku + " removed from storage. " + storages.get(sku) + " remaining.");
-    if (storages.get(sku) <= 5) {
-      mainSystem.logInfo("SIM: StorageManager detected Storage SKU " + sku + " low on stock, requesting replenishment");
+    int index = indexOf(sku);
+    if (index < 0) {
+      return;
+    }
+    int remaining = storages.add(index, -1);
+    policy.recordPick(index);
+    // A lambda would capture sku and remaining, so the level is checked instead to keep picks
+    // from allocating while logging is off.
+    boolean logged = mainSystem.isLoggable(Level.INFO);
+    if (logged) {
+      mainSystem.logInfo("SIM: StorageManager detected one item " + sku
+          + " removed from storage. " + remaining + " remaining.");
+    }
+    if (remaining <= policy.getReorderPoint(index)
+        && resupplyRequested.compareAndSet(index, 0, 1)) {
+      policy.recordRequest(index);
+      if (logged) {
+        mainSystem.logInfo("SIM: StorageManager detected Storage SKU " + sku
+            + " low on stock, requesting replenishment");
+      }
       mainSystem.requestResupply(sku);
     }
   }
@@ -42,9 +75,15 @@ public class StorageManager {
    * @param sku The sku number that the picker return.
    */
   public void putFasciaBack(String sku) {
-    mainSystem.logInfo("SIM: StorageManager detected one item " + sku + " returned to storage "
-        + storages.get(sku));
-    storages.put(sku, storages.get(sku) + 1);
+    int index = indexOf(sku);
+    if (index < 0) {
+      return;
+    }
+    int before = storages.add(index, 1) - 1;
+    if (mainSystem.isLoggable(Level.INFO)) {
+      mainSystem.logInfo("SIM: StorageManager detected one item " + sku
+          + " returned to storage " + before);
+    }
   }
 
   /**
@@ -54,22 +93,92 @@ public class StorageManager {
    * @return true iff the storage level is empty.
    */
   public Boolean levelEmpty(String sku) {
-    return storages.get(sku).equals(0);
+    int index = storages.getIndex().indexOf(sku);
+    return index >= 0 && storages.get(index) == 0;
+  }
+
+  /**
+   * Return the amount of the sku, or 0 if the sku is not in the catalogue.
+   * 
+   * @param sku The sku.
+   * @return The amount of the sku.
+   */
+  public int getAmount(String sku) {
+    int index = storages.getIndex().indexOf(sku);
+    return index < 0 ? 0 : storages.get(index);
   }
 
   /**
-   * Replenish the level with 25 more fascias.
+   * Replenish the level with the quantity of the sku, or with as many fascias as fit if the level
+   * would hold more than LEVEL_CAPACITY. The next pick that leaves the level at most its reorder
+   * point requests a re-supply again.
    * 
    * @param sku The sku number that need to be replenished.
    */
   public void replenish(String sku) {
-    storages.put(sku, storages.get(sku) + 25);
-    mainSystem.logInfo(
-        "SIM: StorageManager detected Storage " + storages.get(sku) + " has been replenished");
+    int index = indexOf(sku);
+    if (index < 0) {
+      return;
+    }
+    int amount = storages.addUpTo(index, policy.getQuantity(index),
+        ReplenishmentPolicy.LEVEL_CAPACITY);
+    resupplyRequested.set(index, 0);
+    policy.recordReplenish(index);
+    if (mainSystem.isLoggable(Level.INFO)) {
+      mainSystem.logInfo("SIM: StorageManager detected Storage " + amount
+          + " has been replenished");
+    }
+  }
+
+  /**
+   * Return the index of the sku in the inventory, or log a warning and return -1 if the sku is
+   * not in the catalogue.
+   * 
+   * @param sku The sku to look up.
+   * @return The index of the sku, or -1.
+   */
+  private int indexOf(String sku) {
+    int index = storages.getIndex().indexOf(sku);
+    if (index < 0) {
+      mainSystem.logWarning(() -> "SIM: StorageManager has no SKU " + sku + " in storage");
+    }
+    return index;
   }
 
+  /**
+   * Return a map view of the amount of each sku. Changes to the view change the storages.
+   * 
+   * @return The map view of the storages.
+   */
   protected Map<String, Integer> getStorages() {
+    return storages.asMap();
+  }
+
+  /**
+   * Return the inventory of this StorageManager.
+   * 
+   * @return storages
+   */
+  public Inventory getInventory() {
     return storages;
   }
 
+  /**
+   * Return the reorder point and quantity of each sku of this StorageManager.
+   * 
+   * @return policy
+   */
+  public ReplenishmentPolicy getPolicy() {
+    return policy;
+  }
+
+  /**
+   * Set the main system of this StorageManager, after it is restored from a snapshot.
+   * 
+   * @param system The warehouse system.
+   */
+  public void setWarehouseSystem(WarehouseSystem system) {
+    mainSystem = system;
+  }
+
 }
@@ -5,8 +5,13 @@ import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertTrue;
 
 import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.logging.FileHandler;
 import java.util.logging.Level;
+import java.util.logging.Logger;
 
 import org.junit.After;
 import org.junit.Before;
@@ -41,6 +46,62 @@ public class StorageManagerTest {
   public void tearDown() {
     whSysem = null;
     storageManagerTester = null;
+    Logger.getLogger("Warehouse System Logger").setLevel(Level.ALL);
+  }
+
+  /**
+   * Return a new StorageManager with one sku at amount, whose main system counts the re-supplies
+   * requested in resupplies. Logging is turned off.
+   * 
+   * @param amount The initial amount of sku 1.
+   * @param resupplies The counter of re-supply requests.
+   * @return The new StorageManager.
+   * @throws IOException for CsvTools and FileHandler
+   */
+  private StorageManager newCountingManager(int amount, AtomicInteger resupplies)
+      throws IOException {
+    CsvTools csv = new CsvTools();
+    FileHandler handler = new FileHandler("testLog.txt");
+    CustomFormatter formatter = new CustomFormatter();
+    WarehouseSystem system =
+        new WarehouseSystem(csv.getTranslations(), csv.getInventory(), handler, formatter) {
+          @Override
+          public void requestResupply(String sku) {
+            resupplies.incrementAndGet();
+          }
+        };
+    Logger.getLogger("Warehouse System Logger").setLevel(Level.OFF);
+    HashMap<String, Integer> inventory = new HashMap<>();
+    inventory.put("1", amount);
+    return new StorageManager(system, inventory);
+  }
+
+  /**
+   * Run the task on each of threads threads at once, and wait for all of them to finish.
+   * 
+   * @param threads The number of threads.
+   * @param task The task to run.
+   * @throws InterruptedException for join
+   */
+  private static void runConcurrently(int threads, Runnable task) throws InterruptedException {
+    CountDownLatch start = new CountDownLatch(1);
+    ArrayList<Thread> started = new ArrayList<>();
+    for (int i = 0; i < threads; i++) {
+      Thread thread = new Thread(() -> {
+        try {
+          start.await();
+        } catch (InterruptedException e) {
+          return;
+        }
+        task.run();
+      });
+      thread.start();
+      started.add(thread);
+    }
+    start.countDown();
+    for (Thread thread : started) {
+      thread.join();
+    }
   }
 
   @Test
@@ -75,4 +136,106 @@ public class StorageManagerTest {
     assertEquals(Integer.valueOf(6), storageManagerTester.getStorages().get("1"));
   }
 
+  @Test
+  public void testLevelEmptyAtZero() {
+    storageManagerTester.getStorages().put("1", 1);
+    storageManagerTester.pickFascia("1");
+    assertTrue(storageManagerTester.levelEmpty("1"));
+  }
+
+  @Test
+  public void testUnknownSku() {
+    storageManagerTester.pickFascia("999");
+    storageManagerTester.replenish("999");
+    assertFalse(storageManagerTester.levelEmpty("999"));
+    assertEquals(null, storageManagerTester.getStorages().get("999"));
+  }
+
+  @Test
+  public void testResupplyRequestedOnce() throws IOException {
+    AtomicInteger resupplies = new AtomicInteger();
+    StorageManager manager = newCountingManager(8, resupplies);
+    for (int i = 0; i < 6; i++) {
+      manager.pickFascia("1");
+    }
+    assertEquals(1, resupplies.get());
+    manager.putFasciaBack("1");
+    manager.pickFascia("1");
+    assertEquals(1, resupplies.get());
+    manager.replenish("1");
+    for (int i = 0; i < 25; i++) {
+      manager.pickFascia("1");
+    }
+    assertEquals(2, resupplies.get());
+  }
+
+  @Test
+  public void testAdaptiveLevelsStayWithinCapacity() throws IOException {
+    AtomicInteger resupplies = new AtomicInteger();
+    StorageManager manager = newCountingManager(ReplenishmentPolicy.LEVEL_CAPACITY, resupplies);
+    ReplenishmentPolicy policy = manager.getPolicy();
+    policy.setAdaptive(true);
+    int requested = 0;
+    int due = -1;
+    for (int i = 0; i < 20 * ReplenishmentPolicy.ADAPTIVE_WINDOW; i++) {
+      if (manager.getAmount("1") > 0) {
+        manager.pickFascia("1");
+      }
+      if (resupplies.get() > requested) {
+        // Each re-supply takes a replenisher forty steps.
+        requested = resupplies.get();
+        due = i + 40;
+      }
+      if (i == due) {
+        manager.replenish("1");
+      }
+      assertTrue(manager.getAmount("1") <= ReplenishmentPolicy.LEVEL_CAPACITY);
+    }
+    assertTrue(policy.getReorderPoint(0) + policy.getQuantity(0)
+        > ReplenishmentPolicy.LEVEL_CAPACITY);
+  }
+
+  @Test
+  public void testResupplyRequestedWhenStartingLow() throws IOException {
+    AtomicInteger resupplies = new AtomicInteger();
+    StorageManager manager = newCountingManager(3, resupplies);
+    manager.pickFascia("1");
+    manager.pickFascia("1");
+    assertEquals(1, resupplies.get());
+  }
+
+  @Test
+  public void testConcurrentPicks() throws IOException, InterruptedException {
+    AtomicInteger resupplies = new AtomicInteger();
+    StorageManager manager = newCountingManager(80000, resupplies);
+    runConcurrently(8, () -> {
+      for (int i = 0; i < 10000; i++) {
+        manager.pickFascia("1");
+      }
+    });
+    assertEquals(Integer.valueOf(0), manager.getStorages().get("1"));
+    assertEquals(1, resupplies.get());
+  }
+
+  @Test
+  public void testConcurrentPicksAndReplenishments() throws IOException, InterruptedException {
+    AtomicInteger resupplies = new AtomicInteger();
+    StorageManager manager = newCountingManager(ReplenishmentPolicy.DEFAULT_QUANTITY, resupplies);
+    for (int round = 1; round <= 200; round++) {
+      // Five pickers empty the level together, each putting every other fascia back first.
+      runConcurrently(5, () -> {
+        for (int i = 0; i < ReplenishmentPolicy.DEFAULT_QUANTITY / 5; i++) {
+          manager.pickFascia("1");
+          if (i % 2 == 0) {
+            manager.putFasciaBack("1");
+            manager.pickFascia("1");
+          }
+        }
+      });
+      assertEquals(Integer.valueOf(0), manager.getStorages().get("1"));
+      assertEquals(round, resupplies.get());
+      manager.replenish("1");
+    }
+  }
+
 }
@@ -0,0 +1,175 @@
+package warehousesystem;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.FileReader;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+public class TraversalTable {
+
+  /** The minimum time in milliseconds between two checks of a table file for changes. */
+  private static final long RELOAD_CHECK_INTERVAL = 1000;
+  /** The tables that have already been read, keyed by their file path. */
+  private static final Map<String, TraversalTable> tables = new HashMap<>();
+
+  /** The file path this TraversalTable was read from. */
+  private final String filePath;
+  /** The last modified time of the file when this TraversalTable was read. */
+  private final long lastModified;
+  /** The time in milliseconds this TraversalTable was last checked against its file. */
+  private long lastChecked;
+  /** The unmodifiable sku to location map. */
+  private final Map<String, String> skuToLocation;
+  /** The unmodifiable location to sku map. */
+  private final Map<String, String> locationToSku;
+  /** The unmodifiable list of skus in the order they appear in the file. */
+  private final List<String> skus;
+
+  /**
+   * Initialize a new TraversalTable from the lines of a traversal table file. Each line has the
+   * format zone,aisle,rack,level,sku.
+   *
+   * @param filePath The file path the lines were read from.
+   * @param lastModified The last modified time of the file.
+   * @param lines The lines of the traversal table file.
+   */
+  private TraversalTable(String filePath, long lastModified, List<String> lines) {
+    this.filePath = filePath;
+    this.lastModified = lastModified;
+    this.lastChecked = System.currentTimeMillis();
+    Map<String, String> skuMap = new HashMap<>();
+    Map<String, String> locationMap = new HashMap<>();
+    List<String> skuList = new ArrayList<>(lines.size());
+    for (String line : lines) {
+      String[] lineContent = line.split(",", 5);
+      String location = line.substring(0, 7);
+      String sku = lineContent[4];
+      skuMap.put(sku, location);
+      locationMap.put(location, sku);
+      skuList.add(sku);
+    }
+    skuToLocation = Collections.unmodifiableMap(skuMap);
+    locationToSku = Collections.unmodifiableMap(locationMap);
+    skus = Collections.unmodifiableList(skuList);
+  }
+
+  /**
+   * Return the TraversalTable read from the file with filePath. The file is only read the first
+   * time it is requested, or again when it has been modified since it was last read.
+   *
+   * @param filePath The file path of the traversal table.
+   * @return The TraversalTable of the file.
+   * @throws IOException for FileReader.
+   */
+  public static synchronized TraversalTable getTable(String filePath) throws IOException {
+    TraversalTable table = tables.get(filePath);
+    if (table == null) {
+      return reload(filePath);
+    }
+    long now = System.currentTimeMillis();
+    if (now - table.lastChecked >= RELOAD_CHECK_INTERVAL) {
+      table.lastChecked = now;
+      if (new File(filePath).lastModified() != table.lastModified) {
+        return reload(filePath);
+      }
+    }
+    return table;
+  }
+
+  /**
+   * Read the file with filePath again and replace the cached TraversalTable of that file.
+   *
+   * @param filePath The file path of the traversal table.
+   * @return The new TraversalTable of the file.
+   * @throws IOException for FileReader.
+   */
+  public static synchronized TraversalTable reload(String filePath) throws IOException {
+    TraversalTable table = read(filePath);
+    tables.put(filePath, table);
+    return table;
+  }
+
+  /**
+   * Return a new TraversalTable read from the file with filePath, without using the cache.
+   *
+   * @param filePath The file path of the traversal table.
+   * @return The TraversalTable of the file.
+   * @throws IOException for FileReader.
+   */
+  public static TraversalTable read(String filePath) throws IOException {
+    long lastModified = new File(filePath).lastModified();
+    ArrayList<String> lines = new ArrayList<>();
+    BufferedReader br = new BufferedReader(new FileReader(filePath));
+    String line = br.readLine();
+    while (line != null) {
+      if (!line.isEmpty()) {
+        lines.add(line);
+      }
+      line = br.readLine();
+    }
+    br.close();
+    return new TraversalTable(filePath, lastModified, lines);
+  }
+
+  /**
+   * Return the location of the sku, or null if the sku is not in this TraversalTable.
+   *
+   * @param sku The sku to find.
+   * @return The location of the sku.
+   */
+  public String getLocation(String sku) {
+    return skuToLocation.get(sku);
+  }
+
+  /**
+   * Return the sku stored at location, or null if there is no such location.
+   *
+   * @param location The location to find.
+   * @return The sku at the location.
+   */
+  public String getSku(String location) {
+    return locationToSku.get(location);
+  }
+
+  /**
+   * Return the unmodifiable sku to location map of this TraversalTable.
+   *
+   * @return skuToLocation
+   */
+  public Map<String, String> getSkuToLocation() {
+    return skuToLocation;
+  }
+
+  /**
+   * Return the unmodifiable location to sku map of this TraversalTable.
+   *
+   * @return locationToSku
+   */
+  public Map<String, String> getLocationToSku() {
+    return locationToSku;
+  }
+
+  /**
+   * Return the skus of this TraversalTable in the order they appear in the file.
+   *
+   * @return skus
+   */
+  public List<String> getSkus() {
+    return skus;
+  }
+
+  /**
+   * Return the file path this TraversalTable was read from.
+   *
+   * @return filePath
+   */
+  public String getFilePath() {
+    return filePath;
+  }
+
+}
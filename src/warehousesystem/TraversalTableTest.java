@@ -0,0 +1,57 @@
+package warehousesystem;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+
+import java.io.IOException;
+
+import org.junit.Test;
+
+public class TraversalTableTest {
+
+  @Test
+  public void testGetLocation() throws IOException {
+    TraversalTable table = TraversalTable.getTable("traversal_table.csv");
+    assertEquals("A,0,0,0", table.getLocation("1"));
+    assertEquals("B,1,2,3", table.getLocation("48"));
+    assertNull(table.getLocation("49"));
+  }
+
+  @Test
+  public void testGetSku() throws IOException {
+    TraversalTable table = TraversalTable.getTable("traversal_table.csv");
+    assertEquals("11", table.getSku("A,0,2,2"));
+    assertNull(table.getSku("C,0,0,0"));
+  }
+
+  @Test
+  public void testGetSkus() throws IOException {
+    TraversalTable table = TraversalTable.getTable("traversal_table.csv");
+    assertEquals(48, table.getSkus().size());
+    assertEquals("1", table.getSkus().get(0));
+    assertEquals("traversal_table.csv", table.getFilePath());
+  }
+
+  @Test
+  public void testGetTableIsCached() throws IOException {
+    TraversalTable table = TraversalTable.getTable("traversal_table.csv");
+    assertSame(table, TraversalTable.getTable("traversal_table.csv"));
+  }
+
+  @Test
+  public void testReload() throws IOException {
+    TraversalTable table = TraversalTable.getTable("traversal_table.csv");
+    TraversalTable reloaded = TraversalTable.reload("traversal_table.csv");
+    assertNotSame(table, reloaded);
+    assertSame(reloaded, TraversalTable.getTable("traversal_table.csv"));
+    assertEquals(table.getSkuToLocation(), reloaded.getSkuToLocation());
+  }
+
+  @Test(expected = UnsupportedOperationException.class)
+  public void testTableIsImmutable() throws IOException {
+    TraversalTable.getTable("traversal_table.csv").getSkuToLocation().put("1", "B,0,0,0");
+  }
+
+}
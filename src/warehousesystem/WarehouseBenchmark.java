@@ -0,0 +1,1066 @@
+package warehousesystem;
+
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.text.DateFormat;
+import java.text.SimpleDateFormat;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Date;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.logging.FileHandler;
+import java.util.logging.Formatter;
+import java.util.logging.Level;
+import java.util.logging.LogRecord;
+import java.util.logging.Logger;
+
+public class WarehouseBenchmark {
+
+  /** The number of untimed rounds run before each measurement. */
+  private static final int WARMUP_ROUNDS = 3;
+
+  /**
+   * The main method for WarehouseBenchmark. The first argument is the name of the benchmark to
+   * run, or "all" to run every benchmark. The soak benchmark takes the number of orders as its
+   * second argument.
+   *
+   * @param args The args
+   * @throws IOException The IOException
+   */
+  public static void main(String[] args) throws IOException {
+    String name = args.length > 0 ? args[0] : "all";
+    if (name.equals("all") || name.equals("pickingRequest")) {
+      benchmarkPickingRequest(20000);
+    }
+    if (name.equals("all") || name.equals("routePlanner")) {
+      benchmarkRoutePlanner(new SkuOrderRoutePlanner(), 100000);
+      benchmarkRoutePlanner(new SShapeRoutePlanner(), 100000);
+    }
+    if (name.equals("all") || name.equals("workerLookup")) {
+      for (int workers = 10; workers <= 10000; workers *= 10) {
+        benchmarkWorkerLookup(workers, 200000);
+      }
+    }
+    if (name.equals("all") || name.equals("eventParser")) {
+      benchmarkEventParser("16orders.txt", 2000000);
+    }
+    if (name.equals("all") || name.equals("formatter")) {
+      benchmarkFormatter(1000000, 1);
+      benchmarkFormatter(1000000, 4);
+    }
+    if (name.equals("all") || name.equals("journalReplay")) {
+      benchmarkJournalReplay(200000);
+    }
+    if (name.equals("all") || name.equals("inventory")) {
+      benchmarkInventory(100000, 2000000);
+    }
+    if (name.equals("all") || name.equals("replenisherDispatch")) {
+      for (int replenishers = 10; replenishers <= 10000; replenishers *= 10) {
+        benchmarkReplenisherDispatch(replenishers, 200000);
+      }
+    }
+    if (name.equals("all") || name.equals("replenishment")) {
+      benchmarkReplenishment(1000000, 100);
+      for (int skus = 100; skus <= 10000; skus *= 10) {
+        benchmarkReplenishQueue(skus);
+      }
+    }
+    if (name.equals("all") || name.equals("scanners")) {
+      benchmarkScanners(10000, 4, 2000);
+      benchmarkScanners(10000, 10000, 2000);
+    }
+    if (name.equals("all") || name.equals("server")) {
+      for (int pickers = 1; pickers <= 64; pickers *= 8) {
+        benchmarkServer(pickers, 200000 / pickers);
+      }
+    }
+    if (name.equals("all") || name.equals("intake")) {
+      BatchingPolicy[] policies = {BatchingPolicy.DEFAULT, new BatchingPolicy(4, 5, false),
+          new BatchingPolicy(4, 0, true), new BatchingPolicy(8, 5, true)};
+      for (BatchingPolicy policy : policies) {
+        benchmarkIntake(policy, 8, 200, 30);
+      }
+    }
+    if (name.equals("all") || name.equals("grouping")) {
+      for (int window = 4; window <= 32; window *= 2) {
+        benchmarkGrouping(window, 20000, 16);
+      }
+    }
+    if (name.equals("soak")) {
+      benchmarkSoak(args.length > 1 ? Integer.parseInt(args[1]) : 1000000);
+    }
+  }
+
+  /**
+   * Measure the number of PickingRequests created per second when traversal_table.csv is read for
+   * every request, and when the shared TraversalTable is used.
+   *
+   * @param requests The number of PickingRequests to create in each round.
+   * @throws IOException for PickingRequest.
+   */
+  public static void benchmarkPickingRequest(int requests) throws IOException {
+    ArrayList<Order> orders = new ArrayList<>();
+    orders.add(new Order("Blue", "SES", "37", "38"));
+    orders.add(new Order("Beige", "S", "9", "10"));
+    orders.add(new Order("Red", "SES", "21", "22"));
+    orders.add(new Order("White", "SE", "3", "4"));
+
+    for (int round = 0; round <= WARMUP_ROUNDS; round++) {
+      long start = System.nanoTime();
+      for (int i = 0; i < requests; i++) {
+        TraversalTable.reload("traversal_table.csv");
+        new PickingRequest(orders);
+      }
+      long uncached = System.nanoTime() - start;
+
+      start = System.nanoTime();
+      for (int i = 0; i < requests; i++) {
+        new PickingRequest(orders);
+      }
+      long cached = System.nanoTime() - start;
+
+      if (round == WARMUP_ROUNDS) {
+        report("pickingRequest (re-read table)", requests, uncached);
+        report("pickingRequest (cached table)", requests, cached);
+      }
+    }
+  }
+
+  /**
+   * Measure the number of routes per second the planner plans for random eight fascia requests,
+   * and the average estimated walking distance of those routes.
+   *
+   * @param planner The route planner to measure.
+   * @param requests The number of routes to plan in each round.
+   * @throws IOException for getLayout.
+   */
+  public static void benchmarkRoutePlanner(RoutePlanner planner, int requests)
+      throws IOException {
+    WarehouseLayout layout = WarehousePicking.getLayout();
+    List<String> catalogue = layout.getTable().getSkus();
+    ArrayList<ArrayList<String>> skuLists = new ArrayList<>(requests);
+    Random random = new Random(207);
+    for (int i = 0; i < requests; i++) {
+      ArrayList<String> skus = new ArrayList<>(8);
+      for (int j = 0; j < 8; j++) {
+        skus.add(catalogue.get(random.nextInt(catalogue.size())));
+      }
+      skuLists.add(skus);
+    }
+
+    for (int round = 0; round <= WARMUP_ROUNDS; round++) {
+      double distance = 0;
+      long start = System.nanoTime();
+      for (ArrayList<String> skus : skuLists) {
+        distance += layout.routeDistance(planner.plan(skus, layout));
+      }
+      long elapsed = System.nanoTime() - start;
+      if (round == WARMUP_ROUNDS) {
+        String name = "routePlanner " + planner.getClass().getSimpleName();
+        report(name, requests, elapsed);
+        System.out.println(String.format("%-45s %,15.1f m/request", name, distance / requests));
+      }
+    }
+  }
+
+  /**
+   * Measure the cost of dispatching scanner events to workers when there are the given number of
+   * workers on shift. Both the old lookup through two parallel lists and the WorkerRegistry are
+   * measured, as well as a full WarehouseSystem rescan event.
+   *
+   * @param workers The number of workers on shift.
+   * @param events The number of events to dispatch in each round.
+   * @throws IOException for newSystem.
+   */
+  public static void benchmarkWorkerLookup(int workers, int events) throws IOException {
+    WarehouseSystem system = newSystem();
+    ArrayList<String> workerNames = new ArrayList<>();
+    ArrayList<BarcodeReader> brList = new ArrayList<>();
+    for (int i = 0; i < workers; i++) {
+      String name = "Worker" + i;
+      system.workerReady("Replenisher", name);
+      workerNames.add(name);
+      brList.add(system.getWorkers().get(name));
+    }
+    String[] names = new String[events];
+    Random random = new Random(207);
+    for (int i = 0; i < events; i++) {
+      names[i] = workerNames.get(random.nextInt(workers));
+    }
+
+    for (int round = 0; round <= WARMUP_ROUNDS; round++) {
+      int found = 0;
+      long start = System.nanoTime();
+      for (String name : names) {
+        found += brList.get(workerNames.indexOf(name)) != null ? 1 : 0;
+      }
+      long lists = System.nanoTime() - start;
+
+      start = System.nanoTime();
+      for (String name : names) {
+        found += system.getWorkers().get(name) != null ? 1 : 0;
+      }
+      long registry = System.nanoTime() - start;
+
+      start = System.nanoTime();
+      for (String name : names) {
+        system.rescan("Replenisher", name, "1");
+      }
+      long dispatch = System.nanoTime() - start;
+
+      if (round == WARMUP_ROUNDS && found == 2 * events) {
+        report("workerLookup " + workers + " workers (lists)", events, lists);
+        report("workerLookup " + workers + " workers (registry)", events, registry);
+        report("workerLookup " + workers + " workers (rescan event)", events, dispatch);
+      }
+    }
+  }
+
+  /**
+   * Measure the number of events per second parsed from the lines of an input file, and the bytes
+   * allocated per event, both for the old String.split parsing of WarehouseController and for
+   * EventParser.
+   *
+   * @param filePath The input file whose lines are parsed over and over.
+   * @param events The number of events to parse in each round.
+   * @throws IOException for EventFileReader.
+   */
+  public static void benchmarkEventParser(String filePath, int events) throws IOException {
+    ArrayList<String> fileLines = new ArrayList<>();
+    EventFileReader reader = new EventFileReader(filePath);
+    String line = reader.readLine();
+    while (line != null) {
+      fileLines.add(line);
+      line = reader.readLine();
+    }
+    reader.close();
+    String[] lines = new String[events];
+    for (int i = 0; i < events; i++) {
+      // Copy each line, as lines read from a file are different String objects.
+      lines[i] = new String(fileLines.get(i % fileLines.size()));
+    }
+    EventParser parser = new EventParser();
+    ScannerEvent event = new ScannerEvent();
+
+    for (int round = 0; round <= WARMUP_ROUNDS; round++) {
+      int check = 0;
+      long bytes = allocatedBytes();
+      long start = System.nanoTime();
+      for (String input : lines) {
+        check += splitEvent(input);
+      }
+      long split = System.nanoTime() - start;
+      long splitBytes = allocatedBytes() - bytes;
+
+      bytes = allocatedBytes();
+      start = System.nanoTime();
+      for (String input : lines) {
+        if (parser.parse(input, event)) {
+          check += event.getVerb().ordinal();
+        }
+      }
+      long parsed = System.nanoTime() - start;
+      long parsedBytes = allocatedBytes() - bytes;
+
+      if (round == WARMUP_ROUNDS && check != 0) {
+        report("eventParser (String.split)", events, split);
+        reportBytes("eventParser (String.split)", splitBytes, events);
+        report("eventParser (EventParser)", events, parsed);
+        reportBytes("eventParser (EventParser)", parsedBytes, events);
+      }
+    }
+  }
+
+  /**
+   * Parse the line the way WarehouseController did before EventParser, and return a number that
+   * depends on the parsed words so that the parsing cannot be skipped.
+   *
+   * @param line The line of input.
+   * @return The number of characters in the parsed words.
+   */
+  private static int splitEvent(String line) {
+    String object = line.split(" ", 2)[0];
+    String data = line.split(" ", 2)[1];
+    if (object.equals("Order")) {
+      return data.split(" ", 2)[0].length() + data.split(" ", 2)[1].length();
+    }
+    String[] actions = data.split(" ", 4);
+    return object.length() + actions[0].length() + actions[1].length()
+        + (actions.length > 2 ? actions[2].length() : 0);
+  }
+
+  /**
+   * Measure the number of log records formatted per second by the formatter CustomFormatter had
+   * before it was made thread-safe, and by CustomFormatter, when the records are formatted on the
+   * given number of threads at once. The old formatter shares a SimpleDateFormat, so it is only
+   * measured on one thread.
+   *
+   * @param records The number of records to format on each thread in each round.
+   * @param threads The number of threads formatting at once.
+   */
+  public static void benchmarkFormatter(int records, int threads) {
+    LogRecord[] input = new LogRecord[1000];
+    for (int i = 0; i < input.length; i++) {
+      input[i] = new LogRecord(i % 3 == 0 ? Level.CONFIG : Level.INFO,
+          "PICKER: Alice picked " + (i % 48 + 1) + " at location 1,0,2,3.");
+      input[i].setSequenceNumber(i);
+    }
+    ExecutorService pool = Executors.newFixedThreadPool(threads);
+    for (int round = 0; round <= WARMUP_ROUNDS; round++) {
+      long legacy = 0;
+      long legacyBytes = 0;
+      if (threads == 1) {
+        long bytes = allocatedBytes();
+        legacy = formatRecords(new LegacyFormatter(), input, records);
+        legacyBytes = allocatedBytes() - bytes;
+      }
+
+      final CustomFormatter formatter = new CustomFormatter();
+      ArrayList<Future<Long>> results = new ArrayList<>();
+      long start = System.nanoTime();
+      for (int t = 0; t < threads; t++) {
+        results.add(pool.submit(() -> formatRecords(formatter, input, records)));
+      }
+      try {
+        for (Future<Long> result : results) {
+          result.get();
+        }
+      } catch (Exception e) {
+        throw new IllegalStateException(e);
+      }
+      long elapsed = System.nanoTime() - start;
+      long bytes = allocatedBytes();
+      formatRecords(formatter, input, records);
+      long formatterBytes = allocatedBytes() - bytes;
+
+      if (round == WARMUP_ROUNDS) {
+        if (threads == 1) {
+          report("formatter (SimpleDateFormat)", records, legacy);
+          reportBytes("formatter (SimpleDateFormat)", legacyBytes, records);
+        }
+        report("formatter (CustomFormatter x" + threads + ")", (long) records * threads, elapsed);
+        reportBytes("formatter (CustomFormatter)", formatterBytes, records);
+      }
+    }
+    pool.shutdown();
+  }
+
+  /**
+   * Format the records with the formatter over and over, and return the time taken.
+   *
+   * @param formatter The formatter to measure.
+   * @param input The records to format in turn.
+   * @param records The number of records to format.
+   * @return The time taken in nanoseconds.
+   */
+  private static long formatRecords(Formatter formatter, LogRecord[] input, int records) {
+    int check = 0;
+    long start = System.nanoTime();
+    for (int i = 0; i < records; i++) {
+      check += formatter.format(input[i % input.length]).length();
+    }
+    long elapsed = System.nanoTime() - start;
+    return check == 0 ? -1 : elapsed;
+  }
+
+  /** The formatter CustomFormatter had before it was made thread-safe. */
+  private static class LegacyFormatter extends Formatter {
+
+    /** The shared format of the date in the header, which is not thread-safe. */
+    private static final DateFormat df = new SimpleDateFormat("dd/MM/yyyy HH:mm:ss:SSS");
+    /** The time in nanoseconds the runtime of each record is measured from. */
+    private static long initialTime = System.nanoTime();
+
+    @Override
+    public String format(LogRecord record) {
+      StringBuilder output = new StringBuilder();
+      if (record.getSequenceNumber() == 0) {
+        output.append("\n\t\t[Warehouse Log Records\t");
+        output.append(df.format(new Date(record.getMillis())));
+        output.append("]\n\n[Runtime: ");
+        output.append(System.nanoTime() - initialTime + "ns");
+        output.append("   Log Number: " + (record.getSequenceNumber() + 1));
+        output.append("  Type: " + record.getLevel() + "]\t");
+      } else {
+        output.append("[Runtime: ");
+        output.append(System.nanoTime() - initialTime + "ns");
+        if ((System.nanoTime() - initialTime) < 10000000) {
+          output.append(" ");
+        }
+        output.append("  Log Number: " + (record.getSequenceNumber() + 1));
+        output.append("  Type: " + record.getLevel() + "]");
+        if (record.getSequenceNumber() < 10 && record.getLevel().toString().equals("INFO")) {
+          output.append("  ");
+        }
+        output.append("\t");
+      }
+      output.append(record.getMessage() + "\n");
+      return output.toString();
+    }
+  }
+
+  /**
+   * Measure the number of picks and replenishments per second, and the bytes allocated by each,
+   * for a catalogue of the given number of skus kept in a HashMap of boxed amounts, as
+   * StorageManager used to, and in StorageManager. Every 25th pick is followed by a
+   * replenishment of the same sku. The amounts are large enough that no sku runs low.
+   *
+   * @param skus The number of skus in the catalogue.
+   * @param operations The number of picks in each round.
+   * @throws IOException for newSystem.
+   */
+  public static void benchmarkInventory(int skus, int operations) throws IOException {
+    HashMap<String, Integer> initial = new HashMap<>();
+    for (int i = 1; i <= skus; i++) {
+      initial.put(String.valueOf(i), 1000000);
+    }
+    String[] picks = new String[operations];
+    Random random = new Random(207);
+    for (int i = 0; i < operations; i++) {
+      picks[i] = String.valueOf(random.nextInt(skus) + 1);
+    }
+    WarehouseSystem system = newSystem();
+
+    for (int round = 0; round <= WARMUP_ROUNDS; round++) {
+      HashMap<String, Integer> storages = new HashMap<>(initial);
+      int check = 0;
+      long bytes = allocatedBytes();
+      long start = System.nanoTime();
+      for (int i = 0; i < operations; i++) {
+        String sku = picks[i];
+        storages.put(sku, storages.get(sku) - 1);
+        if (storages.get(sku) <= 5 || storages.get(sku).equals(0)) {
+          check++;
+        }
+        if (i % 25 == 24) {
+          storages.put(sku, storages.get(sku) + 25);
+        }
+      }
+      long boxed = System.nanoTime() - start;
+      long boxedBytes = allocatedBytes() - bytes;
+
+      StorageManager storageManager = new StorageManager(system, initial);
+      bytes = allocatedBytes();
+      start = System.nanoTime();
+      for (int i = 0; i < operations; i++) {
+        String sku = picks[i];
+        storageManager.pickFascia(sku);
+        if (storageManager.levelEmpty(sku)) {
+          check++;
+        }
+        if (i % 25 == 24) {
+          storageManager.replenish(sku);
+        }
+      }
+      long indexed = System.nanoTime() - start;
+      long indexedBytes = allocatedBytes() - bytes;
+
+      if (round == WARMUP_ROUNDS && check == 0) {
+        report("inventory (HashMap<String, Integer>)", operations, boxed);
+        reportBytes("inventory (HashMap<String, Integer>)", boxedBytes, operations);
+        report("inventory (StorageManager)", operations, indexed);
+        reportBytes("inventory (StorageManager)", indexedBytes, operations);
+      }
+    }
+  }
+
+  /**
+   * Count the picks that find an empty level, and the fascias held in storage, when the skus are
+   * picked with skewed demand and each re-supply reaches its level leadTime picks after it is
+   * requested. This is done with the default reorder point and quantity of every sku, and with
+   * the adaptive ReplenishmentPolicy.
+   *
+   * @param picks The number of picks.
+   * @param leadTime The number of picks a replenishment takes.
+   * @throws IOException for TraversalTable and FileHandler.
+   */
+  public static void benchmarkReplenishment(int picks, int leadTime) throws IOException {
+    List<String> skus = TraversalTable.getTable("traversal_table.csv").getSkus();
+    HashMap<String, Integer> inventory = new HashMap<>();
+    for (String sku : skus) {
+      inventory.put(sku, 30);
+    }
+    // The demand for the sku of rank k is proportional to 1 / k.
+    double[] cumulative = new double[skus.size()];
+    double total = 0;
+    for (int k = 0; k < skus.size(); k++) {
+      total += 1.0 / (k + 1);
+      cumulative[k] = total;
+    }
+    Random random = new Random(42);
+    String[] demand = new String[picks];
+    for (int i = 0; i < picks; i++) {
+      int k = Arrays.binarySearch(cumulative, random.nextDouble() * total);
+      demand[i] = skus.get(Math.min(k < 0 ? -k - 1 : k, skus.size() - 1));
+    }
+    File log = File.createTempFile("benchmark", ".log");
+    log.deleteOnExit();
+
+    for (boolean adaptive : new boolean[] {false, true}) {
+      ArrayDeque<String> requested = new ArrayDeque<>();
+      WarehouseSystem system = new WarehouseSystem(new HashMap<String, String[]>(), inventory,
+          new FileHandler(log.getPath()), new CustomFormatter()) {
+        @Override
+        public void requestResupply(String sku) {
+          requested.add(sku);
+        }
+      };
+      Logger.getLogger("Warehouse System Logger").setLevel(Level.OFF);
+      StorageManager storageManager = new StorageManager(system, inventory);
+      storageManager.getPolicy().setAdaptive(adaptive);
+      ArrayDeque<String> inTransit = new ArrayDeque<>();
+      ArrayDeque<Integer> dueAt = new ArrayDeque<>();
+      long empty = 0;
+      long replenished = 0;
+      long held = 0;
+      for (int i = 0; i < picks; i++) {
+        while (!dueAt.isEmpty() && dueAt.peek() <= i) {
+          dueAt.poll();
+          String sku = inTransit.poll();
+          replenished += storageManager.getPolicy().getQuantity(
+              storageManager.getInventory().getIndex().indexOf(sku));
+          storageManager.replenish(sku);
+        }
+        if (storageManager.levelEmpty(demand[i])) {
+          empty++;
+        } else {
+          storageManager.pickFascia(demand[i]);
+        }
+        while (!requested.isEmpty()) {
+          inTransit.add(requested.poll());
+          dueAt.add(i + leadTime);
+        }
+        for (String sku : skus) {
+          held += storageManager.getStorages().get(sku);
+        }
+      }
+      String name = adaptive ? "replenishment (adaptive)" : "replenishment (fixed 5/25)";
+      System.out.println(String.format("%-45s %,15d empty picks %,12d replenished %,8.1f held",
+          name, empty, replenished, (double) held / picks));
+    }
+  }
+
+  /**
+   * Measure the number of replenish requests per second queued, de-duplicated and taken when skus
+   * replenish requests are waiting, with an ArrayList searched by contains and taken with
+   * remove(0), and with a ReplenishmentQueue.
+   *
+   * @param skus The number of skus, which are all queued once before they are taken.
+   */
+  public static void benchmarkReplenishQueue(int skus) {
+    ArrayList<String> catalogue = new ArrayList<>();
+    for (int i = 1; i <= skus; i++) {
+      catalogue.add(String.valueOf(i));
+    }
+    SkuIndex index = new SkuIndex(catalogue);
+    Random random = new Random(42);
+    String[] requests = new String[2 * skus];
+    for (int i = 0; i < requests.length; i++) {
+      requests[i] = catalogue.get(random.nextInt(skus));
+    }
+
+    for (int round = 0; round <= WARMUP_ROUNDS; round++) {
+      int check = 0;
+      long start = System.nanoTime();
+      ArrayList<String> list = new ArrayList<>();
+      for (String sku : requests) {
+        if (!list.contains(sku)) {
+          list.add(sku);
+        }
+      }
+      while (!list.isEmpty()) {
+        check += list.remove(0).length();
+      }
+      long listed = System.nanoTime() - start;
+
+      start = System.nanoTime();
+      ReplenishmentQueue queue = new ReplenishmentQueue(index);
+      for (int i = 0; i < requests.length; i++) {
+        queue.offer(requests[i], i % 30);
+      }
+      String sku = queue.poll();
+      while (sku != null) {
+        check -= sku.length();
+        sku = queue.poll();
+      }
+      long heaped = System.nanoTime() - start;
+
+      if (round == WARMUP_ROUNDS && check == 0) {
+        report("replenish requests (ArrayList, " + skus + " SKUs)", requests.length, listed);
+        report("replenish requests (heap, " + skus + " SKUs)", requests.length, heaped);
+      }
+    }
+  }
+
+  /**
+   * Measure the number of re-supplies per second handed to an idle replenisher, when all but one
+   * of the replenishers on shift are busy. The idle replenisher is found by scanning every
+   * replenisher, as requestResupply used to, and by the zone-aware pool of idle replenishers.
+   *
+   * @param replenishers The number of replenishers on shift.
+   * @param requests The number of re-supplies in each round.
+   */
+  public static void benchmarkReplenisherDispatch(int replenishers, int requests) {
+    WorkerRegistry registry = new WorkerRegistry();
+    IdleWorkerPool idle = new IdleWorkerPool();
+    for (int i = 0; i < replenishers; i++) {
+      ReplenisherBarcodeReader br = new ReplenisherBarcodeReader("Replenisher" + i, null, null);
+      br.setAisle(i % 4);
+      registry.register(br);
+      if (i < replenishers - 1) {
+        br.setSku("1");
+      } else {
+        idle.offer(br);
+      }
+    }
+    String[] skus = new String[requests];
+    int[] aisles = new int[requests];
+    Random random = new Random(20);
+    for (int i = 0; i < requests; i++) {
+      skus[i] = String.valueOf(random.nextInt(48) + 1);
+      aisles[i] = random.nextInt(4);
+    }
+
+    for (int round = 0; round <= WARMUP_ROUNDS; round++) {
+      int check = 0;
+      long start = System.nanoTime();
+      for (int i = 0; i < requests; i++) {
+        for (BarcodeReader br : registry.getWorkers(WorkerRole.REPLENISHER)) {
+          if (((ReplenisherBarcodeReader) br).getSku().equals("0")) {
+            ((ReplenisherBarcodeReader) br).setSku(skus[i]);
+            check++;
+            ((ReplenisherBarcodeReader) br).setSku("0");
+            break;
+          }
+        }
+      }
+      long scanned = System.nanoTime() - start;
+
+      start = System.nanoTime();
+      for (int i = 0; i < requests; i++) {
+        ReplenisherBarcodeReader br = (ReplenisherBarcodeReader) idle.pollReplenisher(aisles[i]);
+        br.setSku(skus[i]);
+        check--;
+        br.setSku("0");
+        br.setAisle(aisles[i]);
+        idle.offer(br);
+      }
+      long pooled = System.nanoTime() - start;
+
+      if (round == WARMUP_ROUNDS && check == 0) {
+        report("replenisher dispatch " + replenishers + " (scan)", requests, scanned);
+        report("replenisher dispatch " + replenishers + " (pool)", requests, pooled);
+      }
+    }
+  }
+
+  /**
+   * Measure the number of input events per second processed from a text event file, while they
+   * are appended to an EventJournal, and replayed from that journal by JournalReplay into a new
+   * system. Logging is turned off for both, so the difference is the cost of reading and parsing
+   * text against reading binary records.
+   *
+   * @param orders The number of orders in the event file, which is rounded down to a multiple of
+   *        four.
+   * @throws IOException for WarehouseController, EventFileReader and EventJournal.
+   */
+  public static void benchmarkJournalReplay(int orders) throws IOException {
+    File input = File.createTempFile("events", ".txt");
+    input.deleteOnExit();
+    File journalFile = File.createTempFile("journal", ".bin");
+    journalFile.deleteOnExit();
+    BufferedWriter bw = new BufferedWriter(new FileWriter(input));
+    bw.write("Picker Alice ready\nSequencer Sue ready\nLoader Bill ready\n");
+    for (int i = 0; i < orders / 4; i++) {
+      bw.write("Order SES Blue\nOrder S Beige\nOrder SES Red\nOrder SE White\n");
+      bw.write("Picker Alice to Marshaling\nPicker Alice ready\n");
+      bw.write("Sequencer Sue finished\nSequencer Sue ready\n");
+      bw.write("Loader Bill finished\nLoader Bill ready\n");
+    }
+    bw.close();
+
+    for (int round = 0; round <= WARMUP_ROUNDS; round++) {
+      journalFile.delete();
+      WarehouseController original = newController(input.getPath());
+      EventJournal journal = new EventJournal(journalFile.getPath(), 64, 10, false);
+      original.getWhs().setJournal(journal);
+      long start = System.nanoTime();
+      EventFileReader reader = new EventFileReader(input.getPath());
+      String line = reader.readLine();
+      while (line != null) {
+        original.processLine(line);
+        line = reader.readLine();
+      }
+      reader.close();
+      journal.close();
+      long text = System.nanoTime() - start;
+
+      JournalReplay replay = new JournalReplay(newController(input.getPath()));
+      start = System.nanoTime();
+      replay.replay(journalFile.getPath(), 0);
+      long replayed = System.nanoTime() - start;
+
+      if (round == WARMUP_ROUNDS) {
+        long events = replay.getEventCount();
+        report("journalReplay (text input and journal)", events, text);
+        report("journalReplay (JournalReplay)", events, replayed);
+        System.out.println(String.format("%-45s %,15d bytes", "journalReplay (journal size)",
+            journalFile.length()));
+      }
+    }
+  }
+
+  /**
+   * Measure the number of lines of input per second processed from a fleet of simulated scanners,
+   * whose sessions share the carrier threads, and the number of threads the fleet needs. Seven in
+   * ten scanners are pickers, and the rest are split among sequencers, loaders and replenishers.
+   * Each worker takes a millisecond to carry out an instruction, and logging is turned off. Since
+   * picking requests are loaded in order, the rate is bound by that latency as well as by the
+   * system, and a carrier thread per scanner shows what the shared threads save.
+   *
+   * @param scanners The number of scanners in the fleet.
+   * @param carrierThreads The number of threads shared by the sessions.
+   * @param requests The number of picking requests to load.
+   * @throws IOException for WarehouseController.
+   */
+  public static void benchmarkScanners(int scanners, int carrierThreads, int requests)
+      throws IOException {
+    for (int round = 0; round <= WARMUP_ROUNDS; round++) {
+      WarehouseController controller = newController("16orders.txt");
+      ScannerFleet fleet = new ScannerFleet(carrierThreads, 1000000);
+      for (int i = 0; i < scanners; i++) {
+        int share = i * 20 / scanners;
+        WorkerRole role = share < 14 ? WorkerRole.PICKER : share < 17 ? WorkerRole.SEQUENCER
+            : share < 19 ? WorkerRole.LOADER : WorkerRole.REPLENISHER;
+        fleet.open(role, "S" + i);
+      }
+      for (int i = 0; i < requests; i++) {
+        fleet.send("Order SES Blue");
+        fleet.send("Order S Beige");
+        fleet.send("Order SES Red");
+        fleet.send("Order SE White");
+      }
+      long start = System.nanoTime();
+      long lines = fleet.drive(controller, 500);
+      // The fleet waited for the idle time after the last line before it stopped.
+      long nanos = System.nanoTime() - start - 500000000L;
+      int threads = ManagementFactory.getThreadMXBean().getThreadCount();
+      fleet.shutdown();
+      if (round == WARMUP_ROUNDS) {
+        String label = "scanners " + scanners + " on " + carrierThreads + " threads";
+        report(label, lines, nanos);
+        System.out.println(String.format("%-45s %,15d threads", label + " (live)", threads));
+      }
+    }
+  }
+
+  /**
+   * Measure the number of requests per second a ScannerEventServer on the loopback address
+   * answers, and the latency of each request as seen by the pickers of a ScannerLoadGenerator.
+   * Logging is turned off.
+   *
+   * @param pickers The number of pickers, each on a connection of its own.
+   * @param requests The number of requests each picker sends.
+   * @throws IOException for WarehouseController and the server.
+   */
+  public static void benchmarkServer(int pickers, int requests) throws IOException {
+    for (int round = 0; round <= WARMUP_ROUNDS; round++) {
+      WarehouseController controller = newController("16orders.txt");
+      ScannerEventServer server =
+          new ScannerEventServer(controller, 0, ScannerEventServer.DEFAULT_CAPACITY);
+      server.start();
+      Thread serving = new Thread(() -> {
+        try {
+          server.serve();
+        } catch (IOException e) {
+          throw new RuntimeException(e);
+        }
+      });
+      serving.start();
+      ScannerLoadGenerator generator = new ScannerLoadGenerator(server.getPort());
+      long start = System.nanoTime();
+      generator.run(pickers, requests);
+      long nanos = System.nanoTime() - start;
+      server.close();
+      try {
+        serving.join();
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+      }
+      if (round == WARMUP_ROUNDS && generator.getErrors() == 0) {
+        String label = "server " + pickers + " pickers";
+        report(label, generator.getLatencies().getCount(), nanos);
+        reportLatency(label, generator.getLatencies());
+      }
+    }
+  }
+
+  /**
+   * Measure how long orders wait from being received to the start of their picking under the
+   * batching policy, and how many are never picked. A wave of orders arrives at once, then a
+   * trickle arrives one order every 20 milliseconds, while the pickers of a ScannerFleet take a
+   * millisecond to carry out each instruction. The pending orders are flushed by an
+   * OrderBatchScheduler, and logging is turned off.
+   *
+   * @param policy The batching policy.
+   * @param pickers The number of pickers.
+   * @param wave The number of orders in the wave.
+   * @param trickle The number of orders in the trickle after the wave.
+   * @throws IOException for WarehouseController.
+   */
+  public static void benchmarkIntake(BatchingPolicy policy, int pickers, int wave, int trickle)
+      throws IOException {
+    String[] orders = {"Order SES Blue", "Order S Beige", "Order SES Red", "Order SE White"};
+    for (int round = 0; round <= WARMUP_ROUNDS; round++) {
+      WarehouseController controller = newController("16orders.txt");
+      OrderManager orderManager = controller.getWhs().getOrderManager();
+      orderManager.setPolicy(policy);
+      ScannerFleet fleet = new ScannerFleet(2, 1000000);
+      for (int i = 0; i < pickers; i++) {
+        fleet.open(WorkerRole.PICKER, "P" + i);
+      }
+      Thread feeder = new Thread(() -> {
+        for (int i = 0; i < wave + trickle; i++) {
+          fleet.send(orders[i % orders.length]);
+          if (i >= wave) {
+            try {
+              Thread.sleep(20);
+            } catch (InterruptedException e) {
+              return;
+            }
+          }
+        }
+      });
+      try (OrderBatchScheduler batcher = new OrderBatchScheduler(controller)) {
+        batcher.start();
+        feeder.start();
+        fleet.drive(controller, 200);
+      }
+      fleet.shutdown();
+      if (round == WARMUP_ROUNDS) {
+        String label = "intake " + policy;
+        LatencyHistogram latencies = orderManager.getPickLatencies();
+        System.out.println(String.format("%-45s %,8d picked %,5d stranded %,5d partial", label,
+            latencies.getCount(), wave + trickle - latencies.getCount(),
+            orderManager.getPartialRequests()));
+        reportLatency(label, latencies);
+      }
+    }
+  }
+
+  /**
+   * Receive orders whose van types are skewed towards a few popular ones, make picking requests of
+   * four from a window of pending orders, and pick them straight away. Print the estimated metres
+   * walked per picking request, the fascias picked from an empty level, and the rate at which
+   * requests are made. The levels that are low are replenished after every lag requests, as a
+   * replenisher would. A window of four takes the orders in the order they arrive.
+   *
+   * @param window The number of pending orders each picking request is chosen from.
+   * @param orders The number of orders to receive.
+   * @param lag The number of picking requests between rounds of replenishment.
+   * @throws IOException for newSystem and receiveOrder.
+   */
+  public static void benchmarkGrouping(int window, int orders, int lag) throws IOException {
+    String[] skus = TraversalTable.getTable("traversal_table.csv").getSkus().toArray(new String[0]);
+    for (int round = 0; round <= WARMUP_ROUNDS; round++) {
+      WarehouseSystem system = newSystem();
+      OrderManager orderManager = system.getOrderManager();
+      orderManager.setPolicy(new BatchingPolicy(BatchingPolicy.DEFAULT_SIZE, 0, false, window));
+      StorageManager storage = system.getStorageManager();
+      Random random = new Random(25);
+      double metres = 0;
+      int stalls = 0;
+      int requests = 0;
+      long nanos = 0;
+      for (int i = 0; i < orders; i++) {
+        // Squaring the uniform draw makes the first van types the most popular.
+        double draw = random.nextDouble();
+        int pair = (int) (draw * draw * (skus.length / 2));
+        long start = System.nanoTime();
+        orderManager.receiveOrder("White", "S", skus[2 * pair], skus[2 * pair + 1]);
+        nanos += System.nanoTime() - start;
+        ArrayList<PickingRequest> prList = system.getPrList();
+        for (; requests < prList.size(); requests++) {
+          PickingRequest pr = prList.get(requests);
+          metres += pr.getEstimatedDistance();
+          for (String sku : pr.getCorrectOrder()) {
+            if (storage.getAmount(sku) <= 0) {
+              stalls++;
+            } else {
+              storage.pickFascia(sku);
+            }
+          }
+          if (requests % lag == lag - 1) {
+            for (String sku : skus) {
+              if (storage.getAmount(sku) <= 5) {
+                storage.replenish(sku);
+              }
+            }
+          }
+        }
+      }
+      if (round == WARMUP_ROUNDS) {
+        String label = "grouping window=" + window;
+        System.out.println(String.format("%-45s %,8.1f m/request %,6d stalls", label,
+            metres / requests, stalls));
+        report(label, requests, nanos);
+      }
+    }
+  }
+
+  /**
+   * Return a new WarehouseController for the input file whose orders are counted and dropped, and
+   * whose logging is turned off.
+   *
+   * @param inputFilePath The file path of the input file.
+   * @return The new WarehouseController.
+   * @throws IOException for WarehouseController.
+   */
+  private static WarehouseController newController(String inputFilePath) throws IOException {
+    WarehouseController controller = new WarehouseController(inputFilePath);
+    controller.getWhs().setOrderSink(new OrderSink() {
+      @Override
+      public void accept(PickingRequest pr) {}
+
+      @Override
+      public void flush() {}
+
+      @Override
+      public void close() {}
+    });
+    Logger.getLogger("Warehouse System Logger").setLevel(Level.OFF);
+    return controller;
+  }
+
+  /**
+   * Run the given number of orders through picking, sequencing and loading, and print the heap in
+   * use and the number of unfinished picking requests after every tenth of the orders. The heap in
+   * use should stay flat, since finished picking requests are passed to the order sink and
+   * dropped. This benchmark is not part of "all".
+   *
+   * @param orders The number of orders to run, which is rounded down to a multiple of four.
+   * @throws IOException for newSystem and receiveOrder.
+   */
+  public static void benchmarkSoak(int orders) throws IOException {
+    WarehouseSystem system = newSystem();
+    final int[] loaded = new int[1];
+    system.setOrderSink(new OrderSink() {
+      @Override
+      public void accept(PickingRequest pr) {
+        loaded[0] += pr.getOrders().size();
+      }
+
+      @Override
+      public void flush() {}
+
+      @Override
+      public void close() {}
+    });
+    OrderManager orderManager = new OrderManager(system);
+    system.workerReady("Picker", "Alice");
+    system.workerReady("Sequencer", "Sue");
+    system.workerReady("Loader", "Bill");
+    Runtime runtime = Runtime.getRuntime();
+    int checkpoint = Math.max(4, orders / 40 * 4);
+    long start = System.nanoTime();
+    for (int received = 4; received <= orders; received += 4) {
+      orderManager.receiveOrder("Blue", "SES", "37", "38");
+      orderManager.receiveOrder("Beige", "S", "9", "10");
+      orderManager.receiveOrder("Red", "SES", "21", "22");
+      orderManager.receiveOrder("White", "SE", "3", "4");
+      system.workerFinished("Picker", "Alice");
+      system.workerReady("Picker", "Alice");
+      system.workerFinished("Sequencer", "Sue");
+      system.workerReady("Sequencer", "Sue");
+      system.workerFinished("Loader", "Bill");
+      system.workerReady("Loader", "Bill");
+      if (received % checkpoint == 0) {
+        System.gc();
+        long used = runtime.totalMemory() - runtime.freeMemory();
+        System.out.println(String.format("soak %,10d orders %,10d loaded %,6d live %,8d KB heap",
+            received, loaded[0], system.getLivePrCount(), used / 1024));
+      }
+    }
+    report("soak orders", orders / 4 * 4, System.nanoTime() - start);
+  }
+
+  /**
+   * Return a new WarehouseSystem with full inventory whose logging is turned off.
+   *
+   * @return The new WarehouseSystem.
+   * @throws IOException for TraversalTable and FileHandler.
+   */
+  private static WarehouseSystem newSystem() throws IOException {
+    HashMap<String, Integer> inventory = new HashMap<>();
+    for (String sku : TraversalTable.getTable("traversal_table.csv").getSkus()) {
+      inventory.put(sku, 30);
+    }
+    File log = File.createTempFile("benchmark", ".log");
+    log.deleteOnExit();
+    WarehouseSystem system = new WarehouseSystem(new HashMap<String, String[]>(), inventory,
+        new FileHandler(log.getPath()), new CustomFormatter());
+    Logger.getLogger("Warehouse System Logger").setLevel(Level.OFF);
+    return system;
+  }
+
+  /**
+   * Return the number of bytes allocated by this thread so far, or 0 if the JVM does not count
+   * them.
+   *
+   * @return The number of bytes allocated by this thread.
+   */
+  private static long allocatedBytes() {
+    ThreadMXBean bean = ManagementFactory.getThreadMXBean();
+    if (bean instanceof com.sun.management.ThreadMXBean) {
+      return ((com.sun.management.ThreadMXBean) bean).getThreadAllocatedBytes(
+          Thread.currentThread().getId());
+    }
+    return 0;
+  }
+
+  /**
+   * Print the allocation rate of a benchmark.
+   *
+   * @param name The name of the benchmark.
+   * @param bytes The number of bytes allocated by the operations.
+   * @param operations The number of operations measured.
+   */
+  private static void reportBytes(String name, long bytes, long operations) {
+    System.out.println(String.format("%-45s %,15.1f bytes/op", name, (double) bytes / operations));
+  }
+
+  /**
+   * Print the median, 99th and 99.9th percentile latency of a benchmark in microseconds.
+   *
+   * @param name The name of the benchmark.
+   * @param latencies The latencies in nanoseconds.
+   */
+  private static void reportLatency(String name, LatencyHistogram latencies) {
+    System.out.println(String.format("%-45s p50 %,8.1f  p99 %,8.1f  p99.9 %,8.1f us", name,
+        latencies.getValueAtPercentile(50) / 1e3, latencies.getValueAtPercentile(99) / 1e3,
+        latencies.getValueAtPercentile(99.9) / 1e3));
+  }
+
+  /**
+   * Print the throughput of a benchmark.
+   *
+   * @param name The name of the benchmark.
+   * @param operations The number of operations measured.
+   * @param nanos The time taken by the operations in nanoseconds.
+   */
+  private static void report(String name, long operations, long nanos) {
+    double perSecond = operations * 1e9 / nanos;
+    System.out.println(String.format("%-45s %,15.0f ops/s", name, perSecond));
+  }
+
+}
@@ -2,91 +2,334 @@ package warehousesystem;
 
 import java.io.IOException;
 import java.util.ArrayList;
+import java.util.Iterator;
 import java.util.logging.FileHandler;
+import java.util.logging.Handler;
 import java.util.logging.Level;
 
 public class WarehouseController {
 
+  /** The time in milliseconds between checks of a followed input file for new events. */
+  private static final long FOLLOW_POLL_INTERVAL = 100;
+
   private WarehouseSystem whs;
   private CsvTools csv;
   private ArrayList<String> lines;
-  private FileHandler handler;
+  private Handler handler;
   private CustomFormatter formatter;
+  /** The file path of the input file. */
+  private String inputFilePath;
+  /** Whether to wait for new events at the end of the input file. */
+  private boolean follow;
+  /** The time in milliseconds the followed input file may go without a new event. */
+  private long followTimeout;
+  /** The reader of the input file while the model runs. */
+  private volatile EventFileReader reader;
+  /** Whether stop has been called. */
+  private volatile boolean stopped;
+  /** The parser of the lines of input. */
+  private EventParser parser = new EventParser();
+  /** The event each line of input is parsed into. It is reused for every line. */
+  private ScannerEvent event = new ScannerEvent();
+  /** The number of lines of input processed, including lines restored from a snapshot. */
+  private long lineCount;
+  /** The number of lines at the start of the input that were processed before a restore. */
+  private long skipLines;
+  /** The manager that takes snapshots of the system as lines are processed, or null. */
+  private SnapshotManager snapshots;
 
   /**
-   * Initiate a new WarehouseController with the inputFilePath.
+   * Initiate a new WarehouseController with the inputFilePath. The input file is read one line at
+   * a time while the model runs.
    * 
    * @param inputFilePath The file with inputFilePath as a input file.
    * @throws SecurityException for setLevel and setFormatter
-   * @throws IOException for CsvTools and readFile
+   * @throws IOException for CsvTools and CsvOrderSink
    */
   public WarehouseController(String inputFilePath) throws SecurityException, IOException {
-    csv = new CsvTools();
-    handler = new FileHandler("log.txt");
+    this(inputFilePath, false);
+  }
+
+  /**
+   * Initiate a new WarehouseController with the inputFilePath. If the controller is about to be
+   * restored from a snapshot, order.csv and final.csv are kept and log.txt is appended to, since
+   * they hold the output of the system that stopped.
+   * 
+   * @param inputFilePath The file with inputFilePath as a input file.
+   * @param restoring Whether the controller is about to be restored from a snapshot.
+   * @throws SecurityException for setLevel and setFormatter
+   * @throws IOException for CsvTools and CsvOrderSink
+   */
+  public WarehouseController(String inputFilePath, boolean restoring)
+      throws SecurityException, IOException {
+    this(inputFilePath, new CsvTools(!restoring), new FileHandler("log.txt", restoring),
+        new CsvOrderSink("order.csv"));
+  }
+
+  /**
+   * Initiate a new WarehouseController with the inputFilePath, whose system reads the csv files
+   * with csv, writes its log with handler and passes its loaded picking requests to orderSink.
+   * 
+   * @param inputFilePath The file with inputFilePath as a input file.
+   * @param csv The csv files the system is set up from.
+   * @param handler The handler that writes the log file of the system.
+   * @param orderSink The sink of the picking requests loaded by the system.
+   * @throws SecurityException for setLevel and setFormatter
+   */
+  public WarehouseController(String inputFilePath, CsvTools csv, Handler handler,
+      OrderSink orderSink) throws SecurityException {
+    this.csv = csv;
+    this.handler = handler;
     handler.setLevel(Level.ALL);
     formatter = new CustomFormatter();
     handler.setFormatter(formatter);
     whs = new WarehouseSystem(csv.getTranslations(), csv.getInventory(), handler, formatter);
-    lines = csv.readFile(inputFilePath);
+    whs.setOrderSink(orderSink);
+    if (!csv.getReplenishment().isEmpty()) {
+      int configured = whs.getStorageManager().getPolicy().configure(csv.getReplenishment());
+      whs.logConfig(() -> "SYSTEM: Reorder points and quantities set for " + configured
+          + " SKUs from replenishment.csv");
+    }
+    this.inputFilePath = inputFilePath;
   }
 
   /**
-   * Run the warehouse system model to process each line of input from the input file.
+   * Run the warehouse system model to process each line of input from the input file as it is
+   * read, or from the lines set by setLines. If the input file is followed, the model runs until
+   * the file goes without a new event for the follow timeout or stop is called. The orders still
+   * pending at the end make as many full picking requests as they can.
    * 
    * @throws IOException for receiveOrder, updateView, workerFinished
    */
   public void runModel() throws IOException {
-    for (String line : lines) {
-      whs.logConfig("INPUT: " + line);
-      String object = line.split(" ", 2)[0];
-      String data = line.split(" ", 2)[1];
-
-      if (object.equals("Order")) {
-        String model = data.split(" ", 2)[0];
-        String color = data.split(" ", 2)[1];
-        whs.receiveOrder(color, model);
-      } else if (object.equals("Picker") | object.equals("Sequencer") | object.equals("Loader")
-          | object.equals("Replenisher")) {
-        String[] actions = data.split(" ", 4);
-        String name = actions[0];
-        String status = actions[1];
-        if (status.equals("ready")) {
-          whs.workerReady(object, name);
-        } else if (status.equals("picked") | status.equals("sequenced") | status.equals("loaded")
-            | status.equals("replenished")) {
-          String sku = actions[2];
-          whs.scan(object, name, sku);
-        } else if (status.equals("rescanned")) {
-          String sku;
-          if (actions.length > 2) {
-            sku = actions[2];
-          } else {
-            sku = "0";
-          }
-          whs.rescan(object, name, sku);
-        } else if (status.equals("discarded")) {
-          whs.discard(object, name);
-        } else if (status.equals("to") | status.equals("finished")) {
-          whs.workerFinished(object, name);
-        } else {
-          whs.logConfig("SYSTEM: Invalid input read, continuing");
-        }
-      } else {
-        whs.logConfig("SYSTEM: Invalid input read, continuing");
+    if (lines != null) {
+      Iterator<String> iterator = lines.iterator();
+      run(() -> iterator.hasNext() ? iterator.next() : null);
+    } else {
+      reader = new EventFileReader(inputFilePath, follow, FOLLOW_POLL_INTERVAL, followTimeout);
+      if (stopped) {
+        reader.stop();
+      }
+      try {
+        run(reader::readLine);
+      } finally {
+        reader.close();
       }
     }
+    flushFullRequests();
     this.updateView();
   }
 
   /**
-   * Update the final.csv, order.csv, and the log.txt.
+   * Process each line of input from the source after the lines skipped for a restore, until the
+   * source has no more lines or stop is called.
+   * 
+   * @param source The source of the lines of input.
+   * @throws IOException for readLine and processLine
+   */
+  private void run(LineSource source) throws IOException {
+    long skipped = 0;
+    String line = source.readLine();
+    while (line != null && !stopped) {
+      if (skipped++ >= skipLines) {
+        processLine(line);
+      }
+      line = source.readLine();
+    }
+  }
+
+  /**
+   * Process one line of input, then let the snapshot manager take a snapshot if one is due. A line
+   * that cannot be parsed is recorded in the journal of the system, if it has one, so that the
+   * lines of input can be counted from the journal. So is a line whose event is too long for the
+   * journal, which is skipped so that a replay of the journal gives the same system.
+   * 
+   * @param line The line of input.
+   * @throws IOException for receiveOrder, discard, workerFinished, appendSkippedLine and save
+   */
+  public void processLine(String line) throws IOException {
+    processParsedLine(line, event, parser.parse(line, event));
+  }
+
+  /**
+   * Process one line of input that has already been parsed, then let the snapshot manager take a
+   * snapshot if one is due. This does what processLine does, for a line parsed on another thread.
+   * It holds the lock of this controller, so it never runs at the same time as flushDueOrders.
+   * 
+   * @param line The line of input.
+   * @param event The event parsed from the line.
+   * @param parsed Whether the line could be parsed into the event.
+   * @throws IOException for receiveOrder, discard, workerFinished, appendSkippedLine and save
+   */
+  public synchronized void processParsedLine(String line, ScannerEvent event, boolean parsed)
+      throws IOException {
+    whs.logConfig(() -> "INPUT: " + line);
+    lineCount++;
+    EventJournal journal = whs.getJournal();
+    if (parsed && journal != null && !EventJournal.fits(event)) {
+      // The event cannot be replayed, so it is skipped as if it could not be parsed.
+      whs.logWarning(() -> "SYSTEM: Input too long to journal, continuing");
+      journal.appendSkippedLine();
+    } else if (parsed) {
+      processEvent(event);
+    } else {
+      whs.logConfig("SYSTEM: Invalid input read, continuing");
+      if (journal != null) {
+        journal.appendSkippedLine();
+      }
+    }
+    if (snapshots != null) {
+      snapshots.lineProcessed(this);
+    }
+  }
+
+  /**
+   * Make a picking request of the pending orders if the oldest has waited for the longest time the
+   * batching policy allows. It is called by the OrderBatchScheduler, and holds the lock of this
+   * controller, so the system is still changed by one thread at a time.
+   * 
+   * @return true iff a picking request was made.
+   * @throws IOException for flushDueOrders
+   */
+  public synchronized boolean flushDueOrders() throws IOException {
+    return whs.flushDueOrders();
+  }
+
+  /**
+   * Make full picking requests of the orders still pending at the end of the input. Only a
+   * batching window larger than the request size leaves enough orders pending for one. It holds
+   * the lock of this controller, like flushDueOrders.
+   * 
+   * @throws IOException for flushFullRequests
+   */
+  public synchronized void flushFullRequests() throws IOException {
+    whs.flushFullRequests();
+  }
+
+  /**
+   * Process one input event, and append it to the journal of the system if it has one.
+   * 
+   * @param event The input event.
+   * @throws IOException for appendEvent, receiveOrder, discard, workerFinished
+   */
+  public void processEvent(ScannerEvent event) throws IOException {
+    EventJournal journal = whs.getJournal();
+    if (journal != null) {
+      journal.appendEvent(event);
+    }
+    if (event.getVerb() == EventVerb.ORDER) {
+      whs.receiveOrder(event.getColor(), event.getModel());
+      return;
+    }
+    String object = event.getRole().getName();
+    String name = event.getWorker();
+    switch (event.getVerb()) {
+      case READY:
+        whs.workerReady(object, name);
+        break;
+      case PICKED:
+      case SEQUENCED:
+      case LOADED:
+      case REPLENISHED:
+        whs.scan(object, name, event.getSku());
+        break;
+      case RESCANNED:
+        whs.rescan(object, name, event.getSku() == null ? "0" : event.getSku());
+        break;
+      case DISCARDED:
+        whs.discard(object, name);
+        break;
+      case TO:
+      case FINISHED:
+        whs.workerFinished(object, name);
+        break;
+      case LEFT:
+        whs.workerLeft(object, name);
+        break;
+      default:
+        whs.logConfig("SYSTEM: Invalid input read, continuing");
+        break;
+    }
+  }
+
+  /**
+   * Update the final.csv, order.csv, the journal and the log.txt. It holds the lock of this
+   * controller, so pending orders are not flushed while the output is written.
    * 
-   * @throws IOException for writeFinal and wirteOrder
+   * @throws IOException for writeFinal, wirteOrder and closeJournal
    */
-  public void updateView() throws IOException {
+  public synchronized void updateView() throws IOException {
     whs.logConfig("SYSTEM: Simulation Complete");
     csv.writeFinal(whs.outputInventory());
-    csv.writeOrder(whs.outputOrders());
+    whs.closeOrderSink();
+    whs.closeJournal();
+    whs.flushLog();
+  }
+
+  /**
+   * Follow the input file while the model runs, so that events written to it after the model
+   * started are processed as they arrive.
+   * 
+   * @param followTimeout The time in milliseconds the input file may go without a new event
+   *        before the model stops, or 0 to run until stop is called.
+   */
+  public void follow(long followTimeout) {
+    this.follow = true;
+    this.followTimeout = followTimeout;
+  }
+
+  /**
+   * Stop running the model once the event being processed is done: no line of input is read or
+   * processed after it. This can be called from another thread.
+   */
+  public void stop() {
+    stopped = true;
+    EventFileReader current = reader;
+    if (current != null) {
+      current.stop();
+    }
+  }
+
+  /**
+   * Return true if and only if stop has been called.
+   * 
+   * @return stopped
+   */
+  public boolean isStopped() {
+    return stopped;
+  }
+
+  /**
+   * Set the manager that takes snapshots of the system as lines of input are processed.
+   * 
+   * @param snapshots The snapshot manager, or null to take no snapshots.
+   */
+  public void setSnapshotManager(SnapshotManager snapshots) {
+    this.snapshots = snapshots;
+  }
+
+  /**
+   * Return the number of lines of input processed, including the lines restored from a snapshot.
+   * 
+   * @return lineCount
+   */
+  public long getLineCount() {
+    return lineCount;
+  }
+
+  /**
+   * Set the number of lines of input that were processed before the system was restored. These
+   * lines are skipped when the model runs.
+   * 
+   * @param lineCount The number of lines already processed.
+   */
+  public void setRestoredLineCount(long lineCount) {
+    this.lineCount = lineCount;
+    this.skipLines = lineCount;
+  }
+
+  public WarehouseSystem getWhs() {
+    return whs;
   }
 
   public void setWhs(WarehouseSystem whs) {
@@ -97,4 +340,16 @@ public class WarehouseController {
     this.lines = lines;
   }
 
+  /** A source of lines of input, read one at a time. */
+  private interface LineSource {
+
+    /**
+     * Return the next line of input.
+     *
+     * @return The next line, or null at the end of the input.
+     * @throws IOException if the line cannot be read.
+     */
+    String readLine() throws IOException;
+  }
+
 }
@@ -0,0 +1,142 @@
+package warehousesystem;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+public class WarehouseLayout {
+
+  /** The distance in metres between the centres of two neighbouring aisles. */
+  public static final double AISLE_SPACING = 3.0;
+  /** The length in metres of one rack along an aisle. */
+  public static final double RACK_LENGTH = 2.0;
+
+  /** The traversal table this WarehouseLayout is built from. */
+  private final TraversalTable table;
+  /** A mapping of location to the index of the aisle it is in, counting across all zones. */
+  private final Map<String, Integer> aisleIndex = new HashMap<>();
+  /** A mapping of location to its rack number. */
+  private final Map<String, Integer> rackIndex = new HashMap<>();
+  /** A mapping of location to its level number. */
+  private final Map<String, Integer> levelIndex = new HashMap<>();
+  /** The number of racks in the longest aisle. */
+  private final int racksPerAisle;
+
+  /**
+   * Initialize a new WarehouseLayout from the locations in the traversal table. Aisles are placed
+   * side by side in the order zone then aisle, and the picker enters and leaves the warehouse at
+   * the front of the first aisle. Each aisle can be left through a cross aisle at its front or at
+   * its back.
+   *
+   * @param table The traversal table with the locations of the warehouse.
+   */
+  public WarehouseLayout(TraversalTable table) {
+    this.table = table;
+    Map<String, Integer> aisles = new HashMap<>();
+    int maxRack = 0;
+    for (String sku : table.getSkus()) {
+      String location = table.getLocation(sku);
+      String[] parts = location.split(",", 4);
+      String aisle = parts[0] + "," + parts[1];
+      if (!aisles.containsKey(aisle)) {
+        aisles.put(aisle, aisles.size());
+      }
+      int rack = Integer.parseInt(parts[2]);
+      aisleIndex.put(location, aisles.get(aisle));
+      rackIndex.put(location, rack);
+      levelIndex.put(location, Integer.parseInt(parts[3]));
+      maxRack = Math.max(maxRack, rack);
+    }
+    racksPerAisle = maxRack + 1;
+  }
+
+  /**
+   * Return the traversal table this WarehouseLayout is built from.
+   *
+   * @return table
+   */
+  public TraversalTable getTable() {
+    return table;
+  }
+
+  /**
+   * Return the location of the sku.
+   *
+   * @param sku The sku to find.
+   * @return The location of the sku.
+   */
+  public String getLocation(String sku) {
+    return table.getLocation(sku);
+  }
+
+  /**
+   * Return the index of the aisle of the sku, counting aisles across all zones.
+   *
+   * @param sku The sku to find.
+   * @return The aisle index of the sku.
+   */
+  public int getAisle(String sku) {
+    return aisleIndex.get(table.getLocation(sku));
+  }
+
+  /**
+   * Return the rack number of the sku within its aisle.
+   *
+   * @param sku The sku to find.
+   * @return The rack number of the sku.
+   */
+  public int getRack(String sku) {
+    return rackIndex.get(table.getLocation(sku));
+  }
+
+  /**
+   * Return the level number of the sku on its rack.
+   *
+   * @param sku The sku to find.
+   * @return The level number of the sku.
+   */
+  public int getLevel(String sku) {
+    return levelIndex.get(table.getLocation(sku));
+  }
+
+  /**
+   * Return the walking distance in metres between the skus. A sku of null stands for the entrance
+   * of the warehouse at the front of the first aisle.
+   *
+   * @param from The sku the picker walks from, or null for the entrance.
+   * @param to The sku the picker walks to, or null for the entrance.
+   * @return The walking distance between the two skus.
+   */
+  public double distance(String from, String to) {
+    int fromAisle = from == null ? 0 : getAisle(from);
+    int toAisle = to == null ? 0 : getAisle(to);
+    // The position along the aisle in racks, measured from the front cross aisle.
+    double fromPosition = from == null ? 0 : getRack(from) + 0.5;
+    double toPosition = to == null ? 0 : getRack(to) + 0.5;
+    if (fromAisle == toAisle) {
+      return Math.abs(fromPosition - toPosition) * RACK_LENGTH;
+    }
+    double viaFront = fromPosition + toPosition;
+    double viaBack = 2 * racksPerAisle - fromPosition - toPosition;
+    return Math.abs(fromAisle - toAisle) * AISLE_SPACING
+        + Math.min(viaFront, viaBack) * RACK_LENGTH;
+  }
+
+  /**
+   * Return the walking distance in metres of a route that starts at the entrance, picks the skus
+   * in order and returns to the entrance.
+   *
+   * @param skus The skus in the order they are picked.
+   * @return The walking distance of the route.
+   */
+  public double routeDistance(List<String> skus) {
+    double total = 0;
+    String previous = null;
+    for (String sku : skus) {
+      total += distance(previous, sku);
+      previous = sku;
+    }
+    return total + distance(previous, null);
+  }
+
+}
@@ -0,0 +1,55 @@
+package warehousesystem;
+
+import static org.junit.Assert.assertEquals;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+
+import org.junit.Before;
+import org.junit.Test;
+
+public class WarehouseLayoutTest {
+
+  private WarehouseLayout layout;
+
+  @Before
+  public void setUp() throws IOException {
+    layout = new WarehouseLayout(TraversalTable.getTable("traversal_table.csv"));
+  }
+
+  @Test
+  public void testCoordinates() {
+    assertEquals(0, layout.getAisle("1"));
+    assertEquals(1, layout.getAisle("13"));
+    assertEquals(2, layout.getAisle("25"));
+    assertEquals(3, layout.getAisle("48"));
+    assertEquals(2, layout.getRack("48"));
+    assertEquals(3, layout.getLevel("48"));
+  }
+
+  @Test
+  public void testDistanceInSameAisle() {
+    assertEquals(0.0, layout.distance("1", "4"), 1e-9);
+    assertEquals(2 * WarehouseLayout.RACK_LENGTH, layout.distance("1", "9"), 1e-9);
+  }
+
+  @Test
+  public void testDistanceBetweenAisles() {
+    // Rack 0 to rack 0 of the next aisle is shortest through the front cross aisle.
+    assertEquals(WarehouseLayout.AISLE_SPACING + WarehouseLayout.RACK_LENGTH,
+        layout.distance("1", "13"), 1e-9);
+    // Rack 2 to rack 2 of the next aisle is shortest through the back cross aisle.
+    assertEquals(WarehouseLayout.AISLE_SPACING + WarehouseLayout.RACK_LENGTH,
+        layout.distance("9", "21"), 1e-9);
+    assertEquals(layout.distance("9", "21"), layout.distance("21", "9"), 1e-9);
+  }
+
+  @Test
+  public void testRouteDistance() {
+    assertEquals(0.0, layout.routeDistance(new ArrayList<String>()), 1e-9);
+    assertEquals(2 * 0.5 * WarehouseLayout.RACK_LENGTH,
+        layout.routeDistance(Arrays.asList("1", "2")), 1e-9);
+  }
+
+}
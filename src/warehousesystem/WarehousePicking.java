@@ -5,35 +5,82 @@ import java.io.FileReader;
 import java.io.IOException;
 import java.util.ArrayList;
 import java.util.Collections;
-import java.util.HashMap;
-import java.util.Map;
 
 public class WarehousePicking {
 
-  /** The sku to location map. This is static because optimize is static. */
-  private static Map<String, String> skuToLocation = new HashMap<>();
+  /** The file path of the traversal table that locations are read from. */
+  private static final String TRAVERSAL_FILE = "traversal_table.csv";
+  /** The route planner that decides the picking order of the skus. */
+  private static RoutePlanner routePlanner = new SkuOrderRoutePlanner();
+  /** The layout built from the current traversal table. */
+  private static WarehouseLayout layout;
 
   /**
-   * Based on the Integer SKUs in List 'skus', return a List of locations, where each location is a
-   * String containing 5 pieces of information: the zone character (in the range ['A' .. 'B']), the
-   * aisle number (an integer in the range [0 .. 1]), the rach number (an integer in the range [0 ..
-   * 2]), and the level on the rack (an integer in the range [0 .. 3]), and the SKU number.
+   * Based on the Integer SKUs in List 'skus', return a List of locations in the order given by the
+   * route planner, where each location is a String containing 5 pieces of information: the zone
+   * character (in the range ['A' .. 'B']), the aisle number (an integer in the range [0 .. 1]), the
+   * rach number (an integer in the range [0 .. 2]), and the level on the rack (an integer in the
+   * range [0 .. 3]), and the SKU number.
    * 
    * @param skus the list of skus to retrieve.
    * @return the List of locations.
-   * @throws IOException For readTraversal.
+   * @throws IOException For getLayout.
    */
   public static ArrayList<String> optimize(ArrayList<String> skus) throws IOException {
-    readTraversal();
-    Map<String, String> locationMap = skuToLocation;
+    WarehouseLayout warehouseLayout = getLayout();
     ArrayList<String> locations = new ArrayList<>();
-    for (String sku : sort(skus)) {
-      String location = locationMap.get(sku);
+    for (String sku : routePlanner.plan(skus, warehouseLayout)) {
+      String location = warehouseLayout.getLocation(sku);
       locations.add(location + "," + sku);
     }
     return locations;
   }
 
+  /**
+   * Return the estimated walking distance in metres of picking the skus in the given order,
+   * starting and ending at the entrance of the warehouse.
+   * 
+   * @param skus The skus in picking order.
+   * @return The estimated walking distance.
+   * @throws IOException For getLayout.
+   */
+  public static double routeDistance(ArrayList<String> skus) throws IOException {
+    return getLayout().routeDistance(skus);
+  }
+
+  /**
+   * Return the layout of the current traversal table, building it again if the table has been
+   * read again.
+   * 
+   * @return The layout of the warehouse.
+   * @throws IOException For getTable.
+   */
+  public static synchronized WarehouseLayout getLayout() throws IOException {
+    TraversalTable table = TraversalTable.getTable(TRAVERSAL_FILE);
+    if (layout == null || layout.getTable() != table) {
+      layout = new WarehouseLayout(table);
+    }
+    return layout;
+  }
+
+  /**
+   * Return the route planner used by optimize.
+   * 
+   * @return routePlanner
+   */
+  public static RoutePlanner getRoutePlanner() {
+    return routePlanner;
+  }
+
+  /**
+   * Set the route planner used by optimize.
+   * 
+   * @param planner The new route planner.
+   */
+  public static void setRoutePlanner(RoutePlanner planner) {
+    routePlanner = planner;
+  }
+
   /**
    * Return the ArrayList of sorted skus. For our skus, change the String skus to Integers and
    * sorted in increasing order.
@@ -57,18 +104,13 @@ public class WarehousePicking {
   }
 
   /**
-   * Read the traversal_table.csv to initial the Maps.
+   * Read the traversal_table.csv again so that the next optimize uses the latest locations. The
+   * table is otherwise read once and shared by every call to optimize.
    * 
-   * @throws IOException For readFile
+   * @throws IOException For reload
    */
   public static void readTraversal() throws IOException {
-    ArrayList<String> lines = readFile("traversal_table.csv");
-    for (String line : lines) {
-      String[] lineContent = line.split(",", 5);
-      String location = line.substring(0, 7);
-      String sku = lineContent[4];
-      skuToLocation.put(sku, location);
-    }
+    TraversalTable.reload(TRAVERSAL_FILE);
   }
 
   /**
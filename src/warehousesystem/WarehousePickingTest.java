@@ -32,4 +32,33 @@ public class WarehousePickingTest {
     assertEquals(output, WarehousePicking.optimize(skus));
   }
 
+  @Test
+  public void testSetRoutePlanner() throws IOException {
+    ArrayList<String> skus = new ArrayList<>();
+    skus.add("13");
+    skus.add("1");
+    skus.add("21");
+    skus.add("9");
+    ArrayList<String> output = new ArrayList<>();
+    output.add("A,0,0,0" + ",1");
+    output.add("A,0,2,0" + ",9");
+    output.add("A,1,2,0" + ",21");
+    output.add("A,1,0,0" + ",13");
+
+    WarehousePicking.setRoutePlanner(new SShapeRoutePlanner());
+    try {
+      assertEquals(output, WarehousePicking.optimize(skus));
+    } finally {
+      WarehousePicking.setRoutePlanner(new SkuOrderRoutePlanner());
+    }
+  }
+
+  @Test
+  public void testRouteDistance() throws IOException {
+    ArrayList<String> skus = new ArrayList<>();
+    skus.add("1");
+    skus.add("2");
+    assertEquals(2.0, WarehousePicking.routeDistance(skus), 1e-9);
+  }
+
 }
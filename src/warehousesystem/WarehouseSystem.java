@@ -1,11 +1,17 @@
 package warehousesystem;
 
 import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.util.ArrayDeque;
 import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.LinkedHashSet;
 import java.util.Map;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.function.Supplier;
 import java.util.logging.ConsoleHandler;
-import java.util.logging.FileHandler;
+import java.util.logging.Handler;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
@@ -19,24 +25,44 @@ public class WarehouseSystem {
   private BarcodeReaderFactory brFactory;
   /** The translations map of color and model of van to the sku numbers of van. */
   private HashMap<String, String[]> translations;
-  /** The list of picking requests in the system. */
-  private ArrayList<PickingRequest> prList = new ArrayList<>();
-  /** The list of picking requests need to be processed in the system. */
-  private ArrayList<PickingRequest> pendingPrList = new ArrayList<>();
-  /** The list of barcode readers in the system. */
-  private ArrayList<BarcodeReader> brList = new ArrayList<>();
-  /** The list of barcode readers need to be processed in the system. */
-  private ArrayList<BarcodeReader> pendingBrList = new ArrayList<>();
-  /** The list of replenish request need to be processed in the system. */
-  private ArrayList<String> replenishRequest = new ArrayList<>();
-  /** The list of picking request that is finished in the system. */
-  private ArrayList<PickingRequest> completedPrList = new ArrayList<>();
-  /** The list of all workers' names in the system. Assume that each worker has a unique name. */
-  private ArrayList<String> workerNames = new ArrayList<>();
+  /**
+   * The picking requests in the system that are not finished yet, in the order they entered the
+   * system. A picking request is removed once it is finished.
+   */
+  private LinkedHashSet<PickingRequest> prList = new LinkedHashSet<>();
+  /**
+   * The picking requests in the system that have not been loaded yet, in the order they must be
+   * loaded. Loaded picking requests are removed from the front as the loading moves on.
+   */
+  private ArrayDeque<PickingRequest> loadSequence = new ArrayDeque<>();
+  /** The picking requests waiting for a worker, queued by status. */
+  private PendingRequestQueues pendingRequests = new PendingRequestQueues();
+  /** The barcode readers of all workers on shift in the system, indexed by worker name. */
+  private WorkerRegistry workers = new WorkerRegistry();
+  /** The barcode readers of the idle workers in the system, queued by role. */
+  private IdleWorkerPool idleWorkers = new IdleWorkerPool();
+  /** The replenish requests that need to be processed in the system, most urgent first. */
+  private ReplenishmentQueue replenishRequest;
+  /** The order sink that records the orders of every picking request once it is loaded. */
+  private OrderSink orderSink = new ListOrderSink();
   /** The logger of this system. */
   private static final Logger logger = Logger.getLogger("Warehouse System Logger");
   /** The console handler of this system. */
   private ConsoleHandler consoleHandler;
+  /** The file handler of this system. */
+  private Handler fileHandler;
+  /** The handler that writes log records on a background thread, or null if logging is sync. */
+  private AsyncLogHandler asyncHandler;
+  /** The listener every instruction sent to a scanner is passed to, or null. */
+  private InstructionListener instructionListener;
+  /** The greatest number of waiting picking requests a picker is given to pick in one route. */
+  private int batchSize = 1;
+  /** The journal every change of status of a picking request is appended to, or null. */
+  private EventJournal journal;
+  /** The number of changes of status of picking requests made by this system. */
+  private long transitionCount;
+  /** The number of picking requests of this system with each status, by ordinal. */
+  private AtomicIntegerArray statusCounts = new AtomicIntegerArray(RequestStatus.values().length);
 
   /**
    * Initialize a new WareHouseSystem with the translations map, the inventory map, the file handler
@@ -44,13 +70,14 @@ public class WarehouseSystem {
    * 
    * @param translations The translations map for warehouse system.
    * @param inventory The initial inventory for warehouse system.
-   * @param handler The file handler for warehouse system.
+   * @param handler The handler that writes the log file for warehouse system.
    * @param formatter The custom formatter for warehouse system.
    */
   public WarehouseSystem(HashMap<String, String[]> translations, HashMap<String, Integer> inventory,
-      FileHandler handler, CustomFormatter formatter) {
+      Handler handler, CustomFormatter formatter) {
     orderManager = new OrderManager(this);
     storageManager = new StorageManager(this, inventory);
+    replenishRequest = new ReplenishmentQueue(storageManager.getInventory().getIndex());
     brFactory = new BarcodeReaderFactory(this);
     this.translations = translations;
 
@@ -61,9 +88,40 @@ public class WarehouseSystem {
     consoleHandler.setFormatter(formatter);
     logger.addHandler(consoleHandler);
     logger.addHandler(handler);
+    fileHandler = handler;
     logger.config("SYSTEM: Logging System Initialized");
   }
 
+  /**
+   * Write the log records of this system on a background thread instead of the thread that logs
+   * them, so that logging does not hold up the simulation. The records are still written to the
+   * console and the log file in the order they were logged.
+   * 
+   * @param capacity The greatest number of log records waiting to be written.
+   * @param policy What to do with a log record when capacity records are waiting.
+   * @param sampleRate With the SAMPLE policy, one in this many log records that find the queue
+   *        full is kept.
+   */
+  public void enableAsyncLogging(int capacity, AsyncLogHandler.OverflowPolicy policy,
+      int sampleRate) {
+    if (asyncHandler != null) {
+      return;
+    }
+    logger.removeHandler(consoleHandler);
+    logger.removeHandler(fileHandler);
+    asyncHandler = new AsyncLogHandler(capacity, policy, sampleRate, consoleHandler, fileHandler);
+    logger.addHandler(asyncHandler);
+  }
+
+  /**
+   * Wait until every log record logged so far has been written, and flush the log handlers.
+   */
+  public void flushLog() {
+    Handler handler = asyncHandler != null ? asyncHandler : fileHandler;
+    handler.flush();
+    consoleHandler.flush();
+  }
+
   /**
    * Update orderManager by receiving one new Order.
    * 
@@ -74,67 +132,74 @@ public class WarehouseSystem {
   public void receiveOrder(String color, String model) throws IOException {
     String[] skuNumbers = translations.get(color + model);
     orderManager.receiveOrder(color, model, skuNumbers[0], skuNumbers[1]);
-    this.logInfo("EVENT: Order Received - " + color + ", " + model);
+    this.logInfo(() -> "EVENT: Order Received - " + color + ", " + model);
   }
 
   /**
    * Process the picking request. If there is someone available to do the next step of the picking
-   * request, give this picking request to the worker. Otherwise, put the picking request to pending
-   * picking request list and put the re-pick picking request at the very front of the pending
-   * picking request list. Finally, put the picking request to prList in the system if system do not
-   * have this picking request.
+   * request, give this picking request to the worker that has been idle the longest. Otherwise, put
+   * the picking request in the pending queue of its status and put the re-pick picking request at
+   * the very front of the waiting queue. Finally, put the picking request to prList in the system
+   * if system do not have this picking request, or remove it from prList once it is finished.
    * 
    * @param pr The picking request that need to be processed.
    */
   public void processPr(PickingRequest pr) {
     // Check if there is someone available for this picking request <pr>.
-    String status = pr.getStatus();
-    if (status.equals("Waiting")) {
-      for (BarcodeReader br : pendingBrList) {
-        if (br instanceof PickerBarcodeReader) {
+    RequestStatus status = pr.getStatus();
+    if (status != RequestStatus.FINISHED && !prList.contains(pr)) {
+      statusCounts.incrementAndGet(status.ordinal());
+    }
+    BarcodeReader br;
+    switch (status) {
+      case WAITING:
+        br = idleWorkers.poll(WorkerRole.PICKER);
+        if (br != null) {
           br.setPickingRequest(pr);
-          pendingBrList.remove(br);
-          pr.setStatus("Picking");
-          this.logInfo("SIM: Picker " + br.getUser() + " picking request " + pr.getId());
-          break;
+          changeStatus(pr, RequestStatus.PICKING);
+          this.logInfo(() -> "SIM: Picker " + br.getUser() + " picking request " + pr.getId());
         }
-      }
-    } else if (status.equals("Picked")) {
-      for (BarcodeReader br : pendingBrList) {
-        if (br instanceof SequencerBarcodeReader) {
+        break;
+      case PICKED:
+        br = idleWorkers.poll(WorkerRole.SEQUENCER);
+        if (br != null) {
           br.setPickingRequest(pr);
-          pendingBrList.remove(br);
-          pr.setStatus("Sequencing");
-          this.logInfo("SIM: Sequencer " + br.getUser() + " sequencing request " + pr.getId());
-          break;
+          changeStatus(pr, RequestStatus.SEQUENCING);
+          this.logInfo(() -> "SIM: Sequencer " + br.getUser() + " sequencing request "
+              + pr.getId());
         }
-      }
-    } else if (status.equals("Sequenced")) {
-      for (BarcodeReader br : pendingBrList) {
-        if (br instanceof LoaderBarcodeReader & isNextPRtoLoad(pr)) {
+        break;
+      case SEQUENCED:
+        if (idleWorkers.size(WorkerRole.LOADER) > 0 && isNextPRtoLoad(pr)) {
+          br = idleWorkers.poll(WorkerRole.LOADER);
           br.setPickingRequest(pr);
-          pendingBrList.remove(br);
-          pr.setStatus("Loading");
-          this.logInfo("SIM: Loader " + br.getUser() + " loading request " + pr.getId());
-          break;
+          changeStatus(pr, RequestStatus.LOADING);
+          this.logInfo(() -> "SIM: Loader " + br.getUser() + " loading request " + pr.getId());
         }
-      }
-    } else if (status.equals("Loaded")) {
-      this.logInfo("SIM: Request " + pr.getId() + " Completed");
-      pr.setStatus("Finished");
+        break;
+      case LOADED:
+        this.logInfo(() -> "SIM: Request " + pr.getId() + " Completed");
+        changeStatus(pr, RequestStatus.FINISHED);
+        prList.remove(pr);
+        break;
+      default:
+        break;
     }
-    // If the picking request is already in the prList and is still waiting, put this picking
-    // request to the front of the pendingPRList so that it will be picked first.
-    if (prList.contains(pr) & status.equals("Waiting")) {
-      pendingPrList.add(0, pr);
-    } else if (status == pr.getStatus()) {
-      // If the picking request <pr> is not assign to anyone, then put it in the pendingPRList.
-      pendingPrList.add(pr);
+    if (status == pr.getStatus()) {
+      // If the picking request <pr> is already in the prList and is still waiting, it is a re-pick
+      // and goes to the front of its queue so that it will be picked first. Otherwise, if it is
+      // not assign to anyone, put it at the back of its queue.
+      if (status == RequestStatus.WAITING && prList.contains(pr)) {
+        pendingRequests.offerFirst(pr);
+      } else {
+        pendingRequests.offer(pr);
+      }
     }
 
     // Add the picking request <pr> to the prList.
-    if (!prList.contains(pr)) {
-      prList.add(pr);
+    if (pr.getStatus() != RequestStatus.FINISHED && prList.add(pr)) {
+      loadSequence.addLast(pr);
+      addDemand(pr, 1);
     }
   }
 
@@ -144,125 +209,232 @@ public class WarehouseSystem {
    * request to the worker by process the BarcodeReader.
    * 
    * @param workerType The worker type of the worker used to create a new BarcodeReader.
-   * @param name The name of the worker. It should not equals to any existing name in workerNames.
+   * @param name The name of the worker. It should not equals to any other worker's name.
    */
   public void workerReady(String workerType, String name) {
     // Check if the worker is already exist, if exist, process this BarcodeReader.
-    if (workerNames.contains(name)) {
-      BarcodeReader br = brList.get(workerNames.indexOf(name));
+    BarcodeReader br = workers.get(name);
+    if (br != null) {
       if (br instanceof ReplenisherBarcodeReader) {
         // Check if the replenisher has work or not.
         if ((((ReplenisherBarcodeReader) br)).getSku().equals("0")) {
-          this.logInfo("EVENT: New " + workerType + " " + name + " starting shift");
+          this.logInfo(() -> "EVENT: New " + workerType + " " + name + " starting shift");
           processBr(br);
         } else {
-          this.logWarning(
-              "SIM: " + workerType + " " + name + " has not completed current assigned work");
+          this.logWarning(() -> "SIM: " + workerType + " " + name
+              + " has not completed current assigned work");
         }
       } else {
         // Check if the worker has work or not.
         if (br.getPickingRequest() == null) {
-          this.logInfo("EVENT: New " + workerType + " " + name + " starting shift");
+          this.logInfo(() -> "EVENT: New " + workerType + " " + name + " starting shift");
           processBr(br);
         } else {
-          this.logWarning(
-              "SIM: " + workerType + " " + name + " has not completed current assigned work");
+          this.logWarning(() -> "SIM: " + workerType + " " + name
+              + " has not completed current assigned work");
         }
       }
     } else {
       // If the worker do not exist, create a new br and process it.
-      BarcodeReader br = brFactory.getBarcodeReader(workerType, name);
+      br = brFactory.getBarcodeReader(workerType, name);
       // Check if the workerType is valid.
       if (br != null) {
-        brList.add(br);
-        workerNames.add(name);
-        this.logInfo("EVENT: New " + workerType + " " + name + " starting shift");
+        workers.register(br);
+        this.logInfo(() -> "EVENT: New " + workerType + " " + name + " starting shift");
         processBr(br);
       } else {
-        this.logWarning("EVENT: " + workerType + " " + name + " is not valid");
+        this.logWarning(() -> "EVENT: " + workerType + " " + name + " is not valid");
       }
     }
   }
 
   /**
    * Process the BarcodeReader. If there is some picking request or replenish request available for
-   * the correct kind of BarcodeReader, give it to the worker. Otherwise, put the BarcodeReader to
-   * pending BarcodeReader list.
+   * the correct kind of BarcodeReader, give it to the worker. When the batch size is more than one,
+   * a picker is given several waiting picking requests to pick in one route. Otherwise, put the
+   * BarcodeReader in the idle queue of its role.
    * 
    * @param br The BarcodeReader that need to be processed.
    */
   public void processBr(BarcodeReader br) {
     // Check if there is some picking request available for this worker with br as BarcodeReader.
-    if (br instanceof PickerBarcodeReader) {
-      for (PickingRequest pr : pendingPrList) {
-        if (pr.getStatus().equals("Waiting")) {
-          this.logInfo("SIM: System sending request " + pr.getId() + " to Picker " + br.getUser()
-              + "'s Barcode Scanner");
-          br.setPickingRequest(pr);
-          pendingPrList.remove(pr);
-          pr.setStatus("Picking");
-          break;
-        }
+    if (br instanceof PickerBarcodeReader && batchSize > 1) {
+      processBatch((PickerBarcodeReader) br);
+    }
+    if (br instanceof PickerBarcodeReader && br.getPickingRequest() == null) {
+      if (pendingRequests.peek(RequestStatus.WAITING) == null) {
+        flushForIdlePicker(br);
+      }
+      PickingRequest pr = pendingRequests.poll(RequestStatus.WAITING);
+      if (pr != null) {
+        this.logInfo(() -> "SIM: System sending request " + pr.getId() + " to Picker "
+            + br.getUser() + "'s Barcode Scanner");
+        br.setPickingRequest(pr);
+        changeStatus(pr, RequestStatus.PICKING);
       }
     } else if (br instanceof SequencerBarcodeReader) {
-      for (PickingRequest pr : pendingPrList) {
-        if (pr.getStatus().equals("Picked")) {
-          this.logInfo("SIM: System sending request " + pr.getId() + " to Sequencer " + br.getUser()
-              + "'s Barcode Scanner");
-          br.setPickingRequest(pr);
-          pendingPrList.remove(pr);
-          pr.setStatus("Sequencing");
-          break;
-        }
+      PickingRequest pr = pendingRequests.poll(RequestStatus.PICKED);
+      if (pr != null) {
+        this.logInfo(() -> "SIM: System sending request " + pr.getId() + " to Sequencer "
+            + br.getUser() + "'s Barcode Scanner");
+        br.setPickingRequest(pr);
+        changeStatus(pr, RequestStatus.SEQUENCING);
       }
     } else if (br instanceof LoaderBarcodeReader) {
-      for (PickingRequest pr : pendingPrList) {
-        if (pr.getStatus().equals("Sequenced")) {
-          this.logInfo("SIM: System sending request " + pr.getId() + " to Loader " + br.getUser()
-              + "'s Barcode Scanner");
-          br.setPickingRequest(pr);
-          pendingPrList.remove(pr);
-          pr.setStatus("Loading");
-          break;
-        }
+      // Only the picking request that is next to load can be handed to a loader.
+      PickingRequest pr = pendingRequests.peek(RequestStatus.SEQUENCED);
+      if (pr != null && isNextPRtoLoad(pr)) {
+        pendingRequests.poll(RequestStatus.SEQUENCED);
+        this.logInfo(() -> "SIM: System sending request " + pr.getId() + " to Loader "
+            + br.getUser() + "'s Barcode Scanner");
+        br.setPickingRequest(pr);
+        changeStatus(pr, RequestStatus.LOADING);
       }
     } else if (br instanceof ReplenisherBarcodeReader) {
       if (replenishRequest.size() > 0) {
-        ((ReplenisherBarcodeReader) br).setSku(replenishRequest.remove(0));
-        this.logInfo(
-            "SIM: System sending replenish request to " + br.getUser() + "'s Barcode Scanner");
+        ((ReplenisherBarcodeReader) br).setSku(replenishRequest.poll());
+        this.logInfo(() -> "SIM: System sending replenish request to " + br.getUser()
+            + "'s Barcode Scanner");
         ((ReplenisherBarcodeReader) br).getNextStep();
       } else {
-        pendingBrList.add(br);
-        this.logInfo("SIM: System sending wait status request to replenisher " + br.getUser()
+        idleWorkers.offer(br);
+        this.logInfo(() -> "SIM: System sending wait status request to replenisher " + br.getUser()
             + "'s Barcode Scanner");
+        br.instruct(new ScannerInstruction(ScannerInstruction.Kind.WAIT, (String) null));
       }
     }
 
-    // If the worker with BarcodeReader do not find any request, then put it in the pendingBRList.
+    // If the worker with BarcodeReader do not find any request, then put it in the idle queue.
     if (!(br instanceof ReplenisherBarcodeReader) & br.getPickingRequest() == null) {
-      pendingBrList.add(br);
-      this.logInfo("SIM: System sending wait status request to Worker " + br.getUser()
+      idleWorkers.offer(br);
+      this.logInfo(() -> "SIM: System sending wait status request to Worker " + br.getUser()
           + "'s Barcode Scanner");
+      br.instruct(new ScannerInstruction(ScannerInstruction.Kind.WAIT, (String) null));
+    }
+  }
+
+  /**
+   * Make a picking request of the pending orders if the oldest of them has waited for the longest
+   * time the batching policy of the order manager allows. Since this is driven by the clock and
+   * not by an input event, the flush is appended to the journal, if there is one, so that a replay
+   * makes the same picking requests.
+   * 
+   * @return true iff a picking request was made.
+   * @throws IOException for appendOrdersFlushed and flush
+   */
+  public boolean flushDueOrders() throws IOException {
+    if (!orderManager.isFlushDue()) {
+      return false;
+    }
+    if (journal != null) {
+      journal.appendOrdersFlushed();
+    }
+    orderManager.flush();
+    return true;
+  }
+
+  /**
+   * Make full picking requests of the pending orders while enough are pending, as when the input
+   * has ended, so that orders held for a batching window larger than the request size are picked.
+   * Each request is appended to the journal, if there is one, like a flush of due orders.
+   * 
+   * @return The number of picking requests made.
+   * @throws IOException for appendOrdersFlushed and flush
+   */
+  public int flushFullRequests() throws IOException {
+    int requests = 0;
+    int size = orderManager.getPolicy().getSize();
+    while (orderManager.getPendingOrders().size() >= size) {
+      if (journal != null) {
+        journal.appendOrdersFlushed();
+      }
+      orderManager.flush();
+      requests++;
+    }
+    return requests;
+  }
+
+  /**
+   * Let the order manager make a partial picking request of its pending orders for a picker that
+   * has no waiting picking request, if its batching policy allows it.
+   * 
+   * @param br The BarcodeReader of the picker.
+   */
+  private void flushForIdlePicker(BarcodeReader br) {
+    try {
+      orderManager.pickerIdle();
+    } catch (IOException e) {
+      this.logWarning(() -> "SIM: System could not plan a partial request for Picker "
+          + br.getUser());
     }
   }
 
+  /**
+   * Give the picker up to batchSize waiting picking requests to pick in a single route. If there
+   * are fewer than two waiting picking requests, the picker is not given a batch.
+   * 
+   * @param br The PickerBarcodeReader of the picker.
+   */
+  private void processBatch(PickerBarcodeReader br) {
+    if (pendingRequests.size(RequestStatus.WAITING) < 2) {
+      return;
+    }
+    ArrayList<PickingRequest> requests = new ArrayList<>();
+    while (requests.size() < batchSize) {
+      PickingRequest pr = pendingRequests.poll(RequestStatus.WAITING);
+      if (pr == null) {
+        break;
+      }
+      requests.add(pr);
+    }
+    if (requests.size() < 2) {
+      // The queue held picking requests that had changed status, so there is no batch to give.
+      for (PickingRequest pr : requests) {
+        pendingRequests.offerFirst(pr);
+      }
+      return;
+    }
+    PickingBatch batch;
+    try {
+      batch = new PickingBatch(requests);
+    } catch (IOException e) {
+      this.logWarning(() -> "SIM: System could not plan a batch for Picker " + br.getUser());
+      for (int i = requests.size() - 1; i >= 0; i--) {
+        pendingRequests.offerFirst(requests.get(i));
+      }
+      return;
+    }
+    StringBuilder ids = new StringBuilder();
+    for (PickingRequest pr : requests) {
+      ids.append(ids.length() == 0 ? "" : ", ").append(pr.getId());
+      changeStatus(pr, RequestStatus.PICKING);
+    }
+    this.logInfo(() -> "SIM: System sending requests " + ids + " to Picker " + br.getUser()
+        + "'s Barcode Scanner as one batch with estimated route of " + batch.getEstimatedDistance()
+        + "m");
+    br.setBatch(batch);
+  }
+
   /**
    * Scan the sku number by the worker. If the picker scan an SKU, remember to minus one in the
    * storage and check if there is less than five fascia exist.
    * 
    * @param workerType The worker type of the worker.
-   * @param name The name of the worker. It should not equals to any existing name in workerNames.
+   * @param name The name of the worker on shift.
    * @param sku The sku number scan by the worker.
    */
   public void scan(String workerType, String name, String sku) {
-    BarcodeReader br = brList.get(workerNames.indexOf(name));
+    BarcodeReader br = findWorker(workerType, name);
+    if (br == null) {
+      return;
+    }
     br.scan(sku);
     if (workerType.equals("Picker")) {
       storageManager.pickFascia(sku);
+      replenishRequest.updateStock(sku, storageManager.getAmount(sku));
       if (storageManager.levelEmpty(sku)) {
-        this.logWarning("SIM: System sending wait request to " + workerType + " " + br.getUser()
-            + "'s Barcode Scanner since there are no available fascias in level.");
+        this.logWarning(() -> "SIM: System sending wait request to " + workerType + " "
+            + br.getUser() + "'s Barcode Scanner since there are no available fascias in level.");
       }
     }
   }
@@ -273,39 +445,74 @@ public class WarehouseSystem {
    * Otherwise, the worker checks if the wrong order is due to some human mistakes.
    * 
    * @param workerType The worker type of the worker.
-   * @param name The name of the worker. It should not equals to any existing name in workerNames.
+   * @param name The name of the worker on shift.
    * @param sku The sku number scan by the worker.
    */
   public void rescan(String workerType, String name, String sku) {
-    BarcodeReader br = brList.get(workerNames.indexOf(name));
+    BarcodeReader br = findWorker(workerType, name);
+    if (br == null) {
+      return;
+    }
     if (br instanceof PickerBarcodeReader) {
-      this.logWarning("SIM: " + workerType + " " + name + " put " + sku + " back");
+      if (br.scannedSku.isEmpty()) {
+        this.logWarning(() -> "SIM: " + workerType + " " + name + " has no fascia to put back");
+        return;
+      }
+      this.logWarning(() -> "SIM: " + workerType + " " + name + " put " + sku + " back");
       storageManager.putFasciaBack(sku);
+      replenishRequest.updateStock(sku, storageManager.getAmount(sku));
       br.scannedSku.remove(br.scannedSku.size() - 1);
     } else if (br instanceof ReplenisherBarcodeReader) {
-      this.logWarning("SIM: " + workerType + " " + name + " replenishs " + sku + " again");
+      this.logWarning(() -> "SIM: " + workerType + " " + name + " replenishs " + sku + " again");
       br.scan(sku);
+    } else if (br.getPickingRequest() == null) {
+      this.logWarning(() -> "SIM: " + workerType + " " + name
+          + " has no picking request to rescan");
     } else {
       br.scannedSku = new ArrayList<>();
-      this.logWarning("SIM: " + workerType + " " + name + " rescans picking request"
+      this.logWarning(() -> "SIM: " + workerType + " " + name + " rescans picking request"
           + br.getPickingRequest().getId());
     }
   }
 
   /**
-   * Discard the eight fascias and re-pick the eight fascias by the free picker.
+   * Discard the fascias of the picking request and re-pick them by the free picker. A picker
+   * picking a batch discards every picking request of the batch.
    * 
    * @param workerType The worker type of the worker.
-   * @param name The name of the worker. It should not equals to any existing name in workerNames.
+   * @param name The name of the worker on shift.
    * @throws IOException for findFasciaLocation
    */
   public void discard(String workerType, String name) throws IOException {
-    BarcodeReader br = brList.get(workerNames.indexOf(name));
+    BarcodeReader br = findWorker(workerType, name);
+    if (br == null) {
+      return;
+    }
     PickingRequest pr = br.getPickingRequest();
-    this.logWarning("SIM: " + workerType + " " + name + " discards picking request" + pr.getId());
-    pr.setStatus("Waiting");
-    pr.findFasciaLocation();
-    processPr(pr);
+    if (pr == null) {
+      this.logWarning(() -> "SIM: " + workerType + " " + name
+          + " has no picking request to discard");
+      return;
+    }
+    ArrayList<PickingRequest> requests = new ArrayList<>();
+    if (br instanceof PickerBarcodeReader && ((PickerBarcodeReader) br).getBatch() != null) {
+      requests.addAll(((PickerBarcodeReader) br).getBatch().getRequests());
+    } else {
+      requests.add(pr);
+    }
+    for (PickingRequest discarded : requests) {
+      if (discarded.getStatus() != RequestStatus.WAITING
+          && !discarded.getStatus().canTransitionTo(RequestStatus.WAITING)) {
+        this.logWarning(() -> "SIM: " + workerType + " " + name + " cannot discard "
+            + discarded.getStatus() + " picking request " + discarded.getId());
+        continue;
+      }
+      this.logWarning(() -> "SIM: " + workerType + " " + name + " discards picking request"
+          + discarded.getId());
+      changeStatus(discarded, RequestStatus.WAITING);
+      discarded.findFasciaLocation();
+      processPr(discarded);
+    }
   }
 
   /**
@@ -313,87 +520,170 @@ public class WarehouseSystem {
    * for the worker to null.
    * 
    * @param workerType The worker type of the worker.
-   * @param name The name of the worker. It should not equals to any existing name in workerNames.
+   * @param name The name of the worker on shift.
    * @throws IOException for replenishAmount and updateOrder
    */
   public void workerFinished(String workerType, String name) throws IOException {
-    BarcodeReader br = brList.get(workerNames.indexOf(name));
+    BarcodeReader br = findWorker(workerType, name);
+    if (br == null) {
+      return;
+    }
 
-    if (workerType.equals("Replenisher")) {
+    if (br instanceof ReplenisherBarcodeReader) {
       String sku = ((ReplenisherBarcodeReader) br).getSku();
+      if (!sku.equals("0")) {
+        ((ReplenisherBarcodeReader) br).setAisle(aisleOf(sku));
+      }
       if (br.scannedSku.size() == 1) {
         replenishAmount(sku);
-        this.logInfo("SIM: System confirms SKU " + sku + " replenished by " + name);
+        this.logInfo(() -> "SIM: System confirms SKU " + sku + " replenished by " + name);
       } else {
-        this.logWarning("SIM: System rejects SKU " + sku + " replenished by " + name);
-        replenishRequest.add(sku);
+        this.logWarning(() -> "SIM: System rejects SKU " + sku + " replenished by " + name);
+        replenishRequest.offer(sku, storageManager.getAmount(sku));
       }
       if (replenishRequest.size() > 0) {
-        ((ReplenisherBarcodeReader) br).setSku(replenishRequest.remove(0));
+        String next = replenishRequest.poll();
+        ((ReplenisherBarcodeReader) br).setSku(next);
+        br.instruct(new ScannerInstruction(ScannerInstruction.Kind.REPLENISH, next));
       } else {
         ((ReplenisherBarcodeReader) br).setSku("0");
+        idleWorkers.offer(br);
+        br.instruct(new ScannerInstruction(ScannerInstruction.Kind.WAIT, (String) null));
       }
+    } else if (br.getPickingRequest() == null) {
+      this.logWarning(() -> "SIM: " + workerType + " " + name + " has no assigned work to finish");
     } else {
-      PickingRequest pr = br.getPickingRequest();
-      if (pr.getStatus().equals("Waiting")) {
-        this.logInfo("SIM: System setting picking request " + pr.getId() + " to hold");
-      } else if (workerType.equals("Picker")) {
-        pr.setStatus("Picked");
-        this.logInfo(
-            "SIM: System confirms Picker " + name + " has finished picking request " + pr.getId());
-      } else if (workerType.equals("Sequencer")) {
-        pr.setStatus("Sequenced");
-        this.logInfo("SIM: System confirms Sequencer " + name + " has finished sequencing request "
-            + pr.getId());
-      } else if (workerType.equals("Loader")) {
-        pr.setStatus("Loaded");
-        this.logInfo(
-            "SIM: System confirms Loader " + name + " has finished loading request " + pr.getId());
-        updateOrder(pr);
+      ArrayList<PickingRequest> requests = new ArrayList<>();
+      if (br instanceof PickerBarcodeReader && ((PickerBarcodeReader) br).getBatch() != null) {
+        requests.addAll(((PickerBarcodeReader) br).getBatch().getRequests());
+      } else {
+        requests.add(br.getPickingRequest());
+      }
+      WorkerRole role = WorkerRole.of(br);
+      RequestStatus working = role.getWorkingStatus();
+      for (PickingRequest pr : requests) {
+        if (pr.getStatus() != working) {
+          // The picking request was discarded and is already queued to be picked again.
+          this.logInfo(() -> "SIM: System setting picking request " + pr.getId() + " to hold");
+          continue;
+        }
+        changeStatus(pr, working.next());
+        switch (role) {
+          case PICKER:
+            this.logInfo(() -> "SIM: System confirms Picker " + name
+                + " has finished picking request " + pr.getId());
+            break;
+          case SEQUENCER:
+            this.logInfo(() -> "SIM: System confirms Sequencer " + name
+                + " has finished sequencing request " + pr.getId());
+            break;
+          default:
+            this.logInfo(() -> "SIM: System confirms Loader " + name
+                + " has finished loading request " + pr.getId());
+            updateOrder(pr);
+            break;
+        }
+        processPr(pr);
       }
-      processPr(pr);
     }
 
     br.setPickingRequest(null);
   }
 
+  /**
+   * The worker leaves the shift. A worker can only leave once the current assigned work is
+   * finished.
+   * 
+   * @param workerType The worker type of the worker.
+   * @param name The name of the worker on shift.
+   */
+  public void workerLeft(String workerType, String name) {
+    BarcodeReader br = findWorker(workerType, name);
+    if (br == null) {
+      return;
+    }
+    boolean busy;
+    if (br instanceof ReplenisherBarcodeReader) {
+      busy = !((ReplenisherBarcodeReader) br).getSku().equals("0");
+    } else {
+      busy = br.getPickingRequest() != null;
+    }
+    if (busy) {
+      this.logWarning(() -> "SIM: " + workerType + " " + name
+          + " has not completed current assigned work");
+    } else {
+      workers.remove(name);
+      idleWorkers.remove(br);
+      this.logInfo(() -> "EVENT: " + workerType + " " + name + " ending shift");
+    }
+  }
+
+  /**
+   * Return the BarcodeReader of the worker with the name, or log a warning and return null if the
+   * worker is not on shift.
+   * 
+   * @param workerType The worker type of the worker.
+   * @param name The name of the worker.
+   * @return The BarcodeReader of the worker, or null.
+   */
+  private BarcodeReader findWorker(String workerType, String name) {
+    BarcodeReader br = workers.get(name);
+    if (br == null) {
+      this.logWarning(() -> "SIM: " + workerType + " " + name + " is not on shift");
+    }
+    return br;
+  }
+
   /**
    * Return true if and only if the picking request picking request is the one that need to be
-   * loaded next to make sure that the picking requests are in correct order.
+   * loaded next to make sure that the picking requests are in correct order. Picking requests at
+   * the front of loadSequence that have been loaded are removed first, so each picking request is
+   * passed over only once.
    * 
    * @param pr The picking request that need to be checked.
    * @return true iff picking request is the one that need to be loaded next.
    */
   public boolean isNextPRtoLoad(PickingRequest pr) {
-    PickingRequest pickingRequest = prList.get(0);
-    int index = 0;
-    System.out.println(pickingRequest.getStatus());
-    while (pickingRequest.getStatus().equals("Loaded")) {
-      index += 1;
-      pickingRequest = prList.get(index);
+    PickingRequest next = loadSequence.peekFirst();
+    while (next != null && (next.getStatus() == RequestStatus.LOADED
+        || next.getStatus() == RequestStatus.FINISHED)) {
+      loadSequence.pollFirst();
+      next = loadSequence.peekFirst();
     }
-    return prList.get(index) == pr;
+    return next == pr;
   }
 
   /**
-   * Request resupplier to re-supply 25 fasicas with sku number.
+   * Request resupplier to re-supply fasicas with sku number. The idle replenisher closest to the
+   * level is sent to it at once. Otherwise the request is queued by urgency, unless the sku is
+   * already queued.
    * 
    * @param sku The sku number that is going to re-supply.
    */
   public void requestResupply(String sku) {
-    boolean replenisherExist = false;
-    for (BarcodeReader br : brList) {
-      if (br instanceof ReplenisherBarcodeReader) {
-        if (((ReplenisherBarcodeReader) br).getSku().equals("0")) {
-          replenisherExist = true;
-          ((ReplenisherBarcodeReader) br).setSku(sku);
-          ((ReplenisherBarcodeReader) br).getNextStep();
-          break;
-        }
-      }
+    BarcodeReader br = idleWorkers.pollReplenisher(aisleOf(sku));
+    if (br != null) {
+      ((ReplenisherBarcodeReader) br).setSku(sku);
+      ((ReplenisherBarcodeReader) br).getNextStep();
+      return;
     }
-    if (!(replenisherExist & replenishRequest.contains(sku))) {
-      replenishRequest.add(sku);
+    replenishRequest.offer(sku, storageManager.getAmount(sku));
+  }
+
+  /**
+   * Return the index of the aisle of the sku, counting aisles across all zones, or 0 if the sku
+   * cannot be found in the layout of the warehouse.
+   * 
+   * @param sku The sku.
+   * @return The index of the aisle of the sku.
+   */
+  private int aisleOf(String sku) {
+    try {
+      WarehouseLayout layout = WarehousePicking.getLayout();
+      return layout.getLocation(sku) == null ? 0 : layout.getAisle(sku);
+    } catch (IOException e) {
+      this.logWarning(() -> "SIM: System could not find the aisle of SKU " + sku);
+      return 0;
     }
   }
 
@@ -407,13 +697,69 @@ public class WarehouseSystem {
   }
 
   /**
-   * If loader finished work, update the order.csv file with the picking request load by the loader.
+   * Change the status of the picking request and append the change to the journal, if there is
+   * one. A journal that cannot be written is logged as a warning, and the change is still made.
+   * When the picking of a request starts, the order manager records how long its orders waited.
+   * 
+   * @param pr The picking request.
+   * @param status The new status of the picking request.
+   */
+  private void changeStatus(PickingRequest pr, RequestStatus status) {
+    if (status == pr.getStatus()) {
+      return;
+    }
+    if (isUnpicked(pr.getStatus()) != isUnpicked(status)) {
+      addDemand(pr, isUnpicked(status) ? 1 : -1);
+    }
+    statusCounts.decrementAndGet(pr.getStatus().ordinal());
+    pr.setStatus(status);
+    statusCounts.incrementAndGet(status.ordinal());
+    transitionCount++;
+    if (status == RequestStatus.PICKING) {
+      orderManager.pickingStarted(pr);
+    }
+    if (journal != null) {
+      try {
+        journal.appendTransition(pr.getId(), status);
+      } catch (IOException e) {
+        this.logWarning(() -> "SYSTEM: Journal " + journal.getFilePath() + " could not be written: "
+            + e.getMessage());
+      }
+    }
+  }
+
+  /**
+   * Return true if and only if a picking request with the status still has fascias to be picked.
+   * 
+   * @param status The status of the picking request.
+   * @return true iff the status is WAITING or PICKING.
+   */
+  private static boolean isUnpicked(RequestStatus status) {
+    return status == RequestStatus.WAITING || status == RequestStatus.PICKING;
+  }
+
+  /**
+   * Add delta to the demand for each fascia of the picking request, which decides how urgent the
+   * replenish requests of its skus are.
+   * 
+   * @param pr The picking request.
+   * @param delta 1 when the fascias of the picking request are to be picked, -1 once they are.
+   */
+  private void addDemand(PickingRequest pr, int delta) {
+    for (String sku : pr.getCorrectOrder()) {
+      replenishRequest.addDemand(sku, delta);
+    }
+  }
+
+  /**
+   * If loader finished work, update the order.csv file with the picking request load by the loader
+   * by passing it to the order sink.
    * 
    * @param pr The picking request that the loader loads.
    * @throws IOException The IOException
    */
   public void updateOrder(PickingRequest pr) throws IOException {
-    completedPrList.add(pr);
+    orderSink.accept(pr);
   }
 
   /**
@@ -425,6 +771,15 @@ public class WarehouseSystem {
     logger.info(log);
   }
 
+  /**
+   * Log system information by info. The message is only built if info messages are logged.
+   * 
+   * @param log the supplier of the message that the logger should record
+   */
+  public void logInfo(Supplier<String> log) {
+    logger.info(log);
+  }
+
   /**
    * Allows classes to access the system and log system information by config.
    * 
@@ -434,6 +789,15 @@ public class WarehouseSystem {
     logger.config(log);
   }
 
+  /**
+   * Log system information by config. The message is only built if config messages are logged.
+   * 
+   * @param log the supplier of the message that the logger should record
+   */
+  public void logConfig(Supplier<String> log) {
+    logger.config(log);
+  }
+
   /**
    * Allows classes to access the system and log system information by warning.
    * 
@@ -444,12 +808,41 @@ public class WarehouseSystem {
   }
 
   /**
-   * Return the prList in the system after all the event input.
+   * Log system information by warning. The message is only built if warnings are logged.
    * 
-   * @return prList
+   * @param log the supplier of the message that the logger should record
+   */
+  public void logWarning(Supplier<String> log) {
+    logger.warning(log);
+  }
+
+  /**
+   * Return true if and only if messages of the level are logged, so that a caller can skip work
+   * that is only needed for logging.
+   * 
+   * @param level The level of the messages.
+   * @return true iff messages of the level are logged.
+   */
+  public boolean isLoggable(Level level) {
+    return logger.isLoggable(level);
+  }
+
+  /**
+   * Return the picking requests in the system that are not finished yet.
+   * 
+   * @return A new ArrayList of the picking requests in prList.
    */
   public ArrayList<PickingRequest> getPrList() {
-    return prList;
+    return new ArrayList<>(prList);
+  }
+
+  /**
+   * Return the number of picking requests in the system that are not finished yet.
+   * 
+   * @return The size of prList.
+   */
+  public int getLivePrCount() {
+    return prList.size();
   }
 
   /**
@@ -462,12 +855,201 @@ public class WarehouseSystem {
   }
 
   /**
-   * Return the compeletedPrList in the system after all the event input.
+   * Return the loaded picking requests kept in memory by the order sink after all the event input.
+   * If the order sink does not keep them in memory, the list is empty.
    * 
-   * @return completedPrList
+   * @return The loaded picking requests.
    */
   public ArrayList<PickingRequest> outputOrders() {
-    return completedPrList;
+    if (orderSink instanceof ListOrderSink) {
+      return ((ListOrderSink) orderSink).getRequests();
+    }
+    return new ArrayList<>();
+  }
+
+  /**
+   * Return the order sink that records the orders of every loaded picking request.
+   * 
+   * @return orderSink
+   */
+  public OrderSink getOrderSink() {
+    return orderSink;
+  }
+
+  /**
+   * Close the order sink after all the event input, so that every recorded order is saved.
+   * 
+   * @throws IOException for close
+   */
+  public void closeOrderSink() throws IOException {
+    orderSink.close();
+  }
+
+  /**
+   * Set the order sink that records the orders of every loaded picking request.
+   * 
+   * @param orderSink The new order sink.
+   */
+  public void setOrderSink(OrderSink orderSink) {
+    this.orderSink = orderSink;
+  }
+
+  /**
+   * Set the listener every instruction the system sends to the scanner of a worker is passed to,
+   * such as a fleet of simulated scanners.
+   * 
+   * @param instructionListener The listener, or null to pass the instructions to no one.
+   */
+  public void setInstructionListener(InstructionListener instructionListener) {
+    this.instructionListener = instructionListener;
+  }
+
+  /**
+   * Pass an instruction sent to the scanner of a worker to the instruction listener, if there is
+   * one.
+   * 
+   * @param br The BarcodeReader of the worker.
+   * @param instruction The instruction.
+   */
+  public void instruct(BarcodeReader br, ScannerInstruction instruction) {
+    if (instructionListener != null) {
+      instructionListener.instruct(br, instruction);
+    }
+  }
+
+  /**
+   * Return the greatest number of waiting picking requests a picker is given to pick in one route.
+   * 
+   * @return batchSize
+   */
+  public int getBatchSize() {
+    return batchSize;
+  }
+
+  /**
+   * Set the greatest number of waiting picking requests a picker is given to pick in one route. A
+   * batchSize of one gives every picker a single picking request at a time.
+   * 
+   * @param batchSize The new batch size, at least one.
+   */
+  public void setBatchSize(int batchSize) {
+    this.batchSize = Math.max(1, batchSize);
+  }
+
+  /**
+   * Return the journal every change of status of a picking request is appended to.
+   * 
+   * @return journal, or null if there is no journal.
+   */
+  public EventJournal getJournal() {
+    return journal;
+  }
+
+  /**
+   * Set the journal every change of status of a picking request is appended to. The controller
+   * appends its input events to the same journal. The batching policy of the order manager is
+   * appended to it, unless it is already the last policy in the journal.
+   * 
+   * @param journal The new journal, or null to keep no journal.
+   * @throws IOException for appendPolicy
+   */
+  public void setJournal(EventJournal journal) throws IOException {
+    this.journal = journal;
+    if (journal != null) {
+      journal.appendPolicy(orderManager.getPolicy());
+    }
+  }
+
+  /**
+   * Write the journal, if there is one, and close it after all the event input.
+   * 
+   * @throws IOException for close
+   */
+  public void closeJournal() throws IOException {
+    if (journal != null) {
+      journal.close();
+    }
+  }
+
+  /**
+   * Return the number of changes of status of picking requests made by this system.
+   * 
+   * @return transitionCount
+   */
+  public long getTransitionCount() {
+    return transitionCount;
+  }
+
+  /**
+   * Return the number of picking requests of this system that have the status. A picking request
+   * is counted from when it is first processed, and finished ones stay counted as FINISHED.
+   * 
+   * @param status The status to count.
+   * @return The number of picking requests with the status.
+   */
+  public int getStatusCount(RequestStatus status) {
+    return statusCounts.get(status.ordinal());
+  }
+
+  /**
+   * Write the state of this system to a snapshot: the pending orders, the inventory, the picking
+   * requests in flight and their queues, the workers on shift with their picking requests, the
+   * idle workers and the replenish requests. The translations, the log, the order sink and the
+   * journal are not part of the snapshot.
+   * 
+   * @param out The stream of the snapshot.
+   * @throws IOException for ObjectOutputStream
+   */
+  public void writeState(ObjectOutputStream out) throws IOException {
+    out.writeObject(orderManager);
+    out.writeObject(storageManager);
+    out.writeObject(prList);
+    out.writeObject(loadSequence);
+    out.writeObject(pendingRequests);
+    out.writeObject(workers);
+    out.writeObject(idleWorkers);
+    out.writeObject(replenishRequest);
+    out.writeInt(batchSize);
+    out.writeLong(transitionCount);
+    out.writeObject(statusCounts);
+  }
+
+  /**
+   * Replace the state of this system with the state in a snapshot written by writeState.
+   * 
+   * @param in The stream of the snapshot.
+   * @throws IOException for ObjectInputStream
+   * @throws ClassNotFoundException for ObjectInputStream
+   */
+  @SuppressWarnings("unchecked")
+  public void readState(ObjectInputStream in) throws IOException, ClassNotFoundException {
+    orderManager = (OrderManager) in.readObject();
+    orderManager.setWarehouseSystem(this);
+    storageManager = (StorageManager) in.readObject();
+    storageManager.setWarehouseSystem(this);
+    prList = (LinkedHashSet<PickingRequest>) in.readObject();
+    loadSequence = (ArrayDeque<PickingRequest>) in.readObject();
+    pendingRequests = (PendingRequestQueues) in.readObject();
+    workers = (WorkerRegistry) in.readObject();
+    for (WorkerRole role : WorkerRole.values()) {
+      for (BarcodeReader br : workers.getWorkers(role)) {
+        br.setWarehouseSystem(this);
+      }
+    }
+    idleWorkers = (IdleWorkerPool) in.readObject();
+    replenishRequest = (ReplenishmentQueue) in.readObject();
+    batchSize = in.readInt();
+    transitionCount = in.readLong();
+    statusCounts = (AtomicIntegerArray) in.readObject();
+  }
+
+  /**
+   * Return the orderManager of the system.
+   * 
+   * @return orderManager
+   */
+  public OrderManager getOrderManager() {
+    return orderManager;
   }
 
   /**
@@ -479,6 +1061,15 @@ public class WarehouseSystem {
     this.orderManager = orderManager;
   }
 
+  /**
+   * Return the storageManager of the system.
+   * 
+   * @return storageManager
+   */
+  public StorageManager getStorageManager() {
+    return storageManager;
+  }
+
   /**
    * Set the storageManager for the system. This method is create for test.
    * 
@@ -489,13 +1080,61 @@ public class WarehouseSystem {
   }
 
   /**
-   * Return the pendingPrList processed in the system. This method is create for test.
+   * Return the replenish requests waiting for a replenisher, most urgent first.
+   * 
+   * @return replenishRequest
+   */
+  public ReplenishmentQueue getReplenishRequests() {
+    return replenishRequest;
+  }
+
+  /**
+   * Return the registry of the workers on shift in the system.
+   * 
+   * @return workers
+   */
+  public WorkerRegistry getWorkers() {
+    return workers;
+  }
+
+  /**
+   * Return the number of idle workers of the role that are waiting for work.
+   * 
+   * @param role The role of the workers.
+   * @return The number of idle workers of the role.
+   */
+  public int getIdleWorkerCount(WorkerRole role) {
+    return idleWorkers.size(role);
+  }
+
+  /**
+   * Return the largest number of idle workers of the role at any one time.
+   * 
+   * @param role The role of the workers.
+   * @return The peak number of idle workers of the role.
+   */
+  public int getPeakIdleWorkerCount(WorkerRole role) {
+    return idleWorkers.getPeakSize(role);
+  }
+
+  /**
+   * Return the number of picking requests with the status waiting for a worker.
    * 
-   * @return pendingPrList
+   * @param status One of WAITING, PICKED and SEQUENCED.
+   * @return The number of pending picking requests with the status.
    */
+  public int getPendingPrCount(RequestStatus status) {
+    return pendingRequests.size(status);
+  }
 
+  /**
+   * Return the picking requests waiting for a worker, in pipeline order. This method is create for
+   * test.
+   * 
+   * @return A new ArrayList of the pending picking requests.
+   */
   public ArrayList<PickingRequest> getPendingPrList() {
-    return pendingPrList;
+    return pendingRequests.toList();
   }
 
 
@@ -5,11 +5,21 @@ import org.junit.runners.Suite;
 import org.junit.runners.Suite.SuiteClasses;
 
 @RunWith(Suite.class)
-@SuiteClasses({BarcodeReaderFactoryTest.class, CsvToolsTest.class, LoaderBarcodeReaderTest.class,
-    OrderManagerTest.class, OrderTest.class, PickerBarcodeReaderTest.class,
-    PickingRequestTest.class, ReplenisherBarcodeReaderTest.class, SequencerBarcodeReaderTest.class,
-    StorageManagerTest.class, WarehouseControllerTest.class, WarehousePickingTest.class,
-    WarehouseSystemTest.class})
+@SuiteClasses({AsyncLogHandlerTest.class, BarcodeReaderFactoryTest.class, BatchingPolicyTest.class,
+    CsvOrderSinkTest.class, CsvToolsTest.class, CustomFormatterTest.class,
+    EventFileReaderTest.class, EventJournalTest.class, EventParserTest.class, EventVerbTest.class,
+    IdleWorkerPoolTest.class, InventoryTest.class, JournalReplayTest.class,
+    LatencyHistogramTest.class, ListOrderSinkTest.class, LoaderBarcodeReaderTest.class,
+    OrderBatchSchedulerTest.class, OrderGrouperTest.class, OrderManagerTest.class, OrderTest.class,
+    PendingRequestQueuesTest.class, PickerBarcodeReaderTest.class, PickingBatchTest.class,
+    PickingRequestTest.class, ReplenisherBarcodeReaderTest.class, ReplenisherPoolTest.class,
+    ReplenishmentPolicyTest.class, ReplenishmentQueueTest.class, RequestStatusTest.class,
+    SShapeRoutePlannerTest.class, ScannerEventServerTest.class, ScannerEventTest.class,
+    ScannerFleetTest.class, ScannerSessionTest.class, SequencerBarcodeReaderTest.class,
+    SkuIndexTest.class, SnapshotManagerTest.class, StorageManagerTest.class,
+    TraversalTableTest.class, WarehouseControllerTest.class, WarehouseLayoutTest.class,
+    WarehousePickingTest.class, WarehouseSystemTest.class, WorkerRegistryTest.class,
+    WorkerRoleTest.class})
 public class WarehouseSystemAllTests {
 
 }
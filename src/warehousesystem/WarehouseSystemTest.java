@@ -2,6 +2,7 @@ package warehousesystem;
 
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
 import static org.junit.Assert.assertTrue;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.times;
@@ -66,7 +67,7 @@ public class WarehouseSystemTest {
   @Test
   public void testPickerProcessPr() {
     PickingRequest pr = mock(PickingRequest.class);
-    when(pr.getStatus()).thenReturn("Waiting");
+    when(pr.getStatus()).thenReturn(RequestStatus.WAITING);
     PickerBarcodeReader pbr = mock(PickerBarcodeReader.class);
     SequencerBarcodeReader sbr = mock(SequencerBarcodeReader.class);
     tester.processBr(sbr);
@@ -74,13 +75,13 @@ public class WarehouseSystemTest {
     tester.processPr(pr);
     tester.processPr(pr);
     verify(pbr, times(1)).setPickingRequest(pr);
-    verify(pr, times(1)).setStatus("Picking");
+    verify(pr, times(1)).setStatus(RequestStatus.PICKING);
   }
 
   @Test
   public void testSequencerProcessPr() {
     PickingRequest pr = mock(PickingRequest.class);
-    when(pr.getStatus()).thenReturn("Picked");
+    when(pr.getStatus()).thenReturn(RequestStatus.PICKED);
     PickerBarcodeReader pbr = mock(PickerBarcodeReader.class);
     SequencerBarcodeReader sbr = mock(SequencerBarcodeReader.class);
     tester.processPr(pr);
@@ -88,33 +89,33 @@ public class WarehouseSystemTest {
     tester.processBr(sbr);
     tester.processPr(pr);
     verify(sbr, times(2)).setPickingRequest(pr);
-    verify(pr, times(2)).setStatus("Sequencing");
+    verify(pr, times(2)).setStatus(RequestStatus.SEQUENCING);
   }
 
   @Test
   public void testLoaderProcessPr() {
     PickingRequest pr = mock(PickingRequest.class);
-    when(pr.getStatus()).thenReturn("Sequenced");
+    when(pr.getStatus()).thenReturn(RequestStatus.SEQUENCED);
     LoaderBarcodeReader lbr = mock(LoaderBarcodeReader.class);
     tester.processPr(pr);
     tester.processBr(lbr);
     tester.processPr(pr);
     verify(lbr, times(2)).setPickingRequest(pr);
-    verify(pr, times(2)).setStatus("Loading");
+    verify(pr, times(2)).setStatus(RequestStatus.LOADING);
   }
 
   @Test
   public void testProcessPrWithLoadedPr() {
     PickingRequest pr = mock(PickingRequest.class);
-    when(pr.getStatus()).thenReturn("Loaded");
+    when(pr.getStatus()).thenReturn(RequestStatus.LOADED);
     tester.processPr(pr);
-    verify(pr, times(1)).setStatus("Finished");
+    verify(pr, times(1)).setStatus(RequestStatus.FINISHED);
   }
 
   @Test
   public void testProcessPrWithNoBrWaiting() {
     PickingRequest pr = mock(PickingRequest.class);
-    when(pr.getStatus()).thenReturn("Waiting");
+    when(pr.getStatus()).thenReturn(RequestStatus.WAITING);
     tester.processPr(pr);
     assertEquals(pr, tester.getPendingPrList().get(0));
   }
@@ -149,14 +150,28 @@ public class WarehouseSystemTest {
     tester = new WarehouseSystem(translations, inventory, handler, formatter);
     tester.workerReady("Sequencer", "HAHA");
     PickingRequest pr = mock(PickingRequest.class);
-    when(pr.getStatus()).thenReturn("Picked");
+    when(pr.getStatus()).thenReturn(RequestStatus.PICKED);
     when(pr.getId()).thenReturn(1);
     tester.processPr(pr);
     tester.discard("Sequencer", "HAHA");
-    verify(pr, times(1)).setStatus("Waiting");
+    verify(pr, times(1)).setStatus(RequestStatus.WAITING);
     verify(pr, times(1)).findFasciaLocation();
   }
 
+  @Test
+  public void testWithoutWork() throws IOException {
+    tester.setStorageManager(mockSM);
+    tester.workerReady("Picker", "Bob");
+    tester.discard("Picker", "Bob");
+    tester.rescan("Picker", "Bob", "1");
+    verify(mockSM, times(0)).putFasciaBack("1");
+    tester.workerReady("Sequencer", "Sue");
+    tester.rescan("Sequencer", "Sue", "1");
+    tester.workerReady("Loader", "Lee");
+    tester.rescan("Loader", "Lee", "1");
+    assertNull(tester.getWorkers().get("Bob").getPickingRequest());
+  }
+
   @Test
   public void testIsNextPrToLoad() throws IOException {
     ArrayList<Order> orders = new ArrayList<>();
@@ -176,11 +191,70 @@ public class WarehouseSystemTest {
     tester.processPr(pr1);
     tester.processPr(pr2);
     tester.processPr(pr3);
-    pr1.setStatus("Loaded");
-    pr3.setStatus("Sequenced");
+    advance(pr1, RequestStatus.LOADED);
+    advance(pr3, RequestStatus.SEQUENCED);
     assertFalse(tester.isNextPRtoLoad(pr3));
   }
 
+  @Test
+  public void testLoadedPrIsPassedOver() throws IOException {
+    ArrayList<Order> orders = new ArrayList<>();
+    orders.add(new Order("Blue", "SES", "37", "38"));
+    PickingRequest pr1 = new PickingRequest(orders);
+    PickingRequest pr2 = new PickingRequest(orders);
+    tester.processPr(pr1);
+    tester.processPr(pr2);
+    advance(pr1, RequestStatus.FINISHED);
+    assertTrue(tester.isNextPRtoLoad(pr2));
+  }
+
+  @Test
+  public void testLoaderWaitsForLoadOrder() throws IOException {
+    ArrayList<Order> orders = new ArrayList<>();
+    orders.add(new Order("Blue", "SES", "37", "38"));
+    PickingRequest pr1 = new PickingRequest(orders);
+    PickingRequest pr2 = new PickingRequest(orders);
+    tester.processPr(pr1);
+    tester.processPr(pr2);
+    advance(pr2, RequestStatus.SEQUENCED);
+    tester.processPr(pr2);
+    tester.workerReady("Loader", "Bill");
+    assertEquals(null, tester.getWorkers().get("Bill").getPickingRequest());
+    advance(pr1, RequestStatus.SEQUENCED);
+    tester.processPr(pr1);
+    assertEquals(pr1, tester.getWorkers().get("Bill").getPickingRequest());
+  }
+
+  @Test
+  public void testFinishedPrIsRetired() throws IOException {
+    ArrayList<Order> orders = new ArrayList<>();
+    orders.add(new Order("Blue", "SES", "37", "38"));
+    PickingRequest pr = new PickingRequest(orders);
+    tester.processPr(pr);
+    tester.workerReady("Picker", "Alice");
+    tester.workerFinished("Picker", "Alice");
+    tester.workerReady("Sequencer", "Sue");
+    tester.workerFinished("Sequencer", "Sue");
+    tester.workerReady("Loader", "Bill");
+    assertEquals(1, tester.getLivePrCount());
+    tester.workerFinished("Loader", "Bill");
+    assertEquals(RequestStatus.FINISHED, pr.getStatus());
+    assertEquals(0, tester.getLivePrCount());
+    assertEquals(pr, tester.outputOrders().get(0));
+  }
+
+  @Test
+  public void testAsyncLogging() throws IOException {
+    tester.enableAsyncLogging(16, AsyncLogHandler.OverflowPolicy.BLOCK, 1);
+    for (int i = 0; i < 100; i++) {
+      final int number = i;
+      tester.logInfo(() -> "SIM: async message " + number);
+    }
+    tester.flushLog();
+    ArrayList<String> lines = new CsvTools().readFile("testLog.txt");
+    assertTrue(lines.get(lines.size() - 1).endsWith("SIM: async message 99"));
+  }
+
   @Test
   public void testReplenishAmount() {
     tester.setStorageManager(mockSM);
@@ -222,4 +296,196 @@ public class WarehouseSystemTest {
     assertEquals(pr, tester.outputOrders().get(0));
   }
 
+  @Test
+  public void testBatchProcessBr() throws IOException {
+    ArrayList<Order> orders = new ArrayList<>();
+    orders.add(new Order("Blue", "SES", "37", "38"));
+    PickingRequest pr1 = new PickingRequest(orders);
+    PickingRequest pr2 = new PickingRequest(orders);
+    PickingRequest pr3 = new PickingRequest(orders);
+    tester.setBatchSize(2);
+    tester.processPr(pr1);
+    tester.processPr(pr2);
+    tester.processPr(pr3);
+    tester.workerReady("Picker", "Alice");
+    assertEquals(RequestStatus.PICKING, pr1.getStatus());
+    assertEquals(RequestStatus.PICKING, pr2.getStatus());
+    assertEquals(RequestStatus.WAITING, pr3.getStatus());
+    assertEquals(1, tester.getPendingPrList().size());
+    tester.workerFinished("Picker", "Alice");
+    assertEquals(RequestStatus.PICKED, pr1.getStatus());
+    assertEquals(RequestStatus.PICKED, pr2.getStatus());
+  }
+
+  @Test
+  public void testBatchSkipsChangedRequests() throws IOException {
+    ArrayList<Order> orders = new ArrayList<>();
+    orders.add(new Order("Blue", "SES", "37", "38"));
+    PickingRequest pr1 = new PickingRequest(orders);
+    PickingRequest pr2 = new PickingRequest(orders);
+    tester.setBatchSize(2);
+    tester.processPr(pr1);
+    tester.processPr(pr2);
+    pr2.setStatus(RequestStatus.PICKING);
+    tester.workerReady("Picker", "Alice");
+    PickerBarcodeReader alice = (PickerBarcodeReader) tester.getWorkers().get("Alice");
+    assertNull(alice.getBatch());
+    assertEquals(pr1, alice.getPickingRequest());
+  }
+
+  @Test
+  public void testDiscardBatch() throws IOException {
+    ArrayList<Order> orders = new ArrayList<>();
+    orders.add(new Order("Blue", "SES", "37", "38"));
+    PickingRequest pr1 = new PickingRequest(orders);
+    PickingRequest pr2 = new PickingRequest(orders);
+    tester.setBatchSize(2);
+    tester.processPr(pr1);
+    tester.processPr(pr2);
+    tester.workerReady("Picker", "Alice");
+    assertEquals(RequestStatus.PICKING, pr2.getStatus());
+    tester.discard("Picker", "Alice");
+    assertEquals(RequestStatus.WAITING, pr1.getStatus());
+    assertEquals(RequestStatus.WAITING, pr2.getStatus());
+    assertEquals(2, tester.getPendingPrList().size());
+  }
+
+  @Test
+  public void testStatusCounts() throws IOException {
+    WarehouseSystem other = new WarehouseSystem(translations, inventory, handler, formatter);
+    ArrayList<Order> orders = new ArrayList<>();
+    orders.add(new Order("Blue", "SES", "37", "38"));
+    PickingRequest pr1 = new PickingRequest(orders);
+    PickingRequest pr2 = new PickingRequest(orders);
+    tester.processPr(pr1);
+    tester.processPr(pr2);
+    tester.processPr(pr1);
+    assertEquals(2, tester.getStatusCount(RequestStatus.WAITING));
+    tester.workerReady("Picker", "Alice");
+    assertEquals(1, tester.getStatusCount(RequestStatus.WAITING));
+    assertEquals(1, tester.getStatusCount(RequestStatus.PICKING));
+    assertEquals(0, other.getStatusCount(RequestStatus.WAITING));
+    assertEquals(0, other.getStatusCount(RequestStatus.PICKING));
+  }
+
+  @Test
+  public void testWorkerLeft() {
+    tester.workerReady("Picker", "Alice");
+    tester.workerReady("Replenisher", "Ruby");
+    assertEquals(2, tester.getWorkers().size());
+    tester.workerLeft("Picker", "Alice");
+    assertFalse(tester.getWorkers().contains("Alice"));
+    assertEquals(WorkerRole.REPLENISHER, tester.getWorkers().getRole("Ruby"));
+    tester.workerLeft("Picker", "Alice");
+    assertEquals(1, tester.getWorkers().size());
+  }
+
+  @Test
+  public void testBusyWorkerCannotLeave() throws IOException {
+    ArrayList<Order> orders = new ArrayList<>();
+    orders.add(new Order("Blue", "SES", "37", "38"));
+    tester.processPr(new PickingRequest(orders));
+    tester.workerReady("Picker", "Alice");
+    tester.workerLeft("Picker", "Alice");
+    assertTrue(tester.getWorkers().contains("Alice"));
+  }
+
+  @Test
+  public void testIdleWorkerCount() {
+    tester.workerReady("Picker", "Alice");
+    tester.workerReady("Picker", "Bob");
+    tester.workerReady("Sequencer", "Sue");
+    assertEquals(2, tester.getIdleWorkerCount(WorkerRole.PICKER));
+    assertEquals(1, tester.getIdleWorkerCount(WorkerRole.SEQUENCER));
+    tester.workerLeft("Picker", "Alice");
+    assertEquals(1, tester.getIdleWorkerCount(WorkerRole.PICKER));
+    assertEquals(2, tester.getPeakIdleWorkerCount(WorkerRole.PICKER));
+  }
+
+  @Test
+  public void testRepickGoesFirst() throws IOException {
+    ArrayList<Order> orders = new ArrayList<>();
+    orders.add(new Order("Blue", "SES", "37", "38"));
+    PickingRequest pr1 = new PickingRequest(orders);
+    PickingRequest pr2 = new PickingRequest(orders);
+    tester.processPr(pr1);
+    tester.processPr(pr2);
+    tester.workerReady("Sequencer", "Sue");
+    advance(pr1, RequestStatus.PICKED);
+    tester.workerReady("Picker", "Alice");
+    assertEquals(pr2, tester.getWorkers().get("Alice").getPickingRequest());
+    tester.processPr(pr1);
+    assertEquals(pr1, tester.getWorkers().get("Sue").getPickingRequest());
+    tester.discard("Sequencer", "Sue");
+    PickingRequest pr3 = new PickingRequest(orders);
+    tester.processPr(pr3);
+    assertEquals(2, tester.getPendingPrCount(RequestStatus.WAITING));
+    assertEquals(pr1, tester.getPendingPrList().get(0));
+  }
+
+  @Test
+  public void testRequestResupplyToIdleReplenisher() {
+    tester.workerReady("Replenisher", "Ruby");
+    tester.requestResupply("1");
+    assertEquals("1", ((ReplenisherBarcodeReader) tester.getWorkers().get("Ruby")).getSku());
+    assertEquals(0, tester.getReplenishRequests().size());
+  }
+
+  @Test
+  public void testRequestResupplyQueuedOnce() {
+    tester.requestResupply("1");
+    tester.requestResupply("1");
+    assertEquals(1, tester.getReplenishRequests().size());
+    tester.workerReady("Replenisher", "Ruby");
+    assertEquals("1", ((ReplenisherBarcodeReader) tester.getWorkers().get("Ruby")).getSku());
+    assertEquals(0, tester.getReplenishRequests().size());
+  }
+
+  @Test
+  public void testEmptiestLevelReplenishedFirst() throws IOException {
+    tester.getStorageManager().getStorages().put("1", 5);
+    tester.getStorageManager().getStorages().put("2", 0);
+    tester.requestResupply("1");
+    tester.requestResupply("2");
+    tester.workerReady("Replenisher", "Ruby");
+    assertEquals("2", ((ReplenisherBarcodeReader) tester.getWorkers().get("Ruby")).getSku());
+
+    // A waiting picking request that needs sku 1 makes it more urgent than an emptier level.
+    tester.requestResupply("2");
+    assertEquals("2", tester.getReplenishRequests().peek());
+    ArrayList<Order> orders = new ArrayList<>();
+    for (int i = 0; i < 4; i++) {
+      orders.add(new Order("White", "S", "1", "1"));
+    }
+    tester.processPr(new PickingRequest(orders));
+    assertEquals(8, tester.getReplenishRequests().getDemand("1"));
+    assertEquals("1", tester.getReplenishRequests().peek());
+  }
+
+  @Test
+  public void testClosestReplenisherSent() throws IOException {
+    tester.workerReady("Replenisher", "Ruby");
+    tester.workerReady("Replenisher", "Rita");
+    // Ruby replenishes sku 48 in the last aisle and waits there.
+    tester.requestResupply("48");
+    tester.scan("Replenisher", "Ruby", "48");
+    tester.workerFinished("Replenisher", "Ruby");
+    tester.requestResupply("47");
+    assertEquals("47", ((ReplenisherBarcodeReader) tester.getWorkers().get("Ruby")).getSku());
+    tester.requestResupply("1");
+    assertEquals("1", ((ReplenisherBarcodeReader) tester.getWorkers().get("Rita")).getSku());
+  }
+
+  /**
+   * Move the picking request along the pipeline until it has the status.
+   * 
+   * @param pr The picking request to move.
+   * @param status The status to stop at.
+   */
+  private static void advance(PickingRequest pr, RequestStatus status) {
+    while (pr.getStatus() != status) {
+      pr.setStatus(pr.getStatus().next());
+    }
+  }
+
 }
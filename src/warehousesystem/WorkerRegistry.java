@@ -0,0 +1,117 @@
+package warehousesystem;
+
+import java.io.Serializable;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+public class WorkerRegistry implements Serializable {
+
+  /** The version of the serialized form of this class, which is kept in snapshots. */
+  private static final long serialVersionUID = 1L;
+
+  /** A mapping of worker name to the BarcodeReader of the worker. */
+  private Map<String, BarcodeReader> workers = new HashMap<>();
+  /** A mapping of role to the workers of that role, in the order they started their shift. */
+  private EnumMap<WorkerRole, LinkedHashMap<String, BarcodeReader>> workersByRole =
+      new EnumMap<>(WorkerRole.class);
+
+  /**
+   * Initialize a new, empty WorkerRegistry.
+   */
+  public WorkerRegistry() {
+    for (WorkerRole role : WorkerRole.values()) {
+      workersByRole.put(role, new LinkedHashMap<String, BarcodeReader>());
+    }
+  }
+
+  /**
+   * Add the BarcodeReader of a worker to this WorkerRegistry, replacing any worker with the same
+   * name. Assume that each worker has a unique name.
+   *
+   * @param br The BarcodeReader of the worker.
+   */
+  public void register(BarcodeReader br) {
+    remove(br.getUser());
+    workers.put(br.getUser(), br);
+    workersByRole.get(WorkerRole.of(br)).put(br.getUser(), br);
+  }
+
+  /**
+   * Remove the worker with the name from this WorkerRegistry.
+   *
+   * @param name The name of the worker.
+   * @return The BarcodeReader of the removed worker, or null if there was no such worker.
+   */
+  public BarcodeReader remove(String name) {
+    BarcodeReader br = workers.remove(name);
+    if (br != null) {
+      workersByRole.get(WorkerRole.of(br)).remove(name);
+    }
+    return br;
+  }
+
+  /**
+   * Return true if and only if there is a worker with the name in this WorkerRegistry.
+   *
+   * @param name The name of the worker.
+   * @return true iff the worker is registered.
+   */
+  public boolean contains(String name) {
+    return workers.containsKey(name);
+  }
+
+  /**
+   * Return the BarcodeReader of the worker with the name.
+   *
+   * @param name The name of the worker.
+   * @return The BarcodeReader of the worker, or null if there is no such worker.
+   */
+  public BarcodeReader get(String name) {
+    return workers.get(name);
+  }
+
+  /**
+   * Return the role of the worker with the name.
+   *
+   * @param name The name of the worker.
+   * @return The role of the worker, or null if there is no such worker.
+   */
+  public WorkerRole getRole(String name) {
+    BarcodeReader br = workers.get(name);
+    return br == null ? null : WorkerRole.of(br);
+  }
+
+  /**
+   * Return the BarcodeReaders of the workers with the role, in the order they were registered.
+   *
+   * @param role The role of the workers.
+   * @return An unmodifiable view of the BarcodeReaders of the workers.
+   */
+  public Collection<BarcodeReader> getWorkers(WorkerRole role) {
+    return Collections.unmodifiableCollection(workersByRole.get(role).values());
+  }
+
+  /**
+   * Return the number of workers in this WorkerRegistry.
+   *
+   * @return The number of workers.
+   */
+  public int size() {
+    return workers.size();
+  }
+
+  /**
+   * Return the number of workers with the role in this WorkerRegistry.
+   *
+   * @param role The role of the workers.
+   * @return The number of workers with the role.
+   */
+  public int size(WorkerRole role) {
+    return workersByRole.get(role).size();
+  }
+
+}
@@ -0,0 +1,72 @@
+package warehousesystem;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Before;
+import org.junit.Test;
+
+public class WorkerRegistryTest {
+
+  private WorkerRegistry registry;
+  private PickerBarcodeReader alice;
+  private PickerBarcodeReader bob;
+  private ReplenisherBarcodeReader ruby;
+
+  /**
+   * Before the test, set up a registry with two pickers and a replenisher.
+   */
+  @Before
+  public void setUp() {
+    registry = new WorkerRegistry();
+    alice = new PickerBarcodeReader("Alice", null, null);
+    bob = new PickerBarcodeReader("Bob", null, null);
+    ruby = new ReplenisherBarcodeReader("Ruby", null, null);
+    registry.register(alice);
+    registry.register(bob);
+    registry.register(ruby);
+  }
+
+  @Test
+  public void testGet() {
+    assertEquals(alice, registry.get("Alice"));
+    assertEquals(ruby, registry.get("Ruby"));
+    assertNull(registry.get("Sue"));
+  }
+
+  @Test
+  public void testGetRole() {
+    assertEquals(WorkerRole.PICKER, registry.getRole("Bob"));
+    assertEquals(WorkerRole.REPLENISHER, registry.getRole("Ruby"));
+    assertNull(registry.getRole("Sue"));
+  }
+
+  @Test
+  public void testGetWorkers() {
+    assertEquals(2, registry.size(WorkerRole.PICKER));
+    assertEquals(alice, registry.getWorkers(WorkerRole.PICKER).iterator().next());
+    assertEquals(0, registry.size(WorkerRole.LOADER));
+    assertEquals(3, registry.size());
+  }
+
+  @Test
+  public void testRemove() {
+    assertEquals(alice, registry.remove("Alice"));
+    assertFalse(registry.contains("Alice"));
+    assertEquals(1, registry.size(WorkerRole.PICKER));
+    assertNull(registry.remove("Alice"));
+  }
+
+  @Test
+  public void testRegisterSameNameReplaces() {
+    SequencerBarcodeReader sequencer = new SequencerBarcodeReader("Alice", null, null);
+    registry.register(sequencer);
+    assertTrue(registry.contains("Alice"));
+    assertEquals(WorkerRole.SEQUENCER, registry.getRole("Alice"));
+    assertEquals(1, registry.size(WorkerRole.PICKER));
+    assertEquals(3, registry.size());
+  }
+
+}
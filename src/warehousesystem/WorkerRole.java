@@ -0,0 +1,108 @@
+package warehousesystem;
+
+import java.util.HashMap;
+import java.util.Map;
+
+public enum WorkerRole {
+  PICKER("Picker"), SEQUENCER("Sequencer"), LOADER("Loader"), REPLENISHER("Replenisher");
+
+  /** All roles, kept so that looking up a role does not copy values(). */
+  private static final WorkerRole[] allRoles = values();
+  /** A mapping of worker type names, as they appear in the input file, to roles. */
+  private static final Map<String, WorkerRole> roles = new HashMap<>();
+
+  static {
+    for (WorkerRole role : values()) {
+      roles.put(role.name, role);
+    }
+  }
+
+  /** The name of this role as it appears in the input file. */
+  private final String name;
+
+  /**
+   * Initialize a new WorkerRole with its name in the input file.
+   *
+   * @param name The name of the role in the input file.
+   */
+  WorkerRole(String name) {
+    this.name = name;
+  }
+
+  /**
+   * Return the name of this role as it appears in the input file.
+   *
+   * @return name
+   */
+  public String getName() {
+    return name;
+  }
+
+  /**
+   * Return the status of a picking request while a worker with this role works on it, or null if
+   * workers with this role do not work on picking requests.
+   *
+   * @return The status of the picking request in the hands of the worker.
+   */
+  public RequestStatus getWorkingStatus() {
+    switch (this) {
+      case PICKER:
+        return RequestStatus.PICKING;
+      case SEQUENCER:
+        return RequestStatus.SEQUENCING;
+      case LOADER:
+        return RequestStatus.LOADING;
+      default:
+        return null;
+    }
+  }
+
+  /**
+   * Return the role with the worker type name, or null if there is no such role.
+   *
+   * @param workerType The worker type name, such as "Picker".
+   * @return The role of the worker type.
+   */
+  public static WorkerRole fromName(String workerType) {
+    return roles.get(workerType);
+  }
+
+  /**
+   * Return the role whose worker type name is the part of line from start to end, or null if
+   * there is no such role. No String is created for the name.
+   *
+   * @param line The line holding the worker type name.
+   * @param start The index of the first character of the name.
+   * @param end The index after the last character of the name.
+   * @return The role of the worker type.
+   */
+  public static WorkerRole fromName(String line, int start, int end) {
+    int length = end - start;
+    for (WorkerRole role : allRoles) {
+      if (role.name.length() == length && line.regionMatches(start, role.name, 0, length)) {
+        return role;
+      }
+    }
+    return null;
+  }
+
+  /**
+   * Return the role of the worker that uses the BarcodeReader.
+   *
+   * @param br The BarcodeReader of the worker.
+   * @return The role of the worker, or null if the BarcodeReader is of no known kind.
+   */
+  public static WorkerRole of(BarcodeReader br) {
+    if (br instanceof PickerBarcodeReader) {
+      return PICKER;
+    } else if (br instanceof SequencerBarcodeReader) {
+      return SEQUENCER;
+    } else if (br instanceof LoaderBarcodeReader) {
+      return LOADER;
+    } else if (br instanceof ReplenisherBarcodeReader) {
+      return REPLENISHER;
+    }
+    return null;
+  }
+
+}
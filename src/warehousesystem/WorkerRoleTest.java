@@ -0,0 +1,41 @@
+package warehousesystem;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+import org.junit.Test;
+
+public class WorkerRoleTest {
+
+  @Test
+  public void testFromName() {
+    assertEquals(WorkerRole.PICKER, WorkerRole.fromName("Picker"));
+    assertEquals(WorkerRole.REPLENISHER, WorkerRole.fromName("Replenisher"));
+    assertNull(WorkerRole.fromName("Driver"));
+  }
+
+  @Test
+  public void testGetName() {
+    assertEquals("Sequencer", WorkerRole.SEQUENCER.getName());
+  }
+
+  @Test
+  public void testOf() {
+    assertEquals(WorkerRole.LOADER, WorkerRole.of(new LoaderBarcodeReader("Bill", null, null)));
+    assertNull(WorkerRole.of(null));
+  }
+
+  @Test
+  public void testGetWorkingStatus() {
+    assertEquals(RequestStatus.PICKING, WorkerRole.PICKER.getWorkingStatus());
+    assertEquals(RequestStatus.LOADING, WorkerRole.LOADER.getWorkingStatus());
+    assertNull(WorkerRole.REPLENISHER.getWorkingStatus());
+  }
+
+  @Test
+  public void testFromNameInLine() {
+    assertEquals(WorkerRole.SEQUENCER, WorkerRole.fromName("Sequencer Sue ready", 0, 9));
+    assertNull(WorkerRole.fromName("Sequencer Sue ready", 0, 8));
+  }
+
+}